@@ -0,0 +1,194 @@
+package com.lucasm.gateway.filter;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpCookie;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Filtro global que valida o JWT uma única vez no gateway e repassa aos serviços
+ * a identidade do usuário em headers internos assinados (HMAC-SHA256).
+ * O `jti` e o `iat` do token seguem junto para que cada serviço aplique a lista de revogação.
+ * Rotas protegidas sem token válido são rejeitadas antes do roteamento.
+ */
+@Component
+public class JwtIdentityGlobalFilter implements GlobalFilter, Ordered {
+
+    private static final Logger log = LoggerFactory.getLogger(JwtIdentityGlobalFilter.class);
+
+    public static final String USER_ID_HEADER = "X-User-Id";
+    public static final String USER_EMAIL_HEADER = "X-User-Email";
+    public static final String USER_ROLE_HEADER = "X-User-Role";
+    public static final String TOKEN_ID_HEADER = "X-Token-Id";
+    public static final String TOKEN_ISSUED_AT_HEADER = "X-Token-Issued-At";
+    public static final String IDENTITY_TIMESTAMP_HEADER = "X-Identity-Timestamp";
+    public static final String IDENTITY_SIGNATURE_HEADER = "X-Identity-Signature";
+
+    private static final List<String> IDENTITY_HEADERS = List.of(
+            USER_ID_HEADER, USER_EMAIL_HEADER, USER_ROLE_HEADER, TOKEN_ID_HEADER, TOKEN_ISSUED_AT_HEADER,
+            IDENTITY_TIMESTAMP_HEADER, IDENTITY_SIGNATURE_HEADER
+    );
+
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    private final JwtParser parser;
+    private final SecretKeySpec identityKey;
+    private final List<String> publicPaths;
+    private final boolean enforce;
+
+    /**
+     * Cria o filtro com a chave de validação do JWT, o segredo de assinatura interna e as rotas públicas.
+     *
+     * @param jwtSecret segredo JWT compartilhado com o serviço emissor (Base64).
+     * @param identitySecret segredo usado para assinar os headers internos de identidade; vazio desliga o repasse.
+     * @param publicPaths padrões de rota que não exigem autenticação.
+     * @param enforce quando `true`, rejeita no gateway requisições não autenticadas em rotas protegidas.
+     */
+    public JwtIdentityGlobalFilter(@Value("${jwt.auth.secret}") String jwtSecret,
+                                   @Value("${gateway.identity.secret}") String identitySecret,
+                                   @Value("${gateway.auth.public-paths}") List<String> publicPaths,
+                                   @Value("${gateway.auth.enforce:true}") boolean enforce) {
+        byte[] keyBytes = Base64.getDecoder().decode(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser().verifyWith(Keys.hmacShaKeyFor(keyBytes)).build();
+        this.identityKey = identitySecret.isBlank() ? null : new SecretKeySpec(identitySecret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+        this.publicPaths = publicPaths;
+        this.enforce = enforce;
+    }
+
+    /**
+     * Remove headers de identidade enviados pelo cliente, valida o token e injeta a identidade assinada.
+     *
+     * @param exchange troca HTTP corrente.
+     * @param chain cadeia de filtros do gateway.
+     * @return sinal de conclusão do processamento.
+     */
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        boolean publicRoute = request.getMethod() == HttpMethod.OPTIONS || isPublic(request.getPath().value());
+
+        String token = recuperarToken(request);
+        Claims claims = null;
+        if (token != null) {
+            try {
+                claims = parser.parseSignedClaims(token).getPayload();
+            } catch (JwtException | IllegalArgumentException e) {
+                log.debug("Token rejeitado no gateway ({}): {}", e.getClass().getSimpleName(), e.getMessage());
+            }
+        }
+
+        if (claims == null && enforce && !publicRoute) {
+            return unauthorized(exchange.getResponse());
+        }
+
+        final Claims verified = claims;
+        ServerHttpRequest mutated = request.mutate()
+                .headers(headers -> {
+                    IDENTITY_HEADERS.forEach(headers::remove);
+                    if (verified != null && identityKey != null) {
+                        addIdentityHeaders(headers, verified);
+                    }
+                })
+                .build();
+
+        return chain.filter(exchange.mutate().request(mutated).build());
+    }
+
+    /**
+     * Executa antes dos filtros de roteamento para que a rejeição não acorde o serviço de destino.
+     *
+     * @return ordem do filtro.
+     */
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 10;
+    }
+
+    private void addIdentityHeaders(HttpHeaders headers, Claims claims) {
+        Object id = claims.get("id");
+        String userId = id != null ? String.valueOf(id) : "";
+        String email = claims.getSubject();
+        String role = claims.get("role", String.class);
+        if (role == null || role.isBlank()) {
+            role = "USER";
+        }
+        String tokenId = claims.getId() != null ? claims.getId() : "";
+        String issuedAt = claims.getIssuedAt() != null ? String.valueOf(claims.getIssuedAt().getTime()) : "0";
+        String timestamp = String.valueOf(System.currentTimeMillis());
+
+        headers.set(USER_ID_HEADER, userId);
+        headers.set(USER_EMAIL_HEADER, email);
+        headers.set(USER_ROLE_HEADER, role);
+        headers.set(TOKEN_ID_HEADER, tokenId);
+        headers.set(TOKEN_ISSUED_AT_HEADER, issuedAt);
+        headers.set(IDENTITY_TIMESTAMP_HEADER, timestamp);
+        headers.set(IDENTITY_SIGNATURE_HEADER, sign(userId + "\n" + email + "\n" + role + "\n" + tokenId + "\n" + issuedAt + "\n" + timestamp));
+    }
+
+    private String sign(String payload) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(identityKey);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(mac.doFinal(payload.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Falha ao assinar identidade interna", e);
+        }
+    }
+
+    private boolean isPublic(String path) {
+        for (String pattern : publicPaths) {
+            if (PATH_MATCHER.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String recuperarToken(ServerHttpRequest request) {
+        HttpCookie cookie = request.getCookies().getFirst("auth_token");
+        if (cookie != null && !cookie.getValue().isBlank()) {
+            return cookie.getValue();
+        }
+
+        String authHeader = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            return authHeader.substring(7);
+        }
+
+        return null;
+    }
+
+    private Mono<Void> unauthorized(ServerHttpResponse response) {
+        response.setStatusCode(HttpStatus.UNAUTHORIZED);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        DataBuffer body = response.bufferFactory()
+                .wrap("{\"error\":\"Token inválido ou ausente\"}".getBytes(StandardCharsets.UTF_8));
+        return response.writeWith(Mono.just(body));
+    }
+}
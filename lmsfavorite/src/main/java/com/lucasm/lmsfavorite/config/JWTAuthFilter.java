@@ -1,7 +1,11 @@
 package com.lucasm.lmsfavorite.config;
 
+import com.lucasm.lmsfavorite.model.AuthenticatedUser;
 import com.lucasm.lmsfavorite.service.JWTUtils;
+import com.lucasm.lmsfavorite.service.TokenRevocationRegistry;
+import com.lucasm.lmsfavorite.service.UserLookupService;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -11,6 +15,7 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -33,6 +38,15 @@ public class JWTAuthFilter extends OncePerRequestFilter {
     @Autowired
     private JWTUtils jwtUtils;
 
+    @Autowired
+    private InternalIdentityVerifier identityVerifier;
+
+    @Autowired
+    private UserLookupService userLookupService;
+
+    @Autowired
+    private TokenRevocationRegistry revocationRegistry;
+
     /**
      * Processa a requisição, valida o token e configura autoridades do usuário autenticado.
      *
@@ -45,6 +59,16 @@ public class JWTAuthFilter extends OncePerRequestFilter {
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
 
+        InternalIdentityVerifier.Identity identity = identityVerifier.verify(request);
+        if (identity != null) {
+            Long userId = identity.userId().isEmpty() ? null : Long.valueOf(identity.userId());
+            if (!revocationRegistry.isRevoked(identity.tokenId(), userId, identity.issuedAtMillis())) {
+                authenticate(request, userId, identity.email(), identity.role());
+            }
+            filterChain.doFilter(request, response);
+            return;
+        }
+
         final String jwtToken = recuperarToken(request);
 
         if (jwtToken == null) {
@@ -54,30 +78,12 @@ public class JWTAuthFilter extends OncePerRequestFilter {
         }
 
         try {
-            String userEmail = jwtUtils.extractUsername(jwtToken);
-
-            if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                if (jwtUtils.isTokenValid(jwtToken)) {
-                    
-                    String role = jwtUtils.extractRole(jwtToken);
-
-                    if (role == null || role.isBlank()) {
-                        role = "USER";
-                    }
-                    
-                    List<SimpleGrantedAuthority> authorities = Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role.toUpperCase()));
-
-                    log.debug("[LMS-FAVORITE] Token validado para: {} com permissão: {}", userEmail, authorities);
-
-                    UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
-                            userEmail,
-                            null,
-                            authorities
-                    );
-                    authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    
-                    SecurityContextHolder.getContext().setAuthentication(authenticationToken);
-                }
+            Claims claims = jwtUtils.parseClaims(jwtToken);
+            Long userId = claims.get("id", Long.class);
+            if (revocationRegistry.isRevoked(claims.getId(), userId, issuedAtMillis(claims))) {
+                log.debug("[LMS-FAVORITE] Token revogado para: {}", claims.getSubject());
+            } else {
+                authenticate(request, userId, claims.getSubject(), claims.get("role", String.class));
             }
         } catch (JwtException e) {
             log.warn("[LMS-FAVORITE] Erro ao validar token JWT ({}): {}", e.getClass().getSimpleName(), e.getMessage());
@@ -87,6 +93,51 @@ public class JWTAuthFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private static long issuedAtMillis(Claims claims) {
+        return claims.getIssuedAt() != null ? claims.getIssuedAt().getTime() : 0L;
+    }
+
+    /**
+     * Popula o `SecurityContext` com o usuário identificado e sua role, caso ainda não haja autenticação.
+     * Tokens emitidos antes do claim `id` recorrem ao `UserLookupService` para resolver o identificador.
+     *
+     * @param request requisição HTTP de origem.
+     * @param userId identificador do usuário presente no token; `null` em tokens antigos.
+     * @param userEmail e-mail do usuário autenticado.
+     * @param role perfil de acesso informado no token; `USER` quando ausente.
+     */
+    private void authenticate(HttpServletRequest request, Long userId, String userEmail, String role) {
+        if (userEmail == null || SecurityContextHolder.getContext().getAuthentication() != null) {
+            return;
+        }
+
+        if (userId == null) {
+            try {
+                userId = userLookupService.getUserIdByEmail(userEmail);
+            } catch (DataAccessException e) {
+                log.warn("[LMS-FAVORITE] Usuário do token não encontrado: {}", userEmail);
+                return;
+            }
+        }
+
+        if (role == null || role.isBlank()) {
+            role = "USER";
+        }
+
+        List<SimpleGrantedAuthority> authorities = Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role.toUpperCase()));
+
+        log.debug("[LMS-FAVORITE] Token validado para: {} com permissão: {}", userEmail, authorities);
+
+        UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
+                new AuthenticatedUser(userId, userEmail, role),
+                null,
+                authorities
+        );
+        authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+
+        SecurityContextHolder.getContext().setAuthentication(authenticationToken);
+    }
+
     /**
      * Recupera o JWT do cookie `auth_token` ou do header `Authorization`.
      *
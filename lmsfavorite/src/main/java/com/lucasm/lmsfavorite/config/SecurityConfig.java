@@ -42,6 +42,8 @@ public class SecurityConfig {
                         .requestMatchers("/watchlist/**", "/lms-favorite/watchlist/**").hasAnyRole("ADMIN", "USER")
                         .requestMatchers("/watched/**", "/lms-favorite/watched/**").hasAnyRole("ADMIN", "USER")
                         .requestMatchers("/custom-lists/**", "/lms-favorite/custom-lists/**").hasAnyRole("ADMIN", "USER")
+                        .requestMatchers("/leaderboards/**", "/lms-favorite/leaderboards/**").hasAnyRole("ADMIN", "USER")
+                        .requestMatchers("/export/**", "/lms-favorite/export/**").hasAnyRole("ADMIN", "USER")
                         .anyRequest().authenticated()
                 )
                 .sessionManagement(manager -> manager.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
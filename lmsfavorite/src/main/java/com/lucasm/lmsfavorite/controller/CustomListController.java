@@ -1,6 +1,7 @@
 package com.lucasm.lmsfavorite.controller;
 
 import com.lucasm.lmsfavorite.dto.*;
+import com.lucasm.lmsfavorite.model.AuthenticatedUser;
 import com.lucasm.lmsfavorite.service.CustomListService;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
@@ -23,8 +24,8 @@ public class CustomListController {
         this.customListService = customListService;
     }
 
-    private String getCurrentUserEmail() {
-        return SecurityContextHolder.getContext().getAuthentication().getName();
+    private Long getCurrentUserId() {
+        return ((AuthenticatedUser) SecurityContextHolder.getContext().getAuthentication().getPrincipal()).id();
     }
 
     /**
@@ -32,7 +33,7 @@ public class CustomListController {
      */
     @GetMapping
     public ResponseEntity<List<CustomListResponseDTO>> getUserLists() {
-        return ResponseEntity.ok(customListService.getUserLists(getCurrentUserEmail()));
+        return ResponseEntity.ok(customListService.getUserLists(getCurrentUserId()));
     }
 
     /**
@@ -40,7 +41,7 @@ public class CustomListController {
      */
     @GetMapping("/{id}")
     public ResponseEntity<CustomListResponseDTO> getListById(@PathVariable Long id) {
-        return ResponseEntity.ok(customListService.getListById(id, getCurrentUserEmail()));
+        return ResponseEntity.ok(customListService.getListById(id, getCurrentUserId()));
     }
 
     /**
@@ -48,7 +49,7 @@ public class CustomListController {
      */
     @PostMapping
     public ResponseEntity<CustomListResponseDTO> createList(@Valid @RequestBody CreateCustomListDTO dto) {
-        return ResponseEntity.ok(customListService.createList(getCurrentUserEmail(), dto));
+        return ResponseEntity.ok(customListService.createList(getCurrentUserId(), dto));
     }
 
     /**
@@ -57,7 +58,7 @@ public class CustomListController {
     @PutMapping("/{id}")
     public ResponseEntity<CustomListResponseDTO> updateList(@PathVariable Long id,
                                                             @Valid @RequestBody UpdateCustomListDTO dto) {
-        return ResponseEntity.ok(customListService.updateList(id, getCurrentUserEmail(), dto));
+        return ResponseEntity.ok(customListService.updateList(id, getCurrentUserId(), dto));
     }
 
     /**
@@ -65,7 +66,7 @@ public class CustomListController {
      */
     @DeleteMapping("/{id}")
     public ResponseEntity<Map<String, Boolean>> deleteList(@PathVariable Long id) {
-        boolean deleted = customListService.deleteList(id, getCurrentUserEmail());
+        boolean deleted = customListService.deleteList(id, getCurrentUserId());
         return ResponseEntity.ok(Map.of("success", deleted));
     }
 
@@ -75,7 +76,7 @@ public class CustomListController {
     @PostMapping("/{id}/items")
     public ResponseEntity<CustomListResponseDTO> addItemToList(@PathVariable Long id,
                                                                @Valid @RequestBody AddCustomListItemDTO dto) {
-        return ResponseEntity.ok(customListService.addItemToList(id, getCurrentUserEmail(), dto));
+        return ResponseEntity.ok(customListService.addItemToList(id, getCurrentUserId(), dto));
     }
 
     /**
@@ -85,7 +86,7 @@ public class CustomListController {
     public ResponseEntity<CustomListResponseDTO> removeItemFromList(@PathVariable Long id,
                                                                     @RequestParam String mediaId,
                                                                     @RequestParam String mediaType) {
-        return ResponseEntity.ok(customListService.removeItemFromList(id, getCurrentUserEmail(), mediaId, mediaType));
+        return ResponseEntity.ok(customListService.removeItemFromList(id, getCurrentUserId(), mediaId, mediaType));
     }
 
     /**
@@ -93,6 +94,6 @@ public class CustomListController {
      */
     @PostMapping("/sync")
     public ResponseEntity<List<CustomListResponseDTO>> syncLocalLists(@RequestBody List<SyncCustomListDTO> dtos) {
-        return ResponseEntity.ok(customListService.syncLocalLists(getCurrentUserEmail(), dtos));
+        return ResponseEntity.ok(customListService.syncLocalLists(getCurrentUserId(), dtos));
     }
 }
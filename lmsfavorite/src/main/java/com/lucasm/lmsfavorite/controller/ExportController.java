@@ -0,0 +1,67 @@
+package com.lucasm.lmsfavorite.controller;
+
+import java.time.LocalDate;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.lucasm.lmsfavorite.model.AuthenticatedUser;
+import com.lucasm.lmsfavorite.service.ExportWriter;
+import com.lucasm.lmsfavorite.service.ListExportService;
+
+/**
+ * Expõe a exportação de favoritos, watchlist e episódios assistidos do usuário autenticado.
+ */
+@RestController
+@RequestMapping("/export")
+public class ExportController {
+
+    private final ListExportService exportService;
+
+    /**
+     * Cria o controller com o serviço de exportação.
+     *
+     * @param exportService serviço que gera o arquivo em streaming.
+     */
+    public ExportController(ListExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    /**
+     * Baixa as listas do usuário autenticado, escritas conforme são lidas do banco.
+     *
+     * @param format `ndjson` ou `csv`.
+     * @param list `favorites`, `watchlist`, `watched` ou `all`.
+     * @param user usuário autenticado.
+     * @return arquivo em streaming.
+     */
+    @GetMapping("")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(defaultValue = "all") String list,
+            @AuthenticationPrincipal AuthenticatedUser user) {
+
+        ExportWriter.Format parsed;
+        try {
+            parsed = ExportWriter.Format.parse(format);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        StreamingResponseBody body = exportService.export(user.id(), list, parsed);
+        String filename = "lms-listas-" + LocalDate.now() + "." + parsed.extension();
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(parsed.contentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(body);
+    }
+}
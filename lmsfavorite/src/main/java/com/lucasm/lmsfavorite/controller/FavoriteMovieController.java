@@ -3,7 +3,7 @@ package com.lucasm.lmsfavorite.controller;
 import java.util.List;
 
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -12,6 +12,7 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.lucasm.lmsfavorite.dto.ApiResponse;
 import com.lucasm.lmsfavorite.dto.FavoriteStatusResponse;
+import com.lucasm.lmsfavorite.model.AuthenticatedUser;
 import com.lucasm.lmsfavorite.model.FavoriteMovie;
 import com.lucasm.lmsfavorite.service.FavoriteMovieService;
 
@@ -40,17 +41,16 @@ public class FavoriteMovieController {
      * Alterna o estado de favorito de um filme para o usuário autenticado.
      *
      * @param movieId identificador do filme.
-     * @param authentication contexto de autenticação do usuário.
+     * @param user usuário autenticado.
      * @return estado final de favorito para o filme informado.
      */
     @PostMapping("")
     public ResponseEntity<FavoriteStatusResponse> toggleFavoriteMovie(
             @RequestParam String movieId, 
-            Authentication authentication) {
+            @AuthenticationPrincipal AuthenticatedUser user) {
         
-        String email = authentication.getName();
 
-        boolean newStatus = favoriteService.toggleFavoriteMovie(movieId, email);
+        boolean newStatus = favoriteService.toggleFavoriteMovie(movieId, user.id());
         
         return ResponseEntity.ok(new FavoriteStatusResponse(movieId, newStatus));
     }
@@ -59,16 +59,15 @@ public class FavoriteMovieController {
      * Consulta se um filme está marcado como favorito pelo usuário autenticado.
      *
      * @param movieId identificador do filme.
-     * @param authentication contexto de autenticação do usuário.
+     * @param user usuário autenticado.
      * @return indicador booleano de favorito.
      */
     @GetMapping("/status")
     public ResponseEntity<Boolean> getFavoriteStatusMovies(
             @RequestParam String movieId, 
-            Authentication authentication) {
+            @AuthenticationPrincipal AuthenticatedUser user) {
         
-        String email = authentication.getName();
-        boolean isFavorite = favoriteService.isFavoriteMovie(movieId, email);
+        boolean isFavorite = favoriteService.isFavoriteMovie(movieId, user.id());
         return ResponseEntity.ok(isFavorite);
     }
 
@@ -76,31 +75,29 @@ public class FavoriteMovieController {
      * Consulta, em lote, o status de favoritos de filmes do usuário autenticado.
      *
      * @param movieIds lista de identificadores de filmes.
-     * @param authentication contexto de autenticação do usuário.
+     * @param user usuário autenticado.
      * @return mapa `movieId -> isFavorite`.
      */
     @GetMapping("/status/batch")
     public ResponseEntity<Map<String, Boolean>> getFavoriteStatusMoviesBatch(
             @RequestParam List<String> movieIds,
-            Authentication authentication) {
+            @AuthenticationPrincipal AuthenticatedUser user) {
 
-        String email = authentication.getName();
-        Map<String, Boolean> statuses = favoriteService.getFavoriteMoviesStatusBatch(movieIds, email);
+        Map<String, Boolean> statuses = favoriteService.getFavoriteMoviesStatusBatch(movieIds, user.id());
         return ResponseEntity.ok(statuses);
     }
 
     /**
      * Lista todos os filmes favoritados do usuário autenticado.
      *
-     * @param authentication contexto de autenticação do usuário.
+     * @param user usuário autenticado.
      * @return lista de filmes favoritados com mensagem contextual.
      */
     @GetMapping("/")
     public ResponseEntity<ApiResponse<List<FavoriteMovie>>> getAllFavoritesMovies(
-            Authentication authentication) {
+            @AuthenticationPrincipal AuthenticatedUser user) {
             
-        String email = authentication.getName();
-        List<FavoriteMovie> favorites = favoriteService.getAllFavoritesMovies(email);
+        List<FavoriteMovie> favorites = favoriteService.getAllFavoritesMovies(user.id());
 
         String message = favorites.isEmpty() 
             ? "Nenhum filme favoritado encontrado" 
@@ -3,7 +3,7 @@ package com.lucasm.lmsfavorite.controller;
 import java.util.List;
 
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -12,6 +12,7 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.lucasm.lmsfavorite.dto.ApiResponse;
 import com.lucasm.lmsfavorite.dto.FavoriteSerieStatusResponse;
+import com.lucasm.lmsfavorite.model.AuthenticatedUser;
 import com.lucasm.lmsfavorite.model.FavoriteSerie;
 import com.lucasm.lmsfavorite.service.FavoriteSerieService;
 
@@ -39,16 +40,15 @@ public class FavoriteSerieController {
      * Alterna o estado de favorito de uma série para o usuário autenticado.
      *
      * @param serieId identificador da série.
-     * @param authentication contexto de autenticação do usuário.
+     * @param user usuário autenticado.
      * @return estado final de favorito para a série informada.
      */
     @PostMapping("")
     public ResponseEntity<FavoriteSerieStatusResponse> toggleFavoriteSerie(
             @RequestParam String serieId,
-            Authentication authentication) {
+            @AuthenticationPrincipal AuthenticatedUser user) {
 
-        String email = authentication.getName();
-        boolean newStatus = favoriteService.toggleFavoriteSerie(serieId, email);
+        boolean newStatus = favoriteService.toggleFavoriteSerie(serieId, user.id());
 
         return ResponseEntity.ok(new FavoriteSerieStatusResponse(serieId, newStatus));
     }
@@ -57,16 +57,15 @@ public class FavoriteSerieController {
      * Consulta se uma série está marcada como favorita pelo usuário autenticado.
      *
      * @param serieId identificador da série.
-     * @param authentication contexto de autenticação do usuário.
+     * @param user usuário autenticado.
      * @return indicador booleano de favorito.
      */
     @GetMapping("/status")
     public ResponseEntity<Boolean> getFavoriteStatusSeries(
             @RequestParam String serieId,
-            Authentication authentication) {
+            @AuthenticationPrincipal AuthenticatedUser user) {
 
-        String email = authentication.getName();
-        boolean isFavorite = favoriteService.isFavoriteSerie(serieId, email);
+        boolean isFavorite = favoriteService.isFavoriteSerie(serieId, user.id());
         return ResponseEntity.ok(isFavorite);
     }
 
@@ -74,31 +73,29 @@ public class FavoriteSerieController {
      * Consulta, em lote, o status de favoritos de séries do usuário autenticado.
      *
      * @param serieIds lista de identificadores de séries.
-     * @param authentication contexto de autenticação do usuário.
+     * @param user usuário autenticado.
      * @return mapa `serieId -> isFavorite`.
      */
     @GetMapping("/status/batch")
     public ResponseEntity<Map<String, Boolean>> getFavoriteStatusSeriesBatch(
             @RequestParam List<String> serieIds,
-            Authentication authentication) {
+            @AuthenticationPrincipal AuthenticatedUser user) {
 
-        String email = authentication.getName();
-        Map<String, Boolean> statuses = favoriteService.getFavoriteSeriesStatusBatch(serieIds, email);
+        Map<String, Boolean> statuses = favoriteService.getFavoriteSeriesStatusBatch(serieIds, user.id());
         return ResponseEntity.ok(statuses);
     }
 
     /**
      * Lista todas as séries favoritadas do usuário autenticado.
      *
-     * @param authentication contexto de autenticação do usuário.
+     * @param user usuário autenticado.
      * @return lista de séries favoritadas com mensagem contextual.
      */
     @GetMapping("/")
     public ResponseEntity<ApiResponse<List<FavoriteSerie>>> getAllFavoritesSeries(
-            Authentication authentication) {
+            @AuthenticationPrincipal AuthenticatedUser user) {
 
-        String email = authentication.getName();
-        List<FavoriteSerie> favorites = favoriteService.getAllFavoritesSeries(email);
+        List<FavoriteSerie> favorites = favoriteService.getAllFavoritesSeries(user.id());
 
         String message = favorites.isEmpty()
                 ? "Nenhuma série favoritada encontrada"
@@ -0,0 +1,66 @@
+package com.lucasm.lmsfavorite.controller;
+
+import org.springframework.data.domain.Page;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.lucasm.lmsfavorite.dto.LeaderboardEntryDTO;
+import com.lucasm.lmsfavorite.service.LeaderboardService;
+
+/**
+ * Expõe os rankings da comunidade baseados em favoritos e watchlists.
+ */
+@RestController
+@RequestMapping("/leaderboards")
+public class LeaderboardController {
+
+    private final LeaderboardService leaderboardService;
+
+    /**
+     * Cria o controller com o serviço de rankings.
+     *
+     * @param leaderboardService serviço dos rankings em Redis.
+     */
+    public LeaderboardController(LeaderboardService leaderboardService) {
+        this.leaderboardService = leaderboardService;
+    }
+
+    /**
+     * Lista os títulos mais favoritados na janela informada.
+     *
+     * @param media `movie` ou `serie`.
+     * @param window `day`, `week` ou `month`.
+     * @param page número da página.
+     * @param size quantidade de itens por página.
+     * @return página do ranking.
+     */
+    @GetMapping("/favorites")
+    public ResponseEntity<Page<LeaderboardEntryDTO>> getMostFavorited(
+            @RequestParam(defaultValue = "movie") String media,
+            @RequestParam(defaultValue = "week") String window,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(leaderboardService.getLeaderboard(LeaderboardService.Board.FAVORITES, media, window, page, size));
+    }
+
+    /**
+     * Lista os títulos mais adicionados às watchlists na janela informada.
+     *
+     * @param media `movie` ou `serie`.
+     * @param window `day`, `week` ou `month`.
+     * @param page número da página.
+     * @param size quantidade de itens por página.
+     * @return página do ranking.
+     */
+    @GetMapping("/watchlists")
+    public ResponseEntity<Page<LeaderboardEntryDTO>> getMostWatchlisted(
+            @RequestParam(defaultValue = "movie") String media,
+            @RequestParam(defaultValue = "week") String window,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(leaderboardService.getLeaderboard(LeaderboardService.Board.WATCHLISTS, media, window, page, size));
+    }
+}
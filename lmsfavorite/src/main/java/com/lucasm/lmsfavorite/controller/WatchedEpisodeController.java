@@ -2,9 +2,10 @@ package com.lucasm.lmsfavorite.controller;
 
 import java.util.List;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 import com.lucasm.lmsfavorite.dto.WatchedEpisodeRequestDTO;
+import com.lucasm.lmsfavorite.model.AuthenticatedUser;
 import com.lucasm.lmsfavorite.model.WatchedEpisode;
 import com.lucasm.lmsfavorite.service.WatchedEpisodeService;
 
@@ -21,27 +22,24 @@ public class WatchedEpisodeController {
     @PostMapping("")
     public ResponseEntity<WatchedEpisode> markAsWatched(
             @RequestBody WatchedEpisodeRequestDTO request,
-            Authentication authentication) {
-        String email = authentication.getName();
+            @AuthenticationPrincipal AuthenticatedUser user) {
         return ResponseEntity.ok(watchedEpisodeService.markAsWatched(
-            request.getSerieId(), request.getSeasonNumber(), request.getEpisodeNumber(), email));
+            request.getSerieId(), request.getSeasonNumber(), request.getEpisodeNumber(), user.id()));
     }
 
     @DeleteMapping("")
     public ResponseEntity<Void> unmarkAsWatched(
             @RequestBody WatchedEpisodeRequestDTO request,
-            Authentication authentication) {
-        String email = authentication.getName();
+            @AuthenticationPrincipal AuthenticatedUser user) {
         watchedEpisodeService.unmarkAsWatched(
-            request.getSerieId(), request.getSeasonNumber(), request.getEpisodeNumber(), email);
+            request.getSerieId(), request.getSeasonNumber(), request.getEpisodeNumber(), user.id());
         return ResponseEntity.noContent().build();
     }
 
     @GetMapping("/serie/{serieId}")
     public ResponseEntity<List<WatchedEpisode>> getWatchedEpisodes(
             @PathVariable String serieId,
-            Authentication authentication) {
-        String email = authentication.getName();
-        return ResponseEntity.ok(watchedEpisodeService.getWatchedEpisodesBySerie(serieId, email));
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        return ResponseEntity.ok(watchedEpisodeService.getWatchedEpisodesBySerie(serieId, user.id()));
     }
 }
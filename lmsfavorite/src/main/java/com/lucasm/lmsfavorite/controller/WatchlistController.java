@@ -1,5 +1,6 @@
 package com.lucasm.lmsfavorite.controller;
 
+import com.lucasm.lmsfavorite.model.AuthenticatedUser;
 import com.lucasm.lmsfavorite.model.WatchlistMovie;
 import com.lucasm.lmsfavorite.model.WatchlistSerie;
 import com.lucasm.lmsfavorite.model.WatchlistStatus;
@@ -29,8 +30,8 @@ public class WatchlistController {
         this.watchlistService = watchlistService;
     }
 
-    private String getCurrentUserEmail() {
-        return SecurityContextHolder.getContext().getAuthentication().getName();
+    private Long getCurrentUserId() {
+        return ((AuthenticatedUser) SecurityContextHolder.getContext().getAuthentication().getPrincipal()).id();
     }
 
     /**
@@ -40,7 +41,7 @@ public class WatchlistController {
      */
     @GetMapping("/movies")
     public ResponseEntity<List<WatchlistMovie>> getMovies() {
-        return ResponseEntity.ok(watchlistService.getUserWatchlistMovies(getCurrentUserEmail()));
+        return ResponseEntity.ok(watchlistService.getUserWatchlistMovies(getCurrentUserId()));
     }
 
     /**
@@ -54,7 +55,7 @@ public class WatchlistController {
     public ResponseEntity<Map<String, Object>> toggleMovie(
             @RequestParam String movieId,
             @RequestParam(required = false) WatchlistStatus status) {
-        return ResponseEntity.ok(watchlistService.toggleMovieInWatchlist(movieId, getCurrentUserEmail(), status));
+        return ResponseEntity.ok(watchlistService.toggleMovieInWatchlist(movieId, getCurrentUserId(), status));
     }
 
     /**
@@ -68,7 +69,7 @@ public class WatchlistController {
     public ResponseEntity<Map<String, Object>> updateMovieStatus(
             @RequestParam String movieId,
             @RequestParam WatchlistStatus status) {
-        return ResponseEntity.ok(watchlistService.updateMovieStatus(movieId, getCurrentUserEmail(), status));
+        return ResponseEntity.ok(watchlistService.updateMovieStatus(movieId, getCurrentUserId(), status));
     }
 
     /**
@@ -79,7 +80,7 @@ public class WatchlistController {
      */
     @GetMapping("/movies/status")
     public ResponseEntity<Map<String, Object>> getMovieStatus(@RequestParam String movieId) {
-        return ResponseEntity.ok(watchlistService.checkMovieStatus(movieId, getCurrentUserEmail()));
+        return ResponseEntity.ok(watchlistService.checkMovieStatus(movieId, getCurrentUserId()));
     }
 
     /**
@@ -90,7 +91,7 @@ public class WatchlistController {
      */
     @GetMapping("/movies/status/batch")
     public ResponseEntity<Map<String, Object>> getMovieStatusBatch(@RequestParam List<String> movieIds) {
-        return ResponseEntity.ok(watchlistService.getMovieWatchlistStatusBatch(movieIds, getCurrentUserEmail()));
+        return ResponseEntity.ok(watchlistService.getMovieWatchlistStatusBatch(movieIds, getCurrentUserId()));
     }
 
     /**
@@ -100,7 +101,7 @@ public class WatchlistController {
      */
     @GetMapping("/series")
     public ResponseEntity<List<WatchlistSerie>> getSeries() {
-        return ResponseEntity.ok(watchlistService.getUserWatchlistSeries(getCurrentUserEmail()));
+        return ResponseEntity.ok(watchlistService.getUserWatchlistSeries(getCurrentUserId()));
     }
 
     /**
@@ -114,7 +115,7 @@ public class WatchlistController {
     public ResponseEntity<Map<String, Object>> toggleSerie(
             @RequestParam String serieId,
             @RequestParam(required = false) WatchlistStatus status) {
-        return ResponseEntity.ok(watchlistService.toggleSerieInWatchlist(serieId, getCurrentUserEmail(), status));
+        return ResponseEntity.ok(watchlistService.toggleSerieInWatchlist(serieId, getCurrentUserId(), status));
     }
 
     /**
@@ -128,7 +129,7 @@ public class WatchlistController {
     public ResponseEntity<Map<String, Object>> updateSerieStatus(
             @RequestParam String serieId,
             @RequestParam WatchlistStatus status) {
-        return ResponseEntity.ok(watchlistService.updateSerieStatus(serieId, getCurrentUserEmail(), status));
+        return ResponseEntity.ok(watchlistService.updateSerieStatus(serieId, getCurrentUserId(), status));
     }
 
     /**
@@ -139,7 +140,7 @@ public class WatchlistController {
      */
     @GetMapping("/series/status")
     public ResponseEntity<Map<String, Object>> getSerieStatus(@RequestParam String serieId) {
-        return ResponseEntity.ok(watchlistService.checkSerieStatus(serieId, getCurrentUserEmail()));
+        return ResponseEntity.ok(watchlistService.checkSerieStatus(serieId, getCurrentUserId()));
     }
 
     /**
@@ -150,6 +151,6 @@ public class WatchlistController {
      */
     @GetMapping("/series/status/batch")
     public ResponseEntity<Map<String, Object>> getSerieStatusBatch(@RequestParam List<String> serieIds) {
-        return ResponseEntity.ok(watchlistService.getSerieWatchlistStatusBatch(serieIds, getCurrentUserEmail()));
+        return ResponseEntity.ok(watchlistService.getSerieWatchlistStatusBatch(serieIds, getCurrentUserId()));
     }
 }
\ No newline at end of file
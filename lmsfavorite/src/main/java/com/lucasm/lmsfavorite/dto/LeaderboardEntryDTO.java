@@ -0,0 +1,12 @@
+package com.lucasm.lmsfavorite.dto;
+/**
+ * DTO de saída com a posição de um título em um ranking da comunidade.
+ */
+
+public record LeaderboardEntryDTO(
+    long rank,
+    String id,
+    String title,
+    String posterPath,
+    long count
+) {}
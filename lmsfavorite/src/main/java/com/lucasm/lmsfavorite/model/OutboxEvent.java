@@ -0,0 +1,43 @@
+package com.lucasm.lmsfavorite.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Evento gravado na mesma transação da escrita que o originou e publicado no RabbitMQ pelo relay do outbox.
+ * A tabela é compartilhada entre os serviços; `producer` separa as filas de cada um.
+ */
+@Data
+@Entity
+@Table(name = "outbox_events", indexes = {
+    @Index(name = "idx_outbox_events_producer_id", columnList = "producer, id")
+})
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 64)
+    private String producer;
+
+    @Column(nullable = false)
+    private String exchange;
+
+    @Column(name = "routing_key", nullable = false)
+    private String routingKey;
+
+    @Column(name = "content_type")
+    private String contentType;
+
+    @Column(name = "type_id")
+    private String typeId;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
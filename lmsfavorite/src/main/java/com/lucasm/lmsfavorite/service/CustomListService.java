@@ -20,37 +20,31 @@ public class CustomListService {
 
     private final CustomListRepository customListRepository;
     private final CustomListItemRepository customListItemRepository;
-    private final UserLookupService userLookupService;
 
     @PersistenceContext
     private EntityManager entityManager;
 
     public CustomListService(CustomListRepository customListRepository,
-                             CustomListItemRepository customListItemRepository,
-                             UserLookupService userLookupService) {
+                             CustomListItemRepository customListItemRepository) {
         this.customListRepository = customListRepository;
         this.customListItemRepository = customListItemRepository;
-        this.userLookupService = userLookupService;
     }
 
     @Transactional(readOnly = true)
-    public List<CustomListResponseDTO> getUserLists(String userEmail) {
-        Long userId = userLookupService.getUserIdByEmail(userEmail);
+    public List<CustomListResponseDTO> getUserLists(Long userId) {
         List<CustomList> lists = customListRepository.findByUserIdOrderByUpdatedAtDesc(userId);
         return lists.stream().map(CustomListResponseDTO::new).collect(Collectors.toList());
     }
 
     @Transactional(readOnly = true)
-    public CustomListResponseDTO getListById(Long listId, String userEmail) {
-        Long userId = userLookupService.getUserIdByEmail(userEmail);
+    public CustomListResponseDTO getListById(Long listId, Long userId) {
         CustomList list = customListRepository.findByIdAndUserId(listId, userId)
                 .orElseThrow(() -> new RuntimeException("Lista não encontrada ou sem permissão."));
         return new CustomListResponseDTO(list);
     }
 
     @Transactional
-    public CustomListResponseDTO createList(String userEmail, CreateCustomListDTO dto) {
-        Long userId = userLookupService.getUserIdByEmail(userEmail);
+    public CustomListResponseDTO createList(Long userId, CreateCustomListDTO dto) {
         CustomList list = new CustomList();
         list.setUserId(userId);
         list.setName(dto.getName().trim());
@@ -65,8 +59,7 @@ public class CustomListService {
     }
 
     @Transactional
-    public CustomListResponseDTO updateList(Long listId, String userEmail, UpdateCustomListDTO dto) {
-        Long userId = userLookupService.getUserIdByEmail(userEmail);
+    public CustomListResponseDTO updateList(Long listId, Long userId, UpdateCustomListDTO dto) {
         CustomList list = customListRepository.findByIdAndUserId(listId, userId)
                 .orElseThrow(() -> new RuntimeException("Lista não encontrada ou sem permissão."));
 
@@ -84,8 +77,7 @@ public class CustomListService {
     }
 
     @Transactional
-    public boolean deleteList(Long listId, String userEmail) {
-        Long userId = userLookupService.getUserIdByEmail(userEmail);
+    public boolean deleteList(Long listId, Long userId) {
         CustomList list = customListRepository.findByIdAndUserId(listId, userId).orElse(null);
         if (list == null) return false;
         customListRepository.delete(list);
@@ -93,8 +85,7 @@ public class CustomListService {
     }
 
     @Transactional
-    public CustomListResponseDTO addItemToList(Long listId, String userEmail, AddCustomListItemDTO dto) {
-        Long userId = userLookupService.getUserIdByEmail(userEmail);
+    public CustomListResponseDTO addItemToList(Long listId, Long userId, AddCustomListItemDTO dto) {
         CustomList list = customListRepository.findByIdAndUserId(listId, userId)
                 .orElseThrow(() -> new RuntimeException("Lista não encontrada ou sem permissão."));
 
@@ -130,8 +121,7 @@ public class CustomListService {
     }
 
     @Transactional
-    public CustomListResponseDTO removeItemFromList(Long listId, String userEmail, String mediaId, String mediaType) {
-        Long userId = userLookupService.getUserIdByEmail(userEmail);
+    public CustomListResponseDTO removeItemFromList(Long listId, Long userId, String mediaId, String mediaType) {
         CustomList list = customListRepository.findByIdAndUserId(listId, userId)
                 .orElseThrow(() -> new RuntimeException("Lista não encontrada ou sem permissão."));
 
@@ -152,8 +142,7 @@ public class CustomListService {
     }
 
     @Transactional
-    public List<CustomListResponseDTO> syncLocalLists(String userEmail, List<SyncCustomListDTO> localLists) {
-        Long userId = userLookupService.getUserIdByEmail(userEmail);
+    public List<CustomListResponseDTO> syncLocalLists(Long userId, List<SyncCustomListDTO> localLists) {
         List<CustomList> existingUserLists = customListRepository.findByUserIdOrderByUpdatedAtDesc(userId);
 
         if (localLists != null && !localLists.isEmpty()) {
@@ -0,0 +1,183 @@
+package com.lucasm.lmsfavorite.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Escreve linhas de exportação direto na resposta, uma por vez, em NDJSON (um objeto JSON por linha) ou CSV.
+ * Nenhuma linha fica retida além do buffer de escrita.
+ */
+public abstract class ExportWriter implements AutoCloseable {
+
+    /**
+     * Formatos aceitos pelo parâmetro `format` dos endpoints de exportação.
+     */
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String contentType() {
+            return contentType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        /**
+         * Converte o parâmetro da requisição.
+         *
+         * @param value `ndjson` ou `csv`.
+         * @return formato correspondente.
+         * @throws IllegalArgumentException quando o formato não for suportado.
+         */
+        public static Format parse(String value) {
+            for (Format format : values()) {
+                if (format.extension.equalsIgnoreCase(value)) {
+                    return format;
+                }
+            }
+            throw new IllegalArgumentException("Formato de exportação inválido: " + value + " (use 'ndjson' ou 'csv')");
+        }
+    }
+
+    protected final List<String> columns;
+
+    private ExportWriter(List<String> columns) {
+        this.columns = columns;
+    }
+
+    /**
+     * Abre um writer sobre o stream da resposta e escreve o cabeçalho, quando o formato tiver um.
+     *
+     * @param format formato de saída.
+     * @param out stream da resposta.
+     * @param jsonFactory fábrica do Jackson usada no NDJSON.
+     * @param columns nomes das colunas, na ordem dos valores de cada linha.
+     * @return writer pronto para receber linhas.
+     */
+    public static ExportWriter open(Format format, OutputStream out, JsonFactory jsonFactory, List<String> columns) {
+        return format == Format.CSV ? new Csv(out, columns) : new Ndjson(out, jsonFactory, columns);
+    }
+
+    /**
+     * Escreve uma linha.
+     *
+     * @param values valores na ordem de {@link #columns}; `null` vira campo vazio (CSV) ou `null` (NDJSON).
+     */
+    public abstract void row(Object... values);
+
+    @Override
+    public abstract void close();
+
+    private static final class Ndjson extends ExportWriter {
+        private final JsonGenerator generator;
+
+        Ndjson(OutputStream out, JsonFactory jsonFactory, List<String> columns) {
+            super(columns);
+            try {
+                this.generator = jsonFactory.createGenerator(out);
+                this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                // Sem separador entre valores raiz: cada linha NDJSON começa direto em '{'
+                this.generator.setRootValueSeparator(null);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void row(Object... values) {
+            try {
+                generator.writeStartObject();
+                for (int i = 0; i < columns.size(); i++) {
+                    Object value = values[i];
+                    generator.writeFieldName(columns.get(i));
+                    if (value == null) {
+                        generator.writeNull();
+                    } else if (value instanceof Number number) {
+                        generator.writeNumber(number.toString());
+                    } else {
+                        generator.writeString(value.toString());
+                    }
+                }
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void close() {
+            try {
+                generator.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private static final class Csv extends ExportWriter {
+        private final BufferedWriter writer;
+
+        Csv(OutputStream out, List<String> columns) {
+            super(columns);
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            row(columns.toArray());
+        }
+
+        @Override
+        public void row(Object... values) {
+            try {
+                for (int i = 0; i < columns.size(); i++) {
+                    if (i > 0) {
+                        writer.write(',');
+                    }
+                    if (values[i] != null) {
+                        writer.write(escape(values[i]));
+                    }
+                }
+                writer.write("\r\n");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private static String escape(Object value) {
+            String text = value.toString();
+            if (!(value instanceof Number) && !text.isEmpty() && "=+-@".indexOf(text.charAt(0)) >= 0) {
+                // Evita que planilhas interpretem o texto livre do usuário como fórmula
+                text = "'" + text;
+            }
+            if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+                return '"' + text.replace("\"", "\"\"") + '"';
+            }
+            return text;
+        }
+
+        @Override
+        public void close() {
+            try {
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
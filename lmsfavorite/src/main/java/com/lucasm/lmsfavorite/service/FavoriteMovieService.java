@@ -4,7 +4,6 @@ import java.util.List;
 import java.util.Optional;
 import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 import org.springframework.cache.annotation.CacheEvict;
@@ -23,23 +22,22 @@ public class FavoriteMovieService {
 
     private final FavoriteMovieRepository favoriteRepository;
     private final RabbitMQProducer rabbitMQProducer;
-    private final UserLookupService userLookupService;
+    private final LeaderboardService leaderboardService;
 
-    public FavoriteMovieService(FavoriteMovieRepository favoriteRepository, RabbitMQProducer rabbitMQProducer, UserLookupService userLookupService) {
+    public FavoriteMovieService(FavoriteMovieRepository favoriteRepository, RabbitMQProducer rabbitMQProducer,
+                                LeaderboardService leaderboardService) {
         this.favoriteRepository = favoriteRepository;
         this.rabbitMQProducer = rabbitMQProducer;
-        this.userLookupService = userLookupService;
+        this.leaderboardService = leaderboardService;
     }
 
     @Transactional
     @Caching(evict = {
-        @CacheEvict(value = "userFavoriteMovies", key = "#email")
+        @CacheEvict(value = "userFavoriteMovies", key = "#userId")
     }, put = {
-        @CachePut(value = "userFavoriteMovieStatus", key = "#email + '_' + #movieId")
+        @CachePut(value = "userFavoriteMovieStatus", key = "#userId + '_' + #movieId")
     })
-    public boolean toggleFavoriteMovie(String movieId, String email) {
-        Long userId = userLookupService.getUserIdByEmail(email);
-
+    public boolean toggleFavoriteMovie(String movieId, Long userId) {
         Optional<FavoriteMovie> optionalFavorite = favoriteRepository.findByMovieIdAndUserId(movieId, userId);
 
         FavoriteMovie favoriteMovie = optionalFavorite.orElseGet(() -> {
@@ -49,31 +47,30 @@ public class FavoriteMovieService {
             newMovie.setFavorite(false);
 
             CatalogSyncDTO syncDTO = new CatalogSyncDTO(movieId, null, null);
-            CompletableFuture.runAsync(() -> rabbitMQProducer.sendMovieCatalogSync(syncDTO));
+            rabbitMQProducer.sendMovieCatalogSync(syncDTO);
 
             return newMovie;
         });
 
         favoriteMovie.setFavorite(!favoriteMovie.isFavorite());
         favoriteRepository.save(favoriteMovie);
+        leaderboardService.record(LeaderboardService.Board.FAVORITES, "movie", movieId, favoriteMovie.isFavorite() ? 1 : -1);
 
         return favoriteMovie.isFavorite();
     }
 
-    @Cacheable(value = "userFavoriteMovieStatus", key = "#email + '_' + #movieId")
-    public boolean isFavoriteMovie(String movieId, String email) {
-        Long userId = userLookupService.getUserIdByEmail(email);
+    @Cacheable(value = "userFavoriteMovieStatus", key = "#userId + '_' + #movieId")
+    public boolean isFavoriteMovie(String movieId, Long userId) {
         Optional<FavoriteMovie> optionalFavorite = favoriteRepository.findByMovieIdAndUserId(movieId, userId);
         return optionalFavorite.map(FavoriteMovie::isFavorite).orElse(false);
     }
 
-    @Cacheable(value = "userFavoriteMovies", key = "#email")
-    public List<FavoriteMovie> getAllFavoritesMovies(String email) {
-        Long userId = userLookupService.getUserIdByEmail(email);
+    @Cacheable(value = "userFavoriteMovies", key = "#userId")
+    public List<FavoriteMovie> getAllFavoritesMovies(Long userId) {
         return favoriteRepository.findByUserIdAndFavorite(userId, true);
     }
 
-    public Map<String, Boolean> getFavoriteMoviesStatusBatch(List<String> movieIds, String email) {
+    public Map<String, Boolean> getFavoriteMoviesStatusBatch(List<String> movieIds, Long userId) {
         Map<String, Boolean> statusByMovieId = new LinkedHashMap<>();
 
         if (movieIds == null || movieIds.isEmpty()) {
@@ -91,7 +88,6 @@ public class FavoriteMovieService {
             return statusByMovieId;
         }
 
-        Long userId = userLookupService.getUserIdByEmail(email);
         List<FavoriteMovie> favorites = favoriteRepository.findByUserIdAndMovieIdInAndFavorite(userId, normalizedIds, true);
         favorites.forEach(favorite -> statusByMovieId.put(favorite.getMovieId(), true));
 
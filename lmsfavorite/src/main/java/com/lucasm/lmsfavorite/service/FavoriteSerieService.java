@@ -4,7 +4,6 @@ import java.util.List;
 import java.util.Optional;
 import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 import org.springframework.cache.annotation.CacheEvict;
@@ -23,22 +22,22 @@ public class FavoriteSerieService {
 
     private final FavoriteSerieRepository favoriteRepository;
     private final RabbitMQProducer rabbitMQProducer;
-    private final UserLookupService userLookupService;
+    private final LeaderboardService leaderboardService;
 
-    public FavoriteSerieService(FavoriteSerieRepository favoriteRepository, RabbitMQProducer rabbitMQProducer, UserLookupService userLookupService) {
+    public FavoriteSerieService(FavoriteSerieRepository favoriteRepository, RabbitMQProducer rabbitMQProducer,
+                                LeaderboardService leaderboardService) {
         this.favoriteRepository = favoriteRepository;
         this.rabbitMQProducer = rabbitMQProducer;
-        this.userLookupService = userLookupService;
+        this.leaderboardService = leaderboardService;
     }
 
     @Transactional
     @Caching(evict = {
-        @CacheEvict(value = "userFavoriteSeries", key = "#email")
+        @CacheEvict(value = "userFavoriteSeries", key = "#userId")
     }, put = {
-        @CachePut(value = "userFavoriteSerieStatus", key = "#email + '_' + #serieId")
+        @CachePut(value = "userFavoriteSerieStatus", key = "#userId + '_' + #serieId")
     })
-    public boolean toggleFavoriteSerie(String serieId, String email) {
-        Long userId = userLookupService.getUserIdByEmail(email);
+    public boolean toggleFavoriteSerie(String serieId, Long userId) {
         Optional<FavoriteSerie> optionalFavorite = favoriteRepository.findBySerieIdAndUserId(serieId, userId);
 
         FavoriteSerie favoriteSerie = optionalFavorite.orElseGet(() -> {
@@ -48,31 +47,30 @@ public class FavoriteSerieService {
             newSerie.setFavorite(false);
 
             CatalogSyncDTO syncDTO = new CatalogSyncDTO(serieId, null, null);
-            CompletableFuture.runAsync(() -> rabbitMQProducer.sendSerieCatalogSync(syncDTO));
+            rabbitMQProducer.sendSerieCatalogSync(syncDTO);
 
             return newSerie;
         });
 
         favoriteSerie.setFavorite(!favoriteSerie.isFavorite());
         favoriteRepository.save(favoriteSerie);
+        leaderboardService.record(LeaderboardService.Board.FAVORITES, "serie", serieId, favoriteSerie.isFavorite() ? 1 : -1);
 
         return favoriteSerie.isFavorite();
     }
 
-    @Cacheable(value = "userFavoriteSerieStatus", key = "#email + '_' + #serieId")
-    public boolean isFavoriteSerie(String serieId, String email) {
-        Long userId = userLookupService.getUserIdByEmail(email);
+    @Cacheable(value = "userFavoriteSerieStatus", key = "#userId + '_' + #serieId")
+    public boolean isFavoriteSerie(String serieId, Long userId) {
         Optional<FavoriteSerie> optionalFavorite = favoriteRepository.findBySerieIdAndUserId(serieId, userId);
         return optionalFavorite.map(FavoriteSerie::isFavorite).orElse(false);
     }
 
-    @Cacheable(value = "userFavoriteSeries", key = "#email")
-    public List<FavoriteSerie> getAllFavoritesSeries(String email) {
-        Long userId = userLookupService.getUserIdByEmail(email);
+    @Cacheable(value = "userFavoriteSeries", key = "#userId")
+    public List<FavoriteSerie> getAllFavoritesSeries(Long userId) {
         return favoriteRepository.findByUserIdAndFavorite(userId, true);
     }
 
-    public Map<String, Boolean> getFavoriteSeriesStatusBatch(List<String> serieIds, String email) {
+    public Map<String, Boolean> getFavoriteSeriesStatusBatch(List<String> serieIds, Long userId) {
         Map<String, Boolean> statusBySerieId = new LinkedHashMap<>();
 
         if (serieIds == null || serieIds.isEmpty()) return statusBySerieId;
@@ -86,7 +84,6 @@ public class FavoriteSerieService {
 
         if (normalizedIds.isEmpty()) return statusBySerieId;
 
-        Long userId = userLookupService.getUserIdByEmail(email);
         List<FavoriteSerie> favorites = favoriteRepository.findByUserIdAndSerieIdInAndFavorite(userId, normalizedIds, true);
         favorites.forEach(favorite -> statusBySerieId.put(favorite.getSerieId(), true));
 
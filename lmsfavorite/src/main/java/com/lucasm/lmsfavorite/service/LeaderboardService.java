@@ -0,0 +1,185 @@
+package com.lucasm.lmsfavorite.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.lucasm.lmsfavorite.dto.LeaderboardEntryDTO;
+
+/**
+ * Rankings "mais favoritados" e "mais adicionados à watchlist" em sorted sets do Redis, com um conjunto por dia
+ * (`leaderboard:{board}:{media}:{yyyy-MM-dd}`). Cada escrita soma ou subtrai 1 no dia corrente após o commit;
+ * a leitura de uma janela une os dias com `ZUNIONSTORE` em uma chave de vida curta e pagina com `ZREVRANGEBYSCORE`.
+ */
+@Service
+public class LeaderboardService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeaderboardService.class);
+
+    /**
+     * Ranking alimentado pelas escritas do serviço.
+     */
+    public enum Board {
+        FAVORITES("favorites"),
+        WATCHLISTS("watchlists");
+
+        private final String key;
+
+        Board(String key) {
+            this.key = key;
+        }
+    }
+
+    private static final String KEY_PREFIX = "leaderboard:";
+    private static final int MAX_WINDOW_DAYS = 30;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final Map<String, Integer> WINDOWS = Map.of("day", 1, "week", 7, "month", MAX_WINDOW_DAYS);
+
+    private final StringRedisTemplate redisTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration windowCacheTtl;
+
+    public LeaderboardService(StringRedisTemplate redisTemplate, JdbcTemplate jdbcTemplate,
+                              @Value("${leaderboard.window-cache-ttl:60s}") Duration windowCacheTtl) {
+        this.redisTemplate = redisTemplate;
+        this.jdbcTemplate = jdbcTemplate;
+        this.windowCacheTtl = windowCacheTtl;
+    }
+
+    /**
+     * Agenda o incremento do título no ranking do dia para depois do commit; fora de transação, aplica na hora.
+     *
+     * @param board ranking afetado.
+     * @param media `movie` ou `serie`.
+     * @param titleId id do título.
+     * @param delta `1` ao adicionar, `-1` ao remover.
+     */
+    public void record(Board board, String media, String titleId, int delta) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            increment(board, media, titleId, delta);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                increment(board, media, titleId, delta);
+            }
+        });
+    }
+
+    private void increment(Board board, String media, String titleId, int delta) {
+        try {
+            String key = dayKey(board, media, LocalDate.now());
+            redisTemplate.opsForZSet().incrementScore(key, titleId, delta);
+            redisTemplate.expire(key, Duration.ofDays(MAX_WINDOW_DAYS + 2L));
+        } catch (DataAccessException e) {
+            logger.warn("Falha ao atualizar ranking {} de {} para {}: {}", board.key, media, titleId, e.getMessage());
+        }
+    }
+
+    /**
+     * Página do ranking na janela informada, com título e pôster do catálogo local.
+     * Títulos com saldo zero ou negativo na janela ficam de fora.
+     *
+     * @param board ranking consultado.
+     * @param media `movie` ou `serie`.
+     * @param window `day`, `week` ou `month`.
+     * @param page número da página.
+     * @param size quantidade de itens por página.
+     * @return página ordenada pelo saldo de adições na janela.
+     * @throws ResponseStatusException 400 quando a mídia ou a janela forem inválidas.
+     */
+    public Page<LeaderboardEntryDTO> getLeaderboard(Board board, String media, String window, int page, int size) {
+        String catalogTable = catalogTable(media);
+        Integer days = WINDOWS.get(window.toLowerCase());
+        if (days == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Janela inválida: " + window + " (use 'day', 'week' ou 'month')");
+        }
+        int pageSize = Math.max(1, Math.min(MAX_PAGE_SIZE, size));
+        int pageNumber = Math.max(0, page);
+        long offset = (long) pageNumber * pageSize;
+
+        String key = windowKey(board, media.toLowerCase(), window.toLowerCase(), days);
+        ZSetOperations<String, String> zset = redisTemplate.opsForZSet();
+        Set<ZSetOperations.TypedTuple<String>> tuples =
+                zset.reverseRangeByScoreWithScores(key, 1, Double.POSITIVE_INFINITY, offset, pageSize);
+        Long total = zset.count(key, 1, Double.POSITIVE_INFINITY);
+        if (tuples == null || tuples.isEmpty()) {
+            return new PageImpl<>(List.of(), PageRequest.of(pageNumber, pageSize), total != null ? total : 0);
+        }
+
+        List<String> ids = tuples.stream().map(ZSetOperations.TypedTuple::getValue).toList();
+        Map<String, String[]> catalog = loadCatalog(catalogTable, media.toLowerCase() + "_id", ids);
+
+        List<LeaderboardEntryDTO> items = new ArrayList<>(tuples.size());
+        long rank = offset;
+        for (ZSetOperations.TypedTuple<String> tuple : tuples) {
+            String[] entry = catalog.getOrDefault(tuple.getValue(), new String[2]);
+            long count = tuple.getScore() != null ? tuple.getScore().longValue() : 0L;
+            items.add(new LeaderboardEntryDTO(++rank, tuple.getValue(), entry[0], entry[1], count));
+        }
+        return new PageImpl<>(items, PageRequest.of(pageNumber, pageSize), total != null ? total : items.size());
+    }
+
+    /**
+     * Chave com a união dos dias da janela; recalculada no máximo uma vez por `leaderboard.window-cache-ttl`.
+     */
+    private String windowKey(Board board, String media, String window, int days) {
+        LocalDate today = LocalDate.now();
+        String key = KEY_PREFIX + board.key + ":" + media + ":" + window + ":" + today;
+        if (Boolean.TRUE.equals(redisTemplate.hasKey(key))) {
+            return key;
+        }
+
+        List<String> dayKeys = new ArrayList<>(days);
+        for (int i = 0; i < days; i++) {
+            dayKeys.add(dayKey(board, media, today.minusDays(i)));
+        }
+        redisTemplate.opsForZSet().unionAndStore(dayKeys.get(0), dayKeys.subList(1, dayKeys.size()), key);
+        redisTemplate.expire(key, windowCacheTtl);
+        return key;
+    }
+
+    private Map<String, String[]> loadCatalog(String catalogTable, String idColumn, List<String> ids) {
+        String placeholders = String.join(",", Collections.nCopies(ids.size(), "?"));
+        Map<String, String[]> result = new HashMap<>();
+        jdbcTemplate.query(
+            "SELECT " + idColumn + " AS id, title, poster_path FROM " + catalogTable + " WHERE " + idColumn + " IN (" + placeholders + ")",
+            rs -> {
+                result.put(rs.getString("id"), new String[]{rs.getString("title"), rs.getString("poster_path")});
+            },
+            ids.toArray());
+        return result;
+    }
+
+    private static String catalogTable(String media) {
+        if ("movie".equalsIgnoreCase(media)) return "movies";
+        if ("serie".equalsIgnoreCase(media)) return "series";
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Ranking disponível apenas para 'movie' ou 'serie'");
+    }
+
+    private static String dayKey(Board board, String media, LocalDate day) {
+        return KEY_PREFIX + board.key + ":" + media + ":" + day;
+    }
+}
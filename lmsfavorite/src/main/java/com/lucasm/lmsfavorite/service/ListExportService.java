@@ -0,0 +1,98 @@
+package com.lucasm.lmsfavorite.service;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Exporta favoritos, watchlist e episódios assistidos do usuário lendo por cursor JDBC (fetch size fixo, em
+ * transação somente leitura) e escrevendo cada linha direto na resposta; o uso de memória não depende do tamanho das listas.
+ */
+@Service
+public class ListExportService {
+
+    private static final List<String> COLUMNS = List.of(
+        "list", "media", "title_id", "title", "season", "episode", "status", "added_at");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+
+    public ListExportService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, ObjectMapper objectMapper,
+                             @Value("${export.fetch-size:500}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Monta o corpo da exportação; a consulta só roda quando o Spring começa a escrever a resposta.
+     *
+     * @param userId identificador do usuário.
+     * @param list `favorites`, `watchlist`, `watched` ou `all`.
+     * @param format formato de saída.
+     * @return corpo da resposta em streaming.
+     * @throws ResponseStatusException 400 quando a lista for inválida.
+     */
+    public StreamingResponseBody export(Long userId, String list, ExportWriter.Format format) {
+        List<String> parts = new ArrayList<>();
+        boolean all = "all".equalsIgnoreCase(list);
+        if (all || "favorites".equalsIgnoreCase(list)) {
+            parts.add("(SELECT 'favorites' AS list, 'movie' AS media, f.movie_id AS title_id, c.title, NULL::integer AS season, " +
+                      "NULL::integer AS episode, NULL AS status, NULL::timestamp AS added_at FROM favorite_movies f " +
+                      "LEFT JOIN movies c ON c.movie_id = f.movie_id WHERE f.user_id = ? AND f.is_favorite ORDER BY f.id)");
+            parts.add("(SELECT 'favorites', 'serie', f.serie_id, c.title, NULL::integer, NULL::integer, NULL, NULL::timestamp " +
+                      "FROM favorite_series f LEFT JOIN series c ON c.serie_id = f.serie_id WHERE f.user_id = ? AND f.is_favorite ORDER BY f.id)");
+        }
+        if (all || "watchlist".equalsIgnoreCase(list)) {
+            parts.add("(SELECT 'watchlist', 'movie', w.movie_id, c.title, NULL::integer, NULL::integer, w.status, w.added_at " +
+                      "FROM watchlist_movies w LEFT JOIN movies c ON c.movie_id = w.movie_id WHERE w.user_id = ? ORDER BY w.added_at DESC)");
+            parts.add("(SELECT 'watchlist', 'serie', w.serie_id, c.title, NULL::integer, NULL::integer, w.status, w.added_at " +
+                      "FROM watchlist_series w LEFT JOIN series c ON c.serie_id = w.serie_id WHERE w.user_id = ? ORDER BY w.added_at DESC)");
+        }
+        if (all || "watched".equalsIgnoreCase(list)) {
+            parts.add("(SELECT 'watched', 'episode', e.serie_id, c.title, e.season_number, e.episode_number, NULL, e.watched_at " +
+                      "FROM watched_episodes e LEFT JOIN series c ON c.serie_id = e.serie_id WHERE e.user_id = ? " +
+                      "ORDER BY e.serie_id, e.season_number, e.episode_number)");
+        }
+        if (parts.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Lista inválida: " + list + " (use 'favorites', 'watchlist', 'watched' ou 'all')");
+        }
+        String sql = String.join(" UNION ALL ", parts);
+
+        return out -> {
+            try (ExportWriter writer = ExportWriter.open(format, out, objectMapper.getFactory(), COLUMNS)) {
+                // O driver do Postgres só usa cursor (fetch size) com autocommit desligado, daí a transação
+                readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(
+                    con -> {
+                        PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                        ps.setFetchSize(fetchSize);
+                        for (int i = 1; i <= parts.size(); i++) {
+                            ps.setLong(i, userId);
+                        }
+                        return ps;
+                    },
+                    rs -> {
+                        writer.row(rs.getString(1), rs.getString(2), rs.getString(3), rs.getString(4),
+                                rs.getObject(5), rs.getObject(6), rs.getString(7), rs.getObject(8));
+                    }));
+            }
+        };
+    }
+}
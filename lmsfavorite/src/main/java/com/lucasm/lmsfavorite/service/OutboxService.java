@@ -0,0 +1,76 @@
+package com.lucasm.lmsfavorite.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.AbstractJavaTypeMapper;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Grava eventos destinados ao RabbitMQ em `outbox_events`, na transação da escrita que os originou: se ela for
+ * desfeita, o evento some junto; se for confirmada, o {@link com.lucasm.lmsfavorite.scheduler.OutboxRelay} publica depois.
+ * O payload é serializado pelo mesmo conversor do `RabbitTemplate`, então o consumidor recebe a mesma mensagem
+ * de um `convertAndSend`.
+ */
+@Service
+public class OutboxService {
+
+    private static final String INSERT_SQL =
+        "INSERT INTO outbox_events (producer, exchange, routing_key, content_type, type_id, payload, created_at) " +
+        "VALUES (?, ?, ?, ?, ?, ?, now())";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Jackson2JsonMessageConverter messageConverter;
+    private final String producer;
+
+    public OutboxService(JdbcTemplate jdbcTemplate, Jackson2JsonMessageConverter messageConverter,
+                         @Value("${spring.application.name}") String producer) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.messageConverter = messageConverter;
+        this.producer = producer;
+    }
+
+    /**
+     * Registra um evento para publicação após o commit.
+     *
+     * @param exchange exchange de destino.
+     * @param routingKey chave de roteamento.
+     * @param payload corpo da mensagem.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(String exchange, String routingKey, Object payload) {
+        enqueueAll(exchange, routingKey, List.of(payload));
+    }
+
+    /**
+     * Registra vários eventos de uma vez, em um único batch JDBC.
+     *
+     * @param exchange exchange de destino.
+     * @param routingKey chave de roteamento.
+     * @param payloads corpos das mensagens.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueAll(String exchange, String routingKey, List<?> payloads) {
+        if (payloads.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, payloads, payloads.size(), (ps, payload) -> {
+            Message message = messageConverter.toMessage(payload, new MessageProperties());
+            MessageProperties properties = message.getMessageProperties();
+            Object typeId = properties.getHeaders().get(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME);
+            ps.setString(1, producer);
+            ps.setString(2, exchange);
+            ps.setString(3, routingKey);
+            ps.setString(4, properties.getContentType());
+            ps.setString(5, typeId != null ? typeId.toString() : null);
+            ps.setString(6, new String(message.getBody(), StandardCharsets.UTF_8));
+        });
+    }
+}
@@ -5,7 +5,6 @@ import org.slf4j.LoggerFactory;
 import org.springframework.amqp.core.Message;
 import org.springframework.amqp.core.MessageBuilder;
 import org.springframework.amqp.core.MessageProperties;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.stereotype.Service;
 
 import com.lucasm.lmsfavorite.config.RabbitMQConfig;
@@ -16,20 +15,23 @@ public class RabbitMQProducer {
 
     private static final Logger log = LoggerFactory.getLogger(RabbitMQProducer.class);
     
-    private final RabbitTemplate rabbitTemplate;
+    private final BatchingPublisher publisher;
+    private final OutboxService outboxService;
 
-    public RabbitMQProducer(RabbitTemplate rabbitTemplate) {
-        this.rabbitTemplate = rabbitTemplate;
+    public RabbitMQProducer(BatchingPublisher publisher, OutboxService outboxService) {
+        this.publisher = publisher;
+        this.outboxService = outboxService;
     }
 
+    // Sincronizações de catálogo vão para o outbox na transação do favorito e são publicadas após o commit
     public void sendMovieCatalogSync(CatalogSyncDTO dto) {
         log.info("Favoritos: Solicitando sincronização do filme ID: {}", dto.getId());
-        rabbitTemplate.convertAndSend(RabbitMQConfig.CATALOG_EXCHANGE, "movie.sync", dto);
+        outboxService.enqueue(RabbitMQConfig.CATALOG_EXCHANGE, "movie.sync", dto);
     }
 
     public void sendSerieCatalogSync(CatalogSyncDTO dto) {
         log.info("Favoritos: Solicitando sincronização da série ID: {}", dto.getId());
-        rabbitTemplate.convertAndSend(RabbitMQConfig.CATALOG_EXCHANGE, "serie.sync", dto);
+        outboxService.enqueue(RabbitMQConfig.CATALOG_EXCHANGE, "serie.sync", dto);
     }
 
     public void sendMediaNotification(String message) {
@@ -40,6 +42,11 @@ public class RabbitMQProducer {
                 .setContentType(MessageProperties.CONTENT_TYPE_TEXT_PLAIN)
                 .build();
 
-        rabbitTemplate.send("notification.exchange", "notify.media", amqpMessage);
+        publisher.send("notification.exchange", "notify.media", amqpMessage)
+                .whenComplete((ignored, error) -> {
+                    if (error != null) {
+                        log.warn("Sugestão de mídia não confirmada pelo broker: {}", error.getMessage());
+                    }
+                });
     }
 }
\ No newline at end of file
@@ -10,17 +10,13 @@ import com.lucasm.lmsfavorite.repository.WatchedEpisodeRepository;
 public class WatchedEpisodeService {
 
     private final WatchedEpisodeRepository watchedEpisodeRepository;
-    private final UserLookupService userLookupService;
 
-    public WatchedEpisodeService(WatchedEpisodeRepository watchedEpisodeRepository, UserLookupService userLookupService) {
+    public WatchedEpisodeService(WatchedEpisodeRepository watchedEpisodeRepository) {
         this.watchedEpisodeRepository = watchedEpisodeRepository;
-        this.userLookupService = userLookupService;
     }
 
     @Transactional
-    public WatchedEpisode markAsWatched(String serieId, int seasonNumber, int episodeNumber, String email) {
-        Long userId = userLookupService.getUserIdByEmail(email);
-
+    public WatchedEpisode markAsWatched(String serieId, int seasonNumber, int episodeNumber, Long userId) {
         return watchedEpisodeRepository.findByUserIdAndSerieIdAndSeasonNumberAndEpisodeNumber(
             userId, serieId, seasonNumber, episodeNumber)
             .orElseGet(() -> {
@@ -34,14 +30,12 @@ public class WatchedEpisodeService {
     }
 
     @Transactional
-    public void unmarkAsWatched(String serieId, int seasonNumber, int episodeNumber, String email) {
-        Long userId = userLookupService.getUserIdByEmail(email);
+    public void unmarkAsWatched(String serieId, int seasonNumber, int episodeNumber, Long userId) {
         watchedEpisodeRepository.deleteByUserIdAndSerieIdAndSeasonNumberAndEpisodeNumber(
             userId, serieId, seasonNumber, episodeNumber);
     }
 
-    public List<WatchedEpisode> getWatchedEpisodesBySerie(String serieId, String email) {
-        Long userId = userLookupService.getUserIdByEmail(email);
+    public List<WatchedEpisode> getWatchedEpisodesBySerie(String serieId, Long userId) {
         return watchedEpisodeRepository.findByUserIdAndSerieIdOrderBySeasonNumberAscEpisodeNumberAsc(userId, serieId);
     }
 }
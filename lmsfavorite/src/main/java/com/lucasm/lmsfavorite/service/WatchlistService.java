@@ -22,31 +22,29 @@ public class WatchlistService {
 
     private final WatchlistMovieRepository movieRepo;
     private final WatchlistSerieRepository serieRepo;
-    private final UserLookupService userLookupService;
+    private final LeaderboardService leaderboardService;
 
-    public WatchlistService(WatchlistMovieRepository movieRepo, WatchlistSerieRepository serieRepo, UserLookupService userLookupService) {
+    public WatchlistService(WatchlistMovieRepository movieRepo, WatchlistSerieRepository serieRepo, LeaderboardService leaderboardService) {
         this.movieRepo = movieRepo;
         this.serieRepo = serieRepo;
-        this.userLookupService = userLookupService;
+        this.leaderboardService = leaderboardService;
     }
 
-    @Cacheable(value = "userWatchlistMovies", key = "#email")
-    public List<WatchlistMovie> getUserWatchlistMovies(String email) {
-        Long userId = userLookupService.getUserIdByEmail(email);
+    @Cacheable(value = "userWatchlistMovies", key = "#userId")
+    public List<WatchlistMovie> getUserWatchlistMovies(Long userId) {
         return movieRepo.findByUserIdOrderByAddedAtDesc(userId);
     }
 
     @Transactional
     @Caching(evict = {
-        @CacheEvict(value = "userWatchlistMovies", key = "#email"),
-        @CacheEvict(value = "userWatchlistMovieStatus", key = "#email + '_' + #movieId")
+        @CacheEvict(value = "userWatchlistMovies", key = "#userId"),
+        @CacheEvict(value = "userWatchlistMovieStatus", key = "#userId + '_' + #movieId")
     })
-    public Map<String, Object> toggleMovieInWatchlist(String movieId, String email, WatchlistStatus status) {
-        Long userId = userLookupService.getUserIdByEmail(email);
-
+    public Map<String, Object> toggleMovieInWatchlist(String movieId, Long userId, WatchlistStatus status) {
         Optional<WatchlistMovie> existing = movieRepo.findByUserIdAndMovieId(userId, movieId);
         if (existing.isPresent()) {
             movieRepo.delete(existing.get());
+            leaderboardService.record(LeaderboardService.Board.WATCHLISTS, "movie", movieId, -1);
             Map<String, Object> result = new HashMap<>();
             result.put("inWatchlist", false);
             return result;
@@ -57,6 +55,7 @@ public class WatchlistService {
         wlMovie.setMovieId(movieId);
         wlMovie.setStatus(status != null ? status : WatchlistStatus.PLAN_TO_WATCH);
         movieRepo.save(wlMovie);
+        leaderboardService.record(LeaderboardService.Board.WATCHLISTS, "movie", movieId, 1);
         Map<String, Object> result = new HashMap<>();
         result.put("inWatchlist", true);
         result.put("status", wlMovie.getStatus());
@@ -65,11 +64,10 @@ public class WatchlistService {
 
     @Transactional
     @Caching(evict = {
-        @CacheEvict(value = "userWatchlistMovies", key = "#email"),
-        @CacheEvict(value = "userWatchlistMovieStatus", key = "#email + '_' + #movieId")
+        @CacheEvict(value = "userWatchlistMovies", key = "#userId"),
+        @CacheEvict(value = "userWatchlistMovieStatus", key = "#userId + '_' + #movieId")
     })
-    public Map<String, Object> updateMovieStatus(String movieId, String email, WatchlistStatus status) {
-        Long userId = userLookupService.getUserIdByEmail(email);
+    public Map<String, Object> updateMovieStatus(String movieId, Long userId, WatchlistStatus status) {
         WatchlistMovie wlMovie = movieRepo.findByUserIdAndMovieId(userId, movieId)
                 .orElseGet(() -> {
                     WatchlistMovie movie = new WatchlistMovie();
@@ -77,17 +75,20 @@ public class WatchlistService {
                     movie.setMovieId(movieId);
                     return movie;
                 });
+        boolean created = wlMovie.getId() == null;
         wlMovie.setStatus(status);
         movieRepo.save(wlMovie);
+        if (created) {
+            leaderboardService.record(LeaderboardService.Board.WATCHLISTS, "movie", movieId, 1);
+        }
         Map<String, Object> result = new HashMap<>();
         result.put("inWatchlist", true);
         result.put("status", wlMovie.getStatus());
         return result;
     }
 
-    @Cacheable(value = "userWatchlistMovieStatus", key = "#email + '_' + #movieId")
-    public Map<String, Object> checkMovieStatus(String movieId, String email) {
-        Long userId = userLookupService.getUserIdByEmail(email);
+    @Cacheable(value = "userWatchlistMovieStatus", key = "#userId + '_' + #movieId")
+    public Map<String, Object> checkMovieStatus(String movieId, Long userId) {
         Optional<WatchlistMovie> movie = movieRepo.findByUserIdAndMovieId(userId, movieId);
         Map<String, Object> result = new HashMap<>();
         result.put("inWatchlist", movie.isPresent());
@@ -95,8 +96,7 @@ public class WatchlistService {
         return result;
     }
 
-    public Map<String, Object> getMovieWatchlistStatusBatch(List<String> movieIds, String email) {
-        Long userId = userLookupService.getUserIdByEmail(email);
+    public Map<String, Object> getMovieWatchlistStatusBatch(List<String> movieIds, Long userId) {
         Map<String, Object> results = new HashMap<>();
         for (String movieId : movieIds) {
             Optional<WatchlistMovie> movie = movieRepo.findByUserIdAndMovieId(userId, movieId);
@@ -112,23 +112,21 @@ public class WatchlistService {
         return results;
     }
 
-    @Cacheable(value = "userWatchlistSeries", key = "#email")
-    public List<WatchlistSerie> getUserWatchlistSeries(String email) {
-        Long userId = userLookupService.getUserIdByEmail(email);
+    @Cacheable(value = "userWatchlistSeries", key = "#userId")
+    public List<WatchlistSerie> getUserWatchlistSeries(Long userId) {
         return serieRepo.findByUserIdOrderByAddedAtDesc(userId);
     }
 
     @Transactional
     @Caching(evict = {
-        @CacheEvict(value = "userWatchlistSeries", key = "#email"),
-        @CacheEvict(value = "userWatchlistSerieStatus", key = "#email + '_' + #serieId")
+        @CacheEvict(value = "userWatchlistSeries", key = "#userId"),
+        @CacheEvict(value = "userWatchlistSerieStatus", key = "#userId + '_' + #serieId")
     })
-    public Map<String, Object> toggleSerieInWatchlist(String serieId, String email, WatchlistStatus status) {
-        Long userId = userLookupService.getUserIdByEmail(email);
-
+    public Map<String, Object> toggleSerieInWatchlist(String serieId, Long userId, WatchlistStatus status) {
         Optional<WatchlistSerie> existing = serieRepo.findByUserIdAndSerieId(userId, serieId);
         if (existing.isPresent()) {
             serieRepo.delete(existing.get());
+            leaderboardService.record(LeaderboardService.Board.WATCHLISTS, "serie", serieId, -1);
             Map<String, Object> result = new HashMap<>();
             result.put("inWatchlist", false);
             return result;
@@ -139,6 +137,7 @@ public class WatchlistService {
         wlSerie.setSerieId(serieId);
         wlSerie.setStatus(status != null ? status : WatchlistStatus.PLAN_TO_WATCH);
         serieRepo.save(wlSerie);
+        leaderboardService.record(LeaderboardService.Board.WATCHLISTS, "serie", serieId, 1);
         Map<String, Object> result = new HashMap<>();
         result.put("inWatchlist", true);
         result.put("status", wlSerie.getStatus());
@@ -147,11 +146,10 @@ public class WatchlistService {
 
     @Transactional
     @Caching(evict = {
-        @CacheEvict(value = "userWatchlistSeries", key = "#email"),
-        @CacheEvict(value = "userWatchlistSerieStatus", key = "#email + '_' + #serieId")
+        @CacheEvict(value = "userWatchlistSeries", key = "#userId"),
+        @CacheEvict(value = "userWatchlistSerieStatus", key = "#userId + '_' + #serieId")
     })
-    public Map<String, Object> updateSerieStatus(String serieId, String email, WatchlistStatus status) {
-        Long userId = userLookupService.getUserIdByEmail(email);
+    public Map<String, Object> updateSerieStatus(String serieId, Long userId, WatchlistStatus status) {
         WatchlistSerie wlSerie = serieRepo.findByUserIdAndSerieId(userId, serieId)
                 .orElseGet(() -> {
                     WatchlistSerie serie = new WatchlistSerie();
@@ -159,17 +157,20 @@ public class WatchlistService {
                     serie.setSerieId(serieId);
                     return serie;
                 });
+        boolean created = wlSerie.getId() == null;
         wlSerie.setStatus(status);
         serieRepo.save(wlSerie);
+        if (created) {
+            leaderboardService.record(LeaderboardService.Board.WATCHLISTS, "serie", serieId, 1);
+        }
         Map<String, Object> result = new HashMap<>();
         result.put("inWatchlist", true);
         result.put("status", wlSerie.getStatus());
         return result;
     }
 
-    @Cacheable(value = "userWatchlistSerieStatus", key = "#email + '_' + #serieId")
-    public Map<String, Object> checkSerieStatus(String serieId, String email) {
-        Long userId = userLookupService.getUserIdByEmail(email);
+    @Cacheable(value = "userWatchlistSerieStatus", key = "#userId + '_' + #serieId")
+    public Map<String, Object> checkSerieStatus(String serieId, Long userId) {
         Optional<WatchlistSerie> serie = serieRepo.findByUserIdAndSerieId(userId, serieId);
         Map<String, Object> result = new HashMap<>();
         result.put("inWatchlist", serie.isPresent());
@@ -177,8 +178,7 @@ public class WatchlistService {
         return result;
     }
 
-    public Map<String, Object> getSerieWatchlistStatusBatch(List<String> serieIds, String email) {
-        Long userId = userLookupService.getUserIdByEmail(email);
+    public Map<String, Object> getSerieWatchlistStatusBatch(List<String> serieIds, Long userId) {
         Map<String, Object> results = new HashMap<>();
         for (String serieId : serieIds) {
             Optional<WatchlistSerie> serie = serieRepo.findByUserIdAndSerieId(userId, serieId);
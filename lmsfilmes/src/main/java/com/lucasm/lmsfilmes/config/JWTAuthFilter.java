@@ -1,34 +1,87 @@
 package com.lucasm.lmsfilmes.config;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.lucasm.lmsfilmes.model.AuthenticatedUser;
 import com.lucasm.lmsfilmes.service.JWTUtils;
-import com.lucasm.lmsfilmes.service.UserDetailsService;
+import com.lucasm.lmsfilmes.service.TokenRevocationRegistry;
+import com.lucasm.lmsfilmes.service.UserStateService;
 
 import java.io.IOException;
+import java.util.List;
 
 /**
  * Filtro responsável por extrair, validar e propagar autenticação JWT no contexto de segurança.
+ * O principal é montado a partir dos claims verificados, sem consulta ao banco por requisição.
+ * Tokens revogados (logout, logout geral ou revogação administrativa) são descartados pela lista em memória.
  */
 @Component
 public class JWTAuthFilter extends OncePerRequestFilter {
 
+    /**
+     * Rotas públicas de catálogo que não dependem de autenticação e por isso dispensam a leitura do token.
+     */
+    private static final List<String> PUBLIC_CATALOG_PATHS = List.of(
+            "/movies/**", "/series/**", "/lms-filmes/movies/**", "/lms-filmes/series/**", "/actuator/health"
+    );
+
+    /**
+     * Rotas dentro do catálogo que exigem autenticação (ver `SecurityConfig`).
+     */
+    private static final List<String> AUTHENTICATED_CATALOG_PATHS = List.of(
+            "/movies/resolve", "/lms-filmes/movies/resolve"
+    );
+
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
     @Autowired
     private JWTUtils jwtUtils;
 
     @Autowired
-    private UserDetailsService userDetailsService;
+    private UserStateService userStateService;
+
+    @Autowired
+    private InternalIdentityVerifier identityVerifier;
+
+    @Autowired
+    private TokenRevocationRegistry revocationRegistry;
+
+    @Value("${jwt.auth.user-check.enabled:false}")
+    private boolean userCheckEnabled;
+
+    /**
+     * Ignora o filtro nas rotas públicas de catálogo, exceto nas que exigem autenticação.
+     *
+     * @param request requisição HTTP recebida.
+     * @return `true` quando a rota não precisar de resolução de autenticação.
+     */
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getServletPath();
+        if (AUTHENTICATED_CATALOG_PATHS.contains(path)) {
+            return false;
+        }
+        for (String pattern : PUBLIC_CATALOG_PATHS) {
+            if (PATH_MATCHER.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
 
     /**
      * Processa a requisição HTTP, validando token JWT e populando o SecurityContext quando válido.
@@ -39,9 +92,24 @@ public class JWTAuthFilter extends OncePerRequestFilter {
      * @throws ServletException quando houver falha de processamento no pipeline de filtros.
      * @throws IOException quando ocorrer erro de I/O durante o fluxo do filtro.
      */
-   @Override
+    @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
 
+        if (SecurityContextHolder.getContext().getAuthentication() != null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        InternalIdentityVerifier.Identity identity = identityVerifier.verify(request);
+        if (identity != null) {
+            Long userId = identity.userId().isEmpty() ? null : Long.valueOf(identity.userId());
+            if (!revocationRegistry.isRevoked(identity.tokenId(), userId, identity.issuedAtMillis())) {
+                authenticate(request, new AuthenticatedUser(userId, identity.email(), null, identity.role()));
+            }
+            filterChain.doFilter(request, response);
+            return;
+        }
+
         final String jwtToken = recuperarToken(request);
 
         if (jwtToken == null) {
@@ -49,29 +117,60 @@ public class JWTAuthFilter extends OncePerRequestFilter {
             return;
         }
 
-        String userEmail = null;
-        
+        Claims claims;
         try {
-            userEmail = jwtUtils.extractUsername(jwtToken);
-        } catch (Exception e) {
+            claims = jwtUtils.parseClaims(jwtToken);
+        } catch (JwtException | IllegalArgumentException e) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(userEmail);
-
-            if (jwtUtils.isTokenValid(jwtToken, userDetails)) {
-                UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
-                        userDetails, null, userDetails.getAuthorities()
-                );
-                authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authenticationToken);
-            }
+        Long userId = claims.get("id", Long.class);
+        if (!revocationRegistry.isRevoked(claims.getId(), userId, issuedAtMillis(claims))) {
+            authenticate(request, new AuthenticatedUser(
+                    userId,
+                    claims.getSubject(),
+                    claims.get("nickname", String.class),
+                    claims.get("role", String.class)
+            ));
         }
         filterChain.doFilter(request, response);
     }
 
+    private static long issuedAtMillis(Claims claims) {
+        return claims.getIssuedAt() != null ? claims.getIssuedAt().getTime() : 0L;
+    }
+
+    /**
+     * Popula o `SecurityContext` com o principal informado, respeitando a verificação opcional de estado.
+     *
+     * @param request requisição HTTP de origem.
+     * @param principal usuário montado a partir do token ou dos headers internos.
+     */
+    private void authenticate(HttpServletRequest request, AuthenticatedUser principal) {
+        if (principal.email() == null || !isUserActive(principal)) {
+            return;
+        }
+        UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
+                principal, null, principal.getAuthorities()
+        );
+        authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authenticationToken);
+    }
+
+    /**
+     * Aplica a verificação opcional de estado do usuário, habilitada por `jwt.auth.user-check.enabled`.
+     *
+     * @param principal usuário montado a partir dos claims.
+     * @return `true` quando a verificação estiver desabilitada ou o usuário continuar ativo.
+     */
+    private boolean isUserActive(AuthenticatedUser principal) {
+        if (!userCheckEnabled || principal.id() == null) {
+            return true;
+        }
+        return userStateService.isActive(principal.id());
+    }
+
     /**
      * Recupera o token de autenticação a partir do cookie `auth_token` ou header `Authorization`.
      *
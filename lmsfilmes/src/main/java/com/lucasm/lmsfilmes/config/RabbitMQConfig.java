@@ -1,5 +1,6 @@
 package com.lucasm.lmsfilmes.config;
 
+import org.springframework.amqp.core.AnonymousQueue;
 import org.springframework.amqp.core.Binding;
 import org.springframework.amqp.core.BindingBuilder;
 import org.springframework.amqp.core.DirectExchange;
@@ -24,6 +25,7 @@ public class RabbitMQConfig {
     public static final String CATALOG_EXCHANGE = "catalog.direct";
     public static final String MOVIE_SYNC_QUEUE = "movie.catalog.sync.queue";
     public static final String SERIE_SYNC_QUEUE = "serie.catalog.sync.queue";
+    public static final String CATALOG_ENRICHED_ROUTING_KEY = "catalog.enriched";
 
     @Bean
     public Jackson2JsonMessageConverter jackson2JsonMessageConverter() {
@@ -48,6 +50,17 @@ public class RabbitMQConfig {
         return new Queue(MOVIE_QUEUE, true);
     }
 
+    // Fila exclusiva por instância: cada réplica recebe todos os cadastros para manter seu filtro de disponibilidade
+    @Bean
+    public Queue userAvailabilityQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding userAvailabilityBinding(Queue userAvailabilityQueue, TopicExchange userExchange) {
+        return BindingBuilder.bind(userAvailabilityQueue).to(userExchange).with(USER_REGISTERED_ROUTING_KEY);
+    }
+
     // --- Beans de Catálogo ---
     @Bean
     public DirectExchange catalogExchange() {
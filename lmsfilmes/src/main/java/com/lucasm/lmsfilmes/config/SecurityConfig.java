@@ -1,8 +1,11 @@
 package com.lucasm.lmsfilmes.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
@@ -41,6 +44,8 @@ public class SecurityConfig {
     SecurityFilterChain securityFilterChain(HttpSecurity http, AuthenticationProvider authenticationProvider) throws Exception{
         http.csrf(AbstractHttpConfigurer::disable)
                 .authorizeHttpRequests(auth-> auth
+                    // Resolução em lote dispara consultas ao TMDB e grava cache por título: só para a importação autenticada
+                    .requestMatchers(HttpMethod.POST, "/movies/resolve", "/lms-filmes/movies/resolve").authenticated()
                     .requestMatchers(
                         "/auth/**", "/series/**", "/movies/**", "/actuator/health",
                         "/lms-filmes/auth/**", "/lms-filmes/series/**", "/lms-filmes/movies/**"
@@ -59,6 +64,7 @@ public class SecurityConfig {
 
     /**
      * Cria o provider de autenticação baseado em usuário/senha.
+     * Hashes com custo abaixo do configurado são refeitos de forma transparente no login.
      *
      * @param passwordEncoder codificador de senha utilizado na comparação de credenciais.
      * @param userDetailsService serviço de carregamento de usuários.
@@ -68,18 +74,29 @@ public class SecurityConfig {
     AuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder, UserDetailsService userDetailsService){
         DaoAuthenticationProvider provider = new DaoAuthenticationProvider(userDetailsService); 
         provider.setPasswordEncoder(passwordEncoder); 
+        provider.setUserDetailsPasswordService(userDetailsService);
         
         return provider;
     }
 
     /**
-     * Disponibiliza o codificador de senha padrão da aplicação.
+     * Disponibiliza o codificador de senha padrão da aplicação, executado em pool dedicado e limitado.
      *
-     * @return instância de BCrypt para hash de senha.
+     * @param strength custo (log2 de rounds) do BCrypt.
+     * @param threads threads dedicadas ao hashing; `0` usa metade dos núcleos disponíveis.
+     * @param queueCapacity tarefas de hashing aceitas em espera antes de responder 503.
+     * @param timeoutMillis tempo máximo de espera por um hash, em milissegundos.
+     * @param meterRegistry registro de métricas da aplicação.
+     * @return instância de BCrypt limitada para hash de senha.
      */
     @Bean
-    PasswordEncoder passwordEncoder(){
-        return new BCryptPasswordEncoder();
+    PasswordEncoder passwordEncoder(@Value("${auth.hashing.bcrypt-strength:10}") int strength,
+                                    @Value("${auth.hashing.threads:0}") int threads,
+                                    @Value("${auth.hashing.queue-capacity:64}") int queueCapacity,
+                                    @Value("${auth.hashing.timeout-ms:5000}") long timeoutMillis,
+                                    MeterRegistry meterRegistry){
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(strength), poolSize, queueCapacity, timeoutMillis, meterRegistry);
     }
 
     /**
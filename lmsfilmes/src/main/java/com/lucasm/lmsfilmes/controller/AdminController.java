@@ -0,0 +1,40 @@
+package com.lucasm.lmsfilmes.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.lucasm.lmsfilmes.service.TokenRevocationService;
+
+/**
+ * Expõe operações administrativas sobre contas de usuário (restritas ao perfil `ADMIN`).
+ */
+@RestController
+@RequestMapping("/admin")
+public class AdminController {
+
+    private final TokenRevocationService tokenRevocationService;
+
+    /**
+     * Cria o controller com o serviço de revogação de tokens.
+     *
+     * @param tokenRevocationService serviço de revogação de tokens.
+     */
+    public AdminController(TokenRevocationService tokenRevocationService) {
+        this.tokenRevocationService = tokenRevocationService;
+    }
+
+    /**
+     * Revoga à força todas as sessões ativas de um usuário.
+     *
+     * @param userId identificador do usuário.
+     * @return resposta sem corpo.
+     */
+    @PostMapping("/users/{userId}/revoke-tokens")
+    public ResponseEntity<Void> revokeTokens(@PathVariable Long userId) {
+        tokenRevocationService.revokeAllForUser(userId);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -4,20 +4,31 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseCookie;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.CookieValue;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 
 import com.lucasm.lmsfilmes.dto.ApiResponseDTO;
 import com.lucasm.lmsfilmes.dto.AuthResponseDTO;
+import com.lucasm.lmsfilmes.dto.AvailabilityResponseDTO;
 import com.lucasm.lmsfilmes.dto.EmailRequestDTO;
 import com.lucasm.lmsfilmes.dto.LoginRequestDTO;
 import com.lucasm.lmsfilmes.dto.RegisterRequestDTO;
 import com.lucasm.lmsfilmes.dto.ResetPasswordDTO;
+import com.lucasm.lmsfilmes.model.AuthenticatedUser;
 import com.lucasm.lmsfilmes.service.AuthService;
+import com.lucasm.lmsfilmes.service.UserAvailabilityService;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 
 /**
@@ -28,41 +39,71 @@ import jakarta.validation.Valid;
 public class AuthController {
 
     private final AuthService authService;
+    private final UserAvailabilityService availabilityService;
 
     /**
-     * Cria o controller com o serviço de autenticação.
+     * Cria o controller com os serviços de autenticação e de disponibilidade de cadastro.
      *
      * @param authService serviço responsável pelas regras de autenticação.
+     * @param availabilityService serviço de checagem de e-mail e nickname livres.
      */
-    public AuthController(AuthService authService) {
+    public AuthController(AuthService authService, UserAvailabilityService availabilityService) {
         this.authService = authService;
+        this.availabilityService = availabilityService;
     }
 
     /**
      * Endpoint de cadastro de usuário.
      *
      * @param reg dados de cadastro enviados pelo cliente.
+     * @param request requisição HTTP, usada para identificar o IP de origem.
      * @return resposta com token e dados do usuário criado.
      */
     @PostMapping("/register")
     @ResponseStatus(HttpStatus.CREATED)
     public ResponseEntity<AuthResponseDTO> register(
-            @Valid @RequestBody RegisterRequestDTO reg) {
+            @Valid @RequestBody RegisterRequestDTO reg,
+            HttpServletRequest request) {
         
-        return ResponseEntity.status(HttpStatus.CREATED).body(authService.register(reg));
+        return ResponseEntity.status(HttpStatus.CREATED).body(authService.register(reg, resolveClientIp(request)));
+    }
+
+    /**
+     * Endpoint de checagem de disponibilidade usado pelo formulário de cadastro.
+     *
+     * @param email e-mail a verificar, opcional.
+     * @param nickname nickname a verificar, opcional.
+     * @return disponibilidade de cada campo informado.
+     * @throws ResponseStatusException quando nenhum campo for informado.
+     */
+    @GetMapping("/availability")
+    public ResponseEntity<AvailabilityResponseDTO> availability(
+            @RequestParam(required = false) String email,
+            @RequestParam(required = false) String nickname) {
+        boolean hasEmail = email != null && !email.isBlank();
+        boolean hasNickname = nickname != null && !nickname.isBlank();
+        if (!hasEmail && !hasNickname) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Informe e-mail ou nickname.");
+        }
+
+        return ResponseEntity.ok(new AvailabilityResponseDTO(
+                hasEmail ? availabilityService.isEmailAvailable(email) : null,
+                hasNickname ? availabilityService.isNicknameAvailable(nickname) : null));
     }
 
     /**
      * Endpoint de login com criação de cookie de autenticação.
      *
      * @param req credenciais de acesso.
+     * @param request requisição HTTP, usada para identificar o IP de origem.
      * @return resposta com token e dados do usuário autenticado.
      */
     @PostMapping("/login")
     public ResponseEntity<AuthResponseDTO> login(
-            @Valid @RequestBody LoginRequestDTO req) {
+            @Valid @RequestBody LoginRequestDTO req,
+            HttpServletRequest request) {
         
-        AuthResponseDTO authResponse = authService.login(req);
+        AuthResponseDTO authResponse = authService.login(req, resolveClientIp(request));
 
         ResponseCookie cookie = ResponseCookie.from("auth_token", authResponse.token())
                 .httpOnly(true)
@@ -78,21 +119,42 @@ public class AuthController {
     }
 
     /**
-     * Endpoint de logout com expiração imediata do cookie de autenticação.
+     * Endpoint de logout: revoga o token da sessão atual e expira o cookie de autenticação.
      *
+     * @param cookieToken token enviado no cookie `auth_token`, quando houver.
+     * @param authorization header `Authorization`, quando houver.
      * @return resposta sem corpo confirmando encerramento de sessão.
      */
     @PostMapping("/logout")
-    public ResponseEntity<Void> logout() {
-        ResponseCookie cookie = ResponseCookie.from("auth_token", "")
-                .httpOnly(true)
-                .secure(false)
-                .path("/")
-                .maxAge(0) 
+    public ResponseEntity<Void> logout(
+            @CookieValue(name = "auth_token", required = false) String cookieToken,
+            @RequestHeader(name = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        String token = cookieToken;
+        if ((token == null || token.isBlank()) && authorization != null && authorization.startsWith("Bearer ")) {
+            token = authorization.substring(7);
+        }
+        authService.logout(token);
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.SET_COOKIE, expiredAuthCookie().toString())
                 .build();
+    }
+
+    /**
+     * Endpoint de logout em todos os dispositivos: revoga todos os tokens já emitidos para o usuário.
+     *
+     * @param user usuário autenticado.
+     * @return resposta sem corpo confirmando encerramento das sessões.
+     */
+    @PostMapping("/logout-all")
+    public ResponseEntity<Void> logoutAll(@AuthenticationPrincipal AuthenticatedUser user) {
+        if (user == null || user.id() == null) {
+            throw new BadCredentialsException("Usuário não autenticado.");
+        }
+        authService.logoutEverywhere(user.id());
 
         return ResponseEntity.ok()
-                .header(HttpHeaders.SET_COOKIE, cookie.toString())
+                .header(HttpHeaders.SET_COOKIE, expiredAuthCookie().toString())
                 .build();
     }
 
@@ -123,4 +185,29 @@ public class AuthController {
         authService.resetPassword(resetPasswordDTO);
         return ResponseEntity.ok(new ApiResponseDTO("Senha redefinida com sucesso."));
     }
-}
\ No newline at end of file
+
+    private ResponseCookie expiredAuthCookie() {
+        return ResponseCookie.from("auth_token", "")
+                .httpOnly(true)
+                .secure(false)
+                .path("/")
+                .maxAge(0) 
+                .build();
+    }
+
+    /**
+     * Resolve o IP do cliente. Atrás do gateway, usa o último endereço de `X-Forwarded-For`,
+     * que é o adicionado pelo próprio gateway e não pode ser forjado pelo cliente.
+     *
+     * @param request requisição HTTP de origem.
+     * @return IP do cliente.
+     */
+    private String resolveClientIp(HttpServletRequest request) {
+        String forwardedFor = request.getHeader("X-Forwarded-For");
+        if (forwardedFor != null && !forwardedFor.isBlank()) {
+            String[] hops = forwardedFor.split(",");
+            return hops[hops.length - 1].trim();
+        }
+        return request.getRemoteAddr();
+    }
+}
@@ -3,6 +3,8 @@ package com.lucasm.lmsfilmes.controller;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -12,6 +14,7 @@ import java.util.Map;
 
 import com.lucasm.lmsfilmes.dto.TmdbDTO;
 import com.lucasm.lmsfilmes.dto.TmdbPageDTO;
+import com.lucasm.lmsfilmes.dto.TitleLookupDTO;
 import com.lucasm.lmsfilmes.service.MovieService;
 
 /**
@@ -57,6 +60,18 @@ public class MovieController {
         return ResponseEntity.ok(movieService.getMoviesBatch(ids));
     }
 
+    /**
+     * Resolve um lote de títulos de outras plataformas (IMDb, Letterboxd) para ids do TMDB.
+     * Usado pela importação de avaliações do lmsrating, que repassa o token do usuário; exige autenticação.
+     *
+     * @param lookups títulos a resolver (até 100).
+     * @return mapa {@code key -> TmdbDTO} apenas com os títulos encontrados.
+     */
+    @PostMapping("/resolve")
+    public ResponseEntity<Map<String, TmdbDTO>> resolveMovies(@RequestBody List<TitleLookupDTO> lookups) {
+        return ResponseEntity.ok(movieService.resolveMoviesBatch(lookups));
+    }
+
     /**
      * Retorna os detalhes de um filme específico.
      *
@@ -0,0 +1,12 @@
+package com.lucasm.lmsfilmes.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+/**
+ * DTO de resposta da checagem de disponibilidade de cadastro; só traz os campos consultados.
+ */
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record AvailabilityResponseDTO(
+    Boolean email,
+    Boolean nickname
+) {}
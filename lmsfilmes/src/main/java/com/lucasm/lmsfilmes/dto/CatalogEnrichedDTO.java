@@ -0,0 +1,9 @@
+package com.lucasm.lmsfilmes.dto;
+
+/**
+ * Evento publicado quando duração e gêneros de um título são preenchidos no catálogo.
+ *
+ * @param type tipo do título (`movie` ou `serie`).
+ * @param id id do título no TMDB.
+ */
+public record CatalogEnrichedDTO(String type, String id) {}
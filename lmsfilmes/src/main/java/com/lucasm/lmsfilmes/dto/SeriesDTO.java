@@ -35,6 +35,7 @@ public record SeriesDTO(
     String media_type,
     double vote_average,
     int vote_count,
+    List<Integer> episode_run_time,
 
     Credits credits,
     Videos videos,
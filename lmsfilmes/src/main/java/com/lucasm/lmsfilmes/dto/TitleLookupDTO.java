@@ -0,0 +1,11 @@
+package com.lucasm.lmsfilmes.dto;
+
+/**
+ * Título a resolver para um id do TMDB, vindo de uma importação de outra plataforma.
+ *
+ * @param key identificador da linha no lote, devolvido como chave da resposta.
+ * @param imdbId id do IMDb (`tt...`), quando conhecido; tem prioridade sobre a busca por título.
+ * @param title título original da plataforma de origem.
+ * @param year ano de lançamento, usado para desempatar a busca.
+ */
+public record TitleLookupDTO(String key, String imdbId, String title, Integer year) {}
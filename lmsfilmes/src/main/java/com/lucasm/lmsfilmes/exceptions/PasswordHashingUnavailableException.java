@@ -0,0 +1,30 @@
+package com.lucasm.lmsfilmes.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exceção para quando o pool de hashing de senhas está saturado e não aceita novas tarefas.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class PasswordHashingUnavailableException extends RuntimeException {
+
+    /**
+     * Inicializa uma nova instância de PasswordHashingUnavailableException.
+     *
+     * @param message mensagem descritiva do erro.
+     */
+    public PasswordHashingUnavailableException(String message) {
+        super(message);
+    }
+
+    /**
+     * Inicializa uma nova instância de PasswordHashingUnavailableException.
+     *
+     * @param message mensagem descritiva do erro.
+     * @param cause causa original da falha.
+     */
+    public PasswordHashingUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,33 @@
+package com.lucasm.lmsfilmes.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exceção para quando um IP ou conta excede o limite de tentativas de autenticação na janela configurada.
+ */
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class TooManyAttemptsException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    /**
+     * Inicializa uma nova instância de TooManyAttemptsException.
+     *
+     * @param message mensagem descritiva do erro.
+     * @param retryAfterSeconds tempo sugerido, em segundos, até uma nova tentativa.
+     */
+    public TooManyAttemptsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * Retorna o tempo sugerido até uma nova tentativa.
+     *
+     * @return segundos até a liberação.
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,39 @@
+package com.lucasm.lmsfilmes.model;
+
+import java.io.Serializable;
+import java.security.Principal;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * Principal montado a partir dos claims verificados do JWT, sem consulta ao banco.
+ *
+ * @param id identificador do usuário.
+ * @param email e-mail (subject) do usuário.
+ * @param nickname apelido público do usuário.
+ * @param role perfil de acesso do usuário.
+ */
+public record AuthenticatedUser(Long id, String email, String nickname, String role) implements Principal, Serializable {
+
+    /**
+     * Retorna o e-mail do usuário, mantendo compatível o uso de `Authentication#getName()`.
+     *
+     * @return e-mail do usuário autenticado.
+     */
+    @Override
+    public String getName() {
+        return email;
+    }
+
+    /**
+     * Converte o perfil do token em autoridades do Spring Security.
+     *
+     * @return autoridades concedidas ao usuário.
+     */
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority(role == null || role.isBlank() ? "USER" : role));
+    }
+}
@@ -16,5 +16,10 @@ public class Movie {
 
     @Column(name = "poster_path", columnDefinition = "TEXT")
     private String posterPath;
+
+    private Integer runtime; // Duração em minutos, preenchida a partir do TMDB
+
+    @Column(columnDefinition = "text[]")
+    private String[] genres;
 }
 
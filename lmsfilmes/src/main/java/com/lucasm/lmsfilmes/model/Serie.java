@@ -16,4 +16,10 @@ public class Serie {
 
     @Column(name = "poster_path", columnDefinition = "TEXT")
     private String posterPath;
+
+    @Column(name = "episode_runtime")
+    private Integer episodeRuntime; // Duração típica de um episódio em minutos, preenchida a partir do TMDB
+
+    @Column(columnDefinition = "text[]")
+    private String[] genres;
 }
\ No newline at end of file
@@ -16,21 +16,26 @@ import java.util.List;
 @Getter
 @Setter
 @Entity
-@Table(name = "users")
+@Table(name = "users", uniqueConstraints = {
+    @UniqueConstraint(name = User.EMAIL_CONSTRAINT, columnNames = "email"),
+    @UniqueConstraint(name = User.NICKNAME_CONSTRAINT, columnNames = "nickname")
+})
 public class User implements UserDetails, Serializable {
 
     private static final long serialVersionUID = 1L;
 
+    public static final String EMAIL_CONSTRAINT = "uk_users_email";
+    public static final String NICKNAME_CONSTRAINT = "uk_users_nickname";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
     private String name;
 
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     private String email;
 
-    @Column(unique = true)
     private String nickname;
 
     @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
@@ -1,9 +1,17 @@
 package com.lucasm.lmsfilmes.repository;
 
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import com.lucasm.lmsfilmes.model.Movie;
 
 @Repository
 public interface MovieRepository extends JpaRepository<Movie, String> {
-}
\ No newline at end of file
+
+    @Query("SELECT m FROM Movie m WHERE (m.runtime IS NULL OR m.genres IS NULL) AND m.movieId > :after ORDER BY m.movieId")
+    List<Movie> findPendingEnrichment(@Param("after") String after, Pageable pageable);
+}
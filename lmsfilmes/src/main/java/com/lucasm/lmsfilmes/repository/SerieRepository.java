@@ -1,9 +1,17 @@
 package com.lucasm.lmsfilmes.repository;
 
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import com.lucasm.lmsfilmes.model.Serie;
 
 @Repository
 public interface SerieRepository extends JpaRepository<Serie, String> {
-}
\ No newline at end of file
+
+    @Query("SELECT s FROM Serie s WHERE (s.episodeRuntime IS NULL OR s.genres IS NULL) AND s.serieId > :after ORDER BY s.serieId")
+    List<Serie> findPendingEnrichment(@Param("after") String after, Pageable pageable);
+}
@@ -0,0 +1,111 @@
+package com.lucasm.lmsfilmes.scheduler;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.AbstractJavaTypeMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.lucasm.lmsfilmes.service.BatchingPublisher;
+
+/**
+ * Publica no RabbitMQ os eventos de `outbox_events` gravados por este serviço, em lotes.
+ * Cada lote é travado com `FOR UPDATE SKIP LOCKED`, publicado pelo {@link BatchingPublisher} aguardando os publisher
+ * confirms de todas as mensagens e removido na mesma transação; réplicas do serviço drenam lotes disjuntos em paralelo.
+ * A entrega é "pelo menos uma vez": se o commit falhar depois dos confirms, o lote é publicado de novo,
+ * e os consumidores (upserts de catálogo, e-mails) já toleram repetição.
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private record OutboxRow(long id, String exchange, String routingKey, String contentType, String typeId, String payload) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BatchingPublisher publisher;
+    private final String producer;
+    private final int batchSize;
+    private final long confirmTimeoutMs;
+
+    public OutboxRelay(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, BatchingPublisher publisher,
+                       @Value("${spring.application.name}") String producer,
+                       @Value("${outbox.relay.batch-size:200}") int batchSize,
+                       @Value("${outbox.relay.confirm-timeout-ms:5000}") long confirmTimeoutMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.publisher = publisher;
+        this.producer = producer;
+        this.batchSize = batchSize;
+        this.confirmTimeoutMs = confirmTimeoutMs;
+    }
+
+    /**
+     * Drena o outbox enquanto houver lotes cheios; falhas deixam os eventos na tabela para o próximo ciclo.
+     */
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:500}")
+    public void drain() {
+        try {
+            while (Boolean.TRUE.equals(transactionTemplate.execute(status -> relayBatch()))) {
+                // continua até o lote vir incompleto
+            }
+        } catch (Exception e) {
+            log.warn("Relay do outbox interrompido, nova tentativa no próximo ciclo: {}", e.getMessage());
+        }
+    }
+
+    private boolean relayBatch() {
+        List<OutboxRow> rows = jdbcTemplate.query(
+            "SELECT id, exchange, routing_key, content_type, type_id, payload FROM outbox_events " +
+            "WHERE producer = ? ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED",
+            (rs, rowNum) -> new OutboxRow(rs.getLong("id"), rs.getString("exchange"), rs.getString("routing_key"),
+                    rs.getString("content_type"), rs.getString("type_id"), rs.getString("payload")),
+            producer, batchSize);
+        if (rows.isEmpty()) {
+            return false;
+        }
+
+        CompletableFuture<?>[] confirms = rows.stream()
+                .map(row -> publisher.send(row.exchange(), row.routingKey(), toMessage(row)))
+                .toArray(CompletableFuture[]::new);
+        try {
+            CompletableFuture.allOf(confirms).get(confirmTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AmqpException("Relay do outbox interrompido", e);
+        } catch (ExecutionException | TimeoutException e) {
+            // Lote volta para a tabela com o rollback; mensagens já confirmadas serão repetidas
+            throw new AmqpException("Lote do outbox sem confirmação do broker", e);
+        }
+
+        String placeholders = String.join(",", Collections.nCopies(rows.size(), "?"));
+        jdbcTemplate.update("DELETE FROM outbox_events WHERE id IN (" + placeholders + ")",
+                rows.stream().map(OutboxRow::id).toArray());
+        return rows.size() == batchSize;
+    }
+
+    private static Message toMessage(OutboxRow row) {
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(row.contentType());
+        properties.setContentEncoding(StandardCharsets.UTF_8.name());
+        if (row.typeId() != null) {
+            properties.setHeader(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME, row.typeId());
+        }
+        return new Message(row.payload().getBytes(StandardCharsets.UTF_8), properties);
+    }
+}
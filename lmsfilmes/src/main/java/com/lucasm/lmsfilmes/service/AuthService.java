@@ -1,12 +1,17 @@
 package com.lucasm.lmsfilmes.service;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.hibernate.exception.ConstraintViolationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -19,9 +24,8 @@ import com.lucasm.lmsfilmes.dto.LoginRequestDTO;
 import com.lucasm.lmsfilmes.dto.RegisterRequestDTO;
 import com.lucasm.lmsfilmes.dto.ResetPasswordDTO;
 import com.lucasm.lmsfilmes.dto.UserResponseDTO;
-import com.lucasm.lmsfilmes.model.PasswordResetToken;
+import com.lucasm.lmsfilmes.exceptions.TooManyAttemptsException;
 import com.lucasm.lmsfilmes.model.User;
-import com.lucasm.lmsfilmes.repository.PasswordResetTokenRepository;
 import com.lucasm.lmsfilmes.repository.UserRepository;
 
 /**
@@ -34,10 +38,13 @@ public class AuthService {
 
     private final RabbitMQProducer rabbitMQProducer;
     private final UserRepository usersRepo;
-    private final PasswordResetTokenRepository tokenRepository;
+    private final PasswordResetTokenStore resetTokenStore;
     private final JWTUtils jwtUtils;
     private final AuthenticationManager authenticationManager;
     private final PasswordEncoder passwordEncoder;
+    private final LoginThrottleService loginThrottleService;
+    private final TokenRevocationService tokenRevocationService;
+    private final UserAvailabilityService availabilityService;
     private final String frontendBaseUrl;
 
     /**
@@ -45,42 +52,54 @@ public class AuthService {
      *
      * @param rabbitMQProducer produtor de eventos para notificação por e-mail.
      * @param usersRepo repositório de usuários.
-     * @param tokenRepository repositório de tokens de reset de senha.
+     * @param resetTokenStore armazenamento dos tokens de reset de senha.
      * @param jwtUtils utilitário para geração e validação de JWT.
      * @param authenticationManager gerenciador de autenticação do Spring Security.
      * @param passwordEncoder codificador de senha.
+     * @param loginThrottleService limitador de tentativas por IP e por conta.
+     * @param tokenRevocationService serviço de revogação de tokens.
+     * @param availabilityService filtro de e-mails e nicknames já cadastrados.
      * @param frontendBaseUrl URL base do frontend para compor links de recuperação.
      */
     public AuthService(RabbitMQProducer rabbitMQProducer, UserRepository usersRepo,
-                       PasswordResetTokenRepository tokenRepository, JWTUtils jwtUtils,
+                       PasswordResetTokenStore resetTokenStore, JWTUtils jwtUtils,
                        AuthenticationManager authenticationManager, PasswordEncoder passwordEncoder,
+                       LoginThrottleService loginThrottleService, TokenRevocationService tokenRevocationService,
+                       UserAvailabilityService availabilityService,
                        @Value("${frontend.base-url}") String frontendBaseUrl) {
         this.rabbitMQProducer = rabbitMQProducer;
         this.usersRepo = usersRepo;
-        this.tokenRepository = tokenRepository;
+        this.resetTokenStore = resetTokenStore;
         this.jwtUtils = jwtUtils;
         this.authenticationManager = authenticationManager;
         this.passwordEncoder = passwordEncoder;
+        this.loginThrottleService = loginThrottleService;
+        this.tokenRevocationService = tokenRevocationService;
+        this.availabilityService = availabilityService;
         this.frontendBaseUrl = frontendBaseUrl;
     }
 
     /**
-     * Registra um novo usuário, valida unicidade de e-mail/nickname e retorna sessão autenticada.
+     * Registra um novo usuário e retorna sessão autenticada.
+     * E-mail e nickname já cadastrados são recusados pelos filtros de disponibilidade antes do hash da senha,
+     * sem ocupar o pool do BCrypt; cadastros simultâneos com os mesmos dados são barrados pelas constraints da tabela.
      *
      * @param registrationRequest dados de cadastro do usuário.
+     * @param clientIp IP de origem, usado na limitação de tentativas.
      * @return token JWT e dados públicos do usuário criado.
      * @throws ResponseStatusException quando e-mail ou nickname já estiverem cadastrados.
+     * @throws TooManyAttemptsException quando o IP exceder o limite de tentativas.
      */
     @Transactional
-    public AuthResponseDTO register(RegisterRequestDTO registrationRequest) {
-        if (usersRepo.findByEmail(registrationRequest.email()).isPresent()) {
-            log.warn("Tentativa de registro falhou: E-mail já cadastrado ({})", registrationRequest.email());
-            throw new ResponseStatusException(HttpStatus.CONFLICT, "E-mail já cadastrado.");
-        }
+    public AuthResponseDTO register(RegisterRequestDTO registrationRequest, String clientIp) {
+        loginThrottleService.checkAllowed(clientIp, null);
+        loginThrottleService.recordIpAttempt(clientIp);
 
-        if (usersRepo.findByNickname(registrationRequest.nickname()).isPresent()) {
-            log.warn("Tentativa de registro falhou: Nickname já cadastrado ({})", registrationRequest.nickname());
-            throw new ResponseStatusException(HttpStatus.CONFLICT, "Nickname já cadastrado.");
+        if (!availabilityService.isEmailAvailable(registrationRequest.email())) {
+            throw emailConflict(registrationRequest);
+        }
+        if (!availabilityService.isNicknameAvailable(registrationRequest.nickname())) {
+            throw nicknameConflict(registrationRequest);
         }
 
         User ourUser = new User();
@@ -89,7 +108,13 @@ public class AuthService {
         ourUser.setNickname(registrationRequest.nickname());
         ourUser.setPassword(passwordEncoder.encode(registrationRequest.password()));
 
-        User savedUser = usersRepo.save(ourUser);
+        User savedUser;
+        try {
+            savedUser = usersRepo.saveAndFlush(ourUser);
+        } catch (DataIntegrityViolationException e) {
+            throw toRegistrationConflict(e, registrationRequest);
+        }
+        availabilityService.markTaken(savedUser);
         rabbitMQProducer.sendUserRegistered(savedUser);
         
         var jwt = jwtUtils.generateToken(savedUser);
@@ -99,26 +124,34 @@ public class AuthService {
 
     /**
      * Autentica credenciais e retorna uma nova sessão JWT para o usuário.
+     * O usuário carregado pelo `AuthenticationManager` é reaproveitado na geração do token.
      *
      * @param loginRequest credenciais de login.
+     * @param clientIp IP de origem, usado na limitação de tentativas.
      * @return token JWT e dados públicos do usuário autenticado.
      * @throws BadCredentialsException quando as credenciais forem inválidas.
      * @throws UsernameNotFoundException quando o usuário autenticado não for encontrado no banco.
+     * @throws TooManyAttemptsException quando o IP ou a conta exceder o limite de tentativas.
      */
-    public AuthResponseDTO login(LoginRequestDTO loginRequest) {
+    public AuthResponseDTO login(LoginRequestDTO loginRequest, String clientIp) {
+        loginThrottleService.checkAllowed(clientIp, loginRequest.email());
+
+        Authentication authentication;
         try {
-            authenticationManager.authenticate(
+            authentication = authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(loginRequest.email(), loginRequest.password()));
         } catch (BadCredentialsException e) {
+            loginThrottleService.recordFailure(clientIp, loginRequest.email());
             log.warn("Login falhou: Credenciais inválidas para o email: {}", loginRequest.email());
             throw new BadCredentialsException("Credenciais inválidas.");
         }
 
-        var user = usersRepo.findByEmail(loginRequest.email())
-                .orElseThrow(() -> {
-                    log.error("Login falhou: Usuário autenticado mas não encontrado no DB: {}", loginRequest.email());
-                    return new UsernameNotFoundException("Usuário não encontrado");
-                });
+        loginThrottleService.recordSuccess(loginRequest.email());
+
+        if (!(authentication.getPrincipal() instanceof User user)) {
+            log.error("Login falhou: Principal inesperado para o email: {}", loginRequest.email());
+            throw new UsernameNotFoundException("Usuário não encontrado");
+        }
 
         var jwt = jwtUtils.generateToken(user);
         
@@ -127,6 +160,7 @@ public class AuthService {
 
     /**
      * Inicia o fluxo de recuperação de senha gerando token e enviando link por mensageria.
+     * O evento do e-mail vai para o outbox na mesma transação, então não se perde se o broker estiver fora.
      *
      * @param requestDTO e-mail informado para recuperação de senha.
      */
@@ -134,30 +168,23 @@ public class AuthService {
     public void forgotPassword(EmailRequestDTO requestDTO) {
         String email = requestDTO.email();
         
-        usersRepo.findByEmail(email).ifPresent(user -> {
-            log.info("Iniciando processo de reset de senha para: {}", email);
-            
-            tokenRepository.findByUserId(user.getId()).ifPresent(token -> {
-                tokenRepository.delete(token);
-                log.debug("Token antigo de reset de senha removido para o usuário: {}", user.getEmail());
-            });
+        User user = usersRepo.findByEmail(email).orElse(null);
+        if (user == null) {
+            log.warn("Reset Silencioso: Email não encontrado: {}. Nenhuma ação tomada.", email);
+            return;
+        }
 
-            PasswordResetToken tokenEntity = new PasswordResetToken();
-            tokenEntity.setUser(user);
-            tokenRepository.save(tokenEntity);
+        log.info("Iniciando processo de reset de senha para: {}", email);
 
-            String resetUrl = frontendBaseUrl + "/reset-password?token=" + tokenEntity.getToken();
+        String token = resetTokenStore.issue(user.getId());
 
-            rabbitMQProducer.sendPasswordReset(user.getEmail(), resetUrl);
-        });
+        String resetUrl = frontendBaseUrl + "/reset-password?token=" + token;
 
-        if (usersRepo.findByEmail(email).isEmpty()) {
-            log.warn("Reset Silencioso: Email não encontrado: {}. Nenhuma ação tomada.", email);
-        }
+        rabbitMQProducer.sendPasswordReset(user.getEmail(), resetUrl);
     }
 
     /**
-     * Redefine a senha de um usuário a partir de um token de recuperação válido.
+     * Redefine a senha de um usuário a partir de um token de recuperação válido e encerra as sessões abertas.
      *
      * @param resetPasswordDTO token de recuperação e nova senha.
      * @throws BadCredentialsException quando token for inválido/expirado ou senha não atender ao mínimo.
@@ -171,28 +198,73 @@ public class AuthService {
             throw new BadCredentialsException("A senha deve ter no mínimo 6 caracteres");
         }
 
-        PasswordResetToken tokenEntity = tokenRepository.findByToken(token)
-                .orElseThrow(() -> {
-                    log.warn("Tentativa de reset com token inválido: {}", token);
-                    return new BadCredentialsException("Token inválido ou expirado");
-                });
+        Long userId = resetTokenStore.consume(token);
+        if (userId == null) {
+            log.warn("Tentativa de reset com token inválido ou expirado: {}", token);
+            throw new BadCredentialsException("Token inválido ou expirado");
+        }
 
-        if (tokenEntity.isExpired()) {
-            tokenRepository.delete(tokenEntity);
-            log.warn("Tentativa de reset com token expirado: {}", token);
+        if (usersRepo.updatePassword(userId, passwordEncoder.encode(newPassword)) == 0) {
+            log.error("Usuário não encontrado para o token: {}", token);
             throw new BadCredentialsException("Token inválido ou expirado");
         }
 
-        User user = usersRepo.findById(tokenEntity.getUser().getId())
-                .orElseThrow(() -> {
-                    log.error("Usuário não encontrado para o token: {}", token);
-                    return new BadCredentialsException("Token inválido ou expirado");
-                });
+        tokenRevocationService.revokeAllForUser(userId);
+        log.info("Senha resetada com sucesso para o usuário: {}", userId);
+    }
 
-        user.setPassword(passwordEncoder.encode(newPassword));
-        usersRepo.save(user);
-        
-        tokenRepository.delete(tokenEntity);
-        log.info("Senha resetada com sucesso para o usuário: {}", user.getEmail());
+    /**
+     * Revoga o token da sessão atual. Tokens inválidos ou já expirados são ignorados.
+     *
+     * @param token token JWT enviado no cookie ou no header `Authorization`.
+     */
+    public void logout(String token) {
+        if (token == null || token.isBlank()) {
+            return;
+        }
+        try {
+            Claims claims = jwtUtils.parseClaims(token);
+            tokenRevocationService.revokeToken(claims.getId(), claims.getExpiration().getTime());
+        } catch (JwtException | IllegalArgumentException e) {
+            log.debug("Logout com token inválido ignorado: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Revoga todas as sessões do usuário em todos os dispositivos.
+     *
+     * @param userId identificador do usuário autenticado.
+     */
+    public void logoutEverywhere(Long userId) {
+        tokenRevocationService.revokeAllForUser(userId);
+    }
+
+    /**
+     * Converte a violação de unicidade do cadastro no conflito correspondente, pelo nome da constraint violada.
+     *
+     * @param e violação retornada pelo banco.
+     * @param registrationRequest dados de cadastro enviados.
+     * @return exceção HTTP 409 com a mensagem adequada.
+     * @throws DataIntegrityViolationException quando a violação não for de e-mail ou nickname.
+     */
+    private ResponseStatusException toRegistrationConflict(DataIntegrityViolationException e, RegisterRequestDTO registrationRequest) {
+        String constraint = e.getCause() instanceof ConstraintViolationException violation ? violation.getConstraintName() : null;
+        if (User.EMAIL_CONSTRAINT.equalsIgnoreCase(constraint)) {
+            return emailConflict(registrationRequest);
+        }
+        if (User.NICKNAME_CONSTRAINT.equalsIgnoreCase(constraint)) {
+            return nicknameConflict(registrationRequest);
+        }
+        throw e;
+    }
+
+    private static ResponseStatusException emailConflict(RegisterRequestDTO registrationRequest) {
+        log.warn("Tentativa de registro falhou: E-mail já cadastrado ({})", registrationRequest.email());
+        return new ResponseStatusException(HttpStatus.CONFLICT, "E-mail já cadastrado.");
+    }
+
+    private static ResponseStatusException nicknameConflict(RegisterRequestDTO registrationRequest) {
+        log.warn("Tentativa de registro falhou: Nickname já cadastrado ({})", registrationRequest.nickname());
+        return new ResponseStatusException(HttpStatus.CONFLICT, "Nickname já cadastrado.");
     }
 }
@@ -0,0 +1,64 @@
+package com.lucasm.lmsfilmes.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom mutável e seguro para acesso concorrente, usado na checagem de disponibilidade de cadastro.
+ * Uma resposta negativa é definitiva; uma positiva precisa ser confirmada no banco.
+ * Inserções usam CAS por palavra, sem locks, e nunca removem bits.
+ */
+final class AvailabilityBloomFilter {
+
+    private static final int HASH_FUNCTIONS = 5;
+
+    private final AtomicLongArray words;
+    private final int mask;
+
+    /**
+     * Cria um filtro vazio com a quantidade de bits informada (arredondada para potência de dois).
+     *
+     * @param bitCount quantidade de bits do filtro.
+     */
+    AvailabilityBloomFilter(int bitCount) {
+        int size = Integer.highestOneBit(Math.max(64, bitCount - 1)) << 1;
+        this.words = new AtomicLongArray(size >>> 6);
+        this.mask = size - 1;
+    }
+
+    /**
+     * Marca o valor no filtro.
+     *
+     * @param value valor a ser adicionado.
+     */
+    void add(String value) {
+        long hash = RevocationBloomFilter.hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < HASH_FUNCTIONS; i++) {
+            int bit = (h1 + i * h2) & mask;
+            long bitMask = 1L << bit;
+            if ((words.get(bit >>> 6) & bitMask) == 0) {
+                words.getAndAccumulate(bit >>> 6, bitMask, (current, set) -> current | set);
+            }
+        }
+    }
+
+    /**
+     * Indica se o valor pode estar no filtro.
+     *
+     * @param value valor consultado.
+     * @return `false` quando o valor certamente não foi adicionado.
+     */
+    boolean mightContain(String value) {
+        long hash = RevocationBloomFilter.hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < HASH_FUNCTIONS; i++) {
+            int bit = (h1 + i * h2) & mask;
+            if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
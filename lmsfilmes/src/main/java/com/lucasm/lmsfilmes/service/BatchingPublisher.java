@@ -0,0 +1,220 @@
+package com.lucasm.lmsfilmes.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpResourceNotAvailableException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Publicador do RabbitMQ em lotes: as mensagens entram em um buffer por exchange/routing key e são enviadas quando
+ * o buffer atinge `publisher.batch-size` ou a cada `publisher.flush-interval-ms`, em um único canal e com uma única
+ * espera pelos publisher confirms por lote.
+ * As mensagens pendentes (no buffer ou aguardando confirm) são limitadas por `publisher.max-in-flight`; no limite,
+ * {@link #send} bloqueia o chamador por até `publisher.offer-timeout-ms` e então falha com
+ * {@link AmqpResourceNotAvailableException}, em vez de acumular memória sem limite.
+ */
+@Service
+public class BatchingPublisher {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchingPublisher.class);
+
+    private record Route(String exchange, String routingKey) {}
+
+    private record Pending(Message message, long enqueuedAt, CompletableFuture<Void> confirm) {}
+
+    private final RabbitTemplate rabbitTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Map<Route, Queue<Pending>> buffers = new ConcurrentHashMap<>();
+    private final AtomicInteger buffered = new AtomicInteger();
+    private final Semaphore inFlight;
+    private final Object signal = new Object();
+    private final int maxInFlight;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final long offerTimeoutMs;
+    private final long confirmTimeoutMs;
+    private final Timer latencyTimer;
+    private final Counter rejectedCounter;
+    private final Thread flusher;
+    private volatile boolean running = true;
+
+    public BatchingPublisher(RabbitTemplate rabbitTemplate, MeterRegistry meterRegistry,
+                             @Value("${publisher.max-in-flight:10000}") int maxInFlight,
+                             @Value("${publisher.batch-size:500}") int batchSize,
+                             @Value("${publisher.flush-interval-ms:10}") long flushIntervalMs,
+                             @Value("${publisher.offer-timeout-ms:2000}") long offerTimeoutMs,
+                             @Value("${publisher.confirm-timeout-ms:5000}") long confirmTimeoutMs) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.meterRegistry = meterRegistry;
+        this.maxInFlight = maxInFlight;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.offerTimeoutMs = offerTimeoutMs;
+        this.confirmTimeoutMs = confirmTimeoutMs;
+
+        this.latencyTimer = Timer.builder("messaging.publish.latency")
+                .description("Tempo entre o enfileiramento da mensagem e o confirm do broker")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("messaging.publish.rejected")
+                .description("Mensagens recusadas por excesso de mensagens pendentes")
+                .register(meterRegistry);
+        Gauge.builder("messaging.publish.in-flight", inFlight, permits -> maxInFlight - permits.availablePermits())
+                .description("Mensagens no buffer ou aguardando confirm")
+                .register(meterRegistry);
+
+        this.flusher = Thread.ofVirtual().name("rabbit-batching-publisher").start(this::flushLoop);
+    }
+
+    /**
+     * Converte o payload com o conversor do `RabbitTemplate` e o enfileira para publicação.
+     *
+     * @param exchange exchange de destino.
+     * @param routingKey chave de roteamento.
+     * @param payload corpo da mensagem.
+     * @return futuro concluído no confirm do broker, ou com erro em nack, timeout ou falha de conexão.
+     * @throws AmqpResourceNotAvailableException quando o limite de mensagens pendentes persistir além do timeout.
+     */
+    public CompletableFuture<Void> convertAndSend(String exchange, String routingKey, Object payload) {
+        return send(exchange, routingKey, rabbitTemplate.getMessageConverter().toMessage(payload, new MessageProperties()));
+    }
+
+    /**
+     * Enfileira uma mensagem já montada para publicação.
+     *
+     * @param exchange exchange de destino.
+     * @param routingKey chave de roteamento.
+     * @param message mensagem.
+     * @return futuro concluído no confirm do broker, ou com erro em nack, timeout ou falha de conexão.
+     * @throws AmqpResourceNotAvailableException quando o limite de mensagens pendentes persistir além do timeout.
+     */
+    public CompletableFuture<Void> send(String exchange, String routingKey, Message message) {
+        if (!running) {
+            throw new AmqpResourceNotAvailableException("Publicador RabbitMQ encerrado");
+        }
+        try {
+            if (!inFlight.tryAcquire(offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                rejectedCounter.increment();
+                throw new AmqpResourceNotAvailableException("Publicador RabbitMQ saturado: " + maxInFlight + " mensagens pendentes");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AmqpResourceNotAvailableException("Publicação interrompida");
+        }
+
+        Pending pending = new Pending(message, System.nanoTime(), new CompletableFuture<>());
+        buffers.computeIfAbsent(new Route(exchange, routingKey), route -> new ConcurrentLinkedQueue<>()).add(pending);
+        if (buffered.incrementAndGet() >= batchSize) {
+            synchronized (signal) {
+                signal.notifyAll();
+            }
+        }
+        return pending.confirm();
+    }
+
+    /**
+     * Para o flusher e publica o que ainda estiver no buffer.
+     */
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        synchronized (signal) {
+            signal.notifyAll();
+        }
+        try {
+            flusher.join(confirmTimeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void flushLoop() {
+        while (running) {
+            try {
+                synchronized (signal) {
+                    if (running && buffered.get() < batchSize) {
+                        signal.wait(flushIntervalMs);
+                    }
+                }
+                flushAll();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.warn("Falha no ciclo do publicador RabbitMQ: {}", e.getMessage());
+            }
+        }
+        flushAll();
+    }
+
+    private void flushAll() {
+        for (Map.Entry<Route, Queue<Pending>> entry : buffers.entrySet()) {
+            Queue<Pending> buffer = entry.getValue();
+            while (!buffer.isEmpty()) {
+                List<Pending> batch = new ArrayList<>(Math.min(batchSize, buffer.size()));
+                Pending pending;
+                while (batch.size() < batchSize && (pending = buffer.poll()) != null) {
+                    batch.add(pending);
+                }
+                buffered.addAndGet(-batch.size());
+                publish(entry.getKey(), batch);
+            }
+        }
+    }
+
+    private void publish(Route route, List<Pending> batch) {
+        try {
+            rabbitTemplate.invoke(operations -> {
+                for (Pending pending : batch) {
+                    operations.send(route.exchange(), route.routingKey(), pending.message());
+                }
+                operations.waitForConfirmsOrDie(confirmTimeoutMs);
+                return null;
+            });
+            long now = System.nanoTime();
+            for (Pending pending : batch) {
+                latencyTimer.record(now - pending.enqueuedAt(), TimeUnit.NANOSECONDS);
+                pending.confirm().complete(null);
+            }
+            messages(route, "confirmed").increment(batch.size());
+        } catch (Exception e) {
+            log.warn("Falha ao publicar lote de {} mensagens em {}/{}: {}", batch.size(), route.exchange(), route.routingKey(), e.getMessage());
+            for (Pending pending : batch) {
+                pending.confirm().completeExceptionally(e);
+            }
+            messages(route, "failed").increment(batch.size());
+        } finally {
+            inFlight.release(batch.size());
+        }
+    }
+
+    private Counter messages(Route route, String outcome) {
+        return Counter.builder("messaging.publish.messages")
+                .description("Mensagens publicadas no RabbitMQ por resultado do confirm")
+                .tag("exchange", route.exchange())
+                .tag("routing_key", route.routingKey())
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,110 @@
+package com.lucasm.lmsfilmes.service;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import com.lucasm.lmsfilmes.model.Movie;
+import com.lucasm.lmsfilmes.model.Serie;
+import com.lucasm.lmsfilmes.repository.MovieRepository;
+import com.lucasm.lmsfilmes.repository.SerieRepository;
+
+/**
+ * Enriquece, em segundo plano, os títulos do catálogo que ainda não têm duração ou gêneros.
+ * Roda uma instância por vez (trava no Redis) e espaça as chamadas ao TMDB pelo intervalo configurado.
+ */
+@Component
+public class CatalogEnrichmentBackfill {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogEnrichmentBackfill.class);
+
+    private static final String LOCK_KEY = "catalog:enrichment:lock";
+    private static final int PAGE_SIZE = 100;
+
+    private final MovieRepository movieRepository;
+    private final SerieRepository serieRepository;
+    private final CatalogEnrichmentService enrichmentService;
+    private final StringRedisTemplate redisTemplate;
+    private final boolean enabled;
+    private final Duration delay;
+
+    public CatalogEnrichmentBackfill(MovieRepository movieRepository, SerieRepository serieRepository,
+                                     CatalogEnrichmentService enrichmentService, StringRedisTemplate redisTemplate,
+                                     @Value("${catalog.enrichment.backfill.enabled:true}") boolean enabled,
+                                     @Value("${catalog.enrichment.backfill.delay:100ms}") Duration delay) {
+        this.movieRepository = movieRepository;
+        this.serieRepository = serieRepository;
+        this.enrichmentService = enrichmentService;
+        this.redisTemplate = redisTemplate;
+        this.enabled = enabled;
+        this.delay = delay;
+    }
+
+    /**
+     * Dispara o enriquecimento pendente quando a aplicação termina de subir.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        if (enabled) {
+            Thread.ofVirtual().name("catalog-enrichment-backfill").start(this::run);
+        }
+    }
+
+    private void run() {
+        try {
+            if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(LOCK_KEY, "1", Duration.ofHours(6)))) {
+                return;
+            }
+        } catch (DataAccessException e) {
+            log.warn("Enriquecimento do catálogo não iniciado, Redis indisponível: {}", e.getMessage());
+            return;
+        }
+
+        try {
+            int movies = 0;
+            String after = "";
+            List<Movie> pendingMovies;
+            while (!(pendingMovies = movieRepository.findPendingEnrichment(after, PageRequest.of(0, PAGE_SIZE))).isEmpty()) {
+                for (Movie movie : pendingMovies) {
+                    if (enrichmentService.enrichMovie(movie)) {
+                        movies++;
+                    }
+                    after = movie.getMovieId();
+                    Thread.sleep(delay);
+                }
+            }
+
+            int series = 0;
+            after = "";
+            List<Serie> pendingSeries;
+            while (!(pendingSeries = serieRepository.findPendingEnrichment(after, PageRequest.of(0, PAGE_SIZE))).isEmpty()) {
+                for (Serie serie : pendingSeries) {
+                    if (enrichmentService.enrichSerie(serie)) {
+                        series++;
+                    }
+                    after = serie.getSerieId();
+                    Thread.sleep(delay);
+                }
+            }
+
+            if (movies > 0 || series > 0) {
+                log.info("Catálogo enriquecido: {} filmes, {} séries", movies, series);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (DataAccessException e) {
+            log.error("Enriquecimento do catálogo interrompido: {}", e.getMessage(), e);
+        } finally {
+            redisTemplate.delete(LOCK_KEY);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.lucasm.lmsfilmes.service;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.stereotype.Service;
+
+import com.lucasm.lmsfilmes.dto.CatalogEnrichedDTO;
+import com.lucasm.lmsfilmes.dto.SeriesDTO;
+import com.lucasm.lmsfilmes.dto.TmdbDTO;
+import com.lucasm.lmsfilmes.exceptions.ResourceNotFoundException;
+import com.lucasm.lmsfilmes.exceptions.TmdbApiException;
+import com.lucasm.lmsfilmes.model.Movie;
+import com.lucasm.lmsfilmes.model.Serie;
+import com.lucasm.lmsfilmes.repository.MovieRepository;
+import com.lucasm.lmsfilmes.repository.SerieRepository;
+
+/**
+ * Preenche duração e gêneros dos títulos do catálogo a partir dos detalhes do TMDB (já cacheados),
+ * usados pelas estatísticas do serviço de avaliações. Títulos inexistentes no TMDB ficam com duração 0
+ * e sem gêneros, para não serem consultados de novo.
+ */
+@Service
+public class CatalogEnrichmentService {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogEnrichmentService.class);
+
+    private static final String[] NO_GENRES = new String[0];
+
+    private final MovieRepository movieRepository;
+    private final SerieRepository serieRepository;
+    private final MovieService movieService;
+    private final SerieService serieService;
+    private final RabbitMQProducer rabbitMQProducer;
+
+    public CatalogEnrichmentService(MovieRepository movieRepository, SerieRepository serieRepository,
+                                    MovieService movieService, SerieService serieService,
+                                    RabbitMQProducer rabbitMQProducer) {
+        this.movieRepository = movieRepository;
+        this.serieRepository = serieRepository;
+        this.movieService = movieService;
+        this.serieService = serieService;
+        this.rabbitMQProducer = rabbitMQProducer;
+    }
+
+    /**
+     * Preenche duração e gêneros do filme quando ainda estiverem vazios.
+     *
+     * @param movie filme do catálogo.
+     * @return `true` quando o filme foi atualizado.
+     */
+    public boolean enrichMovie(Movie movie) {
+        if (movie.getRuntime() != null && movie.getGenres() != null) {
+            return false;
+        }
+        try {
+            TmdbDTO details = movieService.getMovieDetails(movie.getMovieId(), false);
+            movie.setRuntime(details.runtime());
+            movie.setGenres(details.genres() != null
+                    ? details.genres().stream().map(TmdbDTO.Genre::name).toArray(String[]::new)
+                    : NO_GENRES);
+        } catch (ResourceNotFoundException e) {
+            movie.setRuntime(0);
+            movie.setGenres(NO_GENRES);
+        } catch (TmdbApiException e) {
+            log.warn("Não foi possível enriquecer o filme {}: {}", movie.getMovieId(), e.getMessage());
+            return false;
+        }
+        movieRepository.save(movie);
+        publishEnriched("movie", movie.getMovieId());
+        return true;
+    }
+
+    /**
+     * Preenche duração de episódio e gêneros da série quando ainda estiverem vazios.
+     *
+     * @param serie série do catálogo.
+     * @return `true` quando a série foi atualizada.
+     */
+    public boolean enrichSerie(Serie serie) {
+        if (serie.getEpisodeRuntime() != null && serie.getGenres() != null) {
+            return false;
+        }
+        try {
+            SeriesDTO details = serieService.getSeriesDetails(serie.getSerieId(), false);
+            List<Integer> runtimes = details.episode_run_time();
+            serie.setEpisodeRuntime(runtimes != null && !runtimes.isEmpty() ? runtimes.get(0) : 0);
+            serie.setGenres(details.genres() != null
+                    ? details.genres().stream().map(SeriesDTO.GenreDTO::name).toArray(String[]::new)
+                    : NO_GENRES);
+        } catch (ResourceNotFoundException e) {
+            serie.setEpisodeRuntime(0);
+            serie.setGenres(NO_GENRES);
+        } catch (TmdbApiException e) {
+            log.warn("Não foi possível enriquecer a série {}: {}", serie.getSerieId(), e.getMessage());
+            return false;
+        }
+        serieRepository.save(serie);
+        publishEnriched("serie", serie.getSerieId());
+        return true;
+    }
+
+    private void publishEnriched(String type, String id) {
+        try {
+            rabbitMQProducer.sendCatalogEnriched(new CatalogEnrichedDTO(type, id));
+        } catch (AmqpException e) {
+            log.warn("Falha ao publicar enriquecimento do título {} {}: {}", type, id, e.getMessage());
+        }
+    }
+}
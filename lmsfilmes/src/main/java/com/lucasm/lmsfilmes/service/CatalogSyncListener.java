@@ -14,31 +14,38 @@ public class CatalogSyncListener {
 
     private final MovieRepository movieRepository;
     private final SerieRepository serieRepository;
+    private final CatalogEnrichmentService enrichmentService;
 
-    public CatalogSyncListener(MovieRepository movieRepository, SerieRepository serieRepository) {
+    public CatalogSyncListener(MovieRepository movieRepository, SerieRepository serieRepository,
+                               CatalogEnrichmentService enrichmentService) {
         this.movieRepository = movieRepository;
         this.serieRepository = serieRepository;
+        this.enrichmentService = enrichmentService;
     }
 
     @RabbitListener(queues = "movie.catalog.sync.queue")
     public void syncMovie(CatalogSyncDTO dto) {
-        if (!movieRepository.existsById(dto.getId())) {
-            Movie movie = new Movie();
+        Movie movie = movieRepository.findById(dto.getId()).orElse(null);
+        if (movie == null) {
+            movie = new Movie();
             movie.setMovieId(dto.getId());
             movie.setTitle(dto.getTitle());
             movie.setPosterPath(dto.getPosterPath());
-            movieRepository.save(movie);
+            movie = movieRepository.save(movie);
         }
+        enrichmentService.enrichMovie(movie);
     }
 
     @RabbitListener(queues = "serie.catalog.sync.queue")
     public void syncSerie(CatalogSyncDTO dto) {
-        if (!serieRepository.existsById(dto.getId())) {
-            Serie serie = new Serie();
+        Serie serie = serieRepository.findById(dto.getId()).orElse(null);
+        if (serie == null) {
+            serie = new Serie();
             serie.setSerieId(dto.getId());
             serie.setTitle(dto.getTitle());
             serie.setPosterPath(dto.getPosterPath());
-            serieRepository.save(serie);
+            serie = serieRepository.save(serie);
         }
+        enrichmentService.enrichSerie(serie);
     }
-}
\ No newline at end of file
+}
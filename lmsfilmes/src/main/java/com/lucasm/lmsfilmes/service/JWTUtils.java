@@ -1,6 +1,7 @@
 package com.lucasm.lmsfilmes.service;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 
@@ -16,6 +17,7 @@ import java.nio.charset.StandardCharsets;
 import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.UUID;
 import java.util.function.Function;
 /**
  * Utilitário para geração, leitura e validação de tokens JWT.
@@ -27,16 +29,24 @@ public class JWTUtils {
 
     private final long expirationTime;
 
+    private final JwtParser parser;
+
+    private final VerifiedClaimsCache claimsCache;
+
     /**
-     * Inicializa o utilitário JWT com chave secreta e tempo de expiração configurados.
+     * Inicializa o utilitário JWT com chave secreta, tempo de expiração e limite do cache de claims.
      *
      * @param secret segredo utilizado para assinar e validar tokens.
      * @param expirationTime tempo de expiração do token em milissegundos.
+     * @param claimsCacheMaxEntries quantidade máxima de tokens verificados mantidos em memória.
      */
-    public JWTUtils(@Value("${jwt.auth.secret}") String secret, @Value("${jwt.auth.expiration}") long expirationTime) {
+    public JWTUtils(@Value("${jwt.auth.secret}") String secret, @Value("${jwt.auth.expiration}") long expirationTime,
+                    @Value("${jwt.auth.claims-cache.max-entries:10000}") int claimsCacheMaxEntries) {
         byte[] keyBytes = Base64.getDecoder().decode(secret.getBytes(StandardCharsets.UTF_8));
         this.Key = Keys.hmacShaKeyFor(keyBytes);
         this.expirationTime = expirationTime;
+        this.parser = Jwts.parser().verifyWith(Key).build();
+        this.claimsCache = new VerifiedClaimsCache(claimsCacheMaxEntries);
     }
 
     /**
@@ -69,6 +79,7 @@ public class JWTUtils {
         
         return Jwts.builder()
                 .claims(claims)
+                .id(UUID.randomUUID().toString())
                 .subject(user.getEmail())
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + expirationTime))
@@ -143,7 +154,26 @@ public class JWTUtils {
     }
 
     private <T> T extractClaims(String token, Function<Claims, T> claimsTFunction){
-        return claimsTFunction.apply(Jwts.parser().verifyWith(Key).build().parseSignedClaims(token).getPayload());
+        return claimsTFunction.apply(parseClaims(token));
+    }
+
+    /**
+     * Verifica assinatura e expiração do token e devolve todos os claims.
+     * Tokens já verificados são servidos do cache até o seu `exp`, evitando nova verificação HMAC.
+     *
+     * @param token token JWT de origem.
+     * @return claims verificados do token.
+     * @throws io.jsonwebtoken.JwtException quando o token for inválido ou estiver expirado.
+     */
+    public Claims parseClaims(String token) {
+        String key = VerifiedClaimsCache.digest(token);
+        Claims cached = claimsCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        claimsCache.put(key, claims);
+        return claims;
     }
 
     /**
@@ -154,8 +184,8 @@ public class JWTUtils {
      * @return `true` quando token for válido para o usuário; caso contrário, `false`.
      */
     public  boolean isTokenValid(String token, UserDetails userDetails){
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        final Claims claims = parseClaims(token);
+        return (claims.getSubject().equals(userDetails.getUsername()) && !claims.getExpiration().before(new Date()));
     }
 
     /**
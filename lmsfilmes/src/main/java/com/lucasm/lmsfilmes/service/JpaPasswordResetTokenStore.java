@@ -0,0 +1,53 @@
+package com.lucasm.lmsfilmes.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.lucasm.lmsfilmes.model.PasswordResetToken;
+import com.lucasm.lmsfilmes.repository.PasswordResetTokenRepository;
+import com.lucasm.lmsfilmes.repository.UserRepository;
+
+/**
+ * Tokens de recuperação de senha na tabela `password_reset_tokens` (armazenamento legado).
+ */
+@Service
+@ConditionalOnProperty(name = "auth.reset-token.store", havingValue = "jpa")
+public class JpaPasswordResetTokenStore implements PasswordResetTokenStore {
+
+    private final PasswordResetTokenRepository tokenRepository;
+    private final UserRepository userRepository;
+
+    /**
+     * Cria o store com os repositórios de tokens e usuários.
+     *
+     * @param tokenRepository repositório de tokens de reset de senha.
+     * @param userRepository repositório de usuários.
+     */
+    public JpaPasswordResetTokenStore(PasswordResetTokenRepository tokenRepository, UserRepository userRepository) {
+        this.tokenRepository = tokenRepository;
+        this.userRepository = userRepository;
+    }
+
+    @Override
+    @Transactional
+    public String issue(Long userId) {
+        tokenRepository.deleteByUserId(userId);
+
+        PasswordResetToken tokenEntity = new PasswordResetToken();
+        tokenEntity.setUser(userRepository.getReferenceById(userId));
+        tokenRepository.save(tokenEntity);
+        return tokenEntity.getToken();
+    }
+
+    @Override
+    @Transactional
+    public Long consume(String token) {
+        PasswordResetToken tokenEntity = tokenRepository.findByToken(token).orElse(null);
+        if (tokenEntity == null) {
+            return null;
+        }
+        tokenRepository.delete(tokenEntity);
+        return tokenEntity.isExpired() ? null : tokenEntity.getUser().getId();
+    }
+}
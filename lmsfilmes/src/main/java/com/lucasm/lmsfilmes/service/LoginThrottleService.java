@@ -0,0 +1,130 @@
+package com.lucasm.lmsfilmes.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import com.lucasm.lmsfilmes.exceptions.TooManyAttemptsException;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Limita tentativas de autenticação por IP e por conta usando contadores com TTL no Redis.
+ * A checagem acontece antes do hashing, para que ataques de força bruta não consumam CPU de BCrypt.
+ * Se o Redis estiver indisponível, o fluxo segue sem limitação.
+ */
+@Service
+public class LoginThrottleService {
+
+    private static final Logger log = LoggerFactory.getLogger(LoginThrottleService.class);
+
+    private static final String IP_KEY_PREFIX = "auth:throttle:ip:";
+    private static final String ACCOUNT_KEY_PREFIX = "auth:throttle:account:";
+
+    private final StringRedisTemplate redisTemplate;
+    private final int maxAttemptsPerIp;
+    private final int maxAttemptsPerAccount;
+    private final Duration window;
+
+    /**
+     * Cria o serviço com os limites de tentativas configurados.
+     *
+     * @param redisTemplate cliente Redis para os contadores.
+     * @param maxAttemptsPerIp tentativas aceitas por IP dentro da janela.
+     * @param maxAttemptsPerAccount falhas de login aceitas por conta dentro da janela.
+     * @param window duração da janela de contagem.
+     */
+    public LoginThrottleService(StringRedisTemplate redisTemplate,
+                                @Value("${auth.throttle.ip.max-attempts:30}") int maxAttemptsPerIp,
+                                @Value("${auth.throttle.account.max-attempts:5}") int maxAttemptsPerAccount,
+                                @Value("${auth.throttle.window:15m}") Duration window) {
+        this.redisTemplate = redisTemplate;
+        this.maxAttemptsPerIp = maxAttemptsPerIp;
+        this.maxAttemptsPerAccount = maxAttemptsPerAccount;
+        this.window = window;
+    }
+
+    /**
+     * Verifica se o IP e a conta ainda podem tentar autenticar.
+     *
+     * @param clientIp IP de origem da requisição.
+     * @param email e-mail da conta alvo; `null` quando a checagem for apenas por IP.
+     * @throws TooManyAttemptsException quando algum dos limites tiver sido atingido.
+     */
+    public void checkAllowed(String clientIp, String email) {
+        if (clientIp != null && count(IP_KEY_PREFIX + clientIp) >= maxAttemptsPerIp) {
+            log.warn("Tentativas de autenticação bloqueadas para o IP: {}", clientIp);
+            throw new TooManyAttemptsException("Muitas tentativas. Tente novamente mais tarde.", window.toSeconds());
+        }
+        if (email != null && count(ACCOUNT_KEY_PREFIX + normalize(email)) >= maxAttemptsPerAccount) {
+            log.warn("Tentativas de login bloqueadas para a conta: {}", email);
+            throw new TooManyAttemptsException("Muitas tentativas. Tente novamente mais tarde.", window.toSeconds());
+        }
+    }
+
+    /**
+     * Contabiliza uma tentativa de login com credenciais inválidas.
+     *
+     * @param clientIp IP de origem da requisição.
+     * @param email e-mail informado na tentativa.
+     */
+    public void recordFailure(String clientIp, String email) {
+        recordIpAttempt(clientIp);
+        if (email != null) {
+            increment(ACCOUNT_KEY_PREFIX + normalize(email));
+        }
+    }
+
+    /**
+     * Contabiliza uma operação custosa (ex.: cadastro) para o IP de origem.
+     *
+     * @param clientIp IP de origem da requisição.
+     */
+    public void recordIpAttempt(String clientIp) {
+        if (clientIp != null) {
+            increment(IP_KEY_PREFIX + clientIp);
+        }
+    }
+
+    /**
+     * Zera o contador da conta após um login bem-sucedido.
+     *
+     * @param email e-mail autenticado.
+     */
+    public void recordSuccess(String email) {
+        try {
+            redisTemplate.delete(ACCOUNT_KEY_PREFIX + normalize(email));
+        } catch (DataAccessException e) {
+            log.warn("Falha ao limpar contador de tentativas no Redis: {}", e.getMessage());
+        }
+    }
+
+    private long count(String key) {
+        try {
+            String value = redisTemplate.opsForValue().get(key);
+            return value != null ? Long.parseLong(value) : 0L;
+        } catch (DataAccessException e) {
+            log.warn("Redis indisponível para checagem de tentativas: {}", e.getMessage());
+            return 0L;
+        }
+    }
+
+    private void increment(String key) {
+        try {
+            Long value = redisTemplate.opsForValue().increment(key);
+            if (value != null && value == 1L) {
+                redisTemplate.expire(key, window);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Falha ao registrar tentativa no Redis: {}", e.getMessage());
+        }
+    }
+
+    private static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,9 +1,11 @@
 package com.lucasm.lmsfilmes.service;
 
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.lucasm.lmsfilmes.dto.TmdbDTO;
 import com.lucasm.lmsfilmes.dto.TmdbPageDTO;
+import com.lucasm.lmsfilmes.dto.TitleLookupDTO;
 import com.lucasm.lmsfilmes.exceptions.ResourceNotFoundException;
 import com.lucasm.lmsfilmes.exceptions.TmdbApiException;
 
@@ -138,6 +140,75 @@ public class MovieService {
                 .block();
     }
 
+    /**
+     * Resolve um título de outra plataforma para o filme correspondente no TMDB: pelo id do IMDb quando houver,
+     * senão pela busca por título e ano, preferindo o resultado com título idêntico.
+     *
+     * @param imdbId id do IMDb, ou `null`.
+     * @param title título na plataforma de origem.
+     * @param year ano de lançamento, ou `null`.
+     * @return filme encontrado, ou `null` quando não houver correspondência.
+     */
+    @Cacheable(value = "movieResolve", key = "#imdbId != null ? #imdbId : (#title + '_' + #year)")
+    public TmdbDTO resolveMovie(String imdbId, String title, Integer year) {
+        if (imdbId != null && !imdbId.isBlank()) {
+            try {
+                String body = webClient.get()
+                        .uri(withLanguage("/find/" + imdbId + "?external_source=imdb_id"))
+                        .retrieve()
+                        .bodyToMono(String.class)
+                        .retryWhen(Retry.backoff(3, Duration.ofMillis(250))
+                                .filter(this::isRetryable))
+                        .block();
+                JsonNode results = objectMapper.readTree(body).path("movie_results");
+                if (results.isArray() && !results.isEmpty()) {
+                    return objectMapper.treeToValue(results.get(0), TmdbDTO.class);
+                }
+            } catch (Exception e) {
+                logger.warn("Falha ao resolver IMDb {} no TMDB: {}", imdbId, e.getMessage());
+            }
+        }
+        if (title == null || title.isBlank()) {
+            return null;
+        }
+
+        String path = "/search/movie?query=" + URLEncoder.encode(title, StandardCharsets.UTF_8) + "&include_adult=false&page=1"
+                + (year != null ? "&primary_release_year=" + year : "");
+        List<TmdbDTO> results = fetchPaginatedData(path).results();
+        if (results == null || results.isEmpty()) {
+            return null;
+        }
+        return results.stream()
+                .filter(movie -> title.equalsIgnoreCase(movie.title()) || title.equalsIgnoreCase(movie.original_title()))
+                .findFirst()
+                .orElse(results.get(0));
+    }
+
+    /**
+     * Resolve um lote de títulos em paralelo, usando o cache individual de {@link #resolveMovie}.
+     *
+     * @param lookups títulos a resolver.
+     * @return mapa {@code key -> TmdbDTO} apenas com os títulos encontrados.
+     */
+    public Map<String, TmdbDTO> resolveMoviesBatch(List<TitleLookupDTO> lookups) {
+        if (lookups == null || lookups.isEmpty()) return Map.of();
+        if (lookups.size() > BATCH_MAX_SIZE) {
+            throw new IllegalArgumentException("Limite de " + BATCH_MAX_SIZE + " filmes por batch excedido");
+        }
+
+        MovieService self = selfProvider.getObject();
+        return Flux.fromIterable(lookups)
+                .flatMap(lookup -> Mono.fromCallable(() -> self.resolveMovie(lookup.imdbId(), lookup.title(), lookup.year()))
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .map(dto -> Map.entry(lookup.key(), dto))
+                        .onErrorResume(e -> {
+                            logger.warn("Falha ao resolver título {} no batch: {}", lookup.key(), e.getMessage());
+                            return Mono.empty();
+                        }), BATCH_CONCURRENCY)
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                .block();
+    }
+
     @Cacheable(value = "moviePopular", key = "#page")
     public TmdbPageDTO<TmdbDTO> getPopularMovies(int page) {
         return fetchPaginatedData("/movie/popular?page=" + page + "&region=BR");
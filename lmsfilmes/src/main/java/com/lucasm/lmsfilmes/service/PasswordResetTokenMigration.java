@@ -0,0 +1,79 @@
+package com.lucasm.lmsfilmes.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Migra, na subida do serviço, os tokens ainda válidos da tabela `password_reset_tokens` para o Redis
+ * (preservando o tempo restante) e esvazia a tabela, incluindo os tokens expirados acumulados.
+ * Controlada por `auth.reset-token.migrate-legacy`.
+ */
+@Component
+@ConditionalOnProperty(name = "auth.reset-token.store", havingValue = "redis", matchIfMissing = true)
+public class PasswordResetTokenMigration implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordResetTokenMigration.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RedisPasswordResetTokenStore tokenStore;
+    private final boolean enabled;
+
+    /**
+     * Cria a migração com acesso ao banco e ao store Redis.
+     *
+     * @param jdbcTemplate acesso JDBC à tabela legada.
+     * @param tokenStore store Redis de destino.
+     * @param enabled habilita a migração na inicialização.
+     */
+    public PasswordResetTokenMigration(JdbcTemplate jdbcTemplate, RedisPasswordResetTokenStore tokenStore,
+                                       @Value("${auth.reset-token.migrate-legacy:true}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.tokenStore = tokenStore;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Copia os tokens válidos para o Redis e remove todas as linhas da tabela legada.
+     *
+     * @param args argumentos de inicialização da aplicação.
+     */
+    @Override
+    @Transactional
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            Instant now = Instant.now();
+            int[] migrated = {0};
+            jdbcTemplate.query(
+                    "SELECT token, user_id, expiry_date FROM password_reset_tokens WHERE expiry_date > ?",
+                    rs -> {
+                        Instant expiry = rs.getTimestamp("expiry_date").toInstant();
+                        tokenStore.store(rs.getLong("user_id"), rs.getString("token"), Duration.between(now, expiry));
+                        migrated[0]++;
+                    },
+                    Timestamp.from(now));
+
+            int removed = jdbcTemplate.update("DELETE FROM password_reset_tokens");
+            if (removed > 0) {
+                log.info("Tokens de reset migrados para o Redis: {} (linhas removidas da tabela: {})", migrated[0], removed);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Migração de tokens de reset não executada: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.lucasm.lmsfilmes.service;
+
+/**
+ * Armazenamento dos tokens de recuperação de senha.
+ * A implementação é escolhida por `auth.reset-token.store` (`redis` ou `jpa`).
+ */
+public interface PasswordResetTokenStore {
+
+    /**
+     * Emite um novo token para o usuário, invalidando qualquer token anterior dele.
+     *
+     * @param userId identificador do usuário.
+     * @return token gerado.
+     */
+    String issue(Long userId);
+
+    /**
+     * Consome o token de forma atômica: um token só pode ser usado uma vez.
+     *
+     * @param token token recebido no link de recuperação.
+     * @return identificador do usuário dono do token, ou `null` quando inválido ou expirado.
+     */
+    Long consume(String token);
+}
@@ -1,11 +1,14 @@
 package com.lucasm.lmsfilmes.service;
 
 import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
 
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import com.lucasm.lmsfilmes.config.RabbitMQConfig;
+import com.lucasm.lmsfilmes.dto.CatalogEnrichedDTO;
 import com.lucasm.lmsfilmes.model.User;
 
 record UserRegistrationDTO(String nickname, String email, Instant timestamp) {
@@ -16,23 +19,31 @@ record PasswordResetDTO(String recipientEmail, String resetLink) {
 
 /**
  * Serviço responsável por publicar eventos no RabbitMQ.
+ * Eventos que o usuário espera receber (boas-vindas, redefinição de senha) passam pelo outbox; os demais saem pelo
+ * {@link BatchingPublisher}, e falhas de confirm são apenas registradas.
  */
 @Service
 public class RabbitMQProducer {
 
-    private final RabbitTemplate rabbitTemplate;
+    private static final Logger log = LoggerFactory.getLogger(RabbitMQProducer.class);
+
+    private final BatchingPublisher publisher;
+    private final OutboxService outboxService;
 
     /**
      * Inicializa uma nova instância de RabbitMQProducer.
      *
-        * @param rabbitTemplate cliente usado para envio de mensagens ao broker.
+     * @param publisher publicador em lote com publisher confirms.
+     * @param outboxService outbox dos eventos que dependem do commit de uma transação.
      */
-    public RabbitMQProducer(RabbitTemplate rabbitTemplate) {
-        this.rabbitTemplate = rabbitTemplate;
+    public RabbitMQProducer(BatchingPublisher publisher, OutboxService outboxService) {
+        this.publisher = publisher;
+        this.outboxService = outboxService;
     }
 
     /**
-     * Publica o evento de cadastro de usuário para envio de e-mail de boas-vindas.
+     * Registra no outbox o evento de cadastro de usuário para envio de e-mail de boas-vindas;
+     * só é publicado se o cadastro for confirmado. Deve ser chamado dentro da transação do cadastro.
      *
      * @param user usuário recém-cadastrado.
      */
@@ -43,14 +54,15 @@ public class RabbitMQProducer {
                 Instant.now()
         );
 
-        rabbitTemplate.convertAndSend(
+        outboxService.enqueue(
                 RabbitMQConfig.USER_EXCHANGE,
                 RabbitMQConfig.USER_REGISTERED_ROUTING_KEY,
                 dto);
     }
 
     /**
-     * Publica o evento de redefinição de senha.
+     * Registra no outbox o evento de redefinição de senha; o {@link com.lucasm.lmsfilmes.scheduler.OutboxRelay} o publica após o commit e
+     * tenta de novo enquanto o broker não confirmar. Deve ser chamado dentro da transação que emitiu o token.
      *
      * @param email e-mail do destinatário da recuperação de senha.
      * @param resetLink link para redefinir a senha.
@@ -58,19 +70,39 @@ public class RabbitMQProducer {
     public void sendPasswordReset(String email, String resetLink) {
         PasswordResetDTO dto = new PasswordResetDTO(email, resetLink);
 
-        rabbitTemplate.convertAndSend(
+        outboxService.enqueue(
                 RabbitMQConfig.USER_EXCHANGE,
                 RabbitMQConfig.USER_RESET_PASSWORD_ROUTING_KEY,
                 dto);
     }
 
+    /**
+     * Avisa os demais serviços que duração e gêneros de um título foram preenchidos no catálogo.
+     *
+     * @param dto tipo e id do título enriquecido.
+     */
+    public void sendCatalogEnriched(CatalogEnrichedDTO dto) {
+        logFailure(publisher.convertAndSend(
+                RabbitMQConfig.CATALOG_EXCHANGE,
+                RabbitMQConfig.CATALOG_ENRICHED_ROUTING_KEY,
+                dto), RabbitMQConfig.CATALOG_ENRICHED_ROUTING_KEY);
+    }
+
     /**
      * Envia uma mensagem simples para a fila de filmes.
      *
      * @param message conteúdo textual da mensagem.
      */
     public void sendMessage(String message) {
-        rabbitTemplate.convertAndSend(RabbitMQConfig.MOVIE_QUEUE, message);
+        logFailure(publisher.convertAndSend("", RabbitMQConfig.MOVIE_QUEUE, message), RabbitMQConfig.MOVIE_QUEUE);
+    }
+
+    private static void logFailure(CompletableFuture<Void> confirm, String routingKey) {
+        confirm.whenComplete((ignored, error) -> {
+            if (error != null) {
+                log.warn("Evento {} não confirmado pelo broker: {}", routingKey, error.getMessage());
+            }
+        });
     }
 
 }
@@ -0,0 +1,96 @@
+package com.lucasm.lmsfilmes.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Tokens de recuperação de senha no Redis, com expiração nativa das chaves.
+ * Cada token aponta para o usuário e cada usuário mantém um índice para o token vigente,
+ * permitindo invalidar o anterior na emissão e limpar o índice no consumo.
+ */
+@Service
+@ConditionalOnProperty(name = "auth.reset-token.store", havingValue = "redis", matchIfMissing = true)
+public class RedisPasswordResetTokenStore implements PasswordResetTokenStore {
+
+    static final String TOKEN_KEY_PREFIX = "auth:reset:token:";
+    static final String USER_KEY_PREFIX = "auth:reset:user:";
+
+    /**
+     * Emite o token: remove o token anterior do usuário e grava token e índice com o mesmo TTL.
+     * KEYS[1] = índice do usuário, KEYS[2] = novo token; ARGV[1] = userId, ARGV[2] = TTL (s),
+     * ARGV[3] = novo token, ARGV[4] = prefixo das chaves de token.
+     */
+    private static final RedisScript<Long> ISSUE_SCRIPT = new DefaultRedisScript<>("""
+            local previous = redis.call('GET', KEYS[1])
+            if previous then redis.call('DEL', ARGV[4] .. previous) end
+            redis.call('SET', KEYS[2], ARGV[1], 'EX', ARGV[2])
+            redis.call('SET', KEYS[1], ARGV[3], 'EX', ARGV[2])
+            return 1
+            """, Long.class);
+
+    /**
+     * Consome o token com GET+DEL atômico e limpa o índice do usuário se ainda apontar para ele.
+     * KEYS[1] = token; ARGV[1] = token, ARGV[2] = prefixo dos índices de usuário.
+     */
+    private static final RedisScript<String> CONSUME_SCRIPT = new DefaultRedisScript<>("""
+            local userId = redis.call('GET', KEYS[1])
+            if not userId then return false end
+            redis.call('DEL', KEYS[1])
+            local indexKey = ARGV[2] .. userId
+            if redis.call('GET', indexKey) == ARGV[1] then redis.call('DEL', indexKey) end
+            return userId
+            """, String.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final Duration ttl;
+
+    /**
+     * Cria o store com o cliente Redis e o tempo de vida dos tokens.
+     *
+     * @param redisTemplate cliente Redis.
+     * @param ttl tempo de vida de cada token.
+     */
+    public RedisPasswordResetTokenStore(StringRedisTemplate redisTemplate,
+                                        @Value("${auth.reset-token.ttl:30m}") Duration ttl) {
+        this.redisTemplate = redisTemplate;
+        this.ttl = ttl;
+    }
+
+    @Override
+    public String issue(Long userId) {
+        String token = UUID.randomUUID().toString();
+        store(userId, token, ttl);
+        return token;
+    }
+
+    @Override
+    public Long consume(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        String userId = redisTemplate.execute(CONSUME_SCRIPT, List.of(TOKEN_KEY_PREFIX + token), token, USER_KEY_PREFIX);
+        return userId != null ? Long.valueOf(userId) : null;
+    }
+
+    /**
+     * Grava um token já existente com o TTL informado (usado também na migração da tabela antiga).
+     *
+     * @param userId identificador do usuário.
+     * @param token token a ser gravado.
+     * @param remaining tempo de vida restante do token.
+     */
+    void store(Long userId, String token, Duration remaining) {
+        long seconds = Math.max(1L, remaining.toSeconds());
+        redisTemplate.execute(ISSUE_SCRIPT,
+                List.of(USER_KEY_PREFIX + userId, TOKEN_KEY_PREFIX + token),
+                String.valueOf(userId), String.valueOf(seconds), token, TOKEN_KEY_PREFIX);
+    }
+}
@@ -0,0 +1,165 @@
+package com.lucasm.lmsfilmes.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lista de revogação de tokens mantida em memória e alimentada pelo Redis.
+ * Guarda os `jti` revogados e o corte "not-before" por usuário, cada um com um filtro de Bloom na frente,
+ * de modo que a checagem por requisição normalmente se resume a poucos acessos a um `long[]`.
+ * As revogações chegam pelo canal {@value #CHANNEL} e são recarregadas do Redis na subida.
+ */
+@Service
+public class TokenRevocationRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationRegistry.class);
+
+    public static final String CHANNEL = "auth:revocations";
+    public static final String TOKEN_KEY_PREFIX = "auth:revoked:token:";
+    public static final String USER_KEY_PREFIX = "auth:revoked:user:";
+
+    private record UserCutoff(long notBeforeMillis, long expiresAtMillis) {}
+
+    private final StringRedisTemplate redisTemplate;
+    private final ConcurrentHashMap<String, Long> revokedTokens = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, UserCutoff> userCutoffs = new ConcurrentHashMap<>();
+
+    private volatile RevocationBloomFilter tokenFilter;
+    private volatile RevocationBloomFilter userFilter;
+    private long lastPurgeMillis = System.currentTimeMillis();
+
+    /**
+     * Cria o registro com o cliente Redis e o tamanho dos filtros.
+     *
+     * @param redisTemplate cliente Redis usado na carga inicial.
+     * @param filterBits quantidade de bits de cada filtro de Bloom.
+     */
+    public TokenRevocationRegistry(StringRedisTemplate redisTemplate,
+                                   @Value("${jwt.auth.revocation.filter-bits:1048576}") int filterBits) {
+        this.redisTemplate = redisTemplate;
+        this.tokenFilter = new RevocationBloomFilter(filterBits);
+        this.userFilter = new RevocationBloomFilter(filterBits);
+    }
+
+    /**
+     * Indica se o token foi revogado, individualmente (`jti`) ou por corte do usuário.
+     * O corte inclui o próprio segundo da revogação: o `iat` tem precisão de segundos, então um token emitido
+     * naquele segundo pode ser anterior à revogação e também é recusado.
+     *
+     * @param tokenId claim `jti` do token; pode ser `null` em tokens antigos.
+     * @param userId identificador do usuário; pode ser `null` em tokens antigos.
+     * @param issuedAtMillis instante de emissão do token (`iat`), em milissegundos.
+     * @return `true` quando o token não deve mais ser aceito.
+     */
+    public boolean isRevoked(String tokenId, Long userId, long issuedAtMillis) {
+        if (tokenId != null && tokenFilter.mightContain(RevocationBloomFilter.hash(tokenId))
+                && revokedTokens.containsKey(tokenId)) {
+            return true;
+        }
+        if (userId != null && userFilter.mightContain(RevocationBloomFilter.mix(userId))) {
+            UserCutoff cutoff = userCutoffs.get(userId);
+            return cutoff != null && issuedAtMillis <= cutoff.notBeforeMillis();
+        }
+        return false;
+    }
+
+    /**
+     * Aplica uma mensagem de revogação recebida pelo canal.
+     * Formatos: `token|<jti>|<expiraEm>` e `user|<userId>|<notBefore>|<expiraEm>` (milissegundos).
+     *
+     * @param message mensagem publicada pelo serviço de autenticação.
+     */
+    public void apply(String message) {
+        String[] parts = message.split("\\|");
+        try {
+            if ("token".equals(parts[0]) && parts.length == 3) {
+                revokeToken(parts[1], Long.parseLong(parts[2]));
+            } else if ("user".equals(parts[0]) && parts.length == 4) {
+                revokeUser(Long.parseLong(parts[1]), Long.parseLong(parts[2]), Long.parseLong(parts[3]));
+            } else {
+                log.warn("Mensagem de revogação ignorada: {}", message);
+            }
+        } catch (NumberFormatException e) {
+            log.warn("Mensagem de revogação inválida: {}", message);
+        }
+    }
+
+    /**
+     * Carrega do Redis as revogações ainda vigentes quando a aplicação termina de subir.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadFromRedis() {
+        List<String> keys = new ArrayList<>();
+        try (Cursor<String> cursor = redisTemplate.scan(ScanOptions.scanOptions().match("auth:revoked:*").count(1000).build())) {
+            cursor.forEachRemaining(keys::add);
+        } catch (DataAccessException e) {
+            log.warn("Não foi possível carregar a lista de revogação do Redis: {}", e.getMessage());
+            return;
+        }
+        if (keys.isEmpty()) {
+            return;
+        }
+
+        List<String> values = redisTemplate.opsForValue().multiGet(keys);
+        for (int i = 0; i < keys.size() && values != null; i++) {
+            String key = keys.get(i);
+            String value = values.get(i);
+            if (value == null) {
+                continue;
+            }
+            if (key.startsWith(TOKEN_KEY_PREFIX)) {
+                apply("token|" + key.substring(TOKEN_KEY_PREFIX.length()) + "|" + value);
+            } else if (key.startsWith(USER_KEY_PREFIX)) {
+                apply("user|" + key.substring(USER_KEY_PREFIX.length()) + "|" + value);
+            }
+        }
+        log.info("Lista de revogação carregada: {} tokens, {} usuários", revokedTokens.size(), userCutoffs.size());
+    }
+
+    private synchronized void revokeToken(String tokenId, long expiresAtMillis) {
+        purgeExpired();
+        revokedTokens.put(tokenId, expiresAtMillis);
+        tokenFilter = tokenFilter.with(RevocationBloomFilter.hash(tokenId));
+    }
+
+    private synchronized void revokeUser(Long userId, long notBeforeMillis, long expiresAtMillis) {
+        purgeExpired();
+        userCutoffs.merge(userId, new UserCutoff(notBeforeMillis, expiresAtMillis),
+                (current, incoming) -> incoming.notBeforeMillis() >= current.notBeforeMillis() ? incoming : current);
+        userFilter = userFilter.with(RevocationBloomFilter.mix(userId));
+    }
+
+    /**
+     * Remove entradas cujos tokens já expiraram por conta própria e reconstrói os filtros, no máximo uma vez por minuto.
+     */
+    private void purgeExpired() {
+        long now = System.currentTimeMillis();
+        if (now - lastPurgeMillis < 60_000L) {
+            return;
+        }
+        lastPurgeMillis = now;
+
+        if (revokedTokens.values().removeIf(expiresAt -> expiresAt <= now)) {
+            RevocationBloomFilter rebuilt = tokenFilter.empty();
+            revokedTokens.keySet().forEach(tokenId -> rebuilt.set(RevocationBloomFilter.hash(tokenId)));
+            tokenFilter = rebuilt;
+        }
+        if (userCutoffs.values().removeIf(cutoff -> cutoff.expiresAtMillis() <= now)) {
+            RevocationBloomFilter rebuilt = userFilter.empty();
+            userCutoffs.keySet().forEach(userId -> rebuilt.set(RevocationBloomFilter.mix(userId)));
+            userFilter = rebuilt;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.lucasm.lmsfilmes.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+/**
+ * Registra revogações de tokens no Redis e as publica para todos os serviços.
+ * Um token pode ser revogado individualmente pelo `jti` (logout) ou em bloco pelo corte
+ * "not-before" do usuário (logout em todos os dispositivos, reset de senha, revogação administrativa).
+ */
+@Service
+public class TokenRevocationService {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final long tokenLifetimeMillis;
+
+    /**
+     * Cria o serviço com o cliente Redis e o tempo de vida máximo de um token.
+     *
+     * @param redisTemplate cliente Redis.
+     * @param tokenLifetimeMillis tempo de expiração dos tokens emitidos, em milissegundos.
+     */
+    public TokenRevocationService(StringRedisTemplate redisTemplate,
+                                  @Value("${jwt.auth.expiration}") long tokenLifetimeMillis) {
+        this.redisTemplate = redisTemplate;
+        this.tokenLifetimeMillis = tokenLifetimeMillis;
+    }
+
+    /**
+     * Revoga um único token até o seu vencimento.
+     *
+     * @param tokenId claim `jti` do token.
+     * @param expiresAtMillis instante de expiração do token, em milissegundos.
+     */
+    public void revokeToken(String tokenId, long expiresAtMillis) {
+        long ttlMillis = expiresAtMillis - System.currentTimeMillis();
+        if (tokenId == null || ttlMillis <= 0) {
+            return;
+        }
+        redisTemplate.opsForValue().set(TokenRevocationRegistry.TOKEN_KEY_PREFIX + tokenId,
+                String.valueOf(expiresAtMillis), Duration.ofMillis(ttlMillis));
+        redisTemplate.convertAndSend(TokenRevocationRegistry.CHANNEL, "token|" + tokenId + "|" + expiresAtMillis);
+    }
+
+    /**
+     * Revoga todos os tokens do usuário emitidos até agora.
+     * O corte é truncado para segundos, a mesma precisão do claim `iat`, e vale para o segundo inteiro
+     * (`iat <= notBefore`): um token roubado emitido antes da revogação, no mesmo segundo, também é recusado.
+     * Um login feito ainda naquele segundo precisa ser repetido.
+     *
+     * @param userId identificador do usuário.
+     */
+    public void revokeAllForUser(Long userId) {
+        long now = System.currentTimeMillis();
+        long notBeforeMillis = (now / 1000L) * 1000L;
+        long expiresAtMillis = now + tokenLifetimeMillis;
+        String value = notBeforeMillis + "|" + expiresAtMillis;
+
+        redisTemplate.opsForValue().set(TokenRevocationRegistry.USER_KEY_PREFIX + userId, value,
+                Duration.ofMillis(tokenLifetimeMillis));
+        redisTemplate.convertAndSend(TokenRevocationRegistry.CHANNEL, "user|" + userId + "|" + value);
+        log.info("Tokens revogados para o usuário: {}", userId);
+    }
+}
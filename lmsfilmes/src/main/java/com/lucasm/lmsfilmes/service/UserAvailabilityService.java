@@ -0,0 +1,154 @@
+package com.lucasm.lmsfilmes.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.lucasm.lmsfilmes.model.User;
+import com.lucasm.lmsfilmes.repository.UserRepository;
+
+/**
+ * Responde se e-mail e nickname estão livres para cadastro sem ir ao banco na maioria das consultas.
+ * Cada instância mantém filtros de Bloom dos valores existentes, aquecidos a partir da tabela `users`
+ * na subida e atualizados pelos eventos `user.registered`; só um possível acerto é confirmado no banco.
+ * Enquanto o aquecimento não termina, todas as consultas vão ao banco.
+ */
+@Service
+public class UserAvailabilityService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserAvailabilityService.class);
+
+    private static final int WARM_UP_BATCH_SIZE = 5000;
+
+    private final UserRepository usersRepo;
+    private final JdbcTemplate jdbcTemplate;
+    private final AvailabilityBloomFilter emailFilter;
+    private final AvailabilityBloomFilter nicknameFilter;
+    private final Counter filterAnswers;
+    private final Counter databaseAnswers;
+
+    private volatile boolean warmedUp;
+
+    /**
+     * Cria o serviço com o acesso ao banco e o tamanho dos filtros.
+     *
+     * @param usersRepo repositório de usuários, usado na confirmação exata.
+     * @param jdbcTemplate acesso JDBC usado no aquecimento dos filtros.
+     * @param meterRegistry registro de métricas da aplicação.
+     * @param filterBits quantidade de bits de cada filtro de Bloom.
+     */
+    public UserAvailabilityService(UserRepository usersRepo, JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+                                   @Value("${auth.availability.filter-bits:8388608}") int filterBits) {
+        this.usersRepo = usersRepo;
+        this.jdbcTemplate = jdbcTemplate;
+        this.emailFilter = new AvailabilityBloomFilter(filterBits);
+        this.nicknameFilter = new AvailabilityBloomFilter(filterBits);
+        this.filterAnswers = Counter.builder("auth.availability.lookups")
+                .description("Consultas de disponibilidade de cadastro")
+                .tag("source", "filter")
+                .register(meterRegistry);
+        this.databaseAnswers = Counter.builder("auth.availability.lookups")
+                .description("Consultas de disponibilidade de cadastro")
+                .tag("source", "database")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Indica se o e-mail ainda não está cadastrado.
+     *
+     * @param email e-mail consultado.
+     * @return `true` quando o e-mail estiver livre.
+     */
+    public boolean isEmailAvailable(String email) {
+        if (warmedUp && !emailFilter.mightContain(email)) {
+            filterAnswers.increment();
+            return true;
+        }
+        databaseAnswers.increment();
+        return !usersRepo.existsByEmail(email);
+    }
+
+    /**
+     * Indica se o nickname ainda não está em uso.
+     *
+     * @param nickname nickname consultado.
+     * @return `true` quando o nickname estiver livre.
+     */
+    public boolean isNicknameAvailable(String nickname) {
+        if (warmedUp && !nicknameFilter.mightContain(nickname)) {
+            filterAnswers.increment();
+            return true;
+        }
+        databaseAnswers.increment();
+        return !usersRepo.existsByNickname(nickname);
+    }
+
+    /**
+     * Marca e-mail e nickname do usuário como ocupados nesta instância.
+     *
+     * @param user usuário recém-cadastrado.
+     */
+    public void markTaken(User user) {
+        markTaken(user.getEmail(), user.getNickname());
+    }
+
+    /**
+     * Atualiza os filtros a partir dos cadastros feitos em qualquer instância.
+     *
+     * @param event evento de cadastro publicado pelo serviço de autenticação.
+     */
+    @RabbitListener(queues = "#{userAvailabilityQueue.name}")
+    public void onUserRegistered(UserRegistrationDTO event) {
+        markTaken(event.email(), event.nickname());
+    }
+
+    /**
+     * Carrega e-mails e nicknames existentes em lotes por id, sem manter a tabela inteira em memória.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        long lastId = 0L;
+        int loaded = 0;
+        try {
+            while (true) {
+                long[] cursor = {lastId};
+                int[] batch = {0};
+                jdbcTemplate.query(
+                        "SELECT id, email, nickname FROM users WHERE id > ? ORDER BY id LIMIT ?",
+                        rs -> {
+                            markTaken(rs.getString("email"), rs.getString("nickname"));
+                            cursor[0] = rs.getLong("id");
+                            batch[0]++;
+                        },
+                        lastId, WARM_UP_BATCH_SIZE);
+                loaded += batch[0];
+                lastId = cursor[0];
+                if (batch[0] < WARM_UP_BATCH_SIZE) {
+                    break;
+                }
+            }
+        } catch (DataAccessException e) {
+            log.warn("Filtro de disponibilidade não aquecido, consultas seguem no banco: {}", e.getMessage());
+            return;
+        }
+        warmedUp = true;
+        log.info("Filtro de disponibilidade aquecido com {} usuários", loaded);
+    }
+
+    private void markTaken(String email, String nickname) {
+        if (email != null) {
+            emailFilter.add(email);
+        }
+        if (nickname != null) {
+            nicknameFilter.add(nickname);
+        }
+    }
+}
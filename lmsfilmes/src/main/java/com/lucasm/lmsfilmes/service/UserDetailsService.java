@@ -1,17 +1,21 @@
 package com.lucasm.lmsfilmes.service;
 
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.lucasm.lmsfilmes.model.User;
 import com.lucasm.lmsfilmes.repository.UserRepository;
 
 
 /**
  * Implementação de `UserDetailsService` para carregar usuários no fluxo de autenticação.
+ * Também persiste hashes refeitos quando o custo do encoder muda (`UserDetailsPasswordService`).
  */
 @Service
-public class UserDetailsService implements org.springframework.security.core.userdetails.UserDetailsService {
+public class UserDetailsService implements org.springframework.security.core.userdetails.UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
 
@@ -35,4 +39,20 @@ public class UserDetailsService implements org.springframework.security.core.use
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
         return userRepository.findByEmail(email).orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado com e-mail: " + email));
     }
+
+    /**
+     * Atualiza o hash da senha após login bem-sucedido com hash de custo defasado.
+     *
+     * @param user usuário autenticado.
+     * @param newPassword novo hash já codificado.
+     * @return usuário com o hash atualizado.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        User entity = (User) user;
+        userRepository.updatePassword(entity.getId(), newPassword);
+        entity.setPassword(newPassword);
+        return entity;
+    }
 }
@@ -0,0 +1,35 @@
+package com.lucasm.lmsfilmes.service;
+
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+
+import com.lucasm.lmsfilmes.repository.UserRepository;
+
+/**
+ * Verificação opcional do estado do usuário para cobrir revogação de contas com tokens ainda válidos.
+ */
+@Service
+public class UserStateService {
+
+    private final UserRepository userRepository;
+
+    /**
+     * Cria o serviço com acesso ao repositório de usuários.
+     *
+     * @param userRepository repositório utilizado na verificação de existência do usuário.
+     */
+    public UserStateService(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    /**
+     * Indica se o usuário do token ainda existe. O resultado fica em cache de curta duração (`userState`).
+     *
+     * @param userId identificador do usuário presente no token.
+     * @return `true` quando o usuário continuar ativo; caso contrário, `false`.
+     */
+    @Cacheable(value = "userState", key = "#userId")
+    public boolean isActive(Long userId) {
+        return userRepository.existsById(userId);
+    }
+}
@@ -0,0 +1,72 @@
+package com.lucasm.lmsfilmes.service;
+
+import java.time.Duration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.lucasm.lmsfilmes.model.User;
+
+/**
+ * Remove as constraints únicas de `users.email` e `users.nickname` com nomes gerados pelo Hibernate em bancos antigos,
+ * depois que as constraints nomeadas ({@link User#EMAIL_CONSTRAINT}, {@link User#NICKNAME_CONSTRAINT}) existem.
+ * Assim o cadastro identifica o conflito pelo nome da constraint violada. Roda uma instância por vez (trava no Redis).
+ */
+@Component
+public class UserUniqueConstraints {
+
+    private static final Logger log = LoggerFactory.getLogger(UserUniqueConstraints.class);
+
+    private static final String LOCK_KEY = "users:unique-constraints:lock";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StringRedisTemplate redisTemplate;
+
+    public UserUniqueConstraints(JdbcTemplate jdbcTemplate, StringRedisTemplate redisTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**
+     * Remove as constraints antigas em segundo plano quando a aplicação termina de subir.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        Thread.ofVirtual().name("user-unique-constraints").start(this::dropLegacyConstraints);
+    }
+
+    private void dropLegacyConstraints() {
+        try {
+            if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(LOCK_KEY, "1", Duration.ofMinutes(5)))) {
+                return;
+            }
+        } catch (DataAccessException e) {
+            log.warn("Revisão das constraints de usuários não iniciada, Redis indisponível: {}", e.getMessage());
+            return;
+        }
+
+        try {
+            jdbcTemplate.execute(
+                "DO $$ DECLARE r record; BEGIN " +
+                "FOR r IN SELECT con.conname FROM pg_constraint con " +
+                "JOIN pg_class t ON t.oid = con.conrelid " +
+                "JOIN pg_attribute a ON a.attrelid = t.oid AND a.attnum = con.conkey[1] " +
+                "WHERE t.relname = 'users' AND con.contype = 'u' AND array_length(con.conkey, 1) = 1 " +
+                "AND a.attname IN ('email', 'nickname') " +
+                "AND con.conname NOT IN ('" + User.EMAIL_CONSTRAINT + "', '" + User.NICKNAME_CONSTRAINT + "') " +
+                "AND EXISTS (SELECT 1 FROM pg_constraint o WHERE o.conrelid = t.oid AND o.conname = " +
+                "CASE a.attname WHEN 'email' THEN '" + User.EMAIL_CONSTRAINT + "' ELSE '" + User.NICKNAME_CONSTRAINT + "' END) LOOP " +
+                "EXECUTE format('ALTER TABLE users DROP CONSTRAINT %I', r.conname); END LOOP; END $$");
+        } catch (DataAccessException e) {
+            log.warn("Constraints antigas de usuários não removidas: {}", e.getMessage());
+        } finally {
+            redisTemplate.delete(LOCK_KEY);
+        }
+    }
+}
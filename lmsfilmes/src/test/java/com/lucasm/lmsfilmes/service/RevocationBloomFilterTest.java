@@ -0,0 +1,62 @@
+package com.lucasm.lmsfilmes.service;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+class RevocationBloomFilterTest {
+
+    @Test
+    void hasNoFalseNegativesForTokenIds() {
+        RevocationBloomFilter filter = new RevocationBloomFilter(1 << 16);
+        Random random = new Random(42);
+        String[] tokenIds = new String[20_000];
+        for (int i = 0; i < tokenIds.length; i++) {
+            tokenIds[i] = new UUID(random.nextLong(), random.nextLong()).toString();
+            filter.set(RevocationBloomFilter.hash(tokenIds[i]));
+        }
+
+        for (String tokenId : tokenIds) {
+            assertTrue(filter.mightContain(RevocationBloomFilter.hash(tokenId)), tokenId);
+        }
+    }
+
+    @Test
+    void hasNoFalseNegativesForMixedUserIds() {
+        RevocationBloomFilter filter = new RevocationBloomFilter(1024);
+        for (long userId = 1; userId <= 5_000; userId++) {
+            filter.set(RevocationBloomFilter.mix(userId));
+        }
+
+        for (long userId = 1; userId <= 5_000; userId++) {
+            assertTrue(filter.mightContain(RevocationBloomFilter.mix(userId)), "usuário " + userId);
+        }
+    }
+
+    @Test
+    void withReturnsCopyAndKeepsOriginalUnchanged() {
+        RevocationBloomFilter original = new RevocationBloomFilter(4096);
+        long hash = RevocationBloomFilter.hash("jti-1");
+
+        RevocationBloomFilter copy = original.with(hash);
+
+        assertTrue(copy.mightContain(hash));
+        assertFalse(original.mightContain(hash));
+    }
+
+    @Test
+    void emptyFilterRejectsEverything() {
+        RevocationBloomFilter filter = new RevocationBloomFilter(4096)
+                .with(RevocationBloomFilter.hash("jti-1"))
+                .empty();
+
+        assertFalse(filter.mightContain(RevocationBloomFilter.hash("jti-1")));
+        for (long value = 0; value < 1_000; value++) {
+            assertFalse(filter.mightContain(RevocationBloomFilter.mix(value)));
+        }
+    }
+}
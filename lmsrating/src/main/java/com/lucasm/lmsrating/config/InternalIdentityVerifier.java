@@ -0,0 +1,120 @@
+package com.lucasm.lmsrating.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+/**
+ * Valida os headers de identidade assinados pelo gateway (modo `internal` de `jwt.auth.mode`).
+ * A checagem é um HMAC sobre poucos bytes, evitando nova decodificação e verificação do JWT.
+ */
+@Component
+public class InternalIdentityVerifier {
+
+    public static final String USER_ID_HEADER = "X-User-Id";
+    public static final String USER_EMAIL_HEADER = "X-User-Email";
+    public static final String USER_ROLE_HEADER = "X-User-Role";
+    public static final String TOKEN_ID_HEADER = "X-Token-Id";
+    public static final String TOKEN_ISSUED_AT_HEADER = "X-Token-Issued-At";
+    public static final String IDENTITY_TIMESTAMP_HEADER = "X-Identity-Timestamp";
+    public static final String IDENTITY_SIGNATURE_HEADER = "X-Identity-Signature";
+
+    /**
+     * Identidade repassada pelo gateway após validação do token.
+     *
+     * @param userId identificador do usuário (pode ser vazio em tokens antigos).
+     * @param email e-mail do usuário.
+     * @param role perfil de acesso do usuário.
+     * @param tokenId claim `jti` do token (pode ser vazio em tokens antigos).
+     * @param issuedAtMillis instante de emissão do token, em milissegundos.
+     */
+    public record Identity(String userId, String email, String role, String tokenId, long issuedAtMillis) {}
+
+    private final boolean enabled;
+    private final SecretKeySpec key;
+    private final long maxAgeMillis;
+
+    /**
+     * Cria o verificador a partir do modo de autenticação e do segredo compartilhado com o gateway.
+     *
+     * @param mode modo de autenticação (`token` ou `internal`).
+     * @param secret segredo usado pelo gateway para assinar os headers.
+     * @param maxAgeMillis idade máxima aceita para a assinatura, em milissegundos.
+     */
+    public InternalIdentityVerifier(@Value("${jwt.auth.mode:token}") String mode,
+                                    @Value("${jwt.auth.internal.secret:}") String secret,
+                                    @Value("${jwt.auth.internal.max-age:30000}") long maxAgeMillis) {
+        this.enabled = "internal".equalsIgnoreCase(mode) && !secret.isBlank();
+        this.key = enabled ? new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256") : null;
+        this.maxAgeMillis = maxAgeMillis;
+    }
+
+    /**
+     * Lê e valida os headers internos de identidade da requisição.
+     *
+     * @param request requisição HTTP recebida.
+     * @return identidade validada, ou `null` quando o modo interno estiver desligado ou os headers forem inválidos.
+     */
+    public Identity verify(HttpServletRequest request) {
+        if (!enabled) {
+            return null;
+        }
+
+        String signature = request.getHeader(IDENTITY_SIGNATURE_HEADER);
+        String timestamp = request.getHeader(IDENTITY_TIMESTAMP_HEADER);
+        String email = request.getHeader(USER_EMAIL_HEADER);
+        if (signature == null || timestamp == null || email == null || email.isBlank()) {
+            return null;
+        }
+
+        long signedAt;
+        try {
+            signedAt = Long.parseLong(timestamp);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (Math.abs(System.currentTimeMillis() - signedAt) > maxAgeMillis) {
+            return null;
+        }
+
+        String userId = headerOrEmpty(request, USER_ID_HEADER);
+        String role = headerOrEmpty(request, USER_ROLE_HEADER);
+        String tokenId = headerOrEmpty(request, TOKEN_ID_HEADER);
+        String issuedAt = headerOrEmpty(request, TOKEN_ISSUED_AT_HEADER);
+        String expected = sign(userId + "\n" + email + "\n" + role + "\n" + tokenId + "\n" + issuedAt + "\n" + timestamp);
+        if (!MessageDigest.isEqual(expected.getBytes(StandardCharsets.US_ASCII), signature.getBytes(StandardCharsets.US_ASCII))) {
+            return null;
+        }
+
+        long issuedAtMillis;
+        try {
+            issuedAtMillis = issuedAt.isEmpty() ? 0L : Long.parseLong(issuedAt);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+
+        return new Identity(userId, email, role, tokenId.isEmpty() ? null : tokenId, issuedAtMillis);
+    }
+
+    private String sign(String payload) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(key);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(mac.doFinal(payload.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Falha ao validar identidade interna", e);
+        }
+    }
+
+    private static String headerOrEmpty(HttpServletRequest request, String name) {
+        String value = request.getHeader(name);
+        return value != null ? value : "";
+    }
+}
@@ -1,12 +1,18 @@
 package com.lucasm.lmsrating.config;
 
+import com.lucasm.lmsrating.model.AuthenticatedUser;
 import com.lucasm.lmsrating.service.JWTUtils;
+import com.lucasm.lmsrating.service.TokenRevocationRegistry;
+import com.lucasm.lmsrating.service.UserLookupService;
+
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -26,6 +32,15 @@ public class JWTAuthFilter extends OncePerRequestFilter {
     @Autowired
     private JWTUtils jwtUtils;
 
+    @Autowired
+    private InternalIdentityVerifier identityVerifier;
+
+    @Autowired
+    private UserLookupService userLookupService;
+
+    @Autowired
+    private TokenRevocationRegistry revocationRegistry;
+
     /**
      * Processa a requisição, valida o token e configura autenticação no `SecurityContext`.
      *
@@ -40,6 +55,16 @@ public class JWTAuthFilter extends OncePerRequestFilter {
                                     @NonNull HttpServletResponse response,
                                     @NonNull FilterChain filterChain) throws ServletException, IOException {
 
+        InternalIdentityVerifier.Identity identity = identityVerifier.verify(request);
+        if (identity != null) {
+            Long userId = identity.userId().isEmpty() ? null : Long.valueOf(identity.userId());
+            if (!revocationRegistry.isRevoked(identity.tokenId(), userId, identity.issuedAtMillis())) {
+                authenticate(request, userId, identity.email(), identity.role());
+            }
+            filterChain.doFilter(request, response);
+            return;
+        }
+
         final String jwtToken = recuperarToken(request);
 
         if (jwtToken == null) {
@@ -47,26 +72,54 @@ public class JWTAuthFilter extends OncePerRequestFilter {
             return;
         }
 
-        String userEmail = null;
+        Claims claims;
         try {
-            userEmail = jwtUtils.extractUsername(jwtToken);
+            claims = jwtUtils.parseClaims(jwtToken);
         } catch (Exception e) {
             filterChain.doFilter(request, response);
             return;
         }
 
-        if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            if (jwtUtils.isTokenValid(jwtToken)) {
-                UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
-                        userEmail, null, new ArrayList<>()
-                );
-                authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authenticationToken);
-            }
+        Long userId = claims.get("id", Long.class);
+        if (!revocationRegistry.isRevoked(claims.getId(), userId, issuedAtMillis(claims))) {
+            authenticate(request, userId, claims.getSubject(), claims.get("role", String.class));
         }
         filterChain.doFilter(request, response);
     }
 
+    private static long issuedAtMillis(Claims claims) {
+        return claims.getIssuedAt() != null ? claims.getIssuedAt().getTime() : 0L;
+    }
+
+    /**
+     * Popula o `SecurityContext` com o usuário identificado, caso ainda não haja autenticação.
+     * Tokens emitidos antes do claim `id` recorrem ao `UserLookupService` para resolver o identificador.
+     *
+     * @param request requisição HTTP de origem.
+     * @param userId identificador do usuário presente no token; `null` em tokens antigos.
+     * @param userEmail e-mail do usuário autenticado.
+     * @param role perfil de acesso do usuário.
+     */
+    private void authenticate(HttpServletRequest request, Long userId, String userEmail, String role) {
+        if (userEmail == null || SecurityContextHolder.getContext().getAuthentication() != null) {
+            return;
+        }
+
+        if (userId == null) {
+            try {
+                userId = userLookupService.getUserIdByEmail(userEmail);
+            } catch (DataAccessException e) {
+                return;
+            }
+        }
+
+        UsernamePasswordAuthenticationToken authenticationToken = new UsernamePasswordAuthenticationToken(
+                new AuthenticatedUser(userId, userEmail, role), null, new ArrayList<>()
+        );
+        authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authenticationToken);
+    }
+
     /**
      * Recupera o JWT do cookie `auth_token` ou do header `Authorization`.
      *
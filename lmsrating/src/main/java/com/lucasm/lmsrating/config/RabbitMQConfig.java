@@ -1,5 +1,7 @@
 package com.lucasm.lmsrating.config;
 
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
 import org.springframework.amqp.core.DirectExchange;
 import org.springframework.amqp.core.Queue;
 import org.springframework.amqp.core.TopicExchange;
@@ -19,6 +21,8 @@ public class RabbitMQConfig {
     public static final String USER_EXCHANGE = "user.exchange";
     
     public static final String CATALOG_EXCHANGE = "catalog.direct";
+    public static final String CATALOG_ENRICHED_ROUTING_KEY = "catalog.enriched";
+    public static final String CATALOG_ENRICHED_QUEUE = "rating.catalog.enriched.queue";
 
     /**
      * Cria o conversor JSON usado nas mensagens RabbitMQ.
@@ -62,4 +66,20 @@ public class RabbitMQConfig {
     public DirectExchange catalogExchange() {
         return new DirectExchange(CATALOG_EXCHANGE);
     }
-}
\ No newline at end of file
+
+    /**
+     * Declara a fila que recebe os títulos enriquecidos (duração e gêneros) para recalcular as estatísticas.
+     */
+    @Bean
+    public Queue catalogEnrichedQueue() {
+        return new Queue(CATALOG_ENRICHED_QUEUE, true);
+    }
+
+    /**
+     * Liga a fila de títulos enriquecidos ao exchange de catálogo.
+     */
+    @Bean
+    public Binding catalogEnrichedBinding(Queue catalogEnrichedQueue, DirectExchange catalogExchange) {
+        return BindingBuilder.bind(catalogEnrichedQueue).to(catalogExchange).with(CATALOG_ENRICHED_ROUTING_KEY);
+    }
+}
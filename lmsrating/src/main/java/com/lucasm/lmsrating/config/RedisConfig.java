@@ -10,10 +10,15 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
+import com.lucasm.lmsrating.service.TokenRevocationRegistry;
+
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 
 /**
@@ -43,4 +48,22 @@ public class RedisConfig {
                 .cacheDefaults(config)
                 .build();
     }
-}
\ No newline at end of file
+
+    /**
+     * Assina o canal de revogação de tokens para manter a lista local de cada instância atualizada.
+     *
+     * @param connectionFactory fábrica de conexões do Redis.
+     * @param revocationRegistry lista de revogação em memória.
+     * @return container de listeners do Redis.
+     */
+    @Bean
+    public RedisMessageListenerContainer revocationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                     TokenRevocationRegistry revocationRegistry) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(
+                (message, pattern) -> revocationRegistry.apply(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(TokenRevocationRegistry.CHANNEL));
+        return container;
+    }
+}
@@ -1,5 +1,7 @@
 package com.lucasm.lmsrating.config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.reactive.function.client.WebClient;
@@ -8,7 +10,17 @@ import org.springframework.web.reactive.function.client.WebClient;
 public class WebClientConfig {
 
     @Bean
+    @LoadBalanced
     WebClient.Builder webClientBuilder() {
         return WebClient.builder();
     }
+
+    /**
+     * Cliente do lmsfilmes, resolvido pelo Eureka; usado pela importação para encontrar títulos no TMDB.
+     */
+    @Bean
+    WebClient lmsFilmesWebClient(WebClient.Builder webClientBuilder,
+                                 @Value("${import.lmsfilmes-url:http://lms-filmes}") String baseUrl) {
+        return webClientBuilder.baseUrl(baseUrl).build();
+    }
 }
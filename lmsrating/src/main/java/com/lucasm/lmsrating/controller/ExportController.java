@@ -0,0 +1,60 @@
+package com.lucasm.lmsrating.controller;
+
+import java.time.LocalDate;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.lucasm.lmsrating.model.AuthenticatedUser;
+import com.lucasm.lmsrating.service.ExportWriter;
+import com.lucasm.lmsrating.service.RatingExportService;
+
+/**
+ * Expõe a exportação do histórico de avaliações do usuário autenticado.
+ */
+@RestController
+@RequestMapping("/rate/export")
+public class ExportController {
+
+    private final RatingExportService exportService;
+
+    /**
+     * Cria o controller com o serviço de exportação.
+     *
+     * @param exportService serviço que gera o arquivo em streaming.
+     */
+    public ExportController(RatingExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    /**
+     * Baixa todas as avaliações do usuário autenticado, escritas conforme são lidas do banco.
+     *
+     * @param format `ndjson` ou `csv`.
+     * @param media `movie`, `serie`, `episode` ou `all`.
+     * @param user usuário autenticado.
+     * @return arquivo em streaming.
+     */
+    @GetMapping("")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(defaultValue = "all") String media,
+            @AuthenticationPrincipal AuthenticatedUser user) {
+
+        ExportWriter.Format parsed = ExportWriter.Format.parse(format);
+        StreamingResponseBody body = exportService.export(user.id(), media, parsed);
+        String filename = "lms-avaliacoes-" + LocalDate.now() + "." + parsed.extension();
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(parsed.contentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .body(body);
+    }
+}
@@ -0,0 +1,78 @@
+package com.lucasm.lmsrating.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.CookieValue;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RequestPart;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.lucasm.lmsrating.dto.ImportJobDTO;
+import com.lucasm.lmsrating.model.AuthenticatedUser;
+import com.lucasm.lmsrating.service.RatingImportService;
+
+/**
+ * Expõe a importação de avaliações exportadas de outras plataformas.
+ */
+@RestController
+@RequestMapping("/rate/import")
+public class ImportController {
+
+    private final RatingImportService importService;
+
+    /**
+     * Cria o controller com o serviço de importação.
+     *
+     * @param importService serviço que processa o arquivo em segundo plano.
+     */
+    public ImportController(RatingImportService importService) {
+        this.importService = importService;
+    }
+
+    /**
+     * Recebe o `ratings.csv` e agenda a importação.
+     *
+     * @param source `letterboxd` ou `imdb`.
+     * @param file arquivo exportado da plataforma de origem.
+     * @param cookieToken token do cookie `auth_token`, quando presente.
+     * @param authorization header `Authorization`, quando presente.
+     * @param user usuário autenticado.
+     * @return 202 com o job criado, ou 409 quando já houver uma importação em andamento.
+     */
+    @PostMapping(value = "", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<ImportJobDTO> startImport(
+            @RequestParam String source,
+            @RequestPart("file") MultipartFile file,
+            @CookieValue(name = "auth_token", required = false) String cookieToken,
+            @RequestHeader(name = "Authorization", required = false) String authorization,
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        String token = cookieToken != null ? cookieToken
+                : authorization != null && authorization.startsWith("Bearer ") ? authorization.substring(7) : null;
+        ImportJobDTO job = importService.startImport(user.id(), source, file, token);
+        if (job == null) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        return ResponseEntity.accepted().body(job);
+    }
+
+    /**
+     * Consulta o progresso de uma importação do usuário autenticado.
+     *
+     * @param jobId identificador do job.
+     * @param user usuário autenticado.
+     * @return situação do job, ou 404 quando não existir.
+     */
+    @GetMapping("/{jobId}")
+    public ResponseEntity<ImportJobDTO> getJob(@PathVariable String jobId, @AuthenticationPrincipal AuthenticatedUser user) {
+        ImportJobDTO job = importService.getJob(user.id(), jobId);
+        return job != null ? ResponseEntity.ok(job) : ResponseEntity.notFound().build();
+    }
+}
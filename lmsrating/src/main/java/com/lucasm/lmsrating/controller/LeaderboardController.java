@@ -0,0 +1,46 @@
+package com.lucasm.lmsrating.controller;
+
+import org.springframework.data.domain.Page;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.lucasm.lmsrating.dto.LeaderboardEntryDTO;
+import com.lucasm.lmsrating.service.LeaderboardService;
+
+/**
+ * Expõe os rankings da comunidade baseados nas avaliações.
+ */
+@RestController
+@RequestMapping("/leaderboards")
+public class LeaderboardController {
+
+    private final LeaderboardService leaderboardService;
+
+    /**
+     * Cria o controller com o serviço de rankings.
+     *
+     * @param leaderboardService serviço dos rankings em Redis.
+     */
+    public LeaderboardController(LeaderboardService leaderboardService) {
+        this.leaderboardService = leaderboardService;
+    }
+
+    /**
+     * Lista os títulos mais bem avaliados no LMS, ordenados pela média bayesiana.
+     *
+     * @param media `movie` ou `serie`.
+     * @param page número da página.
+     * @param size quantidade de itens por página.
+     * @return página do ranking.
+     */
+    @GetMapping("/top-rated")
+    public ResponseEntity<Page<LeaderboardEntryDTO>> getTopRated(
+            @RequestParam(defaultValue = "movie") String media,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(leaderboardService.getTopRated(media, page, size));
+    }
+}
@@ -3,12 +3,18 @@ package com.lucasm.lmsrating.controller;
 import java.util.List;
 
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.lucasm.lmsrating.dto.GenreStatsDTO;
+import com.lucasm.lmsrating.dto.HistogramBucketDTO;
 import com.lucasm.lmsrating.dto.MediaBalanceDTO;
+import com.lucasm.lmsrating.dto.TimelinePointDTO;
+import com.lucasm.lmsrating.dto.WatchTimeDTO;
+import com.lucasm.lmsrating.model.AuthenticatedUser;
 import com.lucasm.lmsrating.service.MediaStatsService;
 
 @RestController
@@ -22,8 +28,34 @@ public class MediaStatsController {
     }
 
     @GetMapping("/balance")
-    public ResponseEntity<List<MediaBalanceDTO>> getMediaBalance(Authentication authentication) {
-        String email = authentication.getName();
-        return ResponseEntity.ok(statsService.getMediaBalance(email));
+    public ResponseEntity<List<MediaBalanceDTO>> getMediaBalance(@AuthenticationPrincipal AuthenticatedUser user) {
+        return ResponseEntity.ok(statsService.getMediaBalance(user.id()));
     }
-}
\ No newline at end of file
+
+    @GetMapping("/histogram")
+    public ResponseEntity<List<HistogramBucketDTO>> getHistogram(
+            @RequestParam(defaultValue = "all") String media,
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        return ResponseEntity.ok(statsService.getHistogram(user.id(), media));
+    }
+
+    @GetMapping("/genres")
+    public ResponseEntity<List<GenreStatsDTO>> getGenres(
+            @RequestParam(defaultValue = "all") String media,
+            @RequestParam(defaultValue = "10") int limit,
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        return ResponseEntity.ok(statsService.getGenres(user.id(), media, limit));
+    }
+
+    @GetMapping("/timeline")
+    public ResponseEntity<List<TimelinePointDTO>> getTimeline(
+            @RequestParam(defaultValue = "12") int months,
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        return ResponseEntity.ok(statsService.getTimeline(user.id(), months));
+    }
+
+    @GetMapping("/hours")
+    public ResponseEntity<WatchTimeDTO> getWatchTime(@AuthenticationPrincipal AuthenticatedUser user) {
+        return ResponseEntity.ok(statsService.getWatchTime(user.id()));
+    }
+}
@@ -2,10 +2,12 @@ package com.lucasm.lmsrating.controller;
 
 import java.util.List;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import com.lucasm.lmsrating.dto.EpisodeRatingRequestDTO;
+import com.lucasm.lmsrating.dto.SeasonRatingRequestDTO;
+import com.lucasm.lmsrating.model.AuthenticatedUser;
 import com.lucasm.lmsrating.model.RatingEpisode;
 import com.lucasm.lmsrating.service.RateEpisodeService;
 
@@ -24,16 +26,21 @@ public class RateEpisodeController {
     @PostMapping("")
     public ResponseEntity<RatingEpisode> rateEpisode(
             @Valid @RequestBody EpisodeRatingRequestDTO request,
-            Authentication authentication) {
-        String email = authentication.getName();
-        return ResponseEntity.ok(rateEpisodeService.rateEpisode(request, email));
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        return ResponseEntity.ok(rateEpisodeService.rateEpisode(request, user.id()));
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<List<RatingEpisode>> rateSeason(
+            @Valid @RequestBody SeasonRatingRequestDTO request,
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        return ResponseEntity.ok(rateEpisodeService.rateSeason(request, user.id()));
     }
 
     @GetMapping("/serie/{serieId}")
     public ResponseEntity<List<RatingEpisode>> getRatedEpisodes(
             @PathVariable String serieId,
-            Authentication authentication) {
-        String email = authentication.getName();
-        return ResponseEntity.ok(rateEpisodeService.getRatedEpisodesBySerie(serieId, email));
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        return ResponseEntity.ok(rateEpisodeService.getRatedEpisodesBySerie(serieId, user.id()));
     }
 }
@@ -8,7 +8,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -19,9 +19,14 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.lucasm.lmsrating.dto.RatingMovieResponseDTO;
 import com.lucasm.lmsrating.dto.RatingRequestDTO;
+import com.lucasm.lmsrating.dto.CursorPageDTO;
 import com.lucasm.lmsrating.dto.RatingStatusDTO;
+import com.lucasm.lmsrating.dto.TitleAggregateDTO;
+import com.lucasm.lmsrating.model.AuthenticatedUser;
 import com.lucasm.lmsrating.model.RatingMovie;
 import com.lucasm.lmsrating.service.RateMovieService;
+import com.lucasm.lmsrating.service.TitleRatingStatsService;
+import com.lucasm.lmsrating.service.UserMediaStatsService;
 
 import jakarta.validation.Valid;
 
@@ -35,32 +40,37 @@ public class RateMovieController {
     @Autowired
     private RateMovieService rateService;
 
+    @Autowired
+    private TitleRatingStatsService titleStatsService;
+
     /**
      * Cria ou atualiza a avaliação de um filme para o usuário autenticado.
      *
      * @param request payload com nota e metadados do filme.
-     * @param authentication contexto de autenticação do usuário.
-     * @return avaliação persistida.
+     * @param user usuário autenticado.
+     * @return avaliação persistida, ou `202 Accepted` com a avaliação pendente quando o write-behind estiver habilitado.
      */
     @PostMapping("")
     public ResponseEntity<RatingMovie> ratingMovies(
             @Valid @RequestBody RatingRequestDTO request,
-            Authentication authentication) {
-        
-        String email = authentication.getName();
-        return ResponseEntity.ok(rateService.rateMovie(request, email));
+            @AuthenticationPrincipal AuthenticatedUser user) {
+
+        RatingMovie buffered = rateService.bufferRating(request, user.id());
+        if (buffered != null) {
+            return ResponseEntity.accepted().body(buffered);
+        }
+        return ResponseEntity.ok(rateService.rateMovie(request, user.id()));
     }
 
     /**
      * Lista todas as avaliações de filmes do usuário autenticado.
      *
-     * @param authentication contexto de autenticação do usuário.
+     * @param user usuário autenticado.
      * @return lista de avaliações de filmes.
      */
     @GetMapping("/")
-    public ResponseEntity<List<RatingMovie>> getUserRatings(Authentication authentication) {
-        String email = authentication.getName();
-        List<RatingMovie> movies = rateService.searchRatedMovies(email);
+    public ResponseEntity<List<RatingMovie>> getUserRatings(@AuthenticationPrincipal AuthenticatedUser user) {
+        List<RatingMovie> movies = rateService.searchRatedMovies(user.id());
         return ResponseEntity.ok(movies);
     }
 
@@ -71,7 +81,7 @@ public class RateMovieController {
      * @param size quantidade de itens por página.
      * @param minRating nota mínima para o filtro (opcional).
      * @param maxRating nota máxima para o filtro (opcional).
-     * @param authentication contexto de autenticação do usuário.
+     * @param user usuário autenticado.
      * @return página de avaliações de filmes.
      */
     @GetMapping("/paged")
@@ -81,11 +91,35 @@ public class RateMovieController {
             @RequestParam(required = false) Double minRating,
             @RequestParam(required = false) Double maxRating,
             @RequestParam(required = false) String title,
-            Authentication authentication) {
+            @AuthenticationPrincipal AuthenticatedUser user) {
 
-        String email = authentication.getName();
         Pageable pageable = PageRequest.of(page, size);
-        return ResponseEntity.ok(rateService.searchRatedMoviesPaged(email, title, minRating, maxRating, pageable));
+        return ResponseEntity.ok(rateService.searchRatedMoviesPaged(user.id(), title, minRating, maxRating, pageable));
+    }
+
+    /**
+     * Lista avaliações de filmes por cursor para o usuário autenticado, com os mesmos filtros da listagem paginada.
+     *
+     * @param cursor token de continuação devolvido pela página anterior (ausente na primeira).
+     * @param size quantidade de itens por página.
+     * @param minRating nota mínima para o filtro (opcional).
+     * @param maxRating nota máxima para o filtro (opcional).
+     * @param title filtro por título (opcional).
+     * @param includeTotal inclui o total de avaliações que atendem aos filtros.
+     * @param user usuário autenticado.
+     * @return página com o cursor da próxima.
+     */
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPageDTO<RatingMovieResponseDTO>> getUserRatingsCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) Double minRating,
+            @RequestParam(required = false) Double maxRating,
+            @RequestParam(required = false) String title,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            @AuthenticationPrincipal AuthenticatedUser user) {
+
+        return ResponseEntity.ok(rateService.searchRatedMoviesCursor(user.id(), cursor, size, title, minRating, maxRating, includeTotal));
     }
 
     /**
@@ -93,32 +127,52 @@ public class RateMovieController {
      * Filmes sem avaliação são omitidos do resultado.
      *
      * @param movieIds lista de identificadores de filmes.
-     * @param authentication contexto de autenticação do usuário.
+     * @param user usuário autenticado.
      * @return mapa de movieId → status de avaliação.
      */
     @GetMapping("/status/batch")
     public ResponseEntity<Map<String, RatingStatusDTO>> getRatingStatusBatch(
             @RequestParam List<String> movieIds,
-            Authentication authentication) {
+            @AuthenticationPrincipal AuthenticatedUser user) {
 
-        String email = authentication.getName();
-        return ResponseEntity.ok(rateService.getRatingStatusBatch(movieIds, email));
+        return ResponseEntity.ok(rateService.getRatingStatusBatch(movieIds, user.id()));
     }
 
     /**
      * Obtém a avaliação de um filme específico do usuário autenticado.
      *
      * @param movieId identificador do filme.
-     * @param authentication contexto de autenticação do usuário.
+     * @param user usuário autenticado.
      * @return avaliação do filme solicitado.
      */
     @GetMapping("/{movieId}")
     public ResponseEntity<RatingMovie> getMovieRating(
             @PathVariable String movieId,
-            Authentication authentication) {
+            @AuthenticationPrincipal AuthenticatedUser user) {
         
-        String email = authentication.getName();
-        RatingMovie movie = rateService.getMovieRating(movieId, email);
+        RatingMovie movie = rateService.getMovieRating(movieId, user.id());
         return ResponseEntity.ok(movie);
     }
-}
\ No newline at end of file
+
+    /**
+     * Retorna o agregado da comunidade para o filme: quantidade de avaliações, média e distribuição das notas.
+     *
+     * @param movieId identificador do filme.
+     * @return agregado do filme, zerado quando ainda não houver avaliações.
+     */
+    @GetMapping("/{movieId}/aggregate")
+    public ResponseEntity<TitleAggregateDTO> getAggregate(@PathVariable String movieId) {
+        return ResponseEntity.ok(titleStatsService.getAggregate(UserMediaStatsService.Media.MOVIE, movieId));
+    }
+
+    /**
+     * Retorna os agregados da comunidade para um lote de filmes, em uma única consulta.
+     *
+     * @param movieIds lista de identificadores de filmes.
+     * @return mapa de movieId → agregado.
+     */
+    @GetMapping("/aggregate/batch")
+    public ResponseEntity<Map<String, TitleAggregateDTO>> getAggregateBatch(@RequestParam List<String> movieIds) {
+        return ResponseEntity.ok(titleStatsService.getAggregates(UserMediaStatsService.Media.MOVIE, movieIds));
+    }
+}
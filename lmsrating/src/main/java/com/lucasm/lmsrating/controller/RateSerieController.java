@@ -3,10 +3,15 @@ package com.lucasm.lmsrating.controller;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.lucasm.lmsrating.dto.RatingSerieResponseDTO;
+import com.lucasm.lmsrating.dto.CursorPageDTO;
 import com.lucasm.lmsrating.dto.RatingStatusDTO;
+import com.lucasm.lmsrating.dto.TitleAggregateDTO;
 import com.lucasm.lmsrating.dto.SerieRatingRequestDTO;
+import com.lucasm.lmsrating.model.AuthenticatedUser;
 import com.lucasm.lmsrating.model.RatingSerie;
 import com.lucasm.lmsrating.service.RateSerieService;
+import com.lucasm.lmsrating.service.TitleRatingStatsService;
+import com.lucasm.lmsrating.service.UserMediaStatsService;
 
 import jakarta.validation.Valid;
 
@@ -17,7 +22,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -33,42 +38,47 @@ import org.springframework.web.bind.annotation.RequestParam;
 public class RateSerieController {
 
     private final RateSerieService rateService;
+    private final TitleRatingStatsService titleStatsService;
 
     /**
-     * Cria o controller com o serviço de avaliações de séries.
+     * Cria o controller com os serviços de avaliações de séries e de agregados por título.
      *
      * @param rateService serviço de regras de avaliação de séries.
+     * @param titleStatsService serviço dos agregados da comunidade.
      */
-    public RateSerieController(RateSerieService rateService) {
+    public RateSerieController(RateSerieService rateService, TitleRatingStatsService titleStatsService) {
         this.rateService = rateService;
+        this.titleStatsService = titleStatsService;
     }
     
     /**
      * Cria ou atualiza a avaliação de uma série para o usuário autenticado.
      *
      * @param request payload com nota e metadados da série.
-     * @param authentication contexto de autenticação do usuário.
-     * @return avaliação persistida.
+     * @param user usuário autenticado.
+     * @return avaliação persistida, ou `202 Accepted` com a avaliação pendente quando o write-behind estiver habilitado.
      */
     @PostMapping("")
     public ResponseEntity<RatingSerie> ratingSeries(
             @Valid @RequestBody SerieRatingRequestDTO request,
-            Authentication authentication) {
-        
-        String email = authentication.getName();
-        return ResponseEntity.ok(rateService.rateSerie(request, email));
+            @AuthenticationPrincipal AuthenticatedUser user) {
+
+        RatingSerie buffered = rateService.bufferRating(request, user.id());
+        if (buffered != null) {
+            return ResponseEntity.accepted().body(buffered);
+        }
+        return ResponseEntity.ok(rateService.rateSerie(request, user.id()));
     }
 
     /**
      * Lista todas as avaliações de séries do usuário autenticado.
      *
-     * @param authentication contexto de autenticação do usuário.
+     * @param user usuário autenticado.
      * @return lista de avaliações de séries.
      */
     @GetMapping("/")
-    public ResponseEntity<List<RatingSerie>> getUserRatings(Authentication authentication) {
-        String email = authentication.getName();
-        List<RatingSerie> series = rateService.searchRatedSeries(email);
+    public ResponseEntity<List<RatingSerie>> getUserRatings(@AuthenticationPrincipal AuthenticatedUser user) {
+        List<RatingSerie> series = rateService.searchRatedSeries(user.id());
         return ResponseEntity.ok(series);
     }
 
@@ -77,7 +87,7 @@ public class RateSerieController {
      *
      * @param page número da página.
      * @param size quantidade de itens por página.
-     * @param authentication contexto de autenticação do usuário.
+     * @param user usuário autenticado.
      * @return página de avaliações de séries.
      */
     /**
@@ -87,7 +97,7 @@ public class RateSerieController {
      * @param size quantidade de itens por página.
      * @param minRating nota mínima para o filtro (opcional).
      * @param maxRating nota máxima para o filtro (opcional).
-     * @param authentication contexto de autenticação do usuário.
+     * @param user usuário autenticado.
      * @return página de avaliações de filmes.
      */
     @GetMapping("/paged")
@@ -97,11 +107,35 @@ public class RateSerieController {
             @RequestParam(required = false) Double minRating,
             @RequestParam(required = false) Double maxRating,
             @RequestParam(required = false) String title,
-            Authentication authentication) {
+            @AuthenticationPrincipal AuthenticatedUser user) {
 
-        String email = authentication.getName();
         Pageable pageable = PageRequest.of(page, size);
-        return ResponseEntity.ok(rateService.searchRatedSeriesPaged(email, title, minRating, maxRating, pageable));
+        return ResponseEntity.ok(rateService.searchRatedSeriesPaged(user.id(), title, minRating, maxRating, pageable));
+    }
+
+    /**
+     * Lista avaliações de séries por cursor para o usuário autenticado, com os mesmos filtros da listagem paginada.
+     *
+     * @param cursor token de continuação devolvido pela página anterior (ausente na primeira).
+     * @param size quantidade de itens por página.
+     * @param minRating nota mínima para o filtro (opcional).
+     * @param maxRating nota máxima para o filtro (opcional).
+     * @param title filtro por título (opcional).
+     * @param includeTotal inclui o total de avaliações que atendem aos filtros.
+     * @param user usuário autenticado.
+     * @return página com o cursor da próxima.
+     */
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPageDTO<RatingSerieResponseDTO>> getUserRatingsCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) Double minRating,
+            @RequestParam(required = false) Double maxRating,
+            @RequestParam(required = false) String title,
+            @RequestParam(defaultValue = "false") boolean includeTotal,
+            @AuthenticationPrincipal AuthenticatedUser user) {
+
+        return ResponseEntity.ok(rateService.searchRatedSeriesCursor(user.id(), cursor, size, title, minRating, maxRating, includeTotal));
     }
 
     /**
@@ -109,33 +143,52 @@ public class RateSerieController {
      * Séries sem avaliação são omitidas do resultado.
      *
      * @param serieIds lista de identificadores de séries.
-     * @param authentication contexto de autenticação do usuário.
+     * @param user usuário autenticado.
      * @return mapa de serieId → status de avaliação.
      */
     @GetMapping("/status/batch")
     public ResponseEntity<Map<String, RatingStatusDTO>> getRatingStatusBatch(
             @RequestParam List<String> serieIds,
-            Authentication authentication) {
+            @AuthenticationPrincipal AuthenticatedUser user) {
 
-        String email = authentication.getName();
-        return ResponseEntity.ok(rateService.getRatingStatusBatch(serieIds, email));
+        return ResponseEntity.ok(rateService.getRatingStatusBatch(serieIds, user.id()));
     }
 
     /**
      * Obtém a avaliação de uma série específica do usuário autenticado.
      *
      * @param serieId identificador da série.
-     * @param authentication contexto de autenticação do usuário.
+     * @param user usuário autenticado.
      * @return avaliação da série solicitada.
      */
     @GetMapping("/{serieId}")
     public ResponseEntity<RatingSerie> getSerieRating(
             @PathVariable String serieId,
-            Authentication authentication) {
+            @AuthenticationPrincipal AuthenticatedUser user) {
         
-        String email = authentication.getName();
-        RatingSerie serie = rateService.getSerieRating(serieId, email);
+        RatingSerie serie = rateService.getSerieRating(serieId, user.id());
         return ResponseEntity.ok(serie);
     }
-    
+
+    /**
+     * Retorna o agregado da comunidade para a série: quantidade de avaliações, média e distribuição das notas.
+     *
+     * @param serieId identificador da série.
+     * @return agregado da série, zerado quando ainda não houver avaliações.
+     */
+    @GetMapping("/{serieId}/aggregate")
+    public ResponseEntity<TitleAggregateDTO> getAggregate(@PathVariable String serieId) {
+        return ResponseEntity.ok(titleStatsService.getAggregate(UserMediaStatsService.Media.SERIE, serieId));
+    }
+
+    /**
+     * Retorna os agregados da comunidade para um lote de séries, em uma única consulta.
+     *
+     * @param serieIds lista de identificadores de séries.
+     * @return mapa de serieId → agregado.
+     */
+    @GetMapping("/aggregate/batch")
+    public ResponseEntity<Map<String, TitleAggregateDTO>> getAggregateBatch(@RequestParam List<String> serieIds) {
+        return ResponseEntity.ok(titleStatsService.getAggregates(UserMediaStatsService.Media.SERIE, serieIds));
+    }
 }
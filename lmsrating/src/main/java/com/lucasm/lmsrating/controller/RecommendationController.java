@@ -0,0 +1,88 @@
+package com.lucasm.lmsrating.controller;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.lucasm.lmsrating.dto.RecommendationDTO;
+import com.lucasm.lmsrating.dto.SimilarTitleDTO;
+import com.lucasm.lmsrating.model.AuthenticatedUser;
+import com.lucasm.lmsrating.service.ItemSimilarityService;
+import com.lucasm.lmsrating.service.PredictedScoreService;
+
+/**
+ * Expõe as recomendações item-item e as notas previstas calculadas a partir das avaliações do LMS.
+ */
+@RestController
+@RequestMapping("/recommendations")
+public class RecommendationController {
+
+    private final ItemSimilarityService similarityService;
+    private final PredictedScoreService predictedScoreService;
+
+    /**
+     * Cria o controller com os serviços de similaridade entre títulos e de notas previstas.
+     *
+     * @param similarityService serviço das recomendações item-item.
+     * @param predictedScoreService serviço das notas previstas pelo modelo de fatores.
+     */
+    public RecommendationController(ItemSimilarityService similarityService, PredictedScoreService predictedScoreService) {
+        this.similarityService = similarityService;
+        this.predictedScoreService = predictedScoreService;
+    }
+
+    /**
+     * Lista os títulos mais similares a um título, pelas avaliações em comum.
+     *
+     * @param id id do filme ou da série.
+     * @param media `movie` ou `serie`.
+     * @param limit quantidade máxima de títulos.
+     * @return títulos similares ordenados por score.
+     */
+    @GetMapping("/similar/{id}")
+    public ResponseEntity<List<SimilarTitleDTO>> getSimilar(
+            @PathVariable String id,
+            @RequestParam(defaultValue = "movie") String media,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(similarityService.getSimilar(media, id, limit));
+    }
+
+    /**
+     * Recomenda títulos ainda não avaliados a partir dos que o usuário autenticado avaliou bem.
+     *
+     * @param media `movie` ou `serie`.
+     * @param limit quantidade máxima de recomendações.
+     * @param user usuário autenticado.
+     * @return recomendações com o título avaliado que as motivou.
+     */
+    @GetMapping("/for-me")
+    public ResponseEntity<List<RecommendationDTO>> getForMe(
+            @RequestParam(defaultValue = "movie") String media,
+            @RequestParam(defaultValue = "20") int limit,
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        return ResponseEntity.ok(similarityService.getForUser(user.id(), media, limit));
+    }
+
+    /**
+     * Notas previstas para o usuário autenticado em uma página de títulos (ex.: populares do TMDB).
+     *
+     * @param media `movie` ou `serie`.
+     * @param ids ids dos títulos da página.
+     * @param user usuário autenticado.
+     * @return mapa de id → nota prevista; títulos sem previsão são omitidos.
+     */
+    @GetMapping("/predicted/batch")
+    public ResponseEntity<Map<String, Double>> getPredictedBatch(
+            @RequestParam(defaultValue = "movie") String media,
+            @RequestParam List<String> ids,
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        return ResponseEntity.ok(predictedScoreService.getPredictedScores(user.id(), media, ids));
+    }
+}
@@ -0,0 +1,45 @@
+package com.lucasm.lmsrating.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.lucasm.lmsrating.dto.CompatibilityDTO;
+import com.lucasm.lmsrating.model.AuthenticatedUser;
+import com.lucasm.lmsrating.service.UserCompatibilityService;
+
+/**
+ * Expõe a comparação de gosto entre o usuário autenticado e outros usuários.
+ */
+@RestController
+@RequestMapping("/users")
+public class UserCompatibilityController {
+
+    private final UserCompatibilityService compatibilityService;
+
+    /**
+     * Cria o controller com o serviço de compatibilidade.
+     *
+     * @param compatibilityService serviço de compatibilidade entre usuários.
+     */
+    public UserCompatibilityController(UserCompatibilityService compatibilityService) {
+        this.compatibilityService = compatibilityService;
+    }
+
+    /**
+     * Compara as avaliações e os favoritos de filmes do usuário autenticado com os de outro usuário.
+     *
+     * @param nickname apelido do outro usuário.
+     * @param user usuário autenticado.
+     * @return sobreposição, correlação das notas e favoritos em comum.
+     */
+    @GetMapping("/{nickname}/compatibility")
+    public ResponseEntity<CompatibilityDTO> getCompatibility(
+            @PathVariable String nickname,
+            @AuthenticationPrincipal AuthenticatedUser user) {
+        return ResponseEntity.ok(compatibilityService.getCompatibility(user.id(), nickname));
+    }
+}
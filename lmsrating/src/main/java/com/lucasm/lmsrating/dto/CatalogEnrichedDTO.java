@@ -0,0 +1,9 @@
+package com.lucasm.lmsrating.dto;
+
+/**
+ * Evento recebido do catálogo quando duração e gêneros de um título são preenchidos.
+ *
+ * @param type tipo do título (`movie` ou `serie`).
+ * @param id id do título no TMDB.
+ */
+public record CatalogEnrichedDTO(String type, String id) {}
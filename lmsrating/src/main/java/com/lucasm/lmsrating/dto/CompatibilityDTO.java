@@ -0,0 +1,53 @@
+package com.lucasm.lmsrating.dto;
+
+import java.util.List;
+
+public class CompatibilityDTO {
+
+    private String nickname;
+    private int score;
+    private long ratingOverlap;
+    private long callerRatingCount;
+    private long otherRatingCount;
+    private double overlapRatio;
+    private Double correlation;
+    private Double meanAbsoluteDifference;
+    private long sharedFavoriteCount;
+    private double favoriteOverlapRatio;
+    private List<String> sharedFavoriteIds = List.of();
+
+    public CompatibilityDTO() {}
+
+    public String getNickname() { return nickname; }
+    public void setNickname(String nickname) { this.nickname = nickname; }
+
+    public int getScore() { return score; }
+    public void setScore(int score) { this.score = score; }
+
+    public long getRatingOverlap() { return ratingOverlap; }
+    public void setRatingOverlap(long ratingOverlap) { this.ratingOverlap = ratingOverlap; }
+
+    public long getCallerRatingCount() { return callerRatingCount; }
+    public void setCallerRatingCount(long callerRatingCount) { this.callerRatingCount = callerRatingCount; }
+
+    public long getOtherRatingCount() { return otherRatingCount; }
+    public void setOtherRatingCount(long otherRatingCount) { this.otherRatingCount = otherRatingCount; }
+
+    public double getOverlapRatio() { return overlapRatio; }
+    public void setOverlapRatio(double overlapRatio) { this.overlapRatio = overlapRatio; }
+
+    public Double getCorrelation() { return correlation; }
+    public void setCorrelation(Double correlation) { this.correlation = correlation; }
+
+    public Double getMeanAbsoluteDifference() { return meanAbsoluteDifference; }
+    public void setMeanAbsoluteDifference(Double meanAbsoluteDifference) { this.meanAbsoluteDifference = meanAbsoluteDifference; }
+
+    public long getSharedFavoriteCount() { return sharedFavoriteCount; }
+    public void setSharedFavoriteCount(long sharedFavoriteCount) { this.sharedFavoriteCount = sharedFavoriteCount; }
+
+    public double getFavoriteOverlapRatio() { return favoriteOverlapRatio; }
+    public void setFavoriteOverlapRatio(double favoriteOverlapRatio) { this.favoriteOverlapRatio = favoriteOverlapRatio; }
+
+    public List<String> getSharedFavoriteIds() { return sharedFavoriteIds; }
+    public void setSharedFavoriteIds(List<String> sharedFavoriteIds) { this.sharedFavoriteIds = sharedFavoriteIds; }
+}
@@ -0,0 +1,15 @@
+package com.lucasm.lmsrating.dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+/**
+ * Página de uma listagem por cursor; `nextCursor` ausente indica o fim da lista e `total` só vem quando solicitado.
+ */
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record CursorPageDTO<T>(
+    List<T> items,
+    String nextCursor,
+    Long total
+) {}
@@ -0,0 +1,3 @@
+package com.lucasm.lmsrating.dto;
+
+public record GenreStatsDTO(String genre, long count, double averageRating) {}
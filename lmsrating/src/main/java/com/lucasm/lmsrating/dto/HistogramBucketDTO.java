@@ -0,0 +1,3 @@
+package com.lucasm.lmsrating.dto;
+
+public record HistogramBucketDTO(double rating, int count) {}
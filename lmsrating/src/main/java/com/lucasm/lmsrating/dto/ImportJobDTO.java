@@ -0,0 +1,23 @@
+package com.lucasm.lmsrating.dto;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Situação de uma importação de avaliações.
+ *
+ * @param id identificador do job.
+ * @param source plataforma de origem (`letterboxd` ou `imdb`).
+ * @param status `QUEUED`, `RUNNING`, `DONE` ou `FAILED`.
+ * @param read linhas lidas do arquivo.
+ * @param imported avaliações novas gravadas.
+ * @param updated avaliações existentes com nota alterada.
+ * @param skipped linhas ignoradas (sem nota, tipo não suportado ou nota igual à atual).
+ * @param unmatched títulos sem correspondência no TMDB.
+ * @param unmatchedTitles amostra dos títulos sem correspondência.
+ * @param error motivo da falha, quando houver.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ImportJobDTO(String id, String source, String status, long read, long imported, long updated,
+                           long skipped, long unmatched, List<String> unmatchedTitles, String error) {}
@@ -0,0 +1,3 @@
+package com.lucasm.lmsrating.dto;
+
+public record LeaderboardEntryDTO(long rank, String id, String title, String posterPath, double score, long count, double average) {}
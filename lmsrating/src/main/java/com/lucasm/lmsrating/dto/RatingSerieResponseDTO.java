@@ -1,6 +1,7 @@
 package com.lucasm.lmsrating.dto;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 public class RatingSerieResponseDTO {
 
@@ -12,6 +13,9 @@ public class RatingSerieResponseDTO {
     private String comment;
     private LocalDateTime createdAt;
     private LocalDateTime modifiedAt;
+    private Double episodeScore;
+    private long episodeCount;
+    private List<SeasonScoreDTO> seasonScores = List.of();
 
     public RatingSerieResponseDTO() {}
 
@@ -51,4 +55,13 @@ public class RatingSerieResponseDTO {
 
     public LocalDateTime getModifiedAt() { return modifiedAt; }
     public void setModifiedAt(LocalDateTime modifiedAt) { this.modifiedAt = modifiedAt; }
+
+    public Double getEpisodeScore() { return episodeScore; }
+    public void setEpisodeScore(Double episodeScore) { this.episodeScore = episodeScore; }
+
+    public long getEpisodeCount() { return episodeCount; }
+    public void setEpisodeCount(long episodeCount) { this.episodeCount = episodeCount; }
+
+    public List<SeasonScoreDTO> getSeasonScores() { return seasonScores; }
+    public void setSeasonScores(List<SeasonScoreDTO> seasonScores) { this.seasonScores = seasonScores; }
 }
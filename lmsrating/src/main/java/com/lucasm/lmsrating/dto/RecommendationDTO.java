@@ -0,0 +1,3 @@
+package com.lucasm.lmsrating.dto;
+
+public record RecommendationDTO(String id, String title, String posterPath, double score, String becauseId, String becauseTitle) {}
@@ -0,0 +1,40 @@
+package com.lucasm.lmsrating.dto;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+public class SeasonRatingRequestDTO {
+
+    @NotBlank(message = "O ID da série é obrigatório")
+    private String serieId;
+
+    @NotNull(message = "O número da temporada é obrigatório")
+    private Integer seasonNumber;
+
+    @NotEmpty(message = "Informe ao menos um episódio")
+    @Size(max = 100, message = "Limite de 100 episódios por batch excedido")
+    private List<@Valid EpisodeRating> episodes;
+
+    @Data
+    public static class EpisodeRating {
+
+        @NotNull(message = "O número do episódio é obrigatório")
+        private Integer episodeNumber;
+
+        @NotNull(message = "A nota é obrigatória")
+        @Min(value = 0, message = "A nota mínima é 0")
+        @Max(value = 10, message = "A nota máxima é 10")
+        private Double rating;
+
+        private String comment;
+    }
+}
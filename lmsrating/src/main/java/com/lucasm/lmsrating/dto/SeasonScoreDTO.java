@@ -0,0 +1,3 @@
+package com.lucasm.lmsrating.dto;
+
+public record SeasonScoreDTO(int seasonNumber, long episodeCount, double averageRating) {}
@@ -0,0 +1,3 @@
+package com.lucasm.lmsrating.dto;
+
+public record SimilarTitleDTO(String id, String title, String posterPath, double score, int commonRatings) {}
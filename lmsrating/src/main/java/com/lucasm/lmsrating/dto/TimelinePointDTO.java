@@ -0,0 +1,3 @@
+package com.lucasm.lmsrating.dto;
+
+public record TimelinePointDTO(String month, long movies, long series, long episodes, long minutes) {}
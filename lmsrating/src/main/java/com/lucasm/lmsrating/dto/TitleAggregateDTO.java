@@ -0,0 +1,3 @@
+package com.lucasm.lmsrating.dto;
+
+public record TitleAggregateDTO(String id, long count, double average, int[] distribution) {}
@@ -0,0 +1,3 @@
+package com.lucasm.lmsrating.dto;
+
+public record WatchTimeDTO(long movieMinutes, long episodeMinutes, long totalMinutes, double totalHours) {}
@@ -0,0 +1,24 @@
+package com.lucasm.lmsrating.model;
+
+import java.io.Serializable;
+import java.security.Principal;
+
+/**
+ * Principal montado a partir do token (ou dos headers internos do gateway), já com o id numérico do usuário.
+ *
+ * @param id identificador do usuário.
+ * @param email e-mail (subject) do usuário.
+ * @param role perfil de acesso do usuário.
+ */
+public record AuthenticatedUser(Long id, String email, String role) implements Principal, Serializable {
+
+    /**
+     * Retorna o e-mail do usuário, mantendo compatível o uso de `Authentication#getName()`.
+     *
+     * @return e-mail do usuário autenticado.
+     */
+    @Override
+    public String getName() {
+        return email;
+    }
+}
@@ -9,7 +9,9 @@ import java.time.LocalDateTime;
 
 @Data
 @Entity
-@Table(name = "ratings_episodes")
+@Table(name = "ratings_episodes", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_ratings_episodes_user_episode", columnNames = {"user_id", "serie_id", "season_number", "episode_number"})
+})
 public class RatingEpisode {
 
     @Id
@@ -9,7 +9,12 @@ import java.time.LocalDateTime;
 
 @Data
 @Entity
-@Table(name = "ratings_movies")
+@Table(name = "ratings_movies", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_ratings_movies_user_movie", columnNames = {"user_id", "movie_id"})
+}, indexes = {
+    @Index(name = "idx_ratings_movies_movie_id", columnList = "movie_id"),
+    @Index(name = "idx_ratings_movies_user_created_id", columnList = "user_id, created_at DESC, id DESC")
+})
 public class RatingMovie {
 
     @Id
@@ -9,7 +9,12 @@ import java.time.LocalDateTime;
 
 @Data
 @Entity
-@Table(name = "ratings_series")
+@Table(name = "ratings_series", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_ratings_series_user_serie", columnNames = {"user_id", "serie_id"})
+}, indexes = {
+    @Index(name = "idx_ratings_series_serie_id", columnList = "serie_id"),
+    @Index(name = "idx_ratings_series_user_created_id", columnList = "user_id, created_at DESC, id DESC")
+})
 /**
  * Entidade que representa uma avaliação de série persistida.
  */
@@ -0,0 +1,47 @@
+package com.lucasm.lmsrating.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.io.Serializable;
+
+/**
+ * Agregado da comunidade por título (filme ou série): quantidade, soma e distribuição das notas,
+ * mantido incrementalmente a cada avaliação. O histograma segue as faixas de {@link UserMediaStats}.
+ */
+@Data
+@Entity
+@Table(name = "title_rating_stats")
+@IdClass(TitleRatingStats.Key.class)
+public class TitleRatingStats {
+
+    @Id
+    @Column(length = 16)
+    private String media;
+
+    @Id
+    @Column(name = "title_id", length = 50)
+    private String titleId;
+
+    @ColumnDefault("0")
+    @Column(name = "rating_count", nullable = false)
+    private long ratingCount;
+
+    @ColumnDefault("0")
+    @Column(name = "rating_sum", nullable = false)
+    private double ratingSum;
+
+    @Column(nullable = false, columnDefinition = "integer[] DEFAULT array_fill(0, ARRAY[21])")
+    private int[] histogram;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String media;
+        private String titleId;
+    }
+}
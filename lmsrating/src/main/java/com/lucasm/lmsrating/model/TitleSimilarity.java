@@ -0,0 +1,46 @@
+package com.lucasm.lmsrating.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Vizinhos mais similares de cada título (filme ou série), calculados offline a partir das avaliações em comum.
+ * A tabela é reescrita por inteiro a cada recálculo; `score` é o cosseno ajustado com encolhimento pelo suporte.
+ */
+@Data
+@Entity
+@Table(name = "title_similarity")
+@IdClass(TitleSimilarity.Key.class)
+public class TitleSimilarity {
+
+    @Id
+    @Column(length = 16)
+    private String media;
+
+    @Id
+    @Column(name = "title_id", length = 50)
+    private String titleId;
+
+    @Id
+    @Column(name = "neighbor_id", length = 50)
+    private String neighborId;
+
+    @Column(nullable = false)
+    private double score;
+
+    @Column(name = "common_ratings", nullable = false)
+    private int commonRatings;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String media;
+        private String titleId;
+        private String neighborId;
+    }
+}
@@ -0,0 +1,48 @@
+package com.lucasm.lmsrating.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.io.Serializable;
+
+/**
+ * Contagem e soma de notas por usuário, tipo de mídia e gênero, mantidas incrementalmente a cada avaliação.
+ */
+@Data
+@Entity
+@Table(name = "user_genre_stats")
+@IdClass(UserGenreStats.Key.class)
+public class UserGenreStats {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    @Column(length = 16)
+    private String media;
+
+    @Id
+    @Column(length = 100)
+    private String genre;
+
+    @ColumnDefault("0")
+    @Column(name = "title_count", nullable = false)
+    private long titleCount;
+
+    @ColumnDefault("0")
+    @Column(name = "rating_sum", nullable = false)
+    private double ratingSum;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long userId;
+        private String media;
+        private String genre;
+    }
+}
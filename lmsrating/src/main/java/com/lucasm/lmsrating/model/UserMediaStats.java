@@ -0,0 +1,68 @@
+package com.lucasm.lmsrating.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.LocalDateTime;
+
+/**
+ * Agregado de avaliações por usuário, mantido incrementalmente a cada avaliação.
+ * Os minutos assistidos somam a duração dos filmes e episódios avaliados, conforme o catálogo.
+ * Os histogramas têm {@value #HISTOGRAM_BUCKETS} faixas de meio ponto (0.0, 0.5, ..., 10.0).
+ */
+@Data
+@Entity
+@Table(name = "user_media_stats")
+public class UserMediaStats {
+
+    public static final int HISTOGRAM_BUCKETS = 21;
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @ColumnDefault("0")
+    @Column(name = "movie_count", nullable = false)
+    private long movieCount;
+
+    @ColumnDefault("0")
+    @Column(name = "movie_rating_sum", nullable = false)
+    private double movieRatingSum;
+
+    @Column(name = "movie_histogram", nullable = false, columnDefinition = "integer[] DEFAULT array_fill(0, ARRAY[21])")
+    private int[] movieHistogram;
+
+    @ColumnDefault("0")
+    @Column(name = "serie_count", nullable = false)
+    private long serieCount;
+
+    @ColumnDefault("0")
+    @Column(name = "serie_rating_sum", nullable = false)
+    private double serieRatingSum;
+
+    @Column(name = "serie_histogram", nullable = false, columnDefinition = "integer[] DEFAULT array_fill(0, ARRAY[21])")
+    private int[] serieHistogram;
+
+    @ColumnDefault("0")
+    @Column(name = "episode_count", nullable = false)
+    private long episodeCount;
+
+    @ColumnDefault("0")
+    @Column(name = "episode_rating_sum", nullable = false)
+    private double episodeRatingSum;
+
+    @Column(name = "episode_histogram", nullable = false, columnDefinition = "integer[] DEFAULT array_fill(0, ARRAY[21])")
+    private int[] episodeHistogram;
+
+    @ColumnDefault("0")
+    @Column(name = "movie_minutes", nullable = false)
+    private long movieMinutes;
+
+    @ColumnDefault("0")
+    @Column(name = "episode_minutes", nullable = false)
+    private long episodeMinutes;
+
+    @Column(name = "last_activity_at")
+    private LocalDateTime lastActivityAt;
+}
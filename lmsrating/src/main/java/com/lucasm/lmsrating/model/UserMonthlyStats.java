@@ -0,0 +1,51 @@
+package com.lucasm.lmsrating.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Avaliações criadas e minutos assistidos por usuário e mês (primeiro dia do mês), mantidos incrementalmente.
+ */
+@Data
+@Entity
+@Table(name = "user_monthly_stats")
+@IdClass(UserMonthlyStats.Key.class)
+public class UserMonthlyStats {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    private LocalDate month;
+
+    @ColumnDefault("0")
+    @Column(name = "movie_count", nullable = false)
+    private long movieCount;
+
+    @ColumnDefault("0")
+    @Column(name = "serie_count", nullable = false)
+    private long serieCount;
+
+    @ColumnDefault("0")
+    @Column(name = "episode_count", nullable = false)
+    private long episodeCount;
+
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long minutes;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long userId;
+        private LocalDate month;
+    }
+}
@@ -0,0 +1,49 @@
+package com.lucasm.lmsrating.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.io.Serializable;
+
+/**
+ * Quantidade e soma das notas de episódios por usuário, série e temporada, mantidas incrementalmente a cada
+ * avaliação de episódio. A nota derivada da série é a soma das temporadas dividida pela soma das quantidades.
+ */
+@Data
+@Entity
+@Table(name = "user_season_stats")
+@IdClass(UserSeasonStats.Key.class)
+public class UserSeasonStats {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    @Column(name = "serie_id")
+    private String serieId;
+
+    @Id
+    @Column(name = "season_number")
+    private Integer seasonNumber;
+
+    @ColumnDefault("0")
+    @Column(name = "episode_count", nullable = false)
+    private long episodeCount;
+
+    @ColumnDefault("0")
+    @Column(name = "rating_sum", nullable = false)
+    private double ratingSum;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long userId;
+        private String serieId;
+        private Integer seasonNumber;
+    }
+}
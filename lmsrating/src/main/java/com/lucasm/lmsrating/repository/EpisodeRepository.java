@@ -16,4 +16,7 @@ public interface EpisodeRepository extends JpaRepository<RatingEpisode, Long> {
 
     List<RatingEpisode> findByUserIdAndSerieIdOrderBySeasonNumberAscEpisodeNumberAsc(
         Long userId, String serieId);
+
+    List<RatingEpisode> findByUserIdAndSerieIdAndSeasonNumberOrderByEpisodeNumberAsc(
+        Long userId, String serieId, int seasonNumber);
 }
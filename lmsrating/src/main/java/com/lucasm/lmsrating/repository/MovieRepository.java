@@ -19,6 +19,8 @@ public interface MovieRepository extends JpaRepository<RatingMovie, Long> {
 
     List<RatingMovie> findAllByUserIdOrderByCreatedAtDesc(Long userId);
 
+    long countByUserId(Long userId);
+
     Optional<RatingMovie> findByMovieIdAndUserId(String movieId, Long userId);
 
     List<RatingMovie> findByUserIdAndMovieIdIn(Long userId, List<String> movieIds);
@@ -35,4 +37,18 @@ public interface MovieRepository extends JpaRepository<RatingMovie, Long> {
            countQuery = "SELECT COUNT(r.id) FROM ratings_movies r JOIN movies m ON r.movie_id = m.movie_id WHERE r.user_id = :userId AND LOWER(m.title) LIKE LOWER(CONCAT('%', :title, '%')) AND r.rating BETWEEN :minRating AND :maxRating",
            nativeQuery = true)
     Page<RatingMovie> findByUserIdAndTitleAndRatingRange(@Param("userId") Long userId, @Param("title") String title, @Param("minRating") double minRating, @Param("maxRating") double maxRating, Pageable pageable);
+
+    /**
+     * Busca por título sem diferenciar acentos nem maiúsculas, servida pelo índice de trigramas de `lms_fold(m.title)`
+     * e ordenada pela similaridade com o termo. Requer {@code TitleSearchIndex#isAvailable()}.
+     */
+    @Query(value = "SELECT r.* FROM ratings_movies r JOIN movies m ON r.movie_id = m.movie_id WHERE r.user_id = :userId AND (lms_fold(m.title) LIKE '%' || lms_fold(:pattern) || '%' OR lms_fold(:title) <% lms_fold(m.title)) ORDER BY word_similarity(lms_fold(:title), lms_fold(m.title)) DESC, r.created_at DESC",
+           countQuery = "SELECT COUNT(r.id) FROM ratings_movies r JOIN movies m ON r.movie_id = m.movie_id WHERE r.user_id = :userId AND (lms_fold(m.title) LIKE '%' || lms_fold(:pattern) || '%' OR lms_fold(:title) <% lms_fold(m.title))",
+           nativeQuery = true)
+    Page<RatingMovie> searchByUserIdAndTitle(@Param("userId") Long userId, @Param("title") String title, @Param("pattern") String pattern, Pageable pageable);
+
+    @Query(value = "SELECT r.* FROM ratings_movies r JOIN movies m ON r.movie_id = m.movie_id WHERE r.user_id = :userId AND (lms_fold(m.title) LIKE '%' || lms_fold(:pattern) || '%' OR lms_fold(:title) <% lms_fold(m.title)) AND r.rating BETWEEN :minRating AND :maxRating ORDER BY word_similarity(lms_fold(:title), lms_fold(m.title)) DESC, r.created_at DESC",
+           countQuery = "SELECT COUNT(r.id) FROM ratings_movies r JOIN movies m ON r.movie_id = m.movie_id WHERE r.user_id = :userId AND (lms_fold(m.title) LIKE '%' || lms_fold(:pattern) || '%' OR lms_fold(:title) <% lms_fold(m.title)) AND r.rating BETWEEN :minRating AND :maxRating",
+           nativeQuery = true)
+    Page<RatingMovie> searchByUserIdAndTitleAndRatingRange(@Param("userId") Long userId, @Param("title") String title, @Param("pattern") String pattern, @Param("minRating") double minRating, @Param("maxRating") double maxRating, Pageable pageable);
 }
@@ -19,6 +19,8 @@ public interface SerieRepository extends JpaRepository<RatingSerie, Long> {
 
     List<RatingSerie> findAllByUserIdOrderByCreatedAtDesc(Long userId);
 
+    long countByUserId(Long userId);
+
     Optional<RatingSerie> findBySerieIdAndUserId(String serieId, Long userId);
 
     List<RatingSerie> findByUserIdAndSerieIdIn(Long userId, List<String> serieIds);
@@ -35,4 +37,18 @@ public interface SerieRepository extends JpaRepository<RatingSerie, Long> {
            countQuery = "SELECT COUNT(r.id) FROM ratings_series r JOIN series s ON r.serie_id = s.serie_id WHERE r.user_id = :userId AND LOWER(s.title) LIKE LOWER(CONCAT('%', :title, '%')) AND r.rating BETWEEN :minRating AND :maxRating",
            nativeQuery = true)
     Page<RatingSerie> findByUserIdAndTitleAndRatingRange(@Param("userId") Long userId, @Param("title") String title, @Param("minRating") double minRating, @Param("maxRating") double maxRating, Pageable pageable);
+
+    /**
+     * Busca por título sem diferenciar acentos nem maiúsculas, servida pelo índice de trigramas de `lms_fold(s.title)`
+     * e ordenada pela similaridade com o termo. Requer {@code TitleSearchIndex#isAvailable()}.
+     */
+    @Query(value = "SELECT r.* FROM ratings_series r JOIN series s ON r.serie_id = s.serie_id WHERE r.user_id = :userId AND (lms_fold(s.title) LIKE '%' || lms_fold(:pattern) || '%' OR lms_fold(:title) <% lms_fold(s.title)) ORDER BY word_similarity(lms_fold(:title), lms_fold(s.title)) DESC, r.created_at DESC",
+           countQuery = "SELECT COUNT(r.id) FROM ratings_series r JOIN series s ON r.serie_id = s.serie_id WHERE r.user_id = :userId AND (lms_fold(s.title) LIKE '%' || lms_fold(:pattern) || '%' OR lms_fold(:title) <% lms_fold(s.title))",
+           nativeQuery = true)
+    Page<RatingSerie> searchByUserIdAndTitle(@Param("userId") Long userId, @Param("title") String title, @Param("pattern") String pattern, Pageable pageable);
+
+    @Query(value = "SELECT r.* FROM ratings_series r JOIN series s ON r.serie_id = s.serie_id WHERE r.user_id = :userId AND (lms_fold(s.title) LIKE '%' || lms_fold(:pattern) || '%' OR lms_fold(:title) <% lms_fold(s.title)) AND r.rating BETWEEN :minRating AND :maxRating ORDER BY word_similarity(lms_fold(:title), lms_fold(s.title)) DESC, r.created_at DESC",
+           countQuery = "SELECT COUNT(r.id) FROM ratings_series r JOIN series s ON r.serie_id = s.serie_id WHERE r.user_id = :userId AND (lms_fold(s.title) LIKE '%' || lms_fold(:pattern) || '%' OR lms_fold(:title) <% lms_fold(s.title)) AND r.rating BETWEEN :minRating AND :maxRating",
+           nativeQuery = true)
+    Page<RatingSerie> searchByUserIdAndTitleAndRatingRange(@Param("userId") Long userId, @Param("title") String title, @Param("pattern") String pattern, @Param("minRating") double minRating, @Param("maxRating") double maxRating, Pageable pageable);
 }
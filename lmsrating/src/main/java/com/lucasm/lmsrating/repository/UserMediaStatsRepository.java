@@ -0,0 +1,10 @@
+package com.lucasm.lmsrating.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.lucasm.lmsrating.model.UserMediaStats;
+
+@Repository
+public interface UserMediaStatsRepository extends JpaRepository<UserMediaStats, Long> {
+}
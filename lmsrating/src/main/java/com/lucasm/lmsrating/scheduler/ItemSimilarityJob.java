@@ -0,0 +1,79 @@
+package com.lucasm.lmsrating.scheduler;
+
+import java.time.Duration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.lucasm.lmsrating.service.ItemSimilarityService;
+
+/**
+ * Recalcula periodicamente a similaridade item-item (`title_similarity`) usada pelas recomendações.
+ * Uma trava no Redis garante uma única instância por execução; na primeira subida do ambiente a tabela
+ * ainda está vazia, então o recálculo também roda uma vez no startup.
+ */
+@Component
+public class ItemSimilarityJob {
+
+    private static final Logger log = LoggerFactory.getLogger(ItemSimilarityJob.class);
+
+    private static final String LOCK_KEY = "recommendations:similarity:lock";
+    private static final String DONE_KEY = "recommendations:similarity:v1:done";
+
+    private final ItemSimilarityService similarityService;
+    private final StringRedisTemplate redisTemplate;
+
+    public ItemSimilarityJob(ItemSimilarityService similarityService, StringRedisTemplate redisTemplate) {
+        this.similarityService = similarityService;
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**
+     * Preenche a tabela em segundo plano quando nenhum recálculo foi concluído neste ambiente.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        Thread.ofVirtual().name("item-similarity-backfill").start(() -> {
+            try {
+                if (Boolean.TRUE.equals(redisTemplate.hasKey(DONE_KEY))) {
+                    return;
+                }
+            } catch (DataAccessException e) {
+                log.warn("Cálculo inicial de similaridade não iniciado, Redis indisponível: {}", e.getMessage());
+                return;
+            }
+            recompute();
+        });
+    }
+
+    /**
+     * Roda de madrugada por padrão (`recommendations.similarity.cron`).
+     */
+    @Scheduled(cron = "${recommendations.similarity.cron:0 30 3 * * *}")
+    public void recompute() {
+        try {
+            if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(LOCK_KEY, "1", Duration.ofHours(2)))) {
+                return;
+            }
+        } catch (DataAccessException e) {
+            log.warn("Recálculo de similaridade não iniciado, Redis indisponível: {}", e.getMessage());
+            return;
+        }
+
+        try {
+            long titles = similarityService.recomputeAll();
+            redisTemplate.opsForValue().set(DONE_KEY, String.valueOf(System.currentTimeMillis()));
+            log.info("Recálculo de similaridade concluído: {} títulos com vizinhos", titles);
+        } catch (DataAccessException e) {
+            log.error("Recálculo de similaridade interrompido: {}", e.getMessage(), e);
+        } finally {
+            redisTemplate.delete(LOCK_KEY);
+        }
+    }
+}
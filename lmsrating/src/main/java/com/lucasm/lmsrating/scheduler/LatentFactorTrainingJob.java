@@ -0,0 +1,80 @@
+package com.lucasm.lmsrating.scheduler;
+
+import java.time.Duration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.lucasm.lmsrating.service.PredictedScoreService;
+
+/**
+ * Retreina periodicamente o modelo de fatores latentes das notas previstas.
+ * Uma trava no Redis garante uma única instância por execução; as demais recebem o modelo publicado pelo
+ * {@link PredictedScoreService#refresh()}. Na primeira subida do ambiente ainda não há modelo, então o treino
+ * também roda uma vez no startup.
+ */
+@Component
+public class LatentFactorTrainingJob {
+
+    private static final Logger log = LoggerFactory.getLogger(LatentFactorTrainingJob.class);
+
+    private static final String LOCK_KEY = "recommendations:als:lock";
+    private static final String DONE_KEY = "recommendations:als:v1:done";
+
+    private final PredictedScoreService predictedScoreService;
+    private final StringRedisTemplate redisTemplate;
+
+    public LatentFactorTrainingJob(PredictedScoreService predictedScoreService, StringRedisTemplate redisTemplate) {
+        this.predictedScoreService = predictedScoreService;
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**
+     * Treina o primeiro modelo em segundo plano quando nenhum treino foi concluído neste ambiente.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        Thread.ofVirtual().name("latent-factor-backfill").start(() -> {
+            try {
+                if (Boolean.TRUE.equals(redisTemplate.hasKey(DONE_KEY))) {
+                    return;
+                }
+            } catch (DataAccessException e) {
+                log.warn("Treino inicial do modelo de fatores não iniciado, Redis indisponível: {}", e.getMessage());
+                return;
+            }
+            train();
+        });
+    }
+
+    /**
+     * Roda de madrugada por padrão (`recommendations.als.cron`), depois do recálculo de similaridade.
+     */
+    @Scheduled(cron = "${recommendations.als.cron:0 0 4 * * *}")
+    public void train() {
+        try {
+            if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(LOCK_KEY, "1", Duration.ofHours(2)))) {
+                return;
+            }
+        } catch (DataAccessException e) {
+            log.warn("Treino do modelo de fatores não iniciado, Redis indisponível: {}", e.getMessage());
+            return;
+        }
+
+        try {
+            long ratings = predictedScoreService.trainAll();
+            redisTemplate.opsForValue().set(DONE_KEY, String.valueOf(System.currentTimeMillis()));
+            log.info("Treino do modelo de fatores concluído: {} avaliações", ratings);
+        } catch (DataAccessException e) {
+            log.error("Treino do modelo de fatores interrompido: {}", e.getMessage(), e);
+        } finally {
+            redisTemplate.delete(LOCK_KEY);
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package com.lucasm.lmsrating.scheduler;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.lucasm.lmsrating.dto.CatalogSyncDTO;
+import com.lucasm.lmsrating.service.LeaderboardService;
+import com.lucasm.lmsrating.service.RabbitMQProducer;
+import com.lucasm.lmsrating.service.RatingWriteBehindBuffer;
+import com.lucasm.lmsrating.service.RatingWriteBehindBuffer.BufferedEntry;
+import com.lucasm.lmsrating.service.TitleRatingStatsService;
+import com.lucasm.lmsrating.service.UserMediaStatsService;
+import com.lucasm.lmsrating.service.UserMediaStatsService.Media;
+
+/**
+ * Persiste as notas do {@link RatingWriteBehindBuffer}: a cada `ratings.write-behind.flush-interval-ms` retira os pares
+ * que estão no buffer há mais de `max-delay-ms` menos dois intervalos (um de espera, um de folga para a gravação)
+ * e os grava com upserts em lote, uma transação por usuário, aplicando os mesmos deltas da avaliação síncrona.
+ * Uma trava no Redis garante um único flusher por vez, então o par é sempre gravado na ordem das edições: cada ciclo
+ * drena por no máximo metade do TTL da trava, renova a trava a cada lote e para se ela tiver passado para outra
+ * instância; a liberação só remove a trava se ela ainda for deste ciclo.
+ * Notas mais antigas que a última escrita síncrona do par (feita com o Redis indisponível) são descartadas.
+ */
+@Component
+public class RatingWriteBehindFlusher {
+
+    private static final Logger log = LoggerFactory.getLogger(RatingWriteBehindFlusher.class);
+
+    private static final String LOCK_KEY = "rating:wb:flush:lock";
+    private static final Duration LOCK_TTL = Duration.ofSeconds(30);
+    private static final long MAX_CYCLE_MS = LOCK_TTL.toMillis() / 2;
+
+    private static final RedisScript<Long> RENEW_SCRIPT = new DefaultRedisScript<>("""
+        if redis.call('GET', KEYS[1]) == ARGV[1] then
+            return redis.call('PEXPIRE', KEYS[1], ARGV[2])
+        end
+        return 0
+        """, Long.class);
+
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>("""
+        if redis.call('GET', KEYS[1]) == ARGV[1] then
+            return redis.call('DEL', KEYS[1])
+        end
+        return 0
+        """, Long.class);
+
+    private record ExistingRating(long id, Double rating, LocalDateTime modifiedAt) {}
+
+    private final RatingWriteBehindBuffer buffer;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final StringRedisTemplate redisTemplate;
+    private final UserMediaStatsService statsService;
+    private final TitleRatingStatsService titleStatsService;
+    private final LeaderboardService leaderboardService;
+    private final RabbitMQProducer rabbitMQProducer;
+    private final CacheManager cacheManager;
+    private final long holdMs;
+    private final int batchSize;
+
+    public RatingWriteBehindFlusher(RatingWriteBehindBuffer buffer, JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                    StringRedisTemplate redisTemplate, UserMediaStatsService statsService,
+                                    TitleRatingStatsService titleStatsService, LeaderboardService leaderboardService,
+                                    RabbitMQProducer rabbitMQProducer, CacheManager cacheManager,
+                                    @Value("${ratings.write-behind.max-delay-ms:1000}") long maxDelayMs,
+                                    @Value("${ratings.write-behind.flush-interval-ms:200}") long flushIntervalMs,
+                                    @Value("${ratings.write-behind.batch-size:500}") int batchSize) {
+        if (maxDelayMs <= flushIntervalMs * 2) {
+            throw new IllegalArgumentException("ratings.write-behind.max-delay-ms deve ser maior que duas vezes flush-interval-ms");
+        }
+        this.buffer = buffer;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.redisTemplate = redisTemplate;
+        this.statsService = statsService;
+        this.titleStatsService = titleStatsService;
+        this.leaderboardService = leaderboardService;
+        this.rabbitMQProducer = rabbitMQProducer;
+        this.cacheManager = cacheManager;
+        this.holdMs = maxDelayMs - flushIntervalMs * 2;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Regrava o que ficou pendente de um ciclo anterior e então drena os pares vencidos.
+     */
+    @Scheduled(fixedDelayString = "${ratings.write-behind.flush-interval-ms:200}")
+    public void flush() {
+        if (!buffer.isEnabled()) {
+            return;
+        }
+        String token = UUID.randomUUID().toString();
+        try {
+            if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(LOCK_KEY, token, LOCK_TTL))) {
+                return;
+            }
+        } catch (DataAccessException e) {
+            log.warn("Flush do write-behind não iniciado, Redis indisponível: {}", e.getMessage());
+            return;
+        }
+
+        long deadline = System.currentTimeMillis() + MAX_CYCLE_MS;
+        try {
+            for (Media media : List.of(Media.MOVIE, Media.SERIE)) {
+                persist(media, buffer.inFlight(media));
+                long cutoff = System.currentTimeMillis() - holdMs;
+                List<BufferedEntry> due;
+                do {
+                    if (!renewLock(token)) {
+                        log.warn("Trava do flush do write-behind perdida; ciclo interrompido");
+                        return;
+                    }
+                    due = buffer.claimDue(media, cutoff, batchSize);
+                    persist(media, due);
+                    // O restante fica para o próximo ciclo, que começa após flush-interval-ms
+                } while (due.size() == batchSize && System.currentTimeMillis() < deadline);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Flush do write-behind interrompido: {}", e.getMessage());
+        } finally {
+            releaseLock(token);
+        }
+    }
+
+    private boolean renewLock(String token) {
+        Long renewed = redisTemplate.execute(RENEW_SCRIPT, List.of(LOCK_KEY), token, String.valueOf(LOCK_TTL.toMillis()));
+        return renewed != null && renewed == 1L;
+    }
+
+    private void releaseLock(String token) {
+        try {
+            redisTemplate.execute(RELEASE_SCRIPT, List.of(LOCK_KEY), token);
+        } catch (DataAccessException e) {
+            log.warn("Trava do flush do write-behind não liberada, expira em {}s: {}", LOCK_TTL.toSeconds(), e.getMessage());
+        }
+    }
+
+    private void persist(Media media, List<BufferedEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        Map<Long, List<BufferedEntry>> byUser = new TreeMap<>();
+        entries.forEach(entry -> byUser.computeIfAbsent(entry.userId(), id -> new ArrayList<>()).add(entry));
+
+        List<BufferedEntry> persisted = new ArrayList<>(entries.size());
+        byUser.forEach((userId, userEntries) -> {
+            try {
+                transactionTemplate.executeWithoutResult(status -> writeUser(media, userId, userEntries));
+                persisted.addAll(userEntries);
+                evictUserCache(media, userId);
+            } catch (RuntimeException e) {
+                // Ficam no hash de gravação e são regravados no próximo ciclo
+                log.warn("Falha ao gravar {} notas de {} do usuário {}: {}", userEntries.size(), media.key(), userId, e.getMessage());
+            }
+        });
+        buffer.acknowledge(media, persisted);
+    }
+
+    private void writeUser(Media media, Long userId, List<BufferedEntry> entries) {
+        String table = media == Media.MOVIE ? "ratings_movies" : "ratings_series";
+        String titleColumn = media == Media.MOVIE ? "movie_id" : "serie_id";
+        String catalogTable = media == Media.MOVIE ? "movies" : "series";
+
+        // Mesma ordem de travas da avaliação síncrona: agregado do usuário, depois os títulos
+        statsService.lockUser(userId);
+
+        List<BufferedEntry> sorted = entries.stream().sorted(Comparator.comparing(BufferedEntry::titleId)).toList();
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO " + catalogTable + " (" + titleColumn + ", title, poster_path) VALUES (?, ?, ?) " +
+            "ON CONFLICT (" + titleColumn + ") DO UPDATE SET " +
+            "title = COALESCE(EXCLUDED.title, " + catalogTable + ".title), " +
+            "poster_path = COALESCE(EXCLUDED.poster_path, " + catalogTable + ".poster_path)",
+            sorted, sorted.size(), (ps, entry) -> {
+                ps.setString(1, entry.titleId());
+                ps.setString(2, entry.rating().title());
+                ps.setString(3, entry.rating().posterPath());
+            });
+
+        String placeholders = String.join(",", Collections.nCopies(sorted.size(), "?"));
+        List<Object> args = new ArrayList<>(sorted.size() + 1);
+        args.add(userId);
+        sorted.forEach(entry -> args.add(entry.titleId()));
+        Map<String, ExistingRating> existing = new HashMap<>();
+        jdbcTemplate.query(
+            "SELECT id, " + titleColumn + " AS title_id, rating, modified_at FROM " + table +
+            " WHERE user_id = ? AND " + titleColumn + " IN (" + placeholders + ") FOR UPDATE",
+            rs -> {
+                existing.put(rs.getString("title_id"), new ExistingRating(rs.getLong("id"),
+                        rs.getObject("rating", Double.class), rs.getObject("modified_at", LocalDateTime.class)));
+            },
+            args.toArray());
+
+        List<BufferedEntry> inserts = new ArrayList<>();
+        List<Object[]> updates = new ArrayList<>();
+        List<BufferedEntry> changed = new ArrayList<>();
+        for (BufferedEntry entry : sorted) {
+            ExistingRating current = existing.get(entry.titleId());
+            LocalDateTime bufferedAt = toLocalDateTime(entry.rating().bufferedAt());
+            if (current == null) {
+                inserts.add(entry);
+                changed.add(entry);
+            } else if (current.modifiedAt() == null || !current.modifiedAt().isAfter(bufferedAt)) {
+                updates.add(new Object[]{entry.rating().rating(), entry.rating().comment(), Timestamp.valueOf(bufferedAt), current.id()});
+                changed.add(entry);
+            }
+        }
+
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO " + table + " (user_id, " + titleColumn + ", rating, comment, created_at, modified_at) VALUES (?, ?, ?, ?, ?, ?)",
+            inserts, inserts.size(), (ps, entry) -> {
+                Timestamp at = Timestamp.valueOf(toLocalDateTime(entry.rating().bufferedAt()));
+                ps.setLong(1, userId);
+                ps.setString(2, entry.titleId());
+                ps.setObject(3, entry.rating().rating());
+                ps.setString(4, entry.rating().comment());
+                ps.setTimestamp(5, at);
+                ps.setTimestamp(6, at);
+            });
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE " + table + " SET rating = ?, comment = ?, modified_at = ? WHERE id = ?", updates);
+        }
+
+        for (BufferedEntry entry : changed) {
+            ExistingRating current = existing.get(entry.titleId());
+            boolean created = current == null;
+            Double previousRating = created ? null : current.rating();
+            Double rating = entry.rating().rating();
+            statsService.recordRating(media, userId, entry.titleId(), created, previousRating, rating);
+            TitleRatingStatsService.Totals totals = titleStatsService.recordRating(media, entry.titleId(), created, previousRating, rating);
+            leaderboardService.scheduleUpdate(media, entry.titleId(), totals);
+        }
+
+        List<CatalogSyncDTO> syncs = sorted.stream()
+                .map(entry -> new CatalogSyncDTO(entry.titleId(), entry.rating().title(), entry.rating().posterPath()))
+                .toList();
+        if (media == Media.MOVIE) {
+            rabbitMQProducer.sendMovieCatalogSyncs(syncs);
+        } else {
+            rabbitMQProducer.sendSerieCatalogSyncs(syncs);
+        }
+    }
+
+    private void evictUserCache(Media media, Long userId) {
+        Cache cache = cacheManager.getCache(media == Media.MOVIE ? "userRatedMovies" : "userRatedSeries");
+        if (cache != null) {
+            cache.evict(userId);
+        }
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,85 @@
+package com.lucasm.lmsrating.scheduler;
+
+import java.time.Duration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.lucasm.lmsrating.service.LeaderboardService;
+import com.lucasm.lmsrating.service.TitleRatingStatsService;
+
+/**
+ * Reconstrói periodicamente `title_rating_stats` a partir das avaliações, corrigindo qualquer desvio
+ * dos deltas incrementais, e reescreve o ranking de mais bem avaliados.
+ * Uma trava no Redis garante uma única instância por execução.
+ * Na primeira subida do ambiente a tabela ainda está vazia, então a reconstrução também roda uma vez no startup.
+ */
+@Component
+public class TitleRatingStatsReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(TitleRatingStatsReconciler.class);
+
+    private static final String LOCK_KEY = "stats:title:reconcile:lock";
+    private static final String DONE_KEY = "stats:title:reconcile:v2:done";
+
+    private final TitleRatingStatsService titleStatsService;
+    private final LeaderboardService leaderboardService;
+    private final StringRedisTemplate redisTemplate;
+
+    public TitleRatingStatsReconciler(TitleRatingStatsService titleStatsService, LeaderboardService leaderboardService,
+                                      StringRedisTemplate redisTemplate) {
+        this.titleStatsService = titleStatsService;
+        this.leaderboardService = leaderboardService;
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**
+     * Preenche a tabela em segundo plano quando nenhuma reconstrução foi concluída neste ambiente.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        Thread.ofVirtual().name("title-rating-stats-backfill").start(() -> {
+            try {
+                if (Boolean.TRUE.equals(redisTemplate.hasKey(DONE_KEY))) {
+                    return;
+                }
+            } catch (DataAccessException e) {
+                log.warn("Backfill de title_rating_stats não iniciado, Redis indisponível: {}", e.getMessage());
+                return;
+            }
+            reconcile();
+        });
+    }
+
+    /**
+     * Roda de madrugada por padrão (`stats.title.reconcile-cron`).
+     */
+    @Scheduled(cron = "${stats.title.reconcile-cron:0 0 4 * * *}")
+    public void reconcile() {
+        try {
+            if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(LOCK_KEY, "1", Duration.ofHours(1)))) {
+                return;
+            }
+        } catch (DataAccessException e) {
+            log.warn("Reconciliação de title_rating_stats não iniciada, Redis indisponível: {}", e.getMessage());
+            return;
+        }
+
+        try {
+            long titles = titleStatsService.rebuildAll();
+            leaderboardService.rebuild();
+            redisTemplate.opsForValue().set(DONE_KEY, String.valueOf(System.currentTimeMillis()));
+            log.info("Reconciliação de title_rating_stats concluída: {} títulos", titles);
+        } catch (DataAccessException e) {
+            log.error("Reconciliação de title_rating_stats interrompida: {}", e.getMessage(), e);
+        } finally {
+            redisTemplate.delete(LOCK_KEY);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.lucasm.lmsrating.service;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Garante o índice único `uk_ratings_episodes_user_episode` em `(user_id, serie_id, season_number, episode_number)`,
+ * exigido pelo upsert de episódios. O Hibernate cria a constraint em bancos sem duplicatas; quando a criação falha
+ * por avaliações repetidas de antes do upsert, este job mantém a mais recente de cada episódio, cria o índice com
+ * `CONCURRENTLY` e recalcula as estatísticas dos usuários afetados. Uma trava no Redis garante uma única instância
+ * por vez; enquanto o índice não estiver válido, {@link #isValid()} é `false` e o upsert de episódios usa a busca
+ * seguida de insert/update. A validade é reverificada periodicamente nas demais instâncias.
+ */
+@Component
+public class EpisodeRatingUniqueIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(EpisodeRatingUniqueIndex.class);
+
+    private static final String INDEX_NAME = "uk_ratings_episodes_user_episode";
+    private static final String LOCK_KEY = "ratings:episodes:unique-index:lock";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StringRedisTemplate redisTemplate;
+    private final UserMediaStatsBackfill statsBackfill;
+    private volatile boolean valid;
+
+    public EpisodeRatingUniqueIndex(JdbcTemplate jdbcTemplate, StringRedisTemplate redisTemplate, UserMediaStatsBackfill statsBackfill) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.redisTemplate = redisTemplate;
+        this.statsBackfill = statsBackfill;
+    }
+
+    /**
+     * Indica se o índice único está válido, isto é, se o `ON CONFLICT` do upsert de episódios pode ser usado.
+     *
+     * @return `true` depois que o índice for confirmado válido.
+     */
+    public boolean isValid() {
+        return valid;
+    }
+
+    /**
+     * Reverifica o índice enquanto ele não estiver confirmado (build em andamento em outra instância).
+     */
+    @Scheduled(fixedDelayString = "${ratings.episodes.unique-index.check-interval-ms:60000}",
+               initialDelayString = "${ratings.episodes.unique-index.check-interval-ms:60000}")
+    public void refreshValidity() {
+        if (valid) {
+            return;
+        }
+        try {
+            checkValidity();
+        } catch (DataAccessException e) {
+            logger.debug("Índice único de episódios ainda não verificado: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Verifica o índice em segundo plano quando a aplicação termina de subir.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        Thread.ofVirtual().name("episode-rating-unique-index").start(this::ensureIndex);
+    }
+
+    private void ensureIndex() {
+        try {
+            if (checkValidity()) {
+                return;
+            }
+            if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(LOCK_KEY, "1", Duration.ofHours(1)))) {
+                logger.info("Índice único de episódios sendo criado por outra instância");
+                return;
+            }
+        } catch (DataAccessException e) {
+            logger.warn("Verificação do índice único de episódios não iniciada: {}", e.getMessage());
+            return;
+        }
+
+        try {
+            // Build concorrente interrompido deixa o índice inválido e IF NOT EXISTS não o recriaria; um índice
+            // inválido que ainda aparece em pg_stat_progress_create_index está sendo construído e não é removido
+            jdbcTemplate.execute(
+                "DO $$ BEGIN " +
+                "IF EXISTS (SELECT 1 FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid " +
+                "WHERE c.relname = '" + INDEX_NAME + "' AND NOT i.indisvalid " +
+                "AND NOT EXISTS (SELECT 1 FROM pg_stat_progress_create_index p WHERE p.index_relid = c.oid)) THEN " +
+                "DROP INDEX IF EXISTS " + INDEX_NAME + "; END IF; END $$");
+
+            List<Long> affectedUsers = jdbcTemplate.queryForList(
+                "DELETE FROM ratings_episodes r USING (" +
+                "SELECT id, row_number() OVER (PARTITION BY user_id, serie_id, season_number, episode_number " +
+                "ORDER BY COALESCE(modified_at, created_at) DESC NULLS LAST, id DESC) AS position FROM ratings_episodes" +
+                ") d WHERE r.id = d.id AND d.position > 1 RETURNING r.user_id",
+                Long.class);
+
+            jdbcTemplate.execute("CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS " + INDEX_NAME +
+                " ON ratings_episodes (user_id, serie_id, season_number, episode_number)");
+
+            List<Long> users = affectedUsers.stream().distinct().sorted().toList();
+            users.forEach(statsBackfill::recomputeUser);
+            checkValidity();
+            logger.info("Índice único de episódios criado; {} avaliações duplicadas removidas de {} usuários",
+                    affectedUsers.size(), users.size());
+        } catch (DataAccessException e) {
+            logger.warn("Índice único de episódios não criado, upsert de episódios sem ON CONFLICT: {}", e.getMessage());
+        } finally {
+            redisTemplate.delete(LOCK_KEY);
+        }
+    }
+
+    private boolean checkValidity() {
+        Boolean indexValid = jdbcTemplate.queryForObject(
+            "SELECT bool_and(i.indisvalid) FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid WHERE c.relname = ?",
+            Boolean.class, INDEX_NAME);
+        valid = Boolean.TRUE.equals(indexValid);
+        return valid;
+    }
+}
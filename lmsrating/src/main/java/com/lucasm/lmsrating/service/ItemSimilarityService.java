@@ -0,0 +1,329 @@
+package com.lucasm.lmsrating.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.lucasm.lmsrating.dto.RecommendationDTO;
+import com.lucasm.lmsrating.dto.SimilarTitleDTO;
+
+/**
+ * Recomendações item-item ("porque você gostou de X") a partir das avaliações do LMS.
+ * O recálculo offline carrega as avaliações em uma {@link RatingMatrix}, centraliza as notas pela média de cada
+ * usuário e calcula, em paralelo com fork-join, o cosseno ajustado entre cada título e os títulos que coocorrem com ele,
+ * encolhido pelo suporte (`n / (n + shrinkage)`). Os `neighbors` vizinhos mais similares de cada título são gravados
+ * em `title_similarity`, e as consultas da API leem apenas essa tabela.
+ */
+@Service
+public class ItemSimilarityService {
+
+    private static final Logger log = LoggerFactory.getLogger(ItemSimilarityService.class);
+
+    private static final int MAX_LIMIT = 50;
+    private static final int SPLIT_THRESHOLD = 64;
+    private static final int INSERT_BATCH_SIZE = 5000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int neighbors;
+    private final int minCommon;
+    private final double shrinkage;
+    private final int maxUserRatings;
+    private final int parallelism;
+    private final int fetchSize;
+    private final int seedLimit;
+
+    public ItemSimilarityService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                 @Value("${recommendations.similarity.neighbors:50}") int neighbors,
+                                 @Value("${recommendations.similarity.min-common:3}") int minCommon,
+                                 @Value("${recommendations.similarity.shrinkage:10}") double shrinkage,
+                                 @Value("${recommendations.similarity.max-user-ratings:1000}") int maxUserRatings,
+                                 @Value("${recommendations.similarity.parallelism:0}") int parallelism,
+                                 @Value("${recommendations.similarity.fetch-size:10000}") int fetchSize,
+                                 @Value("${recommendations.similarity.seed-limit:100}") int seedLimit) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.neighbors = neighbors;
+        this.minCommon = minCommon;
+        this.shrinkage = shrinkage;
+        this.maxUserRatings = maxUserRatings;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.fetchSize = fetchSize;
+        this.seedLimit = seedLimit;
+    }
+
+    /**
+     * Recalcula e regrava os vizinhos de filmes e séries.
+     *
+     * @return quantidade de títulos com vizinhos gravados.
+     */
+    public long recomputeAll() {
+        long titles = 0;
+        for (UserMediaStatsService.Media media : List.of(UserMediaStatsService.Media.MOVIE, UserMediaStatsService.Media.SERIE)) {
+            titles += recompute(media);
+        }
+        return titles;
+    }
+
+    private long recompute(UserMediaStatsService.Media media) {
+        long started = System.nanoTime();
+        RatingMatrix matrix = RatingMatrix.load(jdbcTemplate, readOnlyTransaction, media, maxUserRatings, fetchSize);
+        matrix.centerByUserMean();
+        long loaded = System.nanoTime();
+
+        Neighbors result = new Neighbors(matrix.titleCount(), neighbors);
+        if (matrix.titleCount() > 0) {
+            float[] norms = itemNorms(matrix);
+            ThreadLocal<Workspace> workspaces = ThreadLocal.withInitial(() -> new Workspace(matrix.titleCount(), neighbors));
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                pool.invoke(new SimilarityTask(matrix, norms, result, workspaces, 0, matrix.titleCount()));
+            } finally {
+                pool.shutdown();
+            }
+        }
+        long computed = System.nanoTime();
+
+        long written = write(media, matrix, result);
+        log.info("Similaridade de {} recalculada: {} avaliações, {} títulos, {} com vizinhos (carga {} ms, cálculo {} ms, gravação {} ms)",
+                media.key(), matrix.ratingCount(), matrix.titleCount(), written,
+                (loaded - started) / 1_000_000, (computed - loaded) / 1_000_000, (System.nanoTime() - computed) / 1_000_000);
+        return written;
+    }
+
+    /**
+     * Títulos mais similares a um título, na ordem do score.
+     *
+     * @param mediaKey `movie` ou `serie`.
+     * @param titleId id do título.
+     * @param limit quantidade máxima de vizinhos.
+     * @return vizinhos com título e pôster do catálogo local.
+     * @throws IllegalArgumentException quando a mídia for inválida.
+     */
+    public List<SimilarTitleDTO> getSimilar(String mediaKey, String titleId, int limit) {
+        UserMediaStatsService.Media media = parseMedia(mediaKey);
+        return jdbcTemplate.query(
+            "SELECT s.neighbor_id, c.title, c.poster_path, s.score, s.common_ratings FROM title_similarity s " +
+            "LEFT JOIN " + media.catalogTable + " c ON c." + media.titleColumn + " = s.neighbor_id " +
+            "WHERE s.media = ? AND s.title_id = ? ORDER BY s.score DESC LIMIT ?",
+            (rs, rowNum) -> new SimilarTitleDTO(rs.getString("neighbor_id"), rs.getString("title"), rs.getString("poster_path"),
+                    rs.getDouble("score"), rs.getInt("common_ratings")),
+            media.key(), titleId, clampLimit(limit));
+    }
+
+    /**
+     * Recomendações para o usuário a partir dos títulos que ele avaliou acima da própria média: soma a similaridade
+     * dos vizinhos de cada título e descarta os já avaliados. Cada item traz o título avaliado que mais contribuiu.
+     *
+     * @param userId identificador do usuário.
+     * @param mediaKey `movie` ou `serie`.
+     * @param limit quantidade máxima de recomendações.
+     * @return recomendações ordenadas por relevância.
+     * @throws IllegalArgumentException quando a mídia for inválida.
+     */
+    public List<RecommendationDTO> getForUser(Long userId, String mediaKey, int limit) {
+        UserMediaStatsService.Media media = parseMedia(mediaKey);
+        String prefix = media.column;
+        String column = media.titleColumn;
+        return jdbcTemplate.query(
+            "WITH seeds AS (" +
+            "  SELECT r." + column + " AS title_id, r.rating FROM " + media.table + " r " +
+            "  WHERE r.user_id = ? AND r.rating >= COALESCE((SELECT " + prefix + "_rating_sum / NULLIF(" + prefix + "_count, 0) " +
+            "    FROM user_media_stats WHERE user_id = ?), 0) " +
+            "  ORDER BY r.rating DESC, r.created_at DESC LIMIT ?" +
+            "), candidates AS (" +
+            "  SELECT s.neighbor_id, sum(s.score) AS score, " +
+            "  (array_agg(s.title_id ORDER BY s.score * seeds.rating DESC))[1] AS because_id " +
+            "  FROM seeds JOIN title_similarity s ON s.media = ? AND s.title_id = seeds.title_id " +
+            "  WHERE NOT EXISTS (SELECT 1 FROM " + media.table + " x WHERE x.user_id = ? AND x." + column + " = s.neighbor_id) " +
+            "  GROUP BY s.neighbor_id ORDER BY score DESC LIMIT ?" +
+            ") " +
+            "SELECT k.neighbor_id, c.title, c.poster_path, k.score, k.because_id, b.title AS because_title FROM candidates k " +
+            "LEFT JOIN " + media.catalogTable + " c ON c." + column + " = k.neighbor_id " +
+            "LEFT JOIN " + media.catalogTable + " b ON b." + column + " = k.because_id " +
+            "ORDER BY k.score DESC",
+            (rs, rowNum) -> new RecommendationDTO(rs.getString("neighbor_id"), rs.getString("title"), rs.getString("poster_path"),
+                    rs.getDouble("score"), rs.getString("because_id"), rs.getString("because_title")),
+            userId, userId, seedLimit, media.key(), userId, clampLimit(limit));
+    }
+
+    private long write(UserMediaStatsService.Media media, RatingMatrix matrix, Neighbors result) {
+        // Leitores veem a versão anterior até o commit
+        return transactionTemplate.execute(status -> {
+            jdbcTemplate.update("DELETE FROM title_similarity WHERE media = ?", media.key());
+            List<Object[]> batch = new ArrayList<>(INSERT_BATCH_SIZE);
+            long titles = 0;
+            for (int item = 0; item < matrix.titleCount(); item++) {
+                int size = result.sizes[item];
+                if (size == 0) {
+                    continue;
+                }
+                titles++;
+                int base = item * result.k;
+                for (int r = 0; r < size; r++) {
+                    batch.add(new Object[]{media.key(), matrix.titleIds[item], matrix.titleIds[result.items[base + r]],
+                            (double) result.scores[base + r], result.common[base + r]});
+                    if (batch.size() == INSERT_BATCH_SIZE) {
+                        insert(batch);
+                    }
+                }
+            }
+            insert(batch);
+            return titles;
+        });
+    }
+
+    private void insert(List<Object[]> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO title_similarity (media, title_id, neighbor_id, score, common_ratings) VALUES (?, ?, ?, ?, ?)", batch);
+        batch.clear();
+    }
+
+    private static float[] itemNorms(RatingMatrix matrix) {
+        float[] norms = new float[matrix.titleCount()];
+        for (int item = 0; item < norms.length; item++) {
+            double sum = 0;
+            for (int k = matrix.itemOffsets[item]; k < matrix.itemOffsets[item + 1]; k++) {
+                sum += (double) matrix.itemValues[k] * matrix.itemValues[k];
+            }
+            norms[item] = (float) Math.sqrt(sum);
+        }
+        return norms;
+    }
+
+    private static UserMediaStatsService.Media parseMedia(String mediaKey) {
+        if (UserMediaStatsService.Media.MOVIE.key().equalsIgnoreCase(mediaKey)) {
+            return UserMediaStatsService.Media.MOVIE;
+        }
+        if (UserMediaStatsService.Media.SERIE.key().equalsIgnoreCase(mediaKey)) {
+            return UserMediaStatsService.Media.SERIE;
+        }
+        throw new IllegalArgumentException("Recomendações disponíveis apenas para 'movie' ou 'serie'");
+    }
+
+    private static int clampLimit(int limit) {
+        return Math.max(1, Math.min(MAX_LIMIT, limit));
+    }
+
+    /**
+     * Vizinhos de todos os títulos em arrays planos: o título `i` ocupa as posições `i * k` a `i * k + sizes[i] - 1`,
+     * ordenadas por score decrescente.
+     */
+    private static final class Neighbors {
+        final int k;
+        final int[] sizes;
+        final int[] items;
+        final float[] scores;
+        final int[] common;
+
+        Neighbors(int titles, int k) {
+            this.k = k;
+            this.sizes = new int[titles];
+            this.items = new int[titles * k];
+            this.scores = new float[titles * k];
+            this.common = new int[titles * k];
+        }
+    }
+
+    /**
+     * Área de trabalho de uma thread do pool: acumuladores densos por título e a lista dos tocados, reaproveitados
+     * entre títulos para não alocar por título.
+     */
+    private static final class Workspace {
+        final float[] dot;
+        final int[] count;
+        final int[] touched;
+        final NeighborHeap heap;
+
+        Workspace(int titles, int k) {
+            this.dot = new float[titles];
+            this.count = new int[titles];
+            this.touched = new int[titles];
+            this.heap = new NeighborHeap(k);
+        }
+    }
+
+    private final class SimilarityTask extends RecursiveAction {
+        private final RatingMatrix matrix;
+        private final float[] norms;
+        private final Neighbors result;
+        private final ThreadLocal<Workspace> workspaces;
+        private final int from;
+        private final int to;
+
+        SimilarityTask(RatingMatrix matrix, float[] norms, Neighbors result, ThreadLocal<Workspace> workspaces, int from, int to) {
+            this.matrix = matrix;
+            this.norms = norms;
+            this.result = result;
+            this.workspaces = workspaces;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > SPLIT_THRESHOLD) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new SimilarityTask(matrix, norms, result, workspaces, from, mid),
+                          new SimilarityTask(matrix, norms, result, workspaces, mid, to));
+                return;
+            }
+            Workspace workspace = workspaces.get();
+            for (int item = from; item < to; item++) {
+                computeItem(item, workspace);
+            }
+        }
+
+        private void computeItem(int item, Workspace w) {
+            if (norms[item] == 0f) {
+                return;
+            }
+            int touchedCount = 0;
+            for (int k = matrix.itemOffsets[item]; k < matrix.itemOffsets[item + 1]; k++) {
+                int user = matrix.itemUsers[k];
+                float value = matrix.itemValues[k];
+                for (int p = matrix.userOffsets[user]; p < matrix.userOffsets[user + 1]; p++) {
+                    int other = matrix.userItems[p];
+                    if (other == item) {
+                        continue;
+                    }
+                    if (w.count[other] == 0) {
+                        w.touched[touchedCount++] = other;
+                    }
+                    w.count[other]++;
+                    w.dot[other] += value * matrix.userValues[p];
+                }
+            }
+
+            for (int t = 0; t < touchedCount; t++) {
+                int other = w.touched[t];
+                int common = w.count[other];
+                float dot = w.dot[other];
+                w.count[other] = 0;
+                w.dot[other] = 0f;
+                if (common < minCommon || dot <= 0f || norms[other] == 0f) {
+                    continue;
+                }
+                float score = (float) (dot / ((double) norms[item] * norms[other]) * common / (common + shrinkage));
+                w.heap.offer(other, score, common);
+            }
+
+            result.sizes[item] = w.heap.drainDescending(result.items, result.scores, result.common, item * result.k);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.lucasm.lmsrating.service;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
@@ -20,14 +21,22 @@ public class JWTUtils {
 
     private final SecretKey Key;
 
+    private final JwtParser parser;
+
+    private final VerifiedClaimsCache claimsCache;
+
     /**
-     * Inicializa o utilitário com a chave secreta usada na assinatura dos tokens.
+     * Inicializa o utilitário com a chave secreta usada na assinatura dos tokens e o limite do cache de claims.
      *
      * @param secret segredo JWT configurado na aplicação.
+     * @param claimsCacheMaxEntries quantidade máxima de tokens verificados mantidos em memória.
      */
-    public JWTUtils(@Value("${jwt.auth.secret}") String secret) {
+    public JWTUtils(@Value("${jwt.auth.secret}") String secret,
+                    @Value("${jwt.auth.claims-cache.max-entries:10000}") int claimsCacheMaxEntries) {
         byte[] keyBytes = Base64.getDecoder().decode(secret.getBytes(StandardCharsets.UTF_8));
         this.Key = Keys.hmacShaKeyFor(keyBytes);
+        this.parser = Jwts.parser().verifyWith(Key).build();
+        this.claimsCache = new VerifiedClaimsCache(claimsCacheMaxEntries);
     }
 
     /**
@@ -61,7 +70,26 @@ public class JWTUtils {
     }
 
     private <T> T extractClaims(String token, Function<Claims, T> claimsTFunction) {
-        return claimsTFunction.apply(Jwts.parser().verifyWith(Key).build().parseSignedClaims(token).getPayload());
+        return claimsTFunction.apply(parseClaims(token));
+    }
+
+    /**
+     * Verifica assinatura e expiração do token e devolve todos os claims.
+     * Tokens já verificados são servidos do cache até o seu `exp`, evitando nova verificação HMAC.
+     *
+     * @param token token JWT de origem.
+     * @return claims verificados do token.
+     * @throws io.jsonwebtoken.JwtException quando o token for inválido ou estiver expirado.
+     */
+    public Claims parseClaims(String token) {
+        String key = VerifiedClaimsCache.digest(token);
+        Claims cached = claimsCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        claimsCache.put(key, claims);
+        return claims;
     }
 
     /**
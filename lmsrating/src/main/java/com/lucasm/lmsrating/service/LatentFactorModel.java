@@ -0,0 +1,270 @@
+package com.lucasm.lmsrating.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Modelo de fatores latentes (ALS explícito com regularização ponderada) treinado sobre uma {@link RatingMatrix}:
+ * nota prevista = média global + fatores do usuário · fatores do título. Os fatores ficam em arrays `float`
+ * contíguos (`índice * factors`), e a previsão de um título custa um produto escalar de `factors` posições.
+ */
+final class LatentFactorModel {
+
+    private static final double MIN_RATING = 0.0;
+    private static final double MAX_RATING = 10.0;
+
+    final int factors;
+    final float globalMean;
+    final long[] userIds;
+    final String[] titleIds;
+    final float[] userFactors;
+    final float[] itemFactors;
+    private final Map<String, Integer> titleIndex;
+
+    private LatentFactorModel(int factors, float globalMean, long[] userIds, String[] titleIds,
+                              float[] userFactors, float[] itemFactors) {
+        this.factors = factors;
+        this.globalMean = globalMean;
+        this.userIds = userIds;
+        this.titleIds = titleIds;
+        this.userFactors = userFactors;
+        this.itemFactors = itemFactors;
+        this.titleIndex = new HashMap<>(titleIds.length * 2);
+        for (int i = 0; i < titleIds.length; i++) {
+            titleIndex.put(titleIds[i], i);
+        }
+    }
+
+    /**
+     * Índice do usuário no modelo (os ids estão ordenados).
+     *
+     * @param userId identificador do usuário.
+     * @return índice, ou -1 quando o usuário não estava no treino.
+     */
+    int userIndex(long userId) {
+        int index = Arrays.binarySearch(userIds, userId);
+        return index >= 0 ? index : -1;
+    }
+
+    /**
+     * Índice do título no modelo.
+     *
+     * @param titleId id do título.
+     * @return índice, ou -1 quando o título não estava no treino.
+     */
+    int titleIndex(String titleId) {
+        Integer index = titleIndex.get(titleId);
+        return index != null ? index : -1;
+    }
+
+    /**
+     * Nota prevista a partir de um vetor de fatores do usuário.
+     *
+     * @param user fatores do usuário.
+     * @param userOffset posição inicial dos fatores em `user`.
+     * @param item índice do título.
+     * @return nota prevista, limitada à escala de 0 a 10.
+     */
+    double predict(float[] user, int userOffset, int item) {
+        int itemOffset = item * factors;
+        double score = globalMean;
+        for (int f = 0; f < factors; f++) {
+            score += user[userOffset + f] * itemFactors[itemOffset + f];
+        }
+        return Math.max(MIN_RATING, Math.min(MAX_RATING, score));
+    }
+
+    /**
+     * Calcula os fatores de um usuário fora do treino a partir das notas dele, com os fatores dos títulos fixos.
+     *
+     * @param items índices dos títulos avaliados.
+     * @param ratings notas, na mesma ordem.
+     * @param count quantidade de avaliações.
+     * @param lambda regularização.
+     * @return fatores do usuário.
+     */
+    float[] foldIn(int[] items, float[] ratings, int count, double lambda) {
+        float[] result = new float[factors];
+        new Solver(factors).solve(itemFactors, items, ratings, 0, count, globalMean, lambda, result, 0);
+        return result;
+    }
+
+    /**
+     * Treina o modelo com mínimos quadrados alternados, resolvendo usuários e títulos em paralelo.
+     *
+     * @param matrix avaliações.
+     * @param factors dimensão dos fatores.
+     * @param iterations quantidade de iterações (cada uma resolve usuários e títulos).
+     * @param lambda regularização, multiplicada pela quantidade de avaliações de cada linha.
+     * @param pool pool fork-join do treino.
+     * @return modelo treinado.
+     */
+    static LatentFactorModel train(RatingMatrix matrix, int factors, int iterations, double lambda, ForkJoinPool pool) {
+        double sum = 0;
+        for (float value : matrix.userValues) {
+            sum += value;
+        }
+        float mean = matrix.ratingCount() > 0 ? (float) (sum / matrix.ratingCount()) : 0f;
+
+        float[] users = new float[matrix.userCount() * factors];
+        float[] items = new float[matrix.titleCount() * factors];
+        Random random = new Random(42);
+        for (int i = 0; i < items.length; i++) {
+            items[i] = (float) (random.nextGaussian() * 0.1);
+        }
+
+        ThreadLocal<Solver> solvers = ThreadLocal.withInitial(() -> new Solver(factors));
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            run(pool, () -> IntStream.range(0, matrix.userCount()).parallel().forEach(u -> solvers.get().solve(
+                    items, matrix.userItems, matrix.userValues, matrix.userOffsets[u], matrix.userOffsets[u + 1],
+                    mean, lambda, users, u * factors)));
+            run(pool, () -> IntStream.range(0, matrix.titleCount()).parallel().forEach(i -> solvers.get().solve(
+                    users, matrix.itemUsers, matrix.itemValues, matrix.itemOffsets[i], matrix.itemOffsets[i + 1],
+                    mean, lambda, items, i * factors)));
+        }
+        return new LatentFactorModel(factors, mean, matrix.userIds, matrix.titleIds, users, items);
+    }
+
+    private static void run(ForkJoinPool pool, Runnable task) {
+        try {
+            pool.submit(task).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Treino do modelo interrompido", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha no treino do modelo", e.getCause());
+        }
+    }
+
+    byte[] serialize() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(
+                (userFactors.length + itemFactors.length) * Float.BYTES + userIds.length * Long.BYTES + titleIds.length * 16);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(factors);
+            out.writeFloat(globalMean);
+            out.writeInt(userIds.length);
+            out.writeInt(titleIds.length);
+            for (long userId : userIds) {
+                out.writeLong(userId);
+            }
+            for (String titleId : titleIds) {
+                out.writeUTF(titleId);
+            }
+            for (float value : userFactors) {
+                out.writeFloat(value);
+            }
+            for (float value : itemFactors) {
+                out.writeFloat(value);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static LatentFactorModel deserialize(byte[] data) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            int factors = in.readInt();
+            float mean = in.readFloat();
+            long[] userIds = new long[in.readInt()];
+            String[] titleIds = new String[in.readInt()];
+            for (int i = 0; i < userIds.length; i++) {
+                userIds[i] = in.readLong();
+            }
+            for (int i = 0; i < titleIds.length; i++) {
+                titleIds[i] = in.readUTF();
+            }
+            float[] users = new float[userIds.length * factors];
+            float[] items = new float[titleIds.length * factors];
+            for (int i = 0; i < users.length; i++) {
+                users[i] = in.readFloat();
+            }
+            for (int i = 0; i < items.length; i++) {
+                items[i] = in.readFloat();
+            }
+            return new LatentFactorModel(factors, mean, userIds, titleIds, users, items);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Resolve `(Yᵀ Y + λ n I) x = Yᵀ (r - μ)` para uma linha da matriz por Cholesky, reaproveitando os buffers.
+     */
+    static final class Solver {
+        private final int factors;
+        private final double[] a;
+        private final double[] b;
+
+        Solver(int factors) {
+            this.factors = factors;
+            this.a = new double[factors * factors];
+            this.b = new double[factors];
+        }
+
+        void solve(float[] fixed, int[] indices, float[] values, int from, int to, float mean, double lambda,
+                   float[] target, int targetOffset) {
+            int n = to - from;
+            if (n == 0) {
+                Arrays.fill(target, targetOffset, targetOffset + factors, 0f);
+                return;
+            }
+            Arrays.fill(a, 0);
+            Arrays.fill(b, 0);
+            for (int k = from; k < to; k++) {
+                int offset = indices[k] * factors;
+                double residual = values[k] - mean;
+                for (int i = 0; i < factors; i++) {
+                    double yi = fixed[offset + i];
+                    b[i] += yi * residual;
+                    for (int j = 0; j <= i; j++) {
+                        a[i * factors + j] += yi * fixed[offset + j];
+                    }
+                }
+            }
+            double regularization = lambda * n;
+            for (int i = 0; i < factors; i++) {
+                a[i * factors + i] += regularization;
+            }
+
+            // Fatoração de Cholesky no triângulo inferior (a matriz é simétrica positiva definida pela regularização)
+            for (int i = 0; i < factors; i++) {
+                for (int j = 0; j <= i; j++) {
+                    double s = a[i * factors + j];
+                    for (int k = 0; k < j; k++) {
+                        s -= a[i * factors + k] * a[j * factors + k];
+                    }
+                    a[i * factors + j] = i == j ? Math.sqrt(Math.max(s, 1e-12)) : s / a[j * factors + j];
+                }
+            }
+            for (int i = 0; i < factors; i++) {
+                double s = b[i];
+                for (int k = 0; k < i; k++) {
+                    s -= a[i * factors + k] * b[k];
+                }
+                b[i] = s / a[i * factors + i];
+            }
+            for (int i = factors - 1; i >= 0; i--) {
+                double s = b[i];
+                for (int k = i + 1; k < factors; k++) {
+                    s -= a[k * factors + i] * b[k];
+                }
+                b[i] = s / a[i * factors + i];
+            }
+            for (int i = 0; i < factors; i++) {
+                target[targetOffset + i] = (float) b[i];
+            }
+        }
+    }
+}
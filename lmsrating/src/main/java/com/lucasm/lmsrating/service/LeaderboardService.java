@@ -0,0 +1,274 @@
+package com.lucasm.lmsrating.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.lucasm.lmsrating.dto.LeaderboardEntryDTO;
+import com.lucasm.lmsrating.dto.TitleAggregateDTO;
+
+/**
+ * Ranking "mais bem avaliados" por mídia em um sorted set do Redis (`leaderboard:rating:{media}`), com a média
+ * bayesiana como score: `(v / (v + m)) * R + (m / (v + m)) * C`, onde `v` é a quantidade de votos, `R` a média
+ * do título, `m` o mínimo de votos e `C` a média geral da mídia. Títulos com menos de `m` votos ficam fora do ranking.
+ * O score é atualizado após o commit de cada avaliação, relendo os totais confirmados em `title_rating_stats`
+ * (atualizações fora de ordem não gravam totais antigos); a reconstrução noturna recalcula `C` e reescreve o conjunto.
+ * Cada título atualizado também entra em `leaderboard:rating:{media}:changed`, que a reconstrução reaplica antes e
+ * depois da troca de chaves para não perder avaliações feitas durante ela.
+ */
+@Service
+public class LeaderboardService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeaderboardService.class);
+
+    private static final String KEY_PREFIX = "leaderboard:rating:";
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private final StringRedisTemplate redisTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final TitleRatingStatsService titleStatsService;
+    private final int minVotes;
+    private final double defaultMean;
+
+    public LeaderboardService(StringRedisTemplate redisTemplate, JdbcTemplate jdbcTemplate, TitleRatingStatsService titleStatsService,
+                              @Value("${leaderboard.rating.min-votes:5}") int minVotes,
+                              @Value("${leaderboard.rating.default-mean:6.5}") double defaultMean) {
+        this.redisTemplate = redisTemplate;
+        this.jdbcTemplate = jdbcTemplate;
+        this.titleStatsService = titleStatsService;
+        this.minVotes = minVotes;
+        this.defaultMean = defaultMean;
+    }
+
+    /**
+     * Agenda a atualização do score do título para depois do commit da avaliação; fora de transação, aplica na hora.
+     *
+     * @param media `MOVIE` ou `SERIE`.
+     * @param titleId id do título.
+     * @param totals votos e soma das notas após a avaliação; `null` quando o agregado não mudou. O score usa os
+     *               totais relidos após o commit.
+     */
+    public void scheduleUpdate(UserMediaStatsService.Media media, String titleId, TitleRatingStatsService.Totals totals) {
+        if (totals == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update(media, titleId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update(media, titleId);
+            }
+        });
+    }
+
+    // Relê os totais já confirmados em vez de usar os capturados na transação: o último a rodar grava o valor atual
+    private void update(UserMediaStatsService.Media media, String titleId) {
+        try {
+            redisTemplate.opsForSet().add(changedKey(media), titleId);
+            List<String> ids = List.of(titleId);
+            apply(key(media), ids, loadTotals(media, ids), globalMean(media));
+        } catch (DataAccessException e) {
+            // A reconstrução noturna corrige o score perdido
+            logger.warn("Falha ao atualizar ranking de {} para {}: {}", media.key(), titleId, e.getMessage());
+        }
+    }
+
+    private void apply(String key, List<String> ids, Map<String, TitleRatingStatsService.Totals> totals, double globalMean) {
+        Set<ZSetOperations.TypedTuple<String>> ranked = new HashSet<>();
+        List<Object> unranked = new ArrayList<>();
+        for (String id : ids) {
+            TitleRatingStatsService.Totals current = totals.get(id);
+            if (current == null || current.count() < minVotes) {
+                unranked.add(id);
+            } else {
+                ranked.add(new DefaultTypedTuple<>(id, score(current.count(), current.sum(), globalMean)));
+            }
+        }
+        if (!ranked.isEmpty()) {
+            redisTemplate.opsForZSet().add(key, ranked);
+        }
+        if (!unranked.isEmpty()) {
+            redisTemplate.opsForZSet().remove(key, unranked.toArray());
+        }
+    }
+
+    private Map<String, TitleRatingStatsService.Totals> loadTotals(UserMediaStatsService.Media media, List<String> ids) {
+        String placeholders = String.join(",", Collections.nCopies(ids.size(), "?"));
+        List<Object> args = new ArrayList<>(ids.size() + 1);
+        args.add(media.key());
+        args.addAll(ids);
+        Map<String, TitleRatingStatsService.Totals> totals = new HashMap<>();
+        jdbcTemplate.query(
+            "SELECT title_id, rating_count, rating_sum FROM title_rating_stats WHERE media = ? AND title_id IN (" + placeholders + ")",
+            rs -> {
+                totals.put(rs.getString("title_id"),
+                        new TitleRatingStatsService.Totals(rs.getLong("rating_count"), rs.getDouble("rating_sum")));
+            },
+            args.toArray());
+        return totals;
+    }
+
+    /**
+     * Página do ranking de mais bem avaliados, com título e pôster do catálogo local.
+     *
+     * @param mediaKey `movie` ou `serie`.
+     * @param page número da página.
+     * @param size quantidade de itens por página.
+     * @return página ordenada pelo score bayesiano.
+     * @throws IllegalArgumentException quando a mídia não tiver ranking.
+     */
+    public Page<LeaderboardEntryDTO> getTopRated(String mediaKey, int page, int size) {
+        UserMediaStatsService.Media media;
+        if (UserMediaStatsService.Media.MOVIE.key().equalsIgnoreCase(mediaKey)) {
+            media = UserMediaStatsService.Media.MOVIE;
+        } else if (UserMediaStatsService.Media.SERIE.key().equalsIgnoreCase(mediaKey)) {
+            media = UserMediaStatsService.Media.SERIE;
+        } else {
+            throw new IllegalArgumentException("Ranking disponível apenas para 'movie' ou 'serie'");
+        }
+
+        int pageSize = Math.max(1, Math.min(MAX_PAGE_SIZE, size));
+        int pageNumber = Math.max(0, page);
+        long start = (long) pageNumber * pageSize;
+        String key = key(media);
+
+        Set<ZSetOperations.TypedTuple<String>> tuples =
+                redisTemplate.opsForZSet().reverseRangeWithScores(key, start, start + pageSize - 1);
+        Long total = redisTemplate.opsForZSet().zCard(key);
+        if (tuples == null || tuples.isEmpty()) {
+            return new PageImpl<>(List.of(), PageRequest.of(pageNumber, pageSize), total != null ? total : 0);
+        }
+
+        List<String> ids = tuples.stream().map(ZSetOperations.TypedTuple::getValue).toList();
+        Map<String, String[]> catalog = loadCatalog(media, ids);
+        Map<String, TitleAggregateDTO> aggregates = titleStatsService.getAggregates(media, ids);
+
+        List<LeaderboardEntryDTO> items = new ArrayList<>(tuples.size());
+        long rank = start;
+        for (ZSetOperations.TypedTuple<String> tuple : tuples) {
+            String id = tuple.getValue();
+            String[] entry = catalog.getOrDefault(id, new String[2]);
+            TitleAggregateDTO aggregate = aggregates.get(id);
+            items.add(new LeaderboardEntryDTO(++rank, id, entry[0], entry[1], tuple.getScore() != null ? tuple.getScore() : 0.0,
+                    aggregate.count(), aggregate.average()));
+        }
+        return new PageImpl<>(items, PageRequest.of(pageNumber, pageSize), total != null ? total : items.size());
+    }
+
+    /**
+     * Reescreve os rankings a partir de `title_rating_stats`, recalculando a média geral de cada mídia.
+     * O conjunto novo é montado em uma chave temporária e trocado com `RENAME`, sem janela de ranking vazio.
+     * Títulos avaliados depois da leitura são relidos e aplicados na chave temporária antes da troca, e os que
+     * chegarem entre essa releitura e a troca são aplicados de novo na chave final.
+     */
+    public void rebuild() {
+        for (UserMediaStatsService.Media media : List.of(UserMediaStatsService.Media.MOVIE, UserMediaStatsService.Media.SERIE)) {
+            Double mean = jdbcTemplate.queryForObject(
+                "SELECT sum(rating_sum) / NULLIF(sum(rating_count), 0) FROM title_rating_stats WHERE media = ?",
+                Double.class, media.key());
+            double globalMean = mean != null ? mean : defaultMean;
+            String key = key(media);
+            String tempKey = key + ":rebuild";
+
+            redisTemplate.delete(tempKey);
+            // Alterações anteriores a este ponto já estão na leitura abaixo
+            redisTemplate.delete(changedKey(media));
+            String lastTitleId = "";
+            while (true) {
+                Set<ZSetOperations.TypedTuple<String>> batch = new HashSet<>();
+                List<String> ids = new ArrayList<>();
+                jdbcTemplate.query(
+                    "SELECT title_id, rating_count, rating_sum FROM title_rating_stats " +
+                    "WHERE media = ? AND rating_count >= ? AND title_id > ? ORDER BY title_id LIMIT ?",
+                    rs -> {
+                        String id = rs.getString("title_id");
+                        ids.add(id);
+                        batch.add(new DefaultTypedTuple<>(id, score(rs.getLong("rating_count"), rs.getDouble("rating_sum"), globalMean)));
+                    },
+                    media.key(), minVotes, lastTitleId, REBUILD_BATCH_SIZE);
+                if (ids.isEmpty()) {
+                    break;
+                }
+                redisTemplate.opsForZSet().add(tempKey, batch);
+                lastTitleId = ids.get(ids.size() - 1);
+            }
+
+            replayChanged(media, tempKey, globalMean);
+            redisTemplate.opsForValue().set(meanKey(media), String.valueOf(globalMean));
+            if (Boolean.TRUE.equals(redisTemplate.hasKey(tempKey))) {
+                redisTemplate.rename(tempKey, key);
+            } else {
+                redisTemplate.delete(key);
+            }
+            replayChanged(media, key, globalMean);
+        }
+    }
+
+    private void replayChanged(UserMediaStatsService.Media media, String key, double globalMean) {
+        while (true) {
+            List<String> ids = redisTemplate.opsForSet().pop(changedKey(media), REBUILD_BATCH_SIZE);
+            if (ids == null || ids.isEmpty()) {
+                return;
+            }
+            apply(key, ids, loadTotals(media, ids), globalMean);
+        }
+    }
+
+    private double globalMean(UserMediaStatsService.Media media) {
+        String value = redisTemplate.opsForValue().get(meanKey(media));
+        return value != null ? Double.parseDouble(value) : defaultMean;
+    }
+
+    private double score(long count, double sum, double globalMean) {
+        double average = count > 0 ? sum / count : 0.0;
+        return (count * average + minVotes * globalMean) / (count + minVotes);
+    }
+
+    private Map<String, String[]> loadCatalog(UserMediaStatsService.Media media, List<String> ids) {
+        String placeholders = String.join(",", Collections.nCopies(ids.size(), "?"));
+        Map<String, String[]> result = new HashMap<>();
+        jdbcTemplate.query(
+            "SELECT " + media.titleColumn + " AS id, title, poster_path FROM " + media.catalogTable +
+            " WHERE " + media.titleColumn + " IN (" + placeholders + ")",
+            rs -> {
+                result.put(rs.getString("id"), new String[]{rs.getString("title"), rs.getString("poster_path")});
+            },
+            ids.toArray());
+        return result;
+    }
+
+    private static String key(UserMediaStatsService.Media media) {
+        return KEY_PREFIX + media.key();
+    }
+
+    private static String meanKey(UserMediaStatsService.Media media) {
+        return KEY_PREFIX + media.key() + ":mean";
+    }
+
+    private static String changedKey(UserMediaStatsService.Media media) {
+        return KEY_PREFIX + media.key() + ":changed";
+    }
+}
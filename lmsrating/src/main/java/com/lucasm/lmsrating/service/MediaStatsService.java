@@ -1,41 +1,185 @@
 package com.lucasm.lmsrating.service;
 
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
+import com.lucasm.lmsrating.dto.GenreStatsDTO;
+import com.lucasm.lmsrating.dto.HistogramBucketDTO;
 import com.lucasm.lmsrating.dto.MediaBalanceDTO;
+import com.lucasm.lmsrating.dto.TimelinePointDTO;
+import com.lucasm.lmsrating.dto.WatchTimeDTO;
+import com.lucasm.lmsrating.model.UserMediaStats;
 import com.lucasm.lmsrating.repository.MovieRepository;
 import com.lucasm.lmsrating.repository.SerieRepository;
+import com.lucasm.lmsrating.repository.UserMediaStatsRepository;
 
+/**
+ * Serve as estatísticas do painel a partir dos agregados mantidos por {@link UserMediaStatsService};
+ * cada consulta é uma leitura por chave primária (ou prefixo dela), independente da quantidade de avaliações.
+ */
 @Service
 public class MediaStatsService {
 
+    private static final int MAX_TIMELINE_MONTHS = 60;
+    private static final int MAX_GENRES = 50;
+
+    private final UserMediaStatsRepository statsRepository;
     private final MovieRepository movieRepository;
     private final SerieRepository serieRepository;
     private final JdbcTemplate jdbcTemplate;
 
-    public MediaStatsService(MovieRepository movieRepository, SerieRepository serieRepository, JdbcTemplate jdbcTemplate) {
+    public MediaStatsService(UserMediaStatsRepository statsRepository, MovieRepository movieRepository, SerieRepository serieRepository,
+                             JdbcTemplate jdbcTemplate) {
+        this.statsRepository = statsRepository;
         this.movieRepository = movieRepository;
         this.serieRepository = serieRepository;
         this.jdbcTemplate = jdbcTemplate;
     }
 
-    private Long getUserIdByEmail(String email) {
-        String sql = "SELECT id FROM users WHERE email = ?";
-        return jdbcTemplate.queryForObject(sql, Long.class, email);
+    /**
+     * Lê o balanço filmes/séries do agregado do usuário; sem linha no agregado (backfill ainda pendente), conta direto nas tabelas.
+     *
+     * @param userId identificador do usuário.
+     * @return totais de filmes e séries avaliados.
+     */
+    public List<MediaBalanceDTO> getMediaBalance(Long userId) {
+        UserMediaStats stats = statsRepository.findById(userId).orElse(null);
+        long totalMovies = stats != null ? stats.getMovieCount() : movieRepository.countByUserId(userId);
+        long totalSeries = stats != null ? stats.getSerieCount() : serieRepository.countByUserId(userId);
+
+        return List.of(
+            new MediaBalanceDTO("Filmes", (int) totalMovies, "#eab308"),
+            new MediaBalanceDTO("Séries", (int) totalSeries, "#a855f7")
+        );
     }
 
-    public List<MediaBalanceDTO> getMediaBalance(String email) {
-        Long userId = getUserIdByEmail(email);
+    /**
+     * Distribuição das notas do usuário em faixas de meio ponto.
+     *
+     * @param userId identificador do usuário.
+     * @param media `movie`, `serie`, `episode` ou `all`.
+     * @return quantidade de avaliações por faixa de nota, de 0.0 a 10.0.
+     */
+    public List<HistogramBucketDTO> getHistogram(Long userId, String media) {
+        int[] totals = new int[UserMediaStats.HISTOGRAM_BUCKETS];
+        UserMediaStats stats = statsRepository.findById(userId).orElse(null);
+        if (stats != null) {
+            if (includes(media, UserMediaStatsService.Media.MOVIE)) addInto(totals, stats.getMovieHistogram());
+            if (includes(media, UserMediaStatsService.Media.SERIE)) addInto(totals, stats.getSerieHistogram());
+            if (includes(media, UserMediaStatsService.Media.EPISODE)) addInto(totals, stats.getEpisodeHistogram());
+        }
 
-        int totalMovies = movieRepository.findAllByUserIdOrderByCreatedAtDesc(userId).size();
-        int totalSeries = serieRepository.findAllByUserIdOrderByCreatedAtDesc(userId).size();
+        List<HistogramBucketDTO> result = new ArrayList<>(totals.length);
+        for (int bucket = 0; bucket < totals.length; bucket++) {
+            result.add(new HistogramBucketDTO(bucket / 2.0, totals[bucket]));
+        }
+        return result;
+    }
 
-        return List.of(
-            new MediaBalanceDTO("Filmes", totalMovies, "#eab308"),
-            new MediaBalanceDTO("Séries", totalSeries, "#a855f7")  
-        );
+    /**
+     * Gêneros mais avaliados pelo usuário, com a nota média de cada um.
+     *
+     * @param userId identificador do usuário.
+     * @param media `movie`, `serie` ou `all`.
+     * @param limit quantidade máxima de gêneros.
+     * @return gêneros ordenados pela quantidade de títulos avaliados.
+     */
+    public List<GenreStatsDTO> getGenres(Long userId, String media, int limit) {
+        boolean all = "all".equalsIgnoreCase(media);
+        if (!all) {
+            UserMediaStatsService.Media parsed = parseMedia(media);
+            if (parsed == UserMediaStatsService.Media.EPISODE) {
+                throw new IllegalArgumentException("Gêneros disponíveis apenas para 'movie', 'serie' ou 'all'");
+            }
+            media = parsed.key();
+        }
+
+        String sql = "SELECT genre, sum(title_count) AS total, sum(rating_sum) AS rating_sum FROM user_genre_stats " +
+                "WHERE user_id = ?" + (all ? "" : " AND media = ?") +
+                " GROUP BY genre ORDER BY total DESC, genre LIMIT ?";
+        Object[] args = all
+                ? new Object[]{userId, clamp(limit, MAX_GENRES)}
+                : new Object[]{userId, media, clamp(limit, MAX_GENRES)};
+
+        return jdbcTemplate.query(sql, (rs, rowNum) -> {
+            long total = rs.getLong("total");
+            return new GenreStatsDTO(rs.getString("genre"), total, total > 0 ? rs.getDouble("rating_sum") / total : 0.0);
+        }, args);
+    }
+
+    /**
+     * Avaliações criadas e minutos assistidos por mês, incluindo meses sem atividade.
+     *
+     * @param userId identificador do usuário.
+     * @param months quantidade de meses, contando o atual.
+     * @return pontos mensais em ordem cronológica (`yyyy-MM`).
+     */
+    public List<TimelinePointDTO> getTimeline(Long userId, int months) {
+        YearMonth current = YearMonth.now();
+        YearMonth first = current.minusMonths(clamp(months, MAX_TIMELINE_MONTHS) - 1L);
+
+        Map<YearMonth, TimelinePointDTO> byMonth = new HashMap<>();
+        jdbcTemplate.query(
+            "SELECT month, movie_count, serie_count, episode_count, minutes FROM user_monthly_stats " +
+            "WHERE user_id = ? AND month >= ? ORDER BY month",
+            rs -> {
+                YearMonth month = YearMonth.from(rs.getObject("month", LocalDate.class));
+                byMonth.put(month, new TimelinePointDTO(month.toString(), rs.getLong("movie_count"),
+                        rs.getLong("serie_count"), rs.getLong("episode_count"), rs.getLong("minutes")));
+            },
+            userId, first.atDay(1));
+
+        List<TimelinePointDTO> result = new ArrayList<>();
+        for (YearMonth month = first; !month.isAfter(current); month = month.plusMonths(1)) {
+            result.add(byMonth.getOrDefault(month, new TimelinePointDTO(month.toString(), 0, 0, 0, 0)));
+        }
+        return result;
+    }
+
+    /**
+     * Tempo assistido estimado pela duração dos filmes e episódios avaliados.
+     *
+     * @param userId identificador do usuário.
+     * @return minutos por tipo de mídia e total em horas.
+     */
+    public WatchTimeDTO getWatchTime(Long userId) {
+        UserMediaStats stats = statsRepository.findById(userId).orElse(null);
+        long movieMinutes = stats != null ? stats.getMovieMinutes() : 0L;
+        long episodeMinutes = stats != null ? stats.getEpisodeMinutes() : 0L;
+        long total = movieMinutes + episodeMinutes;
+        return new WatchTimeDTO(movieMinutes, episodeMinutes, total, Math.round(total / 6.0) / 10.0);
+    }
+
+    private static boolean includes(String media, UserMediaStatsService.Media candidate) {
+        return "all".equalsIgnoreCase(media) || parseMedia(media) == candidate;
+    }
+
+    private static UserMediaStatsService.Media parseMedia(String media) {
+        for (UserMediaStatsService.Media value : UserMediaStatsService.Media.values()) {
+            if (value.key().equalsIgnoreCase(media)) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Tipo de mídia inválido: " + media);
+    }
+
+    private static void addInto(int[] totals, int[] histogram) {
+        if (histogram == null) {
+            return;
+        }
+        for (int i = 0; i < Math.min(totals.length, histogram.length); i++) {
+            totals[i] += histogram[i];
+        }
+    }
+
+    private static int clamp(int value, int max) {
+        return Math.max(1, Math.min(max, value));
     }
-}
\ No newline at end of file
+}
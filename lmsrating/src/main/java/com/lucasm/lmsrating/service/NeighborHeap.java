@@ -0,0 +1,104 @@
+package com.lucasm.lmsrating.service;
+
+/**
+ * Min-heap de capacidade fixa com os vizinhos de maior score de um título, em arrays paralelos para não alocar
+ * por candidato. Quando cheio, um candidato só entra se superar o menor score mantido; em empate, fica o que
+ * chegou primeiro.
+ */
+final class NeighborHeap {
+
+    private final int[] items;
+    private final float[] scores;
+    private final int[] common;
+    private int size;
+
+    NeighborHeap(int capacity) {
+        this.items = new int[capacity];
+        this.scores = new float[capacity];
+        this.common = new int[capacity];
+    }
+
+    /**
+     * Oferece um candidato ao heap.
+     *
+     * @param item índice do título vizinho.
+     * @param score similaridade com o título corrente.
+     * @param commonCount avaliações em comum.
+     */
+    void offer(int item, float score, int commonCount) {
+        if (size < items.length) {
+            items[size] = item;
+            scores[size] = score;
+            common[size] = commonCount;
+            siftUp(size++);
+        } else if (size > 0 && score > scores[0]) {
+            items[0] = item;
+            scores[0] = score;
+            common[0] = commonCount;
+            siftDown(0, size);
+        }
+    }
+
+    /**
+     * Esvazia o heap do fim para o começo, copiando os vizinhos em ordem decrescente de score.
+     * O heap fica vazio e pronto para o próximo título.
+     *
+     * @param outItems destino dos índices dos vizinhos.
+     * @param outScores destino dos scores.
+     * @param outCommon destino das avaliações em comum.
+     * @param offset posição inicial nos arrays de destino.
+     * @return quantidade de vizinhos copiados.
+     */
+    int drainDescending(int[] outItems, float[] outScores, int[] outCommon, int offset) {
+        int count = size;
+        for (int r = count - 1; r >= 0; r--) {
+            outItems[offset + r] = items[0];
+            outScores[offset + r] = scores[0];
+            outCommon[offset + r] = common[0];
+            items[0] = items[r];
+            scores[0] = scores[r];
+            common[0] = common[r];
+            siftDown(0, r);
+        }
+        size = 0;
+        return count;
+    }
+
+    private void siftUp(int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (scores[parent] <= scores[index]) {
+                return;
+            }
+            swap(parent, index);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int index, int size) {
+        while (true) {
+            int left = index * 2 + 1;
+            if (left >= size) {
+                return;
+            }
+            int smallest = left + 1 < size && scores[left + 1] < scores[left] ? left + 1 : left;
+            if (scores[index] <= scores[smallest]) {
+                return;
+            }
+            swap(index, smallest);
+            index = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        int item = items[a];
+        float score = scores[a];
+        int count = common[a];
+        items[a] = items[b];
+        scores[a] = scores[b];
+        common[a] = common[b];
+        items[b] = item;
+        scores[b] = score;
+        common[b] = count;
+    }
+}
@@ -0,0 +1,229 @@
+package com.lucasm.lmsrating.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Notas previstas por usuário para listas de títulos (populares do TMDB, buscas), a partir de um
+ * {@link LatentFactorModel} treinado offline sobre as avaliações do LMS.
+ * Uma instância treina (com trava no Redis) e publica os fatores serializados no Redis; todas as instâncias
+ * verificam a versão a cada `recommendations.als.refresh-interval-ms` e mantêm o modelo em memória, de modo que
+ * pontuar uma página custa um produto escalar por título, sem consultas ao banco. Usuários que começaram a avaliar
+ * depois do treino têm os fatores calculados na hora a partir das próprias notas, em uma única consulta.
+ */
+@Service
+public class PredictedScoreService {
+
+    private static final Logger log = LoggerFactory.getLogger(PredictedScoreService.class);
+
+    private static final int BATCH_MAX_SIZE = 100;
+    private static final String KEY_PREFIX = "recommendations:als:";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final StringRedisTemplate redisTemplate;
+    private final int factors;
+    private final int iterations;
+    private final double lambda;
+    private final int parallelism;
+    private final int maxUserRatings;
+    private final int fetchSize;
+    private final Map<UserMediaStatsService.Media, LatentFactorModel> models = new EnumMap<>(UserMediaStatsService.Media.class);
+    private final Map<UserMediaStatsService.Media, String> versions = new EnumMap<>(UserMediaStatsService.Media.class);
+
+    public PredictedScoreService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                 StringRedisTemplate redisTemplate,
+                                 @Value("${recommendations.als.factors:32}") int factors,
+                                 @Value("${recommendations.als.iterations:10}") int iterations,
+                                 @Value("${recommendations.als.lambda:0.05}") double lambda,
+                                 @Value("${recommendations.als.parallelism:0}") int parallelism,
+                                 @Value("${recommendations.als.max-user-ratings:5000}") int maxUserRatings,
+                                 @Value("${recommendations.als.fetch-size:10000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.redisTemplate = redisTemplate;
+        this.factors = factors;
+        this.iterations = iterations;
+        this.lambda = lambda;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.maxUserRatings = maxUserRatings;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Treina os modelos de filmes e séries e publica os fatores no Redis para as demais instâncias.
+     *
+     * @return quantidade de avaliações usadas no treino.
+     */
+    public long trainAll() {
+        long ratings = 0;
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            for (UserMediaStatsService.Media media : List.of(UserMediaStatsService.Media.MOVIE, UserMediaStatsService.Media.SERIE)) {
+                long started = System.nanoTime();
+                RatingMatrix matrix = RatingMatrix.load(jdbcTemplate, readOnlyTransaction, media, maxUserRatings, fetchSize);
+                LatentFactorModel model = LatentFactorModel.train(matrix, factors, iterations, lambda, pool);
+                byte[] data = model.serialize();
+                String version = String.valueOf(System.currentTimeMillis());
+                redisTemplate.execute((RedisCallback<Void>) connection -> {
+                    connection.stringCommands().set(bytes(modelKey(media)), data);
+                    connection.stringCommands().set(bytes(versionKey(media)), bytes(version));
+                    return null;
+                });
+                install(media, model, version);
+                ratings += matrix.ratingCount();
+                log.info("Modelo de fatores de {} treinado: {} avaliações, {} usuários, {} títulos, {} KB em {} ms",
+                        media.key(), matrix.ratingCount(), matrix.userCount(), matrix.titleCount(), data.length / 1024,
+                        (System.nanoTime() - started) / 1_000_000);
+            }
+        } finally {
+            pool.shutdown();
+        }
+        return ratings;
+    }
+
+    /**
+     * Carrega do Redis os modelos publicados desde a última verificação.
+     */
+    @Scheduled(fixedDelayString = "${recommendations.als.refresh-interval-ms:60000}")
+    public void refresh() {
+        for (UserMediaStatsService.Media media : List.of(UserMediaStatsService.Media.MOVIE, UserMediaStatsService.Media.SERIE)) {
+            try {
+                String version = redisTemplate.opsForValue().get(versionKey(media));
+                if (version == null || version.equals(currentVersion(media))) {
+                    continue;
+                }
+                byte[] data = redisTemplate.execute((RedisCallback<byte[]>) connection -> connection.stringCommands().get(bytes(modelKey(media))));
+                if (data != null) {
+                    install(media, LatentFactorModel.deserialize(data), version);
+                    log.info("Modelo de fatores de {} carregado: versão {}", media.key(), version);
+                }
+            } catch (DataAccessException e) {
+                log.warn("Falha ao carregar o modelo de fatores de {}: {}", media.key(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Notas previstas para o usuário em um lote de títulos.
+     *
+     * @param userId identificador do usuário.
+     * @param mediaKey `movie` ou `serie`.
+     * @param titleIds ids dos títulos da página.
+     * @return mapa de id → nota prevista (0 a 10, uma casa decimal); títulos fora do modelo são omitidos,
+     *         e o mapa fica vazio enquanto não houver modelo ou avaliações do usuário.
+     * @throws IllegalArgumentException quando a mídia for inválida ou o lote exceder o limite.
+     */
+    public Map<String, Double> getPredictedScores(Long userId, String mediaKey, List<String> titleIds) {
+        UserMediaStatsService.Media media = parseMedia(mediaKey);
+        if (titleIds == null || titleIds.isEmpty()) return Map.of();
+        if (titleIds.size() > BATCH_MAX_SIZE) {
+            throw new IllegalArgumentException("Limite de " + BATCH_MAX_SIZE + " títulos por batch excedido");
+        }
+        LatentFactorModel model = currentModel(media);
+        if (model == null) {
+            return Map.of();
+        }
+
+        float[] user = model.userFactors;
+        int userOffset;
+        int userIndex = model.userIndex(userId);
+        if (userIndex >= 0) {
+            userOffset = userIndex * model.factors;
+        } else {
+            user = foldIn(model, media, userId);
+            userOffset = 0;
+            if (user == null) {
+                return Map.of();
+            }
+        }
+
+        Map<String, Double> result = new HashMap<>();
+        for (String titleId : titleIds) {
+            int item = model.titleIndex(titleId);
+            if (item >= 0) {
+                result.put(titleId, Math.round(model.predict(user, userOffset, item) * 10) / 10.0);
+            }
+        }
+        return result;
+    }
+
+    private float[] foldIn(LatentFactorModel model, UserMediaStatsService.Media media, Long userId) {
+        List<Integer> items = new ArrayList<>();
+        List<Float> ratings = new ArrayList<>();
+        jdbcTemplate.query(
+            "SELECT " + media.titleColumn + " AS title_id, rating FROM " + media.table +
+            " WHERE user_id = ? AND rating IS NOT NULL ORDER BY created_at DESC LIMIT ?",
+            rs -> {
+                int item = model.titleIndex(rs.getString("title_id"));
+                if (item >= 0) {
+                    items.add(item);
+                    ratings.add((float) rs.getDouble("rating"));
+                }
+            },
+            userId, maxUserRatings);
+        if (items.isEmpty()) {
+            return null;
+        }
+        int[] itemArray = new int[items.size()];
+        float[] ratingArray = new float[items.size()];
+        for (int i = 0; i < itemArray.length; i++) {
+            itemArray[i] = items.get(i);
+            ratingArray[i] = ratings.get(i);
+        }
+        return model.foldIn(itemArray, ratingArray, itemArray.length, lambda);
+    }
+
+    private synchronized void install(UserMediaStatsService.Media media, LatentFactorModel model, String version) {
+        models.put(media, model);
+        versions.put(media, version);
+    }
+
+    private synchronized LatentFactorModel currentModel(UserMediaStatsService.Media media) {
+        return models.get(media);
+    }
+
+    private synchronized String currentVersion(UserMediaStatsService.Media media) {
+        return versions.get(media);
+    }
+
+    private static UserMediaStatsService.Media parseMedia(String mediaKey) {
+        if (UserMediaStatsService.Media.MOVIE.key().equalsIgnoreCase(mediaKey)) {
+            return UserMediaStatsService.Media.MOVIE;
+        }
+        if (UserMediaStatsService.Media.SERIE.key().equalsIgnoreCase(mediaKey)) {
+            return UserMediaStatsService.Media.SERIE;
+        }
+        throw new IllegalArgumentException("Notas previstas disponíveis apenas para 'movie' ou 'serie'");
+    }
+
+    private static String modelKey(UserMediaStatsService.Media media) {
+        return KEY_PREFIX + media.key() + ":model";
+    }
+
+    private static String versionKey(UserMediaStatsService.Media media) {
+        return KEY_PREFIX + media.key() + ":version";
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -1,8 +1,9 @@
 package com.lucasm.lmsrating.service;
 
+import java.util.List;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.stereotype.Service;
 
 import com.lucasm.lmsrating.config.RabbitMQConfig;
@@ -10,40 +11,60 @@ import com.lucasm.lmsrating.dto.CatalogSyncDTO;
 
 /**
  * Serviço produtor de mensagens RabbitMQ para o microsserviço de avaliações (lmsrating).
+ * Os eventos vão para o outbox na transação da avaliação e são publicados após o commit.
  */
 @Service
 public class RabbitMQProducer {
 
     private static final Logger log = LoggerFactory.getLogger(RabbitMQProducer.class);
     
-    private final RabbitTemplate rabbitTemplate;
+    private final OutboxService outboxService;
 
-    public RabbitMQProducer(RabbitTemplate rabbitTemplate) {
-        this.rabbitTemplate = rabbitTemplate;
+    public RabbitMQProducer(OutboxService outboxService) {
+        this.outboxService = outboxService;
     }
 
     /**
-     * Envia um evento para garantir que o filme exista no catálogo principal (lmsfilmes) 
-     * antes de salvar o relacionamento no PostgreSQL.
+     * Registra um evento para garantir que o filme exista no catálogo principal (lmsfilmes).
+     * Deve ser chamado dentro da transação que grava a avaliação.
      *
      * @param dto dados básicos do filme (ID, título, poster).
      */
     public void sendMovieCatalogSync(CatalogSyncDTO dto) {
-        log.info("Enviando evento de sincronização de catálogo para o filme ID: {}", dto.getId());
-        // Envia para a exchange 'catalog.direct' com a rota 'movie.sync'
-        rabbitTemplate.convertAndSend(RabbitMQConfig.CATALOG_EXCHANGE, "movie.sync", dto);
+        log.debug("Registrando sincronização de catálogo para o filme ID: {}", dto.getId());
+        // Exchange 'catalog.direct' com a rota 'movie.sync'
+        outboxService.enqueue(RabbitMQConfig.CATALOG_EXCHANGE, "movie.sync", dto);
+    }
+
+    /**
+     * Registra de uma vez as sincronizações de catálogo de um lote de filmes (importação).
+     * Deve ser chamado dentro da transação que grava as avaliações.
+     *
+     * @param dtos dados básicos dos filmes.
+     */
+    public void sendMovieCatalogSyncs(List<CatalogSyncDTO> dtos) {
+        outboxService.enqueueAll(RabbitMQConfig.CATALOG_EXCHANGE, "movie.sync", dtos);
     }
 
     /**
-     * Envia um evento para garantir que a série exista no catálogo principal (lmsfilmes)
-     * antes de salvar o relacionamento no PostgreSQL.
+     * Registra um evento para garantir que a série exista no catálogo principal (lmsfilmes).
+     * Deve ser chamado dentro da transação que grava a avaliação.
      *
      * @param dto dados básicos da série (ID, título, poster).
      */
     public void sendSerieCatalogSync(CatalogSyncDTO dto) {
-        log.info("Enviando evento de sincronização de catálogo para a série ID: {}", dto.getId());
-        // Envia para a exchange 'catalog.direct' com a rota 'serie.sync'
-        rabbitTemplate.convertAndSend(RabbitMQConfig.CATALOG_EXCHANGE, "serie.sync", dto);
+        log.debug("Registrando sincronização de catálogo para a série ID: {}", dto.getId());
+        // Exchange 'catalog.direct' com a rota 'serie.sync'
+        outboxService.enqueue(RabbitMQConfig.CATALOG_EXCHANGE, "serie.sync", dto);
     }
-    
-}
\ No newline at end of file
+
+    /**
+     * Registra de uma vez as sincronizações de catálogo de um lote de séries (write-behind).
+     * Deve ser chamado dentro da transação que grava as avaliações.
+     *
+     * @param dtos dados básicos das séries.
+     */
+    public void sendSerieCatalogSyncs(List<CatalogSyncDTO> dtos) {
+        outboxService.enqueueAll(RabbitMQConfig.CATALOG_EXCHANGE, "serie.sync", dtos);
+    }
+}
@@ -1,12 +1,23 @@
 package com.lucasm.lmsrating.service;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.lucasm.lmsrating.dto.EpisodeRatingRequestDTO;
+import com.lucasm.lmsrating.dto.SeasonRatingRequestDTO;
 import com.lucasm.lmsrating.exceptions.MovieServiceException;
 import com.lucasm.lmsrating.model.RatingEpisode;
 import com.lucasm.lmsrating.repository.EpisodeRepository;
@@ -16,31 +27,29 @@ public class RateEpisodeService {
 
     private static final Logger logger = LoggerFactory.getLogger(RateEpisodeService.class);
 
+    private record EpisodeInput(int episodeNumber, Double rating, String comment) {}
+
     private final EpisodeRepository episodeRepository;
-    private final UserLookupService userLookupService;
+    private final UserMediaStatsService statsService;
+    private final JdbcTemplate jdbcTemplate;
+    private final SeasonScoreService seasonScoreService;
+    private final EpisodeRatingUniqueIndex uniqueIndex;
 
-    public RateEpisodeService(EpisodeRepository episodeRepository, UserLookupService userLookupService) {
+    public RateEpisodeService(EpisodeRepository episodeRepository, UserMediaStatsService statsService, JdbcTemplate jdbcTemplate,
+                              SeasonScoreService seasonScoreService, EpisodeRatingUniqueIndex uniqueIndex) {
         this.episodeRepository = episodeRepository;
-        this.userLookupService = userLookupService;
+        this.statsService = statsService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.seasonScoreService = seasonScoreService;
+        this.uniqueIndex = uniqueIndex;
     }
 
     @Transactional
-    public RatingEpisode rateEpisode(EpisodeRatingRequestDTO request, String email) {
+    public RatingEpisode rateEpisode(EpisodeRatingRequestDTO request, Long userId) {
         try {
-            Long userId = userLookupService.getUserIdByEmail(email);
-
-            RatingEpisode episode = episodeRepository.findByUserIdAndSerieIdAndSeasonNumberAndEpisodeNumber(
-                userId, request.getSerieId(), request.getSeasonNumber(), request.getEpisodeNumber())
-                .orElse(new RatingEpisode());
-
-            episode.setUserId(userId);
-            episode.setSerieId(request.getSerieId());
-            episode.setSeasonNumber(request.getSeasonNumber());
-            episode.setEpisodeNumber(request.getEpisodeNumber());
-            episode.setRating(request.getRating());
-            episode.setComment(request.getComment());
-
-            return episodeRepository.save(episode);
+            List<RatingEpisode> saved = upsertEpisodes(userId, request.getSerieId(), request.getSeasonNumber(),
+                    List.of(new EpisodeInput(request.getEpisodeNumber(), request.getRating(), request.getComment())));
+            return saved.get(0);
         } catch (Exception e) {
             logger.error("Erro ao salvar avaliação do episódio {} da temporada {} da série {}: {}", 
                 request.getEpisodeNumber(), request.getSeasonNumber(), request.getSerieId(), e.getMessage());
@@ -48,8 +57,114 @@ public class RateEpisodeService {
         }
     }
 
-    public List<RatingEpisode> getRatedEpisodesBySerie(String serieId, String email) {
-        Long userId = userLookupService.getUserIdByEmail(email);
+    /**
+     * Avalia vários episódios de uma temporada com um único upsert e atualiza as estatísticas do usuário
+     * com os deltas somados. Episódios repetidos no pedido valem pela última ocorrência.
+     *
+     * @param request série, temporada e notas dos episódios.
+     * @param userId identificador do usuário.
+     * @return todas as avaliações do usuário na temporada, ordenadas por episódio.
+     */
+    @Transactional
+    public List<RatingEpisode> rateSeason(SeasonRatingRequestDTO request, Long userId) {
+        Map<Integer, EpisodeInput> inputs = new LinkedHashMap<>();
+        for (SeasonRatingRequestDTO.EpisodeRating episode : request.getEpisodes()) {
+            inputs.put(episode.getEpisodeNumber(), new EpisodeInput(episode.getEpisodeNumber(), episode.getRating(), episode.getComment()));
+        }
+
+        try {
+            upsertEpisodes(userId, request.getSerieId(), request.getSeasonNumber(), inputs.values());
+            return episodeRepository.findByUserIdAndSerieIdAndSeasonNumberOrderByEpisodeNumberAsc(
+                userId, request.getSerieId(), request.getSeasonNumber());
+        } catch (Exception e) {
+            logger.error("Erro ao salvar avaliações da temporada {} da série {}: {}",
+                request.getSeasonNumber(), request.getSerieId(), e.getMessage());
+            throw new MovieServiceException("Erro ao salvar avaliações da temporada: " + e.getMessage(), e);
+        }
+    }
+
+    public List<RatingEpisode> getRatedEpisodesBySerie(String serieId, Long userId) {
         return episodeRepository.findByUserIdAndSerieIdOrderBySeasonNumberAscEpisodeNumberAsc(userId, serieId);
     }
+
+    private List<RatingEpisode> upsertEpisodes(Long userId, String serieId, int seasonNumber, Collection<EpisodeInput> inputs) {
+        // Serializa as escritas do usuário na série: a nota anterior lida abaixo vale até o upsert
+        jdbcTemplate.query("SELECT pg_advisory_xact_lock(hashtext(?))", rs -> { }, "ratings_episodes:" + userId + ":" + serieId);
+
+        String placeholders = String.join(",", Collections.nCopies(inputs.size(), "?"));
+        List<Object> args = new ArrayList<>(inputs.size() + 3);
+        args.add(userId);
+        args.add(serieId);
+        args.add(seasonNumber);
+        inputs.forEach(input -> args.add(input.episodeNumber()));
+        Map<Integer, Double> previous = new HashMap<>();
+        jdbcTemplate.query(
+            "SELECT episode_number, rating FROM ratings_episodes " +
+            "WHERE user_id = ? AND serie_id = ? AND season_number = ? AND episode_number IN (" + placeholders + ")",
+            rs -> {
+                previous.put(rs.getInt("episode_number"), rs.getObject("rating", Double.class));
+            },
+            args.toArray());
+
+        RowMapper<RatingEpisode> mapper = (rs, rowNum) -> {
+            RatingEpisode episode = new RatingEpisode();
+            episode.setId(rs.getLong("id"));
+            episode.setUserId(userId);
+            episode.setSerieId(serieId);
+            episode.setSeasonNumber(seasonNumber);
+            episode.setEpisodeNumber(rs.getInt("episode_number"));
+            episode.setRating(rs.getObject("rating", Double.class));
+            episode.setComment(rs.getString("comment"));
+            episode.setCreatedAt(rs.getObject("created_at", LocalDateTime.class));
+            episode.setModifiedAt(rs.getObject("modified_at", LocalDateTime.class));
+            return episode;
+        };
+
+        // Sem o índice único válido o ON CONFLICT falha; a trava consultiva acima já impede duplicatas entre escritores
+        boolean upsert = uniqueIndex.isValid();
+        List<EpisodeInput> inserts = upsert ? new ArrayList<>(inputs)
+                : inputs.stream().filter(input -> !previous.containsKey(input.episodeNumber())).toList();
+        List<RatingEpisode> saved = new ArrayList<>(inputs.size());
+        if (!upsert) {
+            for (EpisodeInput input : inputs) {
+                if (previous.containsKey(input.episodeNumber())) {
+                    saved.addAll(jdbcTemplate.query(
+                        "UPDATE ratings_episodes SET rating = ?, comment = ?, modified_at = now() " +
+                        "WHERE user_id = ? AND serie_id = ? AND season_number = ? AND episode_number = ? " +
+                        "RETURNING id, episode_number, rating, comment, created_at, modified_at",
+                        mapper, input.rating(), input.comment(), userId, serieId, seasonNumber, input.episodeNumber()));
+                }
+            }
+        }
+
+        if (!inserts.isEmpty()) {
+            StringBuilder sql = new StringBuilder(
+                "INSERT INTO ratings_episodes (user_id, serie_id, season_number, episode_number, rating, comment, created_at, modified_at) VALUES ");
+            List<Object> upsertArgs = new ArrayList<>(inserts.size() * 6);
+            for (EpisodeInput input : inserts) {
+                sql.append(upsertArgs.isEmpty() ? "" : ", ").append("(?, ?, ?, ?, ?, ?, now(), now())");
+                upsertArgs.add(userId);
+                upsertArgs.add(serieId);
+                upsertArgs.add(seasonNumber);
+                upsertArgs.add(input.episodeNumber());
+                upsertArgs.add(input.rating());
+                upsertArgs.add(input.comment());
+            }
+            if (upsert) {
+                sql.append(" ON CONFLICT (user_id, serie_id, season_number, episode_number) DO UPDATE SET ")
+                   .append("rating = EXCLUDED.rating, comment = EXCLUDED.comment, modified_at = now()");
+            }
+            sql.append(" RETURNING id, episode_number, rating, comment, created_at, modified_at");
+            saved.addAll(jdbcTemplate.query(sql.toString(), mapper, upsertArgs.toArray()));
+        }
+
+        List<UserMediaStatsService.RatingChange> changes = new ArrayList<>(inputs.size());
+        for (EpisodeInput input : inputs) {
+            boolean created = !previous.containsKey(input.episodeNumber());
+            changes.add(new UserMediaStatsService.RatingChange(created, previous.get(input.episodeNumber()), input.rating()));
+        }
+        statsService.recordRatings(UserMediaStatsService.Media.EPISODE, userId, serieId, changes);
+        seasonScoreService.recordRatings(userId, serieId, seasonNumber, changes);
+        return saved;
+    }
 }
@@ -1,10 +1,13 @@
 package com.lucasm.lmsrating.service;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CompletableFuture;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -18,6 +21,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.lucasm.lmsrating.dto.CatalogSyncDTO;
+import com.lucasm.lmsrating.dto.CursorPageDTO;
 import com.lucasm.lmsrating.dto.RatingMovieResponseDTO;
 import com.lucasm.lmsrating.dto.RatingRequestDTO;
 import com.lucasm.lmsrating.dto.RatingStatusDTO;
@@ -34,23 +38,60 @@ public class RateMovieService {
     private final MovieRepository movieRepository;
     private final JdbcTemplate jdbcTemplate;
     private final RabbitMQProducer rabbitMQProducer;
-    private final UserLookupService userLookupService;
+    private final UserMediaStatsService statsService;
+    private final TitleRatingStatsService titleStatsService;
+    private final LeaderboardService leaderboardService;
+    private final TitleSearchIndex titleSearchIndex;
+    private final RatingWriteBehindBuffer writeBehindBuffer;
 
-    public RateMovieService(MovieRepository movieRepository, JdbcTemplate jdbcTemplate, RabbitMQProducer rabbitMQProducer, UserLookupService userLookupService) {
+    public RateMovieService(MovieRepository movieRepository, JdbcTemplate jdbcTemplate, RabbitMQProducer rabbitMQProducer,
+                            UserMediaStatsService statsService, TitleRatingStatsService titleStatsService,
+                            LeaderboardService leaderboardService, TitleSearchIndex titleSearchIndex,
+                            RatingWriteBehindBuffer writeBehindBuffer) {
         this.movieRepository = movieRepository;
         this.jdbcTemplate = jdbcTemplate;
         this.rabbitMQProducer = rabbitMQProducer;
-        this.userLookupService = userLookupService;
+        this.statsService = statsService;
+        this.titleStatsService = titleStatsService;
+        this.leaderboardService = leaderboardService;
+        this.titleSearchIndex = titleSearchIndex;
+        this.writeBehindBuffer = writeBehindBuffer;
+    }
+
+    /**
+     * Coloca a avaliação no buffer write-behind, quando habilitado, sem abrir transação: a gravação no banco,
+     * as estatísticas e a sincronização de catálogo ficam para o flush, que mantém apenas a última nota do par.
+     *
+     * @param request nota e metadados do filme.
+     * @param userId identificador do usuário.
+     * @return avaliação pendente, ou `null` quando o chamador deve usar {@link #rateMovie}.
+     */
+    public RatingMovie bufferRating(RatingRequestDTO request, Long userId) {
+        long now = System.currentTimeMillis();
+        RatingWriteBehindBuffer.PendingRating pending = new RatingWriteBehindBuffer.PendingRating(
+                request.getRating(), request.getComment(), request.getTitle(), request.getPoster_path(), now);
+        if (!writeBehindBuffer.buffer(UserMediaStatsService.Media.MOVIE, userId, request.getMovieId(), pending)) {
+            return null;
+        }
+        RatingMovie movie = new RatingMovie();
+        movie.setMovieId(request.getMovieId());
+        movie.setUserId(userId);
+        movie.setRating(pending.rating());
+        movie.setComment(pending.comment());
+        movie.setModifiedAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(now), ZoneId.systemDefault()));
+        return movie;
     }
 
     @Transactional
-    @CacheEvict(value = "userRatedMovies", key = "#email")
-    public RatingMovie rateMovie(RatingRequestDTO request, String email) {
+    @CacheEvict(value = "userRatedMovies", key = "#userId")
+    public RatingMovie rateMovie(RatingRequestDTO request, Long userId) {
         try {
-            Long userId = userLookupService.getUserIdByEmail(email);
-
+            // Trava do usuário antes de ler a nota anterior: edições concorrentes aplicam os deltas em sequência
+            statsService.lockUser(userId);
             RatingMovie movie = movieRepository.findByMovieIdAndUserId(request.getMovieId(), userId)
                 .orElse(new RatingMovie());
+            boolean created = movie.getId() == null;
+            Double previousRating = movie.getRating();
 
             movie.setMovieId(request.getMovieId());
             movie.setUserId(userId);
@@ -66,11 +107,11 @@ public class RateMovieService {
             );
 
             RatingMovie saved = movieRepository.save(movie);
+            statsService.recordRating(UserMediaStatsService.Media.MOVIE, userId, saved.getMovieId(), created, previousRating, saved.getRating());
+            TitleRatingStatsService.Totals totals = titleStatsService.recordRating(UserMediaStatsService.Media.MOVIE, saved.getMovieId(), created, previousRating, saved.getRating());
+            leaderboardService.scheduleUpdate(UserMediaStatsService.Media.MOVIE, saved.getMovieId(), totals);
 
-            String movieId = request.getMovieId();
-            CatalogSyncDTO syncDTO = new CatalogSyncDTO(movieId, request.getTitle(), request.getPoster_path());
-            CompletableFuture.runAsync(() -> rabbitMQProducer.sendMovieCatalogSync(syncDTO))
-                .exceptionally(e -> { logger.warn("Falha ao sincronizar catálogo para filme {}: {}", movieId, e.getMessage()); return null; });
+            rabbitMQProducer.sendMovieCatalogSync(new CatalogSyncDTO(request.getMovieId(), request.getTitle(), request.getPoster_path()));
 
             return saved;
 
@@ -79,25 +120,30 @@ public class RateMovieService {
         }
     }
 
-    @Cacheable(value = "userRatedMovies", key = "#email")
-    public List<RatingMovie> searchRatedMovies(String email) {
+    @Cacheable(value = "userRatedMovies", key = "#userId")
+    public List<RatingMovie> searchRatedMovies(Long userId) {
         try {
-            Long userId = userLookupService.getUserIdByEmail(email);
             List<RatingMovie> result = movieRepository.findAllByUserIdOrderByCreatedAtDesc(userId);
             return result.isEmpty() ? Collections.emptyList() : result;
         } catch (Exception e) {
-            logger.error("Erro ao buscar filmes avaliados para o usuário {}: {}", email, e.getMessage(), e);
+            logger.error("Erro ao buscar filmes avaliados para o usuário {}: {}", userId, e.getMessage(), e);
             throw new MovieServiceException("Erro ao buscar filmes avaliados: " + e.getMessage(), e);
         }
     }
 
-    public Page<RatingMovieResponseDTO> searchRatedMoviesPaged(String email, String title, Double minRating, Double maxRating, Pageable pageable) {
-        Long userId = userLookupService.getUserIdByEmail(email);
+    public Page<RatingMovieResponseDTO> searchRatedMoviesPaged(Long userId, String title, Double minRating, Double maxRating, Pageable pageable) {
         boolean hasTitle = title != null && !title.isBlank();
         boolean hasRange = minRating != null && maxRating != null;
 
         Page<RatingMovie> ratings;
-        if (hasTitle && hasRange) {
+        boolean indexedSearch = hasTitle && titleSearchIndex.isAvailable();
+        String pattern = indexedSearch ? TitleSearchIndex.escapeLike(title.trim()) : null;
+
+        if (indexedSearch && hasRange) {
+            ratings = movieRepository.searchByUserIdAndTitleAndRatingRange(userId, title.trim(), pattern, minRating, maxRating, pageable);
+        } else if (indexedSearch) {
+            ratings = movieRepository.searchByUserIdAndTitle(userId, title.trim(), pattern, pageable);
+        } else if (hasTitle && hasRange) {
             ratings = movieRepository.findByUserIdAndTitleAndRatingRange(userId, title, minRating, maxRating, pageable);
         } else if (hasTitle) {
             ratings = movieRepository.findByUserIdAndTitleContainingIgnoreCase(userId, title, pageable);
@@ -127,6 +173,86 @@ public class RateMovieService {
         });
     }
 
+    /**
+     * Lista avaliações de filmes por cursor, ordenadas por `(created_at DESC, id DESC)`: cada página continua
+     * exatamente de onde a anterior parou, sem `OFFSET` nem contagem por página.
+     *
+     * @param userId identificador do usuário.
+     * @param cursor token de continuação da página anterior; `null` na primeira página.
+     * @param size quantidade de itens por página.
+     * @param title filtro opcional por título.
+     * @param minRating nota mínima (opcional).
+     * @param maxRating nota máxima (opcional).
+     * @param includeTotal calcula o total de avaliações que atendem aos filtros.
+     * @return itens da página, cursor da próxima e, se pedido, o total.
+     * @throws IllegalArgumentException quando o cursor for inválido.
+     */
+    public CursorPageDTO<RatingMovieResponseDTO> searchRatedMoviesCursor(Long userId, String cursor, int size, String title,
+                                                                         Double minRating, Double maxRating, boolean includeTotal) {
+        RatingCursor after = RatingCursor.decode(cursor);
+        int pageSize = RatingCursor.clampSize(size);
+
+        List<Object> args = new ArrayList<>();
+        StringBuilder filters = new StringBuilder(" WHERE r.user_id = ?");
+        args.add(userId);
+        boolean hasTitle = title != null && !title.isBlank();
+        boolean hasRange = minRating != null && maxRating != null;
+        if (hasRange) {
+            filters.append(" AND r.rating BETWEEN ? AND ?");
+            args.add(minRating);
+            args.add(maxRating);
+        }
+        if (hasTitle && titleSearchIndex.isAvailable()) {
+            filters.append(" AND (lms_fold(c.title) LIKE '%' || lms_fold(?) || '%' OR lms_fold(?) <% lms_fold(c.title))");
+            args.add(TitleSearchIndex.escapeLike(title.trim()));
+            args.add(title.trim());
+        } else if (hasTitle) {
+            filters.append(" AND LOWER(c.title) LIKE LOWER(CONCAT('%', ?, '%'))");
+            args.add(title);
+        }
+        String from = " FROM ratings_movies r " + (hasTitle ? "JOIN" : "LEFT JOIN") + " movies c ON c.movie_id = r.movie_id";
+
+        Long total = null;
+        if (includeTotal) {
+            total = hasTitle || hasRange
+                    ? jdbcTemplate.queryForObject("SELECT COUNT(r.id)" + from + filters, Long.class, args.toArray())
+                    : countMovieRatings(userId);
+        }
+
+        StringBuilder sql = new StringBuilder(
+            "SELECT r.id, r.movie_id, r.rating, r.comment, r.created_at, r.modified_at, c.title, c.poster_path")
+            .append(from).append(filters);
+        if (after != null) {
+            after.appendAfter(sql, args);
+        }
+        sql.append(" ORDER BY r.created_at DESC, r.id DESC LIMIT ?");
+        args.add(pageSize + 1);
+
+        List<RatingMovieResponseDTO> items = jdbcTemplate.query(sql.toString(), (rs, rowNum) -> new RatingMovieResponseDTO(
+            rs.getLong("id"),
+            rs.getString("movie_id"),
+            rs.getString("title"),
+            rs.getString("poster_path"),
+            rs.getObject("rating", Double.class),
+            rs.getString("comment"),
+            rs.getObject("created_at", LocalDateTime.class),
+            rs.getObject("modified_at", LocalDateTime.class)
+        ), args.toArray());
+
+        String nextCursor = null;
+        if (items.size() > pageSize) {
+            items = items.subList(0, pageSize);
+            RatingMovieResponseDTO last = items.get(pageSize - 1);
+            nextCursor = new RatingCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new CursorPageDTO<>(items, nextCursor, total);
+    }
+
+    private long countMovieRatings(Long userId) {
+        List<Long> counts = jdbcTemplate.queryForList("SELECT movie_count FROM user_media_stats WHERE user_id = ?", Long.class, userId);
+        return counts.isEmpty() ? movieRepository.countByUserId(userId) : counts.get(0);
+    }
+
     private Map<String, CatalogEntry> loadCatalogBatch(List<String> movieIds) {
         if (movieIds.isEmpty()) return Map.of();
         String placeholders = String.join(",", Collections.nCopies(movieIds.size(), "?"));
@@ -143,21 +269,33 @@ public class RateMovieService {
 
     private record CatalogEntry(String title, String posterPath) {}
 
-    public RatingMovie getMovieRating(String movieId, String email) {
-        Long userId = userLookupService.getUserIdByEmail(email);
-        return movieRepository.findByMovieIdAndUserId(movieId, userId)
-            .orElseThrow(() -> new ResourceNotFoundException(
-                "Avaliação não encontrada para o filme " + movieId
-            ));
+    public RatingMovie getMovieRating(String movieId, Long userId) {
+        RatingWriteBehindBuffer.PendingRating pending = writeBehindBuffer.get(UserMediaStatsService.Media.MOVIE, userId, movieId);
+        RatingMovie movie = movieRepository.findByMovieIdAndUserId(movieId, userId).orElse(null);
+        if (pending != null) {
+            if (movie == null) {
+                movie = new RatingMovie();
+                movie.setMovieId(movieId);
+                movie.setUserId(userId);
+            }
+            movie.setRating(pending.rating());
+            movie.setComment(pending.comment());
+            movie.setModifiedAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(pending.bufferedAt()), ZoneId.systemDefault()));
+        }
+        if (movie == null) {
+            throw new ResourceNotFoundException("Avaliação não encontrada para o filme " + movieId);
+        }
+        return movie;
     }
 
-    public Map<String, RatingStatusDTO> getRatingStatusBatch(List<String> movieIds, String email) {
-        Long userId = userLookupService.getUserIdByEmail(email);
+    public Map<String, RatingStatusDTO> getRatingStatusBatch(List<String> movieIds, Long userId) {
         List<RatingMovie> ratings = movieRepository.findByUserIdAndMovieIdIn(userId, movieIds);
         Map<String, RatingStatusDTO> result = new HashMap<>();
         for (RatingMovie r : ratings) {
             result.put(r.getMovieId(), new RatingStatusDTO(String.valueOf(r.getRating()), r.getComment()));
         }
+        writeBehindBuffer.getAll(UserMediaStatsService.Media.MOVIE, userId, movieIds).forEach((id, pending) ->
+            result.put(id, new RatingStatusDTO(String.valueOf(pending.rating()), pending.comment())));
         return result;
     }
 }
@@ -1,10 +1,13 @@
 package com.lucasm.lmsrating.service;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CompletableFuture;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -18,6 +21,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.lucasm.lmsrating.dto.CatalogSyncDTO;
+import com.lucasm.lmsrating.dto.CursorPageDTO;
 import com.lucasm.lmsrating.dto.RatingSerieResponseDTO;
 import com.lucasm.lmsrating.dto.RatingStatusDTO;
 import com.lucasm.lmsrating.dto.SerieRatingRequestDTO;
@@ -34,23 +38,62 @@ public class RateSerieService {
     private final SerieRepository serieRepository;
     private final JdbcTemplate jdbcTemplate;
     private final RabbitMQProducer rabbitMQProducer;
-    private final UserLookupService userLookupService;
+    private final UserMediaStatsService statsService;
+    private final TitleRatingStatsService titleStatsService;
+    private final LeaderboardService leaderboardService;
+    private final TitleSearchIndex titleSearchIndex;
+    private final RatingWriteBehindBuffer writeBehindBuffer;
+    private final SeasonScoreService seasonScoreService;
 
-    public RateSerieService(SerieRepository serieRepository, JdbcTemplate jdbcTemplate, RabbitMQProducer rabbitMQProducer, UserLookupService userLookupService) {
+    public RateSerieService(SerieRepository serieRepository, JdbcTemplate jdbcTemplate, RabbitMQProducer rabbitMQProducer,
+                            UserMediaStatsService statsService, TitleRatingStatsService titleStatsService,
+                            LeaderboardService leaderboardService, TitleSearchIndex titleSearchIndex,
+                            SeasonScoreService seasonScoreService, RatingWriteBehindBuffer writeBehindBuffer) {
         this.serieRepository = serieRepository;
         this.jdbcTemplate = jdbcTemplate;
         this.rabbitMQProducer = rabbitMQProducer;
-        this.userLookupService = userLookupService;
+        this.statsService = statsService;
+        this.titleStatsService = titleStatsService;
+        this.leaderboardService = leaderboardService;
+        this.titleSearchIndex = titleSearchIndex;
+        this.writeBehindBuffer = writeBehindBuffer;
+        this.seasonScoreService = seasonScoreService;
+    }
+
+    /**
+     * Coloca a avaliação no buffer write-behind, quando habilitado, sem abrir transação: a gravação no banco,
+     * as estatísticas e a sincronização de catálogo ficam para o flush, que mantém apenas a última nota do par.
+     *
+     * @param request nota e metadados da série.
+     * @param userId identificador do usuário.
+     * @return avaliação pendente, ou `null` quando o chamador deve usar {@link #rateSerie}.
+     */
+    public RatingSerie bufferRating(SerieRatingRequestDTO request, Long userId) {
+        long now = System.currentTimeMillis();
+        RatingWriteBehindBuffer.PendingRating pending = new RatingWriteBehindBuffer.PendingRating(
+                request.getRating(), request.getComment(), request.getTitle(), request.getPoster_path(), now);
+        if (!writeBehindBuffer.buffer(UserMediaStatsService.Media.SERIE, userId, request.getSerieId(), pending)) {
+            return null;
+        }
+        RatingSerie serie = new RatingSerie();
+        serie.setSerieId(request.getSerieId());
+        serie.setUserId(userId);
+        serie.setRating(pending.rating());
+        serie.setComment(pending.comment());
+        serie.setModifiedAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(now), ZoneId.systemDefault()));
+        return serie;
     }
 
     @Transactional
-    @CacheEvict(value = "userRatedSeries", key = "#email")
-    public RatingSerie rateSerie(SerieRatingRequestDTO request, String email) {
+    @CacheEvict(value = "userRatedSeries", key = "#userId")
+    public RatingSerie rateSerie(SerieRatingRequestDTO request, Long userId) {
         try {
-            Long userId = userLookupService.getUserIdByEmail(email);
-
+            // Trava do usuário antes de ler a nota anterior: edições concorrentes aplicam os deltas em sequência
+            statsService.lockUser(userId);
             RatingSerie serie = serieRepository.findBySerieIdAndUserId(request.getSerieId(), userId)
                 .orElse(new RatingSerie());
+            boolean created = serie.getId() == null;
+            Double previousRating = serie.getRating();
 
             serie.setSerieId(request.getSerieId());
             serie.setUserId(userId);
@@ -66,11 +109,11 @@ public class RateSerieService {
             );
 
             RatingSerie saved = serieRepository.save(serie);
+            statsService.recordRating(UserMediaStatsService.Media.SERIE, userId, saved.getSerieId(), created, previousRating, saved.getRating());
+            TitleRatingStatsService.Totals totals = titleStatsService.recordRating(UserMediaStatsService.Media.SERIE, saved.getSerieId(), created, previousRating, saved.getRating());
+            leaderboardService.scheduleUpdate(UserMediaStatsService.Media.SERIE, saved.getSerieId(), totals);
 
-            String serieId = request.getSerieId();
-            CatalogSyncDTO syncDTO = new CatalogSyncDTO(serieId, request.getTitle(), request.getPoster_path());
-            CompletableFuture.runAsync(() -> rabbitMQProducer.sendSerieCatalogSync(syncDTO))
-                .exceptionally(e -> { logger.warn("Falha ao sincronizar catálogo para série {}: {}", serieId, e.getMessage()); return null; });
+            rabbitMQProducer.sendSerieCatalogSync(new CatalogSyncDTO(request.getSerieId(), request.getTitle(), request.getPoster_path()));
 
             return saved;
 
@@ -80,25 +123,30 @@ public class RateSerieService {
         }
     }
 
-    @Cacheable(value = "userRatedSeries", key = "#email")
-    public List<RatingSerie> searchRatedSeries(String email) {
+    @Cacheable(value = "userRatedSeries", key = "#userId")
+    public List<RatingSerie> searchRatedSeries(Long userId) {
         try {
-            Long userId = userLookupService.getUserIdByEmail(email);
             List<RatingSerie> result = serieRepository.findAllByUserIdOrderByCreatedAtDesc(userId);
             return result.isEmpty() ? Collections.emptyList() : result;
         } catch (Exception e) {
-            logger.error("Erro ao buscar séries avaliadas para o usuário {}: {}", email, e.getMessage(), e);
+            logger.error("Erro ao buscar séries avaliadas para o usuário {}: {}", userId, e.getMessage(), e);
             throw new MovieServiceException("Erro ao buscar séries avaliadas: " + e.getMessage(), e);
         }
     }
 
-    public Page<RatingSerieResponseDTO> searchRatedSeriesPaged(String email, String title, Double minRating, Double maxRating, Pageable pageable) {
-        Long userId = userLookupService.getUserIdByEmail(email);
+    public Page<RatingSerieResponseDTO> searchRatedSeriesPaged(Long userId, String title, Double minRating, Double maxRating, Pageable pageable) {
         boolean hasTitle = title != null && !title.isBlank();
         boolean hasRange = minRating != null && maxRating != null;
 
         Page<RatingSerie> ratings;
-        if (hasTitle && hasRange) {
+        boolean indexedSearch = hasTitle && titleSearchIndex.isAvailable();
+        String pattern = indexedSearch ? TitleSearchIndex.escapeLike(title.trim()) : null;
+
+        if (indexedSearch && hasRange) {
+            ratings = serieRepository.searchByUserIdAndTitleAndRatingRange(userId, title.trim(), pattern, minRating, maxRating, pageable);
+        } else if (indexedSearch) {
+            ratings = serieRepository.searchByUserIdAndTitle(userId, title.trim(), pattern, pageable);
+        } else if (hasTitle && hasRange) {
             ratings = serieRepository.findByUserIdAndTitleAndRatingRange(userId, title, minRating, maxRating, pageable);
         } else if (hasTitle) {
             ratings = serieRepository.findByUserIdAndTitleContainingIgnoreCase(userId, title, pageable);
@@ -113,7 +161,7 @@ public class RateSerieService {
         List<String> serieIds = ratings.getContent().stream().map(RatingSerie::getSerieId).toList();
         Map<String, CatalogEntry> catalog = loadCatalogBatch(serieIds);
 
-        return ratings.map(r -> {
+        Page<RatingSerieResponseDTO> page = ratings.map(r -> {
             CatalogEntry c = catalog.get(r.getSerieId());
             return new RatingSerieResponseDTO(
                 r.getId(),
@@ -126,6 +174,89 @@ public class RateSerieService {
                 r.getModifiedAt()
             );
         });
+        seasonScoreService.fillEpisodeScores(userId, page.getContent());
+        return page;
+    }
+
+    /**
+     * Lista avaliações de séries por cursor, ordenadas por `(created_at DESC, id DESC)`: cada página continua
+     * exatamente de onde a anterior parou, sem `OFFSET` nem contagem por página.
+     *
+     * @param userId identificador do usuário.
+     * @param cursor token de continuação da página anterior; `null` na primeira página.
+     * @param size quantidade de itens por página.
+     * @param title filtro opcional por título.
+     * @param minRating nota mínima (opcional).
+     * @param maxRating nota máxima (opcional).
+     * @param includeTotal calcula o total de avaliações que atendem aos filtros.
+     * @return itens da página, cursor da próxima e, se pedido, o total.
+     * @throws IllegalArgumentException quando o cursor for inválido.
+     */
+    public CursorPageDTO<RatingSerieResponseDTO> searchRatedSeriesCursor(Long userId, String cursor, int size, String title,
+                                                                         Double minRating, Double maxRating, boolean includeTotal) {
+        RatingCursor after = RatingCursor.decode(cursor);
+        int pageSize = RatingCursor.clampSize(size);
+
+        List<Object> args = new ArrayList<>();
+        StringBuilder filters = new StringBuilder(" WHERE r.user_id = ?");
+        args.add(userId);
+        boolean hasTitle = title != null && !title.isBlank();
+        boolean hasRange = minRating != null && maxRating != null;
+        if (hasRange) {
+            filters.append(" AND r.rating BETWEEN ? AND ?");
+            args.add(minRating);
+            args.add(maxRating);
+        }
+        if (hasTitle && titleSearchIndex.isAvailable()) {
+            filters.append(" AND (lms_fold(c.title) LIKE '%' || lms_fold(?) || '%' OR lms_fold(?) <% lms_fold(c.title))");
+            args.add(TitleSearchIndex.escapeLike(title.trim()));
+            args.add(title.trim());
+        } else if (hasTitle) {
+            filters.append(" AND LOWER(c.title) LIKE LOWER(CONCAT('%', ?, '%'))");
+            args.add(title);
+        }
+        String from = " FROM ratings_series r " + (hasTitle ? "JOIN" : "LEFT JOIN") + " series c ON c.serie_id = r.serie_id";
+
+        Long total = null;
+        if (includeTotal) {
+            total = hasTitle || hasRange
+                    ? jdbcTemplate.queryForObject("SELECT COUNT(r.id)" + from + filters, Long.class, args.toArray())
+                    : countSerieRatings(userId);
+        }
+
+        StringBuilder sql = new StringBuilder(
+            "SELECT r.id, r.serie_id, r.rating, r.comment, r.created_at, r.modified_at, c.title, c.poster_path")
+            .append(from).append(filters);
+        if (after != null) {
+            after.appendAfter(sql, args);
+        }
+        sql.append(" ORDER BY r.created_at DESC, r.id DESC LIMIT ?");
+        args.add(pageSize + 1);
+
+        List<RatingSerieResponseDTO> items = jdbcTemplate.query(sql.toString(), (rs, rowNum) -> new RatingSerieResponseDTO(
+            rs.getLong("id"),
+            rs.getString("serie_id"),
+            rs.getString("title"),
+            rs.getString("poster_path"),
+            rs.getObject("rating", Double.class),
+            rs.getString("comment"),
+            rs.getObject("created_at", LocalDateTime.class),
+            rs.getObject("modified_at", LocalDateTime.class)
+        ), args.toArray());
+
+        String nextCursor = null;
+        if (items.size() > pageSize) {
+            items = items.subList(0, pageSize);
+            RatingSerieResponseDTO last = items.get(pageSize - 1);
+            nextCursor = new RatingCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        seasonScoreService.fillEpisodeScores(userId, items);
+        return new CursorPageDTO<>(items, nextCursor, total);
+    }
+
+    private long countSerieRatings(Long userId) {
+        List<Long> counts = jdbcTemplate.queryForList("SELECT serie_count FROM user_media_stats WHERE user_id = ?", Long.class, userId);
+        return counts.isEmpty() ? serieRepository.countByUserId(userId) : counts.get(0);
     }
 
     private Map<String, CatalogEntry> loadCatalogBatch(List<String> serieIds) {
@@ -144,21 +275,33 @@ public class RateSerieService {
 
     private record CatalogEntry(String title, String posterPath) {}
 
-    public RatingSerie getSerieRating(String serieId, String email) {
-        Long userId = userLookupService.getUserIdByEmail(email);
-        return serieRepository.findBySerieIdAndUserId(serieId, userId)
-            .orElseThrow(() -> new ResourceNotFoundException(
-                "Avaliação não encontrada para a série " + serieId
-            ));
+    public RatingSerie getSerieRating(String serieId, Long userId) {
+        RatingWriteBehindBuffer.PendingRating pending = writeBehindBuffer.get(UserMediaStatsService.Media.SERIE, userId, serieId);
+        RatingSerie serie = serieRepository.findBySerieIdAndUserId(serieId, userId).orElse(null);
+        if (pending != null) {
+            if (serie == null) {
+                serie = new RatingSerie();
+                serie.setSerieId(serieId);
+                serie.setUserId(userId);
+            }
+            serie.setRating(pending.rating());
+            serie.setComment(pending.comment());
+            serie.setModifiedAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(pending.bufferedAt()), ZoneId.systemDefault()));
+        }
+        if (serie == null) {
+            throw new ResourceNotFoundException("Avaliação não encontrada para a série " + serieId);
+        }
+        return serie;
     }
 
-    public Map<String, RatingStatusDTO> getRatingStatusBatch(List<String> serieIds, String email) {
-        Long userId = userLookupService.getUserIdByEmail(email);
+    public Map<String, RatingStatusDTO> getRatingStatusBatch(List<String> serieIds, Long userId) {
         List<RatingSerie> ratings = serieRepository.findByUserIdAndSerieIdIn(userId, serieIds);
         Map<String, RatingStatusDTO> result = new HashMap<>();
         for (RatingSerie r : ratings) {
             result.put(r.getSerieId(), new RatingStatusDTO(String.valueOf(r.getRating()), r.getComment()));
         }
+        writeBehindBuffer.getAll(UserMediaStatsService.Media.SERIE, userId, serieIds).forEach((id, pending) ->
+            result.put(id, new RatingStatusDTO(String.valueOf(pending.rating()), pending.comment())));
         return result;
     }
 }
@@ -0,0 +1,77 @@
+package com.lucasm.lmsrating.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Posição opaca em uma listagem de avaliações ordenada por `(created_at DESC, id DESC)`.
+ * Avaliações antigas sem `created_at` vêm primeiro (NULLS FIRST do Postgres em ordem decrescente).
+ *
+ * @param createdAt data de criação da última avaliação entregue, ou `null`.
+ * @param id id da última avaliação entregue.
+ */
+record RatingCursor(LocalDateTime createdAt, long id) {
+
+    static final int MAX_PAGE_SIZE = 100;
+
+    /**
+     * Codifica o cursor como texto base64 url-safe.
+     *
+     * @return token de continuação.
+     */
+    String encode() {
+        String raw = (createdAt != null ? createdAt.toString() : "") + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Lê um token de continuação.
+     *
+     * @param token token recebido do cliente; `null` ou vazio para a primeira página.
+     * @return cursor decodificado, ou `null` na primeira página.
+     * @throws IllegalArgumentException quando o token for inválido.
+     */
+    static RatingCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            String createdAt = raw.substring(0, separator);
+            return new RatingCursor(createdAt.isEmpty() ? null : LocalDateTime.parse(createdAt), Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+    }
+
+    /**
+     * Acrescenta à consulta a condição "depois do cursor", compatível com o índice `(user_id, created_at DESC, id DESC)`.
+     *
+     * @param sql consulta em montagem, com a tabela de avaliações apelidada de `r`.
+     * @param args parâmetros da consulta.
+     */
+    void appendAfter(StringBuilder sql, List<Object> args) {
+        if (createdAt == null) {
+            sql.append(" AND (r.created_at IS NOT NULL OR r.id < ?)");
+            args.add(id);
+        } else {
+            sql.append(" AND (r.created_at, r.id) < (?, ?)");
+            args.add(createdAt);
+            args.add(id);
+        }
+    }
+
+    /**
+     * Limita o tamanho de página pedido pelo cliente.
+     *
+     * @param size tamanho solicitado.
+     * @return tamanho entre 1 e {@link #MAX_PAGE_SIZE}.
+     */
+    static int clampSize(int size) {
+        return Math.max(1, Math.min(MAX_PAGE_SIZE, size));
+    }
+}
@@ -0,0 +1,93 @@
+package com.lucasm.lmsrating.service;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Exporta o histórico completo de avaliações do usuário lendo por cursor JDBC (fetch size fixo, em transação
+ * somente leitura) e escrevendo cada linha direto na resposta; o uso de memória não depende do tamanho do histórico.
+ */
+@Service
+public class RatingExportService {
+
+    private static final List<String> COLUMNS = List.of(
+        "media", "title_id", "title", "season", "episode", "rating", "comment", "created_at", "modified_at");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+    private final int fetchSize;
+
+    public RatingExportService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, ObjectMapper objectMapper,
+                               @Value("${export.fetch-size:500}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Monta o corpo da exportação; a consulta só roda quando o Spring começa a escrever a resposta.
+     *
+     * @param userId identificador do usuário.
+     * @param media `movie`, `serie`, `episode` ou `all`.
+     * @param format formato de saída.
+     * @return corpo da resposta em streaming.
+     * @throws IllegalArgumentException quando a mídia for inválida.
+     */
+    public StreamingResponseBody export(Long userId, String media, ExportWriter.Format format) {
+        List<String> parts = new ArrayList<>();
+        boolean all = "all".equalsIgnoreCase(media);
+        if (all || "movie".equalsIgnoreCase(media)) {
+            parts.add("(SELECT 'movie' AS media, r.movie_id AS title_id, c.title, NULL::integer AS season, NULL::integer AS episode, " +
+                      "r.rating, r.comment, r.created_at, r.modified_at FROM ratings_movies r " +
+                      "LEFT JOIN movies c ON c.movie_id = r.movie_id WHERE r.user_id = ? ORDER BY r.created_at DESC, r.id DESC)");
+        }
+        if (all || "serie".equalsIgnoreCase(media)) {
+            parts.add("(SELECT 'serie', r.serie_id, c.title, NULL::integer, NULL::integer, " +
+                      "r.rating, r.comment, r.created_at, r.modified_at FROM ratings_series r " +
+                      "LEFT JOIN series c ON c.serie_id = r.serie_id WHERE r.user_id = ? ORDER BY r.created_at DESC, r.id DESC)");
+        }
+        if (all || "episode".equalsIgnoreCase(media)) {
+            parts.add("(SELECT 'episode', r.serie_id, c.title, r.season_number, r.episode_number, " +
+                      "r.rating, r.comment, r.created_at, r.modified_at FROM ratings_episodes r " +
+                      "LEFT JOIN series c ON c.serie_id = r.serie_id WHERE r.user_id = ? ORDER BY r.serie_id, r.season_number, r.episode_number)");
+        }
+        if (parts.isEmpty()) {
+            throw new IllegalArgumentException("Tipo de mídia inválido: " + media);
+        }
+        String sql = String.join(" UNION ALL ", parts);
+
+        return out -> {
+            try (ExportWriter writer = ExportWriter.open(format, out, objectMapper.getFactory(), COLUMNS)) {
+                // O driver do Postgres só usa cursor (fetch size) com autocommit desligado, daí a transação
+                readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(
+                    con -> {
+                        PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                        ps.setFetchSize(fetchSize);
+                        for (int i = 1; i <= parts.size(); i++) {
+                            ps.setLong(i, userId);
+                        }
+                        return ps;
+                    },
+                    rs -> {
+                        writer.row(rs.getString(1), rs.getString(2), rs.getString(3),
+                                rs.getObject(4), rs.getObject(5), rs.getObject(6), rs.getString(7),
+                                rs.getObject(8), rs.getObject(9));
+                    }));
+            }
+        };
+    }
+}
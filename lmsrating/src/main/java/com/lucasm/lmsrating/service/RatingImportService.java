@@ -0,0 +1,478 @@
+package com.lucasm.lmsrating.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.lucasm.lmsrating.dto.CatalogSyncDTO;
+import com.lucasm.lmsrating.dto.ImportJobDTO;
+
+import reactor.util.retry.Retry;
+
+/**
+ * Importa avaliações de filmes exportadas do Letterboxd ou do IMDb como job em segundo plano.
+ * O arquivo é lido em streaming e processado em lotes: cada lote resolve os títulos no TMDB com uma única chamada
+ * ao lmsfilmes e grava catálogo e avaliações com batch inserts do JDBC em uma transação, recalculando os agregados
+ * dos títulos afetados; as sincronizações de catálogo do lote entram no outbox na mesma transação.
+ * O progresso fica no hash `import:job:{id}` do Redis, e cada usuário tem no máximo uma importação em andamento.
+ */
+@Service
+public class RatingImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RatingImportService.class);
+
+    private static final String JOB_KEY_PREFIX = "import:job:";
+    private static final String USER_LOCK_PREFIX = "import:user:";
+    private static final Duration JOB_TTL = Duration.ofHours(24);
+    private static final Duration USER_LOCK_TTL = Duration.ofHours(1);
+    private static final int MAX_UNMATCHED_SAMPLE = 100;
+
+    private enum Source {
+        LETTERBOXD, IMDB;
+
+        static Source parse(String value) {
+            for (Source source : values()) {
+                if (source.name().equalsIgnoreCase(value)) {
+                    return source;
+                }
+            }
+            throw new IllegalArgumentException("Origem inválida: " + value + " (use 'letterboxd' ou 'imdb')");
+        }
+    }
+
+    record ImportRow(String imdbId, String title, Integer year, double rating, LocalDateTime ratedAt) {}
+
+    private record TitleLookup(String key, String imdbId, String title, Integer year) {}
+
+    private record ResolvedMovie(String id, String title, String poster_path) {}
+
+    private record Match(String movieId, String title, String posterPath, double rating, LocalDateTime ratedAt) {}
+
+    private record ExistingRating(long id, Double rating) {}
+
+    private static final class Progress {
+        long read;
+        long imported;
+        long updated;
+        long skipped;
+        long unmatched;
+        /** Algum lote já foi gravado (cada lote confirma a própria transação). */
+        boolean committed;
+
+        Map<String, String> toHash() {
+            return Map.of(
+                "read", String.valueOf(read),
+                "imported", String.valueOf(imported),
+                "updated", String.valueOf(updated),
+                "skipped", String.valueOf(skipped),
+                "unmatched", String.valueOf(unmatched));
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final StringRedisTemplate redisTemplate;
+    private final WebClient lmsFilmesWebClient;
+    private final RabbitMQProducer rabbitMQProducer;
+    private final TitleRatingStatsService titleStatsService;
+    private final LeaderboardService leaderboardService;
+    private final UserMediaStatsBackfill statsBackfill;
+    private final UserMediaStatsService statsService;
+    private final CacheManager cacheManager;
+    private final int batchSize;
+
+    public RatingImportService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate, StringRedisTemplate redisTemplate,
+                               @Qualifier("lmsFilmesWebClient") WebClient lmsFilmesWebClient, RabbitMQProducer rabbitMQProducer,
+                               TitleRatingStatsService titleStatsService, LeaderboardService leaderboardService,
+                               UserMediaStatsBackfill statsBackfill, UserMediaStatsService statsService, CacheManager cacheManager,
+                               @Value("${import.batch-size:100}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.redisTemplate = redisTemplate;
+        this.lmsFilmesWebClient = lmsFilmesWebClient;
+        this.rabbitMQProducer = rabbitMQProducer;
+        this.titleStatsService = titleStatsService;
+        this.leaderboardService = leaderboardService;
+        this.statsBackfill = statsBackfill;
+        this.statsService = statsService;
+        this.cacheManager = cacheManager;
+        this.batchSize = Math.max(1, Math.min(100, batchSize));
+    }
+
+    /**
+     * Salva o arquivo enviado e agenda a importação em segundo plano.
+     *
+     * @param userId identificador do usuário.
+     * @param source `letterboxd` ou `imdb`.
+     * @param file `ratings.csv` exportado da plataforma de origem.
+     * @param token token do usuário, repassado ao lmsfilmes na resolução dos títulos.
+     * @return job criado, ou `null` quando o usuário já tiver uma importação em andamento.
+     * @throws IllegalArgumentException quando a origem for inválida ou o arquivo estiver vazio.
+     */
+    public ImportJobDTO startImport(Long userId, String source, MultipartFile file, String token) {
+        Source parsed = Source.parse(source);
+        if (file == null || file.isEmpty()) {
+            throw new IllegalArgumentException("Arquivo de importação vazio");
+        }
+
+        String jobId = UUID.randomUUID().toString();
+        String lockKey = USER_LOCK_PREFIX + userId;
+        if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(lockKey, jobId, USER_LOCK_TTL))) {
+            return null;
+        }
+
+        Path upload;
+        try {
+            upload = Files.createTempFile("lms-import-", ".csv");
+            file.transferTo(upload);
+        } catch (IOException e) {
+            redisTemplate.delete(lockKey);
+            throw new UncheckedIOException("Erro ao salvar arquivo de importação", e);
+        }
+
+        String jobKey = JOB_KEY_PREFIX + jobId;
+        Map<String, String> job = new HashMap<>(new Progress().toHash());
+        job.put("userId", String.valueOf(userId));
+        job.put("source", parsed.name().toLowerCase(Locale.ROOT));
+        job.put("status", "QUEUED");
+        redisTemplate.opsForHash().putAll(jobKey, job);
+        redisTemplate.expire(jobKey, JOB_TTL);
+
+        Thread.ofVirtual().name("rating-import-" + jobId).start(() -> run(jobId, userId, parsed, upload, token));
+        return getJob(userId, jobId);
+    }
+
+    /**
+     * Situação de uma importação do usuário.
+     *
+     * @param userId identificador do usuário.
+     * @param jobId identificador do job.
+     * @return situação do job, ou `null` quando não existir (ou tiver expirado) ou pertencer a outro usuário.
+     */
+    public ImportJobDTO getJob(Long userId, String jobId) {
+        Map<Object, Object> job = redisTemplate.opsForHash().entries(JOB_KEY_PREFIX + jobId);
+        if (job.isEmpty() || !String.valueOf(userId).equals(job.get("userId"))) {
+            return null;
+        }
+        List<String> unmatchedTitles = redisTemplate.opsForList().range(JOB_KEY_PREFIX + jobId + ":unmatched", 0, -1);
+        return new ImportJobDTO(jobId, (String) job.get("source"), (String) job.get("status"),
+                counter(job, "read"), counter(job, "imported"), counter(job, "updated"),
+                counter(job, "skipped"), counter(job, "unmatched"),
+                unmatchedTitles != null && !unmatchedTitles.isEmpty() ? unmatchedTitles : null,
+                (String) job.get("error"));
+    }
+
+    private void run(String jobId, Long userId, Source source, Path upload, String token) {
+        String jobKey = JOB_KEY_PREFIX + jobId;
+        Progress progress = new Progress();
+        try (Reader reader = Files.newBufferedReader(upload, StandardCharsets.UTF_8)) {
+            redisTemplate.opsForHash().put(jobKey, "status", "RUNNING");
+
+            CsvRecordReader csv = new CsvRecordReader(reader);
+            Map<String, Integer> columns = header(csv.next());
+            List<ImportRow> batch = new ArrayList<>(batchSize);
+            List<String> record;
+            while ((record = csv.next()) != null) {
+                if (record.size() == 1 && record.get(0).isBlank()) {
+                    continue;
+                }
+                progress.read++;
+                ImportRow row = source == Source.LETTERBOXD ? parseLetterboxd(columns, record) : parseImdb(columns, record);
+                if (row == null) {
+                    progress.skipped++;
+                    continue;
+                }
+                batch.add(row);
+                if (batch.size() == batchSize) {
+                    processBatch(jobKey, userId, batch, progress, token);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                processBatch(jobKey, userId, batch, progress, token);
+            }
+
+            redisTemplate.opsForHash().putAll(jobKey, progress.toHash());
+            redisTemplate.opsForHash().put(jobKey, "status", "DONE");
+            logger.info("Importação {} do usuário {} concluída: {} novas, {} atualizadas, {} sem correspondência",
+                    jobId, userId, progress.imported, progress.updated, progress.unmatched);
+        } catch (Exception e) {
+            logger.error("Importação {} do usuário {} interrompida: {}", jobId, userId, e.getMessage(), e);
+            try {
+                redisTemplate.opsForHash().putAll(jobKey, progress.toHash());
+                redisTemplate.opsForHash().put(jobKey, "status", "FAILED");
+                redisTemplate.opsForHash().put(jobKey, "error", e instanceof IllegalArgumentException
+                        ? e.getMessage() : "Erro ao processar a importação");
+            } catch (Exception redisError) {
+                logger.warn("Falha ao registrar erro da importação {}: {}", jobId, redisError.getMessage());
+            }
+        } finally {
+            // Também quando a importação falha no meio: os lotes já confirmados precisam entrar nos agregados
+            if (progress.committed) {
+                try {
+                    statsBackfill.recomputeUser(userId);
+                    Cache cache = cacheManager.getCache("userRatedMovies");
+                    if (cache != null) {
+                        cache.evict(userId);
+                    }
+                } catch (Exception e) {
+                    logger.error("Falha ao recalcular agregados após a importação {} do usuário {}: {}", jobId, userId, e.getMessage(), e);
+                }
+            }
+            try {
+                Files.deleteIfExists(upload);
+            } catch (IOException e) {
+                logger.warn("Falha ao remover arquivo temporário {}: {}", upload, e.getMessage());
+            }
+            redisTemplate.delete(USER_LOCK_PREFIX + userId);
+        }
+    }
+
+    private void processBatch(String jobKey, Long userId, List<ImportRow> rows, Progress progress, String token) {
+        List<TitleLookup> lookups = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            ImportRow row = rows.get(i);
+            lookups.add(new TitleLookup(String.valueOf(i), row.imdbId(), row.title(), row.year()));
+        }
+        Map<String, ResolvedMovie> resolved = lmsFilmesWebClient.post()
+                .uri("/movies/resolve")
+                .headers(headers -> {
+                    if (token != null) {
+                        headers.setBearerAuth(token);
+                    }
+                })
+                .bodyValue(lookups)
+                .retrieve()
+                .bodyToMono(new ParameterizedTypeReference<Map<String, ResolvedMovie>>() {})
+                .timeout(Duration.ofSeconds(60))
+                .retryWhen(Retry.backoff(2, Duration.ofMillis(500)))
+                .block();
+
+        // Último registro do arquivo vence quando o mesmo filme aparece mais de uma vez
+        Map<String, Match> matches = new LinkedHashMap<>();
+        List<String> unmatched = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            ImportRow row = rows.get(i);
+            ResolvedMovie movie = resolved != null ? resolved.get(String.valueOf(i)) : null;
+            if (movie == null || movie.id() == null) {
+                unmatched.add(row.year() != null ? row.title() + " (" + row.year() + ")" : row.title());
+                continue;
+            }
+            matches.put(movie.id(), new Match(movie.id(), movie.title(), movie.poster_path(), row.rating(), row.ratedAt()));
+        }
+
+        if (!matches.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> writeBatch(userId, new ArrayList<>(matches.values()), progress));
+            progress.committed = true;
+        }
+        progress.skipped += rows.size() - unmatched.size() - matches.size();
+        progress.unmatched += unmatched.size();
+
+        if (!unmatched.isEmpty()) {
+            String unmatchedKey = jobKey + ":unmatched";
+            redisTemplate.opsForList().rightPushAll(unmatchedKey, unmatched);
+            redisTemplate.opsForList().trim(unmatchedKey, 0, MAX_UNMATCHED_SAMPLE - 1);
+            redisTemplate.expire(unmatchedKey, JOB_TTL);
+        }
+        redisTemplate.opsForHash().putAll(jobKey, progress.toHash());
+    }
+
+    private void writeBatch(Long userId, List<Match> matches, Progress progress) {
+        // Mesma ordem de travas da avaliação individual e do flush do write-behind: agregado do usuário, depois os títulos
+        statsService.lockUser(userId);
+
+        List<Match> catalog = matches.stream().sorted(Comparator.comparing(Match::movieId)).toList();
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO movies (movie_id, title, poster_path) VALUES (?, ?, ?) " +
+            "ON CONFLICT (movie_id) DO UPDATE SET " +
+            "title = COALESCE(EXCLUDED.title, movies.title), " +
+            "poster_path = COALESCE(EXCLUDED.poster_path, movies.poster_path)",
+            catalog, catalog.size(), (ps, match) -> {
+                ps.setString(1, match.movieId());
+                ps.setString(2, match.title());
+                ps.setString(3, match.posterPath());
+            });
+
+        String placeholders = String.join(",", Collections.nCopies(catalog.size(), "?"));
+        List<Object> args = new ArrayList<>(catalog.size() + 1);
+        args.add(userId);
+        catalog.forEach(match -> args.add(match.movieId()));
+        Map<String, ExistingRating> existing = new HashMap<>();
+        jdbcTemplate.query(
+            "SELECT id, movie_id, rating FROM ratings_movies WHERE user_id = ? AND movie_id IN (" + placeholders + ") FOR UPDATE",
+            rs -> {
+                existing.put(rs.getString("movie_id"), new ExistingRating(rs.getLong("id"), rs.getObject("rating", Double.class)));
+            },
+            args.toArray());
+
+        List<Match> inserts = new ArrayList<>();
+        List<Object[]> updates = new ArrayList<>();
+        List<String> changed = new ArrayList<>();
+        for (Match match : catalog) {
+            ExistingRating current = existing.get(match.movieId());
+            if (current == null) {
+                inserts.add(match);
+                changed.add(match.movieId());
+            } else if (current.rating() == null || current.rating() != match.rating()) {
+                updates.add(new Object[]{match.rating(), current.id()});
+                changed.add(match.movieId());
+            } else {
+                progress.skipped++;
+            }
+        }
+
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO ratings_movies (user_id, movie_id, rating, created_at, modified_at) VALUES (?, ?, ?, ?, ?)",
+            inserts, inserts.size(), (ps, match) -> {
+                ps.setLong(1, userId);
+                ps.setString(2, match.movieId());
+                ps.setDouble(3, match.rating());
+                ps.setObject(4, match.ratedAt());
+                ps.setObject(5, match.ratedAt());
+            });
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE ratings_movies SET rating = ?, modified_at = now() WHERE id = ?", updates);
+        }
+
+        Map<String, TitleRatingStatsService.Totals> totals = titleStatsService.recomputeTitles(UserMediaStatsService.Media.MOVIE, changed);
+        totals.forEach((movieId, total) -> leaderboardService.scheduleUpdate(UserMediaStatsService.Media.MOVIE, movieId, total));
+
+        rabbitMQProducer.sendMovieCatalogSyncs(catalog.stream()
+                .map(match -> new CatalogSyncDTO(match.movieId(), match.title(), match.posterPath()))
+                .toList());
+
+        progress.imported += inserts.size();
+        progress.updated += updates.size();
+    }
+
+    static Map<String, Integer> header(List<String> header) {
+        if (header == null) {
+            throw new IllegalArgumentException("Arquivo de importação sem cabeçalho");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT);
+            columns.putIfAbsent(name, i);
+        }
+        return columns;
+    }
+
+    /**
+     * Linha do `ratings.csv` do Letterboxd (`Date, Name, Year, Letterboxd URI, Rating`); notas de 0,5 a 5 estrelas.
+     */
+    static ImportRow parseLetterboxd(Map<String, Integer> columns, List<String> record) {
+        require(columns, "name", "rating");
+        String title = field(columns, record, "name");
+        Double stars = parseDouble(field(columns, record, "rating"));
+        if (title == null || stars == null) {
+            return null;
+        }
+        return new ImportRow(null, title, parseYear(field(columns, record, "year")), clampRating(stars * 2),
+                parseDate(field(columns, record, "date")));
+    }
+
+    /**
+     * Linha do `ratings.csv` do IMDb (`Const, Your Rating, Date Rated, Title, ..., Title Type, ..., Year`);
+     * apenas filmes, com notas de 1 a 10.
+     */
+    static ImportRow parseImdb(Map<String, Integer> columns, List<String> record) {
+        require(columns, "const", "your rating");
+        String type = field(columns, record, "title type");
+        if (type != null) {
+            String normalized = type.replace(" ", "").toLowerCase(Locale.ROOT);
+            if (!normalized.equals("movie") && !normalized.equals("tvmovie") && !normalized.equals("video")) {
+                return null;
+            }
+        }
+        String imdbId = field(columns, record, "const");
+        Double rating = parseDouble(field(columns, record, "your rating"));
+        if (imdbId == null || rating == null) {
+            return null;
+        }
+        return new ImportRow(imdbId, field(columns, record, "title"), parseYear(field(columns, record, "year")),
+                clampRating(rating), parseDate(field(columns, record, "date rated")));
+    }
+
+    private static void require(Map<String, Integer> columns, String... names) {
+        for (String name : names) {
+            if (!columns.containsKey(name)) {
+                throw new IllegalArgumentException("Coluna obrigatória ausente no arquivo: " + name);
+            }
+        }
+    }
+
+    private static String field(Map<String, Integer> columns, List<String> record, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static Double parseDouble(String value) {
+        if (value == null) return null;
+        try {
+            return Double.parseDouble(value.replace(',', '.'));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Integer parseYear(String value) {
+        if (value == null) return null;
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static LocalDateTime parseDate(String value) {
+        if (value == null) return LocalDateTime.now();
+        try {
+            return LocalDate.parse(value).atStartOfDay();
+        } catch (DateTimeParseException e) {
+            return LocalDateTime.now();
+        }
+    }
+
+    private static double clampRating(double rating) {
+        return Math.max(0.0, Math.min(10.0, Math.round(rating * 2) / 2.0));
+    }
+
+    private static long counter(Map<Object, Object> job, String field) {
+        Object value = job.get(field);
+        return value != null ? Long.parseLong((String) value) : 0L;
+    }
+}
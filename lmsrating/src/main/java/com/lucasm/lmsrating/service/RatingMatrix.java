@@ -0,0 +1,186 @@
+package com.lucasm.lmsrating.service;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Matriz esparsa usuário × título das avaliações de uma mídia em arrays primitivos (formato CSR por usuário e CSC por
+ * título), para os modelos de recomendação treinados em memória. Os títulos são indexados de 0 a `titleCount - 1`
+ * e os usuários de 0 a `userCount - 1`, na ordem de id.
+ */
+final class RatingMatrix {
+
+    final long[] userIds;
+    final String[] titleIds;
+    /** Início das avaliações de cada usuário em {@link #userItems}; tamanho `userCount + 1`. */
+    final int[] userOffsets;
+    final int[] userItems;
+    final float[] userValues;
+    /** Início das avaliações de cada título em {@link #itemUsers}; tamanho `titleCount + 1`. */
+    final int[] itemOffsets;
+    final int[] itemUsers;
+    final float[] itemValues;
+
+    private RatingMatrix(long[] userIds, String[] titleIds, int[] userOffsets, int[] userItems, float[] userValues) {
+        this.userIds = userIds;
+        this.titleIds = titleIds;
+        this.userOffsets = userOffsets;
+        this.userItems = userItems;
+        this.userValues = userValues;
+
+        int titles = titleIds.length;
+        int[] counts = new int[titles + 1];
+        for (int i = 0; i < userItems.length; i++) {
+            counts[userItems[i] + 1]++;
+        }
+        for (int t = 0; t < titles; t++) {
+            counts[t + 1] += counts[t];
+        }
+        this.itemOffsets = counts;
+        this.itemUsers = new int[userItems.length];
+        this.itemValues = new float[userItems.length];
+        fillColumns();
+    }
+
+    /**
+     * Subtrai de cada nota a média do usuário, nas duas orientações da matriz.
+     */
+    void centerByUserMean() {
+        for (int u = 0; u < userIds.length; u++) {
+            int from = userOffsets[u];
+            int to = userOffsets[u + 1];
+            double sum = 0;
+            for (int k = from; k < to; k++) {
+                sum += userValues[k];
+            }
+            float mean = (float) (sum / (to - from));
+            for (int k = from; k < to; k++) {
+                userValues[k] -= mean;
+            }
+        }
+        fillColumns();
+    }
+
+    // Percorre os usuários em ordem, então os usuários de cada título ficam ordenados por índice
+    private void fillColumns() {
+        int[] cursor = Arrays.copyOf(itemOffsets, titleIds.length);
+        for (int u = 0; u < userIds.length; u++) {
+            for (int k = userOffsets[u]; k < userOffsets[u + 1]; k++) {
+                int position = cursor[userItems[k]]++;
+                itemUsers[position] = u;
+                itemValues[position] = userValues[k];
+            }
+        }
+    }
+
+    int userCount() {
+        return userIds.length;
+    }
+
+    int titleCount() {
+        return titleIds.length;
+    }
+
+    int ratingCount() {
+        return userItems.length;
+    }
+
+    /**
+     * Lê as avaliações da mídia por cursor JDBC, mantendo apenas as `maxUserRatings` mais recentes de cada usuário.
+     *
+     * @param jdbcTemplate acesso ao banco.
+     * @param readOnlyTransaction transação somente leitura (o driver só usa cursor com autocommit desligado).
+     * @param media `MOVIE` ou `SERIE`.
+     * @param maxUserRatings limite de avaliações por usuário.
+     * @param fetchSize linhas por ida ao banco.
+     * @return matriz carregada.
+     */
+    static RatingMatrix load(JdbcTemplate jdbcTemplate, TransactionTemplate readOnlyTransaction,
+                             UserMediaStatsService.Media media, int maxUserRatings, int fetchSize) {
+        String sql = "SELECT user_id, " + media.titleColumn + " AS title_id, rating FROM " + media.table +
+                " WHERE rating IS NOT NULL ORDER BY user_id, created_at DESC, id DESC";
+
+        Map<String, Integer> titleIndex = new HashMap<>();
+        List<String> titles = new ArrayList<>();
+        Builder builder = new Builder();
+        readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(
+            con -> {
+                PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                ps.setFetchSize(fetchSize);
+                return ps;
+            },
+            rs -> {
+                long userId = rs.getLong(1);
+                if (builder.startsUser(userId)) {
+                    builder.beginUser(userId);
+                }
+                if (builder.currentUserRatings() >= maxUserRatings) {
+                    return;
+                }
+                Integer title = titleIndex.get(rs.getString(2));
+                if (title == null) {
+                    title = titles.size();
+                    titleIndex.put(rs.getString(2), title);
+                    titles.add(rs.getString(2));
+                }
+                builder.add(title, (float) rs.getDouble(3));
+            }));
+        return builder.build(titles.toArray(String[]::new));
+    }
+
+    /**
+     * Acumula as avaliações em arrays que crescem por dobra, sem objetos por avaliação.
+     */
+    private static final class Builder {
+        private long[] users = new long[1024];
+        private int[] offsets = new int[1025];
+        private int[] items = new int[16384];
+        private float[] values = new float[16384];
+        private int userCount;
+        private int size;
+        private long currentUser = Long.MIN_VALUE;
+
+        boolean startsUser(long userId) {
+            return userCount == 0 || userId != currentUser;
+        }
+
+        void beginUser(long userId) {
+            if (userCount == users.length) {
+                users = Arrays.copyOf(users, users.length * 2);
+                offsets = Arrays.copyOf(offsets, users.length + 1);
+            }
+            users[userCount] = userId;
+            offsets[userCount] = size;
+            userCount++;
+            currentUser = userId;
+        }
+
+        int currentUserRatings() {
+            return size - offsets[userCount - 1];
+        }
+
+        void add(int item, float value) {
+            if (size == items.length) {
+                items = Arrays.copyOf(items, items.length * 2);
+                values = Arrays.copyOf(values, values.length * 2);
+            }
+            items[size] = item;
+            values[size] = value;
+            size++;
+        }
+
+        RatingMatrix build(String[] titleIds) {
+            offsets[userCount] = size;
+            return new RatingMatrix(Arrays.copyOf(users, userCount), titleIds, Arrays.copyOf(offsets, userCount + 1),
+                    Arrays.copyOf(items, size), Arrays.copyOf(values, size));
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.lucasm.lmsrating.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.TreeSet;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Garante os índices únicos `uk_ratings_movies_user_movie` e `uk_ratings_series_user_serie`, uma avaliação por
+ * usuário e título. As escritas já são serializadas pela trava do usuário ({@link UserMediaStatsService#lockUser});
+ * o índice impede que um caminho sem a trava volte a duplicar linhas. O Hibernate cria as constraints em bancos sem
+ * duplicatas; quando a criação falha por avaliações repetidas de antes da trava, este job mantém a mais recente de cada
+ * par, cria o índice com `CONCURRENTLY` e recalcula as estatísticas dos usuários afetados (os agregados por título
+ * são corrigidos pelo `TitleRatingStatsReconciler`). Uma trava no Redis garante uma única instância por vez.
+ */
+@Component
+public class RatingUniqueIndexes {
+
+    private static final Logger logger = LoggerFactory.getLogger(RatingUniqueIndexes.class);
+
+    private static final String LOCK_KEY = "ratings:unique-indexes:lock";
+
+    private record UniqueIndex(String name, String table, String titleColumn) {}
+
+    private static final List<UniqueIndex> INDEXES = List.of(
+        new UniqueIndex("uk_ratings_movies_user_movie", "ratings_movies", "movie_id"),
+        new UniqueIndex("uk_ratings_series_user_serie", "ratings_series", "serie_id")
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StringRedisTemplate redisTemplate;
+    private final UserMediaStatsBackfill statsBackfill;
+
+    public RatingUniqueIndexes(JdbcTemplate jdbcTemplate, StringRedisTemplate redisTemplate, UserMediaStatsBackfill statsBackfill) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.redisTemplate = redisTemplate;
+        this.statsBackfill = statsBackfill;
+    }
+
+    /**
+     * Verifica os índices em segundo plano quando a aplicação termina de subir.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        Thread.ofVirtual().name("rating-unique-indexes").start(this::ensureIndexes);
+    }
+
+    private void ensureIndexes() {
+        try {
+            if (INDEXES.stream().allMatch(index -> isValid(index.name()))) {
+                return;
+            }
+            if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(LOCK_KEY, "1", Duration.ofHours(1)))) {
+                logger.info("Índices únicos de avaliações sendo criados por outra instância");
+                return;
+            }
+        } catch (DataAccessException e) {
+            logger.warn("Verificação dos índices únicos de avaliações não iniciada: {}", e.getMessage());
+            return;
+        }
+
+        try {
+            TreeSet<Long> affectedUsers = new TreeSet<>();
+            int removed = 0;
+            for (UniqueIndex index : INDEXES) {
+                if (isValid(index.name())) {
+                    continue;
+                }
+                List<Long> users = ensureIndex(index);
+                removed += users.size();
+                affectedUsers.addAll(users);
+            }
+            affectedUsers.forEach(statsBackfill::recomputeUser);
+            logger.info("Índices únicos de avaliações criados; {} avaliações duplicadas removidas de {} usuários",
+                    removed, affectedUsers.size());
+        } catch (DataAccessException e) {
+            logger.warn("Índices únicos de avaliações não criados: {}", e.getMessage());
+        } finally {
+            redisTemplate.delete(LOCK_KEY);
+        }
+    }
+
+    private List<Long> ensureIndex(UniqueIndex index) {
+        // Mesmo tratamento do índice de episódios: um índice inválido só é removido se nenhum backend o estiver construindo
+        jdbcTemplate.execute(
+            "DO $$ BEGIN " +
+            "IF EXISTS (SELECT 1 FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid " +
+            "WHERE c.relname = '" + index.name() + "' AND NOT i.indisvalid " +
+            "AND NOT EXISTS (SELECT 1 FROM pg_stat_progress_create_index p WHERE p.index_relid = c.oid)) THEN " +
+            "DROP INDEX IF EXISTS " + index.name() + "; END IF; END $$");
+
+        List<Long> affectedUsers = jdbcTemplate.queryForList(
+            "DELETE FROM " + index.table() + " r USING (" +
+            "SELECT id, row_number() OVER (PARTITION BY user_id, " + index.titleColumn() + " " +
+            "ORDER BY COALESCE(modified_at, created_at) DESC NULLS LAST, id DESC) AS position FROM " + index.table() +
+            ") d WHERE r.id = d.id AND d.position > 1 RETURNING r.user_id",
+            Long.class);
+
+        jdbcTemplate.execute("CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS " + index.name() +
+            " ON " + index.table() + " (user_id, " + index.titleColumn() + ")");
+        return affectedUsers;
+    }
+
+    private boolean isValid(String indexName) {
+        Boolean valid = jdbcTemplate.queryForObject(
+            "SELECT bool_and(i.indisvalid) FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid WHERE c.relname = ?",
+            Boolean.class, indexName);
+        return Boolean.TRUE.equals(valid);
+    }
+}
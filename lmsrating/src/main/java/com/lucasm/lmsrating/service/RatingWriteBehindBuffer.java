@@ -0,0 +1,374 @@
+package com.lucasm.lmsrating.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisException;
+import io.lettuce.core.ScriptOutputType;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.sync.RedisCommands;
+import io.lettuce.core.codec.ByteArrayCodec;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Buffer write-behind das avaliações de filmes e séries no Redis, para coalescer edições em rajada (o slider da nota
+ * dispara várias chamadas por segundo): cada par usuário/título guarda apenas a última nota em um hash, e um sorted set
+ * registra quando o par entrou no buffer. O {@code RatingWriteBehindFlusher} grava em lote os pares cujo prazo venceu,
+ * garantindo que nenhuma nota fique mais de `ratings.write-behind.max-delay-ms` sem ir para o banco.
+ * Pares em gravação ficam em um hash separado até o commit, para que uma queda do flusher não perca a nota
+ * e para que as leituras continuem vendo o valor enquanto ele é persistido.
+ * Modos (`ratings.write-behind.mode`): `off` grava sempre de forma síncrona, `async` confirma após a escrita no Redis
+ * e `replicated` confirma apenas após `ratings.write-behind.replicas` réplicas do Redis receberem a escrita
+ * (caso contrário, a avaliação é gravada de forma síncrona). O `WAIT` bloqueia a conexão que o emite, então o modo
+ * `replicated` usa um pequeno pool de conexões próprias (`ratings.write-behind.replica-connections`), fora da conexão
+ * compartilhada do Lettuce usada por caches, travas e rankings.
+ */
+@Service
+public class RatingWriteBehindBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(RatingWriteBehindBuffer.class);
+
+    private static final String KEY_PREFIX = "rating:wb:";
+
+    /**
+     * Última nota de um par usuário/título ainda não persistida.
+     *
+     * @param rating nota.
+     * @param comment comentário.
+     * @param title título enviado pelo cliente, para o upsert do catálogo.
+     * @param posterPath pôster enviado pelo cliente.
+     * @param bufferedAt instante da escrita, em epoch millis.
+     */
+    public record PendingRating(Double rating, String comment, String title, String posterPath, long bufferedAt) {}
+
+    /**
+     * Nota pendente retirada do buffer para gravação.
+     *
+     * @param userId identificador do usuário.
+     * @param titleId id do filme ou da série.
+     * @param rating última nota do par.
+     */
+    public record BufferedEntry(Long userId, String titleId, PendingRating rating) {}
+
+    // Grava a nota e registra o prazo apenas na primeira escrita do par: edições seguintes não adiam o flush
+    private static final String ENQUEUE_SCRIPT =
+            "redis.call('HSET', KEYS[1], ARGV[1], ARGV[2]) " +
+            "redis.call('ZADD', KEYS[2], 'NX', ARGV[3], ARGV[1]) " +
+            "return 1";
+
+    private static final DefaultRedisScript<List> CLAIM_SCRIPT = new DefaultRedisScript<>(
+            "local fields = redis.call('ZRANGEBYSCORE', KEYS[2], '-inf', ARGV[1], 'LIMIT', 0, tonumber(ARGV[2])) " +
+            "local out = {} " +
+            "for _, field in ipairs(fields) do " +
+            "  local value = redis.call('HGET', KEYS[1], field) " +
+            "  redis.call('ZREM', KEYS[2], field) " +
+            "  if value then " +
+            "    redis.call('HDEL', KEYS[1], field) " +
+            "    redis.call('HSET', KEYS[3], field, value) " +
+            "    table.insert(out, field) " +
+            "    table.insert(out, value) " +
+            "  end " +
+            "end " +
+            "return out",
+            List.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisConnectionFactory connectionFactory;
+    private final ObjectMapper objectMapper;
+    private final String mode;
+    private final int replicas;
+    private final long replicaTimeoutMs;
+    private final int maxReplicaConnections;
+    private final BlockingQueue<StatefulRedisConnection<byte[], byte[]>> idleConnections;
+    private final AtomicInteger openConnections = new AtomicInteger();
+
+    public RatingWriteBehindBuffer(StringRedisTemplate redisTemplate, RedisConnectionFactory connectionFactory, ObjectMapper objectMapper,
+                                   @Value("${ratings.write-behind.mode:off}") String mode,
+                                   @Value("${ratings.write-behind.replicas:1}") int replicas,
+                                   @Value("${ratings.write-behind.replica-timeout-ms:50}") long replicaTimeoutMs,
+                                   @Value("${ratings.write-behind.replica-connections:4}") int replicaConnections) {
+        this.redisTemplate = redisTemplate;
+        this.connectionFactory = connectionFactory;
+        this.objectMapper = objectMapper;
+        this.mode = mode;
+        this.replicas = replicas;
+        this.replicaTimeoutMs = replicaTimeoutMs;
+        this.maxReplicaConnections = Math.max(1, replicaConnections);
+        this.idleConnections = new ArrayBlockingQueue<>(this.maxReplicaConnections);
+    }
+
+    /**
+     * @return `true` quando as avaliações passam pelo buffer.
+     */
+    public boolean isEnabled() {
+        return !"off".equalsIgnoreCase(mode);
+    }
+
+    /**
+     * Coloca a nota no buffer, substituindo a anterior do mesmo par.
+     *
+     * @param media `MOVIE` ou `SERIE`.
+     * @param userId identificador do usuário.
+     * @param titleId id do filme ou da série.
+     * @param rating nota pendente.
+     * @return `true` quando a nota está no buffer com a durabilidade configurada; `false` quando o chamador deve
+     *         gravá-la de forma síncrona (modo `off`, Redis indisponível ou réplicas insuficientes).
+     */
+    public boolean buffer(UserMediaStatsService.Media media, Long userId, String titleId, PendingRating rating) {
+        if (!isEnabled()) {
+            return false;
+        }
+        byte[][] keysAndArgs = {
+                bytes(pendingKey(media)), bytes(dueKey(media)),
+                bytes(field(userId, titleId)), bytes(serialize(rating)), bytes(String.valueOf(rating.bufferedAt()))
+        };
+        if ("replicated".equalsIgnoreCase(mode)) {
+            long acknowledged = enqueueReplicated(keysAndArgs);
+            if (acknowledged < replicas) {
+                log.debug("Nota de {} {} do usuário {} confirmada por {} réplicas; gravando de forma síncrona",
+                        media.key(), titleId, userId, acknowledged);
+                return false;
+            }
+            return true;
+        }
+        try {
+            redisTemplate.execute((RedisCallback<Object>) connection ->
+                    connection.scriptingCommands().eval(bytes(ENQUEUE_SCRIPT), ReturnType.INTEGER, 2, keysAndArgs));
+            return true;
+        } catch (DataAccessException e) {
+            log.warn("Buffer write-behind indisponível, gravando de forma síncrona: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    // WAIT vale para as escritas da própria conexão: script e WAIT rodam na mesma conexão dedicada
+    private long enqueueReplicated(byte[][] keysAndArgs) {
+        StatefulRedisConnection<byte[], byte[]> connection = borrowConnection();
+        if (connection == null) {
+            return 0L;
+        }
+        boolean healthy = false;
+        try {
+            RedisCommands<byte[], byte[]> commands = connection.sync();
+            commands.eval(ENQUEUE_SCRIPT, ScriptOutputType.INTEGER,
+                    new byte[][]{keysAndArgs[0], keysAndArgs[1]}, keysAndArgs[2], keysAndArgs[3], keysAndArgs[4]);
+            Long acknowledged = commands.waitForReplication(replicas, replicaTimeoutMs);
+            healthy = true;
+            return acknowledged != null ? acknowledged : 0L;
+        } catch (RedisException e) {
+            log.warn("Buffer write-behind indisponível, gravando de forma síncrona: {}", e.getMessage());
+            return 0L;
+        } finally {
+            releaseConnection(connection, healthy);
+        }
+    }
+
+    private StatefulRedisConnection<byte[], byte[]> borrowConnection() {
+        StatefulRedisConnection<byte[], byte[]> connection = idleConnections.poll();
+        if (connection != null) {
+            return connection;
+        }
+        if (openConnections.incrementAndGet() <= maxReplicaConnections) {
+            try {
+                if (connectionFactory instanceof LettuceConnectionFactory lettuce
+                        && lettuce.getNativeClient() instanceof RedisClient client) {
+                    return client.connect(ByteArrayCodec.INSTANCE);
+                }
+                log.warn("Modo replicated do write-behind exige Redis standalone com Lettuce; gravando de forma síncrona");
+            } catch (RedisException e) {
+                log.warn("Falha ao abrir conexão dedicada do write-behind: {}", e.getMessage());
+            }
+            openConnections.decrementAndGet();
+            return null;
+        }
+        openConnections.decrementAndGet();
+        try {
+            return idleConnections.poll(replicaTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private void releaseConnection(StatefulRedisConnection<byte[], byte[]> connection, boolean healthy) {
+        if (healthy && idleConnections.offer(connection)) {
+            return;
+        }
+        openConnections.decrementAndGet();
+        connection.closeAsync();
+    }
+
+    /**
+     * Fecha as conexões dedicadas do modo `replicated`.
+     */
+    @PreDestroy
+    public void close() {
+        StatefulRedisConnection<byte[], byte[]> connection;
+        while ((connection = idleConnections.poll()) != null) {
+            connection.close();
+        }
+    }
+
+    /**
+     * Nota pendente do par, incluindo a que está sendo gravada pelo flusher.
+     *
+     * @param media `MOVIE` ou `SERIE`.
+     * @param userId identificador do usuário.
+     * @param titleId id do filme ou da série.
+     * @return nota pendente, ou `null` quando o banco já tem a última nota.
+     */
+    public PendingRating get(UserMediaStatsService.Media media, Long userId, String titleId) {
+        return getAll(media, userId, List.of(titleId)).get(titleId);
+    }
+
+    /**
+     * Notas pendentes de um lote de títulos do usuário.
+     *
+     * @param media `MOVIE` ou `SERIE`.
+     * @param userId identificador do usuário.
+     * @param titleIds ids dos títulos.
+     * @return mapa de id → nota pendente, apenas para os títulos com nota no buffer.
+     */
+    public Map<String, PendingRating> getAll(UserMediaStatsService.Media media, Long userId, List<String> titleIds) {
+        if (!isEnabled() || titleIds.isEmpty()) {
+            return Map.of();
+        }
+        List<Object> fields = new ArrayList<>(titleIds.size());
+        titleIds.forEach(titleId -> fields.add(field(userId, titleId)));
+        try {
+            List<Object> pending = redisTemplate.opsForHash().multiGet(pendingKey(media), fields);
+            List<Object> inFlight = redisTemplate.opsForHash().multiGet(inFlightKey(media), fields);
+            Map<String, PendingRating> result = new HashMap<>();
+            for (int i = 0; i < titleIds.size(); i++) {
+                Object value = pending.get(i) != null ? pending.get(i) : inFlight.get(i);
+                if (value != null) {
+                    result.put(titleIds.get(i), deserialize((String) value));
+                }
+            }
+            return result;
+        } catch (DataAccessException e) {
+            log.warn("Buffer write-behind indisponível na leitura: {}", e.getMessage());
+            return Map.of();
+        }
+    }
+
+    /**
+     * Move para o hash de gravação as notas cujo prazo de coalescência venceu.
+     *
+     * @param media `MOVIE` ou `SERIE`.
+     * @param bufferedBefore retira os pares que entraram no buffer até este instante, em epoch millis.
+     * @param limit quantidade máxima de pares.
+     * @return notas retiradas, em ordem de entrada no buffer.
+     */
+    @SuppressWarnings("unchecked")
+    public List<BufferedEntry> claimDue(UserMediaStatsService.Media media, long bufferedBefore, int limit) {
+        List<String> result = redisTemplate.execute(CLAIM_SCRIPT,
+                List.of(pendingKey(media), dueKey(media), inFlightKey(media)),
+                String.valueOf(bufferedBefore), String.valueOf(limit));
+        return toEntries(result);
+    }
+
+    /**
+     * Notas que ficaram no hash de gravação, por falha do banco ou queda do flusher antes do commit.
+     *
+     * @param media `MOVIE` ou `SERIE`.
+     * @return notas a regravar.
+     */
+    public List<BufferedEntry> inFlight(UserMediaStatsService.Media media) {
+        Map<Object, Object> values = redisTemplate.opsForHash().entries(inFlightKey(media));
+        List<String> flat = new ArrayList<>(values.size() * 2);
+        values.forEach((field, value) -> {
+            flat.add((String) field);
+            flat.add((String) value);
+        });
+        return toEntries(flat);
+    }
+
+    /**
+     * Remove do hash de gravação as notas já persistidas.
+     *
+     * @param media `MOVIE` ou `SERIE`.
+     * @param entries notas gravadas no banco.
+     */
+    public void acknowledge(UserMediaStatsService.Media media, List<BufferedEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        Object[] fields = entries.stream().map(entry -> field(entry.userId(), entry.titleId())).toArray();
+        redisTemplate.opsForHash().delete(inFlightKey(media), fields);
+    }
+
+    private List<BufferedEntry> toEntries(List<String> flat) {
+        if (flat == null || flat.isEmpty()) {
+            return List.of();
+        }
+        Map<String, BufferedEntry> entries = new LinkedHashMap<>();
+        for (int i = 0; i + 1 < flat.size(); i += 2) {
+            String field = flat.get(i);
+            int separator = field.indexOf(':');
+            entries.put(field, new BufferedEntry(Long.valueOf(field.substring(0, separator)), field.substring(separator + 1),
+                    deserialize(flat.get(i + 1))));
+        }
+        return new ArrayList<>(entries.values());
+    }
+
+    private String serialize(PendingRating rating) {
+        try {
+            return objectMapper.writeValueAsString(rating);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao serializar avaliação pendente", e);
+        }
+    }
+
+    private PendingRating deserialize(String value) {
+        try {
+            return objectMapper.readValue(value, PendingRating.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Avaliação pendente inválida no buffer", e);
+        }
+    }
+
+    private static String field(Long userId, String titleId) {
+        return userId + ":" + titleId;
+    }
+
+    private static String pendingKey(UserMediaStatsService.Media media) {
+        return KEY_PREFIX + media.key() + ":pending";
+    }
+
+    private static String dueKey(UserMediaStatsService.Media media) {
+        return KEY_PREFIX + media.key() + ":due";
+    }
+
+    private static String inFlightKey(UserMediaStatsService.Media media) {
+        return KEY_PREFIX + media.key() + ":inflight";
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
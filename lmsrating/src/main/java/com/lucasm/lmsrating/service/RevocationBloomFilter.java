@@ -0,0 +1,109 @@
+package com.lucasm.lmsrating.service;
+
+/**
+ * Filtro de Bloom imutável usado como pré-checagem da lista de revogação.
+ * Uma resposta negativa é definitiva; uma positiva precisa ser confirmada no conjunto exato.
+ * Novas entradas geram uma cópia, permitindo leitura sem locks nem alocações.
+ */
+final class RevocationBloomFilter {
+
+    private static final int HASH_FUNCTIONS = 4;
+
+    private final long[] words;
+    private final int mask;
+
+    /**
+     * Cria um filtro vazio com a quantidade de bits informada (arredondada para potência de dois).
+     *
+     * @param bitCount quantidade de bits do filtro.
+     */
+    RevocationBloomFilter(int bitCount) {
+        int size = Integer.highestOneBit(Math.max(64, bitCount - 1)) << 1;
+        this.words = new long[size >>> 6];
+        this.mask = size - 1;
+    }
+
+    private RevocationBloomFilter(long[] words, int mask) {
+        this.words = words;
+        this.mask = mask;
+    }
+
+    /**
+     * Retorna uma cópia do filtro contendo também o hash informado.
+     *
+     * @param hash hash de 64 bits do elemento.
+     * @return novo filtro.
+     */
+    RevocationBloomFilter with(long hash) {
+        RevocationBloomFilter copy = new RevocationBloomFilter(words.clone(), mask);
+        copy.set(hash);
+        return copy;
+    }
+
+    /**
+     * Retorna um filtro vazio com as mesmas dimensões.
+     *
+     * @return novo filtro vazio.
+     */
+    RevocationBloomFilter empty() {
+        return new RevocationBloomFilter(new long[words.length], mask);
+    }
+
+    /**
+     * Marca o hash no próprio filtro; usado apenas durante a reconstrução, antes da publicação.
+     *
+     * @param hash hash de 64 bits do elemento.
+     */
+    void set(long hash) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < HASH_FUNCTIONS; i++) {
+            int bit = (h1 + i * h2) & mask;
+            words[bit >>> 6] |= 1L << bit;
+        }
+    }
+
+    /**
+     * Indica se o elemento pode estar no filtro.
+     *
+     * @param hash hash de 64 bits do elemento.
+     * @return `false` quando o elemento certamente não foi adicionado.
+     */
+    boolean mightContain(long hash) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < HASH_FUNCTIONS; i++) {
+            int bit = (h1 + i * h2) & mask;
+            if ((words[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Hash de 64 bits de uma string, reaproveitando o `hashCode` já cacheado pela JVM.
+     *
+     * @param value valor de origem.
+     * @return hash espalhado em 64 bits.
+     */
+    static long hash(String value) {
+        return mix(value.hashCode());
+    }
+
+    /**
+     * Espalha um valor em 64 bits (finalizador do MurmurHash3).
+     *
+     * @param value valor de origem.
+     * @return hash espalhado.
+     */
+    static long mix(long value) {
+        long h = value;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,118 @@
+package com.lucasm.lmsrating.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.lucasm.lmsrating.dto.RatingSerieResponseDTO;
+import com.lucasm.lmsrating.dto.SeasonScoreDTO;
+
+/**
+ * Mantém e serve a nota derivada das séries a partir das avaliações de episódios (`user_season_stats`):
+ * cada avaliação de episódio soma contagem e nota na linha da temporada, sem reler os demais episódios.
+ */
+@Service
+public class SeasonScoreService {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SeasonScoreService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Aplica à temporada as avaliações de episódios criadas ou editadas, em uma única escrita.
+     * Deve ser chamado dentro da transação que grava as avaliações.
+     *
+     * @param userId identificador do usuário.
+     * @param serieId id da série.
+     * @param seasonNumber número da temporada.
+     * @param changes avaliações criadas ou editadas.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordRatings(Long userId, String serieId, int seasonNumber, List<UserMediaStatsService.RatingChange> changes) {
+        int createdCount = 0;
+        double sumDelta = 0.0;
+        for (UserMediaStatsService.RatingChange change : changes) {
+            if (change.created()) {
+                createdCount++;
+            }
+            sumDelta += valueOf(change.rating()) - (change.created() ? 0.0 : valueOf(change.previousRating()));
+        }
+        if (createdCount == 0 && sumDelta == 0.0) {
+            return;
+        }
+
+        jdbcTemplate.update(
+            "INSERT INTO user_season_stats (user_id, serie_id, season_number, episode_count, rating_sum) VALUES (?, ?, ?, ?, ?) " +
+            "ON CONFLICT (user_id, serie_id, season_number) DO UPDATE SET " +
+            "episode_count = user_season_stats.episode_count + EXCLUDED.episode_count, " +
+            "rating_sum = user_season_stats.rating_sum + EXCLUDED.rating_sum",
+            userId, serieId, seasonNumber, createdCount, sumDelta);
+    }
+
+    /**
+     * Médias por temporada de um lote de séries do usuário, em uma única consulta.
+     *
+     * @param userId identificador do usuário.
+     * @param serieIds ids das séries.
+     * @return mapa de id → temporadas com episódios avaliados, ordenadas por número; séries sem episódios são omitidas.
+     */
+    public Map<String, List<SeasonScoreDTO>> getSeasonScores(Long userId, List<String> serieIds) {
+        if (serieIds.isEmpty()) return Map.of();
+        String placeholders = String.join(",", Collections.nCopies(serieIds.size(), "?"));
+        List<Object> args = new ArrayList<>(serieIds.size() + 1);
+        args.add(userId);
+        args.addAll(serieIds);
+
+        Map<String, List<SeasonScoreDTO>> result = new HashMap<>();
+        jdbcTemplate.query(
+            "SELECT serie_id, season_number, episode_count, rating_sum FROM user_season_stats " +
+            "WHERE user_id = ? AND serie_id IN (" + placeholders + ") AND episode_count > 0 ORDER BY serie_id, season_number",
+            rs -> {
+                long count = rs.getLong("episode_count");
+                result.computeIfAbsent(rs.getString("serie_id"), id -> new ArrayList<>())
+                      .add(new SeasonScoreDTO(rs.getInt("season_number"), count, rs.getDouble("rating_sum") / count));
+            },
+            args.toArray());
+        return result;
+    }
+
+    /**
+     * Preenche nota derivada, quantidade de episódios e médias por temporada de uma página de avaliações de séries.
+     *
+     * @param userId identificador do usuário.
+     * @param items avaliações da página.
+     */
+    public void fillEpisodeScores(Long userId, List<RatingSerieResponseDTO> items) {
+        if (items.isEmpty()) return;
+        Map<String, List<SeasonScoreDTO>> scores = getSeasonScores(userId,
+                items.stream().map(RatingSerieResponseDTO::getSerieId).distinct().toList());
+        for (RatingSerieResponseDTO item : items) {
+            List<SeasonScoreDTO> seasons = scores.get(item.getSerieId());
+            if (seasons == null) {
+                continue;
+            }
+            long count = 0;
+            double sum = 0.0;
+            for (SeasonScoreDTO season : seasons) {
+                count += season.episodeCount();
+                sum += season.averageRating() * season.episodeCount();
+            }
+            item.setEpisodeCount(count);
+            item.setEpisodeScore(sum / count);
+            item.setSeasonScores(seasons);
+        }
+    }
+
+    private static double valueOf(Double rating) {
+        return rating != null ? rating : 0.0;
+    }
+}
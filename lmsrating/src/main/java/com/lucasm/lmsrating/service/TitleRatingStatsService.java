@@ -0,0 +1,249 @@
+package com.lucasm.lmsrating.service;
+
+import java.sql.Array;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.lucasm.lmsrating.dto.TitleAggregateDTO;
+import com.lucasm.lmsrating.model.UserMediaStats;
+
+/**
+ * Mantém e serve o agregado da comunidade por título (`title_rating_stats`): quantidade, média e distribuição das notas.
+ * O delta de cada avaliação é aplicado na mesma transação da escrita; a reconstrução completa recalcula os títulos
+ * em lotes, travando as linhas do lote antes de ler as avaliações.
+ */
+@Service
+public class TitleRatingStatsService {
+
+    /**
+     * Quantidade e soma das notas de um título.
+     */
+    public record Totals(long count, double sum) {}
+
+    private static final Logger logger = LoggerFactory.getLogger(TitleRatingStatsService.class);
+
+    private static final int BATCH_MAX_SIZE = 100;
+    private static final int REBUILD_BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public TitleRatingStatsService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Aplica ao agregado do título a criação ou edição de uma avaliação.
+     * Deve ser chamado dentro da transação que grava a avaliação.
+     *
+     * @param media `MOVIE` ou `SERIE`.
+     * @param titleId id do título.
+     * @param created `true` quando a avaliação acabou de ser criada.
+     * @param previousRating nota anterior, em edições; `null` em criações.
+     * @param rating nota gravada.
+     * @return totais do título após a avaliação, ou `null` quando a edição não altera o agregado.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Totals recordRating(UserMediaStatsService.Media media, String titleId, boolean created, Double previousRating, Double rating) {
+        double sumDelta = valueOf(rating) - (created ? 0.0 : valueOf(previousRating));
+        int newBucket = UserMediaStatsService.bucketOf(rating);
+        int oldBucket = created ? -1 : UserMediaStatsService.bucketOf(previousRating);
+        if (!created && sumDelta == 0.0 && newBucket == oldBucket) {
+            return null;
+        }
+
+        jdbcTemplate.update("INSERT INTO title_rating_stats (media, title_id) VALUES (?, ?) ON CONFLICT (media, title_id) DO NOTHING",
+                media.key(), titleId);
+
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("UPDATE title_rating_stats SET rating_count = rating_count + ?, rating_sum = rating_sum + ?");
+        args.add(created ? 1 : 0);
+        args.add(sumDelta);
+        if (newBucket != oldBucket) {
+            UserMediaStatsService.appendHistogramDelta(sql, args, "histogram", oldBucket, -1);
+            UserMediaStatsService.appendHistogramDelta(sql, args, "histogram", newBucket, 1);
+        }
+        sql.append(" WHERE media = ? AND title_id = ? RETURNING rating_count, rating_sum");
+        args.add(media.key());
+        args.add(titleId);
+        return jdbcTemplate.queryForObject(sql.toString(),
+                (rs, rowNum) -> new Totals(rs.getLong("rating_count"), rs.getDouble("rating_sum")), args.toArray());
+    }
+
+    /**
+     * Agregado da comunidade para um título.
+     *
+     * @param media `MOVIE` ou `SERIE`.
+     * @param titleId id do título.
+     * @return quantidade, média e distribuição das notas (zeradas quando ninguém avaliou).
+     */
+    public TitleAggregateDTO getAggregate(UserMediaStatsService.Media media, String titleId) {
+        return getAggregates(media, List.of(titleId)).get(titleId);
+    }
+
+    /**
+     * Agregados da comunidade para um lote de títulos, em uma única consulta.
+     *
+     * @param media `MOVIE` ou `SERIE`.
+     * @param titleIds ids dos títulos.
+     * @return mapa de id → agregado, incluindo títulos sem avaliações.
+     * @throws IllegalArgumentException quando o lote exceder o limite.
+     */
+    public Map<String, TitleAggregateDTO> getAggregates(UserMediaStatsService.Media media, List<String> titleIds) {
+        if (titleIds == null || titleIds.isEmpty()) return Map.of();
+        if (titleIds.size() > BATCH_MAX_SIZE) {
+            throw new IllegalArgumentException("Limite de " + BATCH_MAX_SIZE + " títulos por batch excedido");
+        }
+
+        String placeholders = String.join(",", Collections.nCopies(titleIds.size(), "?"));
+        List<Object> args = new ArrayList<>(titleIds.size() + 1);
+        args.add(media.key());
+        args.addAll(titleIds);
+
+        Map<String, TitleAggregateDTO> result = new HashMap<>();
+        jdbcTemplate.query(
+            "SELECT title_id, rating_count, rating_sum, histogram FROM title_rating_stats WHERE media = ? AND title_id IN (" + placeholders + ")",
+            rs -> {
+                long count = rs.getLong("rating_count");
+                Array histogram = rs.getArray("histogram");
+                int[] distribution = new int[UserMediaStats.HISTOGRAM_BUCKETS];
+                if (histogram != null) {
+                    Integer[] values = (Integer[]) histogram.getArray();
+                    for (int i = 0; i < Math.min(values.length, distribution.length); i++) {
+                        distribution[i] = values[i] != null ? values[i] : 0;
+                    }
+                }
+                result.put(rs.getString("title_id"), new TitleAggregateDTO(rs.getString("title_id"), count,
+                        count > 0 ? rs.getDouble("rating_sum") / count : 0.0, distribution));
+            },
+            args.toArray());
+
+        for (String titleId : titleIds) {
+            result.computeIfAbsent(titleId, id -> new TitleAggregateDTO(id, 0, 0.0, new int[UserMediaStats.HISTOGRAM_BUCKETS]));
+        }
+        return result;
+    }
+
+    /**
+     * Reconstrói do zero os agregados de filmes e séries a partir das tabelas de avaliação.
+     *
+     * @return quantidade de títulos recalculados.
+     */
+    public long rebuildAll() {
+        long titles = 0;
+        for (UserMediaStatsService.Media media : List.of(UserMediaStatsService.Media.MOVIE, UserMediaStatsService.Media.SERIE)) {
+            titles += rebuild(media);
+        }
+        return titles;
+    }
+
+    private long rebuild(UserMediaStatsService.Media media) {
+        String column = media.titleColumn;
+        String lastTitleId = "";
+        long processed = 0;
+        while (true) {
+            List<String> titleIds = jdbcTemplate.queryForList(
+                "SELECT DISTINCT " + column + " FROM " + media.table + " WHERE " + column + " > ? ORDER BY " + column + " LIMIT ?",
+                String.class, lastTitleId, REBUILD_BATCH_SIZE);
+            if (titleIds.isEmpty()) {
+                break;
+            }
+
+            String from = titleIds.get(0);
+            String to = titleIds.get(titleIds.size() - 1);
+            transactionTemplate.executeWithoutResult(status -> recompute(media, titleIds, from, to));
+
+            processed += titleIds.size();
+            lastTitleId = to;
+        }
+
+        int orphans = jdbcTemplate.update(
+            "UPDATE title_rating_stats s SET rating_count = 0, rating_sum = 0, histogram = array_fill(0, ARRAY[" + UserMediaStats.HISTOGRAM_BUCKETS + "]) " +
+            "WHERE s.media = ? AND s.rating_count <> 0 AND NOT EXISTS (SELECT 1 FROM " + media.table + " r WHERE r." + column + " = s.title_id)",
+            media.key());
+        if (orphans > 0) {
+            logger.warn("Agregados de {} sem avaliações zerados: {}", media.key(), orphans);
+        }
+        return processed;
+    }
+
+    private void recompute(UserMediaStatsService.Media media, List<String> titleIds, String from, String to) {
+        String column = media.titleColumn;
+        jdbcTemplate.batchUpdate("INSERT INTO title_rating_stats (media, title_id) VALUES (?, ?) ON CONFLICT (media, title_id) DO NOTHING",
+                titleIds, titleIds.size(), (ps, titleId) -> {
+                    ps.setString(1, media.key());
+                    ps.setString(2, titleId);
+                });
+        jdbcTemplate.query("SELECT title_id FROM title_rating_stats WHERE media = ? AND title_id BETWEEN ? AND ? FOR UPDATE",
+                rs -> { }, media.key(), from, to);
+
+        jdbcTemplate.update(
+            "UPDATE title_rating_stats s SET rating_count = a.total, rating_sum = a.rating_sum, histogram = a.histogram " +
+            "FROM (SELECT r." + column + " AS title_id, count(*) AS total, COALESCE(sum(r.rating), 0) AS rating_sum, " +
+            UserMediaStatsBackfill.histogramExpression() + " AS histogram " +
+            "FROM " + media.table + " r WHERE r." + column + " BETWEEN ? AND ? GROUP BY r." + column + ") a " +
+            "WHERE s.media = ? AND s.title_id = a.title_id",
+            from, to, media.key());
+    }
+
+    /**
+     * Recalcula a partir das avaliações os agregados de um conjunto de títulos, travando as linhas em ordem de id.
+     * Usado pela importação em lote, onde aplicar um delta por avaliação custaria uma ida ao banco por linha.
+     * Deve ser chamado dentro da transação que gravou as avaliações.
+     *
+     * @param media `MOVIE` ou `SERIE`.
+     * @param titleIds ids dos títulos alterados.
+     * @return totais de cada título após o recálculo.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Map<String, Totals> recomputeTitles(UserMediaStatsService.Media media, Collection<String> titleIds) {
+        if (titleIds.isEmpty()) return Map.of();
+        List<String> sorted = titleIds.stream().distinct().sorted().toList();
+        String placeholders = String.join(",", Collections.nCopies(sorted.size(), "?"));
+        String column = media.titleColumn;
+
+        jdbcTemplate.batchUpdate("INSERT INTO title_rating_stats (media, title_id) VALUES (?, ?) ON CONFLICT (media, title_id) DO NOTHING",
+                sorted, sorted.size(), (ps, titleId) -> {
+                    ps.setString(1, media.key());
+                    ps.setString(2, titleId);
+                });
+
+        List<Object> args = new ArrayList<>(sorted.size() + 1);
+        args.add(media.key());
+        args.addAll(sorted);
+        jdbcTemplate.query("SELECT title_id FROM title_rating_stats WHERE media = ? AND title_id IN (" + placeholders + ") ORDER BY title_id FOR UPDATE",
+                rs -> { }, args.toArray());
+
+        List<Object> updateArgs = new ArrayList<>(sorted);
+        updateArgs.add(media.key());
+        Map<String, Totals> totals = new HashMap<>();
+        jdbcTemplate.query(
+            "UPDATE title_rating_stats s SET rating_count = a.total, rating_sum = a.rating_sum, histogram = a.histogram " +
+            "FROM (SELECT r." + column + " AS title_id, count(*) AS total, COALESCE(sum(r.rating), 0) AS rating_sum, " +
+            UserMediaStatsBackfill.histogramExpression() + " AS histogram " +
+            "FROM " + media.table + " r WHERE r." + column + " IN (" + placeholders + ") GROUP BY r." + column + ") a " +
+            "WHERE s.media = ? AND s.title_id = a.title_id RETURNING s.title_id, s.rating_count, s.rating_sum",
+            rs -> {
+                totals.put(rs.getString("title_id"), new Totals(rs.getLong("rating_count"), rs.getDouble("rating_sum")));
+            },
+            updateArgs.toArray());
+        return totals;
+    }
+
+    private static double valueOf(Double rating) {
+        return rating != null ? rating : 0.0;
+    }
+}
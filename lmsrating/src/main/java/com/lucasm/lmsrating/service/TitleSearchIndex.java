@@ -0,0 +1,141 @@
+package com.lucasm.lmsrating.service;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Prepara a busca por título dos endpoints paginados: extensões `pg_trgm` e `unaccent`, a função imutável
+ * `lms_fold(text)` (minúsculas sem acento) e índices GIN de trigramas sobre `lms_fold(title)` em `movies` e `series`.
+ * Os índices são criados com `CONCURRENTLY`, sem bloquear escritas no catálogo. Enquanto não estiverem válidos
+ * (ou se o usuário do banco não puder criar extensões), a busca continua no `LIKE` original; a validade é
+ * reverificada a cada `search.title.trigram.check-interval-ms`. Uma trava no Redis garante que só uma instância
+ * prepare os índices por vez.
+ */
+@Component
+public class TitleSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(TitleSearchIndex.class);
+
+    private static final String LOCK_KEY = "search:title:index:lock";
+
+    private static final List<String> INDEXES = List.of(
+        "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_movies_title_trgm ON movies USING gin (lms_fold(title) gin_trgm_ops)",
+        "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_series_title_trgm ON series USING gin (lms_fold(title) gin_trgm_ops)"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StringRedisTemplate redisTemplate;
+    private final boolean enabled;
+    private volatile boolean available;
+
+    public TitleSearchIndex(JdbcTemplate jdbcTemplate, StringRedisTemplate redisTemplate,
+                            @Value("${search.title.trigram.enabled:true}") boolean enabled) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.redisTemplate = redisTemplate;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Indica se a busca pode usar `lms_fold` e os índices de trigramas.
+     *
+     * @return `true` quando extensões, função e índices estiverem prontos.
+     */
+    public boolean isAvailable() {
+        return available;
+    }
+
+    /**
+     * Cria extensões, função e índices em segundo plano quando a aplicação termina de subir.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        if (!enabled) {
+            return;
+        }
+        Thread.ofVirtual().name("title-search-index").start(this::prepare);
+    }
+
+    /**
+     * Reverifica os índices enquanto a busca por trigramas não estiver ativa (build em andamento em outra instância,
+     * ou concluído depois do startup).
+     */
+    @Scheduled(fixedDelayString = "${search.title.trigram.check-interval-ms:60000}",
+               initialDelayString = "${search.title.trigram.check-interval-ms:60000}")
+    public void refreshAvailability() {
+        if (!enabled || available) {
+            return;
+        }
+        try {
+            checkAvailability();
+        } catch (DataAccessException e) {
+            logger.debug("Índices de trigramas ainda indisponíveis: {}", e.getMessage());
+        }
+    }
+
+    private void prepare() {
+        try {
+            if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(LOCK_KEY, "1", Duration.ofHours(1)))) {
+                logger.info("Índices de trigramas sendo preparados por outra instância");
+                return;
+            }
+        } catch (DataAccessException e) {
+            logger.warn("Preparação dos índices de trigramas não iniciada, Redis indisponível: {}", e.getMessage());
+            return;
+        }
+
+        try {
+            jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+            jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS unaccent");
+            jdbcTemplate.execute(
+                "CREATE OR REPLACE FUNCTION lms_fold(text) RETURNS text LANGUAGE sql IMMUTABLE PARALLEL SAFE STRICT " +
+                "AS $$ SELECT public.unaccent('public.unaccent'::regdictionary, lower($1)) $$");
+
+            // Um build concorrente interrompido deixa o índice inválido e IF NOT EXISTS não o recriaria; um índice
+            // inválido que ainda aparece em pg_stat_progress_create_index está sendo construído e não é removido
+            jdbcTemplate.execute(
+                "DO $$ DECLARE r record; BEGIN " +
+                "FOR r IN SELECT c.relname FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid " +
+                "WHERE c.relname IN ('idx_movies_title_trgm', 'idx_series_title_trgm') AND NOT i.indisvalid " +
+                "AND NOT EXISTS (SELECT 1 FROM pg_stat_progress_create_index p WHERE p.index_relid = c.oid) LOOP " +
+                "EXECUTE format('DROP INDEX IF EXISTS %I', r.relname); END LOOP; END $$");
+            for (String ddl : INDEXES) {
+                jdbcTemplate.execute(ddl);
+            }
+
+            checkAvailability();
+            logger.info("Busca por título com trigramas {}", available ? "ativa" : "pendente: índices ainda inválidos");
+        } catch (DataAccessException e) {
+            logger.warn("Busca por título com trigramas indisponível, mantendo LIKE: {}", e.getMessage());
+        } finally {
+            redisTemplate.delete(LOCK_KEY);
+        }
+    }
+
+    private void checkAvailability() {
+        Integer valid = jdbcTemplate.queryForObject(
+            "SELECT count(*) FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid " +
+            "WHERE c.relname IN ('idx_movies_title_trgm', 'idx_series_title_trgm') AND i.indisvalid", Integer.class);
+        available = valid != null && valid == INDEXES.size();
+    }
+
+    /**
+     * Escapa os curingas do `LIKE` no termo digitado pelo usuário.
+     *
+     * @param term termo de busca.
+     * @return termo com `\`, `%` e `_` escapados.
+     */
+    public static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
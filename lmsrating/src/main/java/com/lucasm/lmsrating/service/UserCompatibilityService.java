@@ -0,0 +1,235 @@
+package com.lucasm.lmsrating.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import com.lucasm.lmsrating.dto.CompatibilityDTO;
+import com.lucasm.lmsrating.exceptions.ResourceNotFoundException;
+
+/**
+ * Compatibilidade de gosto entre dois usuários a partir das avaliações e dos favoritos de filmes.
+ * As avaliações de cada usuário são carregadas em um `long[]` ordenado (id do filme nos 32 bits altos, nota nos
+ * baixos) e os favoritos em um `int[]` ordenado, então a comparação é uma intersecção linear sem objetos por item.
+ * O resultado fica no cache `userCompatibility` com a última atividade de avaliação de cada usuário na chave:
+ * uma nova avaliação de qualquer um dos dois muda a chave, e a entrada antiga expira pelo TTL.
+ */
+@Service
+public class UserCompatibilityService {
+
+    private static final String CACHE_NAME = "userCompatibility";
+    private static final int MIN_COMMON_FOR_CORRELATION = 3;
+    private static final double SHRINKAGE = 10.0;
+    private static final double RATING_SCALE = 10.0;
+    private static final int SHARED_FAVORITES_LIMIT = 20;
+
+    private record UserVersions(long otherId, String callerVersion, String otherVersion) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CacheManager cacheManager;
+
+    public UserCompatibilityService(JdbcTemplate jdbcTemplate, CacheManager cacheManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.cacheManager = cacheManager;
+    }
+
+    /**
+     * Compara as avaliações e os favoritos de filmes do usuário autenticado com os de outro usuário.
+     *
+     * @param callerId identificador do usuário autenticado.
+     * @param nickname apelido do outro usuário.
+     * @return sobreposição, correlação das notas, favoritos em comum e uma nota de compatibilidade de 0 a 100.
+     * @throws ResourceNotFoundException quando não houver usuário com o apelido.
+     * @throws IllegalArgumentException quando o apelido for do próprio usuário.
+     */
+    public CompatibilityDTO getCompatibility(Long callerId, String nickname) {
+        UserVersions versions = loadVersions(callerId, nickname);
+        if (versions.otherId() == callerId) {
+            throw new IllegalArgumentException("A compatibilidade deve ser calculada com outro usuário");
+        }
+
+        String key = callerId + ":" + versions.otherId() + ":" + versions.callerVersion() + ":" + versions.otherVersion();
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache != null) {
+            CompatibilityDTO cached = cache.get(key, CompatibilityDTO.class);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        CompatibilityDTO result = compute(callerId, versions.otherId());
+        result.setNickname(nickname);
+        if (cache != null) {
+            cache.put(key, result);
+        }
+        return result;
+    }
+
+    private UserVersions loadVersions(Long callerId, String nickname) {
+        List<UserVersions> rows = jdbcTemplate.query(
+            "SELECT u.id, s.last_activity_at, " +
+            "(SELECT last_activity_at FROM user_media_stats WHERE user_id = ?) AS caller_activity " +
+            "FROM users u LEFT JOIN user_media_stats s ON s.user_id = u.id WHERE u.nickname = ?",
+            (rs, rowNum) -> new UserVersions(rs.getLong("id"),
+                    version(rs.getObject("caller_activity", LocalDateTime.class)),
+                    version(rs.getObject("last_activity_at", LocalDateTime.class))),
+            callerId, nickname);
+        if (rows.isEmpty()) {
+            throw new ResourceNotFoundException("Usuário não encontrado: " + nickname);
+        }
+        return rows.get(0);
+    }
+
+    private CompatibilityDTO compute(long callerId, long otherId) {
+        PackedIds callerRatings = new PackedIds();
+        PackedIds otherRatings = new PackedIds();
+        jdbcTemplate.query(
+            "SELECT user_id, movie_id, rating FROM ratings_movies WHERE user_id IN (?, ?) AND rating IS NOT NULL",
+            rs -> {
+                int movieId = parseId(rs.getString(2));
+                if (movieId >= 0) {
+                    long packed = ((long) movieId << 32) | (Float.floatToRawIntBits((float) rs.getDouble(3)) & 0xFFFFFFFFL);
+                    (rs.getLong(1) == callerId ? callerRatings : otherRatings).add(packed);
+                }
+            },
+            callerId, otherId);
+
+        PackedIds callerFavorites = new PackedIds();
+        PackedIds otherFavorites = new PackedIds();
+        jdbcTemplate.query(
+            "SELECT user_id, movie_id FROM favorite_movies WHERE user_id IN (?, ?) AND is_favorite",
+            rs -> {
+                int movieId = parseId(rs.getString(2));
+                if (movieId >= 0) {
+                    (rs.getLong(1) == callerId ? callerFavorites : otherFavorites).add(movieId);
+                }
+            },
+            callerId, otherId);
+
+        CompatibilityDTO result = new CompatibilityDTO();
+        compareRatings(callerRatings.sorted(), otherRatings.sorted(), result);
+        compareFavorites(callerFavorites.sorted(), otherFavorites.sorted(), result);
+        return result;
+    }
+
+    private static void compareRatings(long[] a, long[] b, CompatibilityDTO result) {
+        int n = 0;
+        double sumA = 0, sumB = 0, sumAA = 0, sumBB = 0, sumAB = 0, sumAbsDiff = 0;
+        int i = 0, j = 0;
+        while (i < a.length && j < b.length) {
+            int idA = (int) (a[i] >>> 32);
+            int idB = (int) (b[j] >>> 32);
+            if (idA < idB) {
+                i++;
+            } else if (idA > idB) {
+                j++;
+            } else {
+                double x = Float.intBitsToFloat((int) a[i++]);
+                double y = Float.intBitsToFloat((int) b[j++]);
+                n++;
+                sumA += x;
+                sumB += y;
+                sumAA += x * x;
+                sumBB += y * y;
+                sumAB += x * y;
+                sumAbsDiff += Math.abs(x - y);
+            }
+        }
+
+        result.setRatingOverlap(n);
+        result.setCallerRatingCount(a.length);
+        result.setOtherRatingCount(b.length);
+        result.setOverlapRatio(round(jaccard(n, a.length, b.length), 1000));
+        if (n == 0) {
+            result.setScore(50);
+            return;
+        }
+
+        double meanAbsDiff = sumAbsDiff / n;
+        result.setMeanAbsoluteDifference(round(meanAbsDiff, 100));
+        double agreement = 1 - 2 * meanAbsDiff / RATING_SCALE;
+        if (n >= MIN_COMMON_FOR_CORRELATION) {
+            double varA = sumAA - sumA * sumA / n;
+            double varB = sumBB - sumB * sumB / n;
+            if (varA > 1e-9 && varB > 1e-9) {
+                double correlation = (sumAB - sumA * sumB / n) / Math.sqrt(varA * varB);
+                result.setCorrelation(round(correlation, 1000));
+                agreement = correlation;
+            }
+        }
+        // Concordância encolhida para 0 quando há poucos títulos em comum, levada para a escala de 0 a 100
+        result.setScore((int) Math.round(50 * (1 + agreement * n / (n + SHRINKAGE))));
+    }
+
+    private static void compareFavorites(long[] a, long[] b, CompatibilityDTO result) {
+        int shared = 0;
+        List<String> sharedIds = new ArrayList<>();
+        int i = 0, j = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                if (sharedIds.size() < SHARED_FAVORITES_LIMIT) {
+                    sharedIds.add(String.valueOf(a[i]));
+                }
+                shared++;
+                i++;
+                j++;
+            }
+        }
+        result.setSharedFavoriteCount(shared);
+        result.setFavoriteOverlapRatio(round(jaccard(shared, a.length, b.length), 1000));
+        result.setSharedFavoriteIds(sharedIds);
+    }
+
+    private static double jaccard(int shared, int sizeA, int sizeB) {
+        int union = sizeA + sizeB - shared;
+        return union > 0 ? (double) shared / union : 0.0;
+    }
+
+    private static double round(double value, int scale) {
+        return Math.round(value * scale) / (double) scale;
+    }
+
+    // Ids do TMDB são numéricos; ids fora desse formato não entram na comparação
+    private static int parseId(String movieId) {
+        try {
+            return Integer.parseInt(movieId);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static String version(LocalDateTime lastActivity) {
+        return lastActivity != null ? lastActivity.toString() : "0";
+    }
+
+    /**
+     * `long[]` que cresce por dobra, ordenado uma única vez ao final da leitura.
+     */
+    private static final class PackedIds {
+        private long[] values = new long[256];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        long[] sorted() {
+            long[] result = Arrays.copyOf(values, size);
+            Arrays.sort(result);
+            return result;
+        }
+    }
+}
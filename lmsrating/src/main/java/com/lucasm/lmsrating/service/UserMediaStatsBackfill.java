@@ -0,0 +1,229 @@
+package com.lucasm.lmsrating.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.StringJoiner;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.lucasm.lmsrating.config.RabbitMQConfig;
+import com.lucasm.lmsrating.dto.CatalogEnrichedDTO;
+import com.lucasm.lmsrating.model.UserMediaStats;
+
+/**
+ * Preenche `user_media_stats`, `user_genre_stats`, `user_monthly_stats` e `user_season_stats` a partir das avaliações já existentes,
+ * em lotes de usuários por id. Também recalcula os usuários de um título quando o catálogo recebe duração e gêneros.
+ * Cada lote trava as linhas do agregado antes de recalcular, então escritas concorrentes entram antes
+ * (e são contadas no recálculo) ou depois (e aplicam seu delta sobre o valor recalculado).
+ * Modos (`stats.backfill.mode`): `auto` roda uma única vez por ambiente, `always` roda a cada subida, `never` desliga.
+ */
+@Component
+public class UserMediaStatsBackfill {
+
+    private static final Logger log = LoggerFactory.getLogger(UserMediaStatsBackfill.class);
+
+    private static final String DONE_KEY = "stats:backfill:user-media:v3:done";
+    private static final String LOCK_KEY = "stats:backfill:user-media:lock";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final StringRedisTemplate redisTemplate;
+    private final String mode;
+    private final int batchSize;
+
+    /**
+     * Cria o job com acesso ao banco, controle de transação e o Redis usado para coordenar as instâncias.
+     *
+     * @param jdbcTemplate acesso JDBC às tabelas de avaliação.
+     * @param transactionTemplate transação por lote.
+     * @param redisTemplate cliente Redis para a trava e a marca de conclusão.
+     * @param mode modo de execução (`auto`, `always` ou `never`).
+     * @param batchSize quantidade de usuários por lote.
+     */
+    public UserMediaStatsBackfill(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                  StringRedisTemplate redisTemplate,
+                                  @Value("${stats.backfill.mode:auto}") String mode,
+                                  @Value("${stats.backfill.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.redisTemplate = redisTemplate;
+        this.mode = mode;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Dispara o backfill em segundo plano quando a aplicação termina de subir.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        if ("never".equalsIgnoreCase(mode)) {
+            return;
+        }
+        Thread.ofVirtual().name("user-media-stats-backfill").start(this::runOnce);
+    }
+
+    private void runOnce() {
+        try {
+            if ("auto".equalsIgnoreCase(mode) && Boolean.TRUE.equals(redisTemplate.hasKey(DONE_KEY))) {
+                return;
+            }
+            if (!Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(LOCK_KEY, "1", Duration.ofHours(1)))) {
+                log.info("Backfill de user_media_stats já em execução em outra instância");
+                return;
+            }
+        } catch (DataAccessException e) {
+            log.warn("Backfill de user_media_stats não iniciado, Redis indisponível: {}", e.getMessage());
+            return;
+        }
+
+        try {
+            long users = backfill();
+            redisTemplate.opsForValue().set(DONE_KEY, String.valueOf(System.currentTimeMillis()));
+            log.info("Backfill de user_media_stats concluído: {} usuários", users);
+        } catch (DataAccessException e) {
+            log.error("Backfill de user_media_stats interrompido: {}", e.getMessage(), e);
+        } finally {
+            redisTemplate.delete(LOCK_KEY);
+        }
+    }
+
+    /**
+     * Recalcula os agregados dos usuários que avaliaram o título, após o catálogo receber duração e gêneros.
+     *
+     * @param event tipo e id do título enriquecido.
+     */
+    @RabbitListener(queues = RabbitMQConfig.CATALOG_ENRICHED_QUEUE)
+    public void onCatalogEnriched(CatalogEnrichedDTO event) {
+        String sql = "movie".equals(event.type())
+                ? "SELECT DISTINCT user_id FROM ratings_movies WHERE movie_id = ? ORDER BY user_id"
+                : "SELECT user_id FROM ratings_series WHERE serie_id = ? UNION SELECT user_id FROM ratings_episodes WHERE serie_id = ? ORDER BY user_id";
+        Object[] args = "movie".equals(event.type()) ? new Object[]{event.id()} : new Object[]{event.id(), event.id()};
+
+        List<Long> userIds = jdbcTemplate.queryForList(sql, Long.class, args);
+        for (Long userId : userIds) {
+            transactionTemplate.executeWithoutResult(status -> recompute(List.of(userId), userId, userId));
+        }
+    }
+
+    /**
+     * Recalcula o agregado de um único usuário, em uma transação; usado ao fim de uma importação em lote.
+     *
+     * @param userId identificador do usuário.
+     */
+    void recomputeUser(Long userId) {
+        transactionTemplate.executeWithoutResult(status -> recompute(List.of(userId), userId, userId));
+    }
+
+    /**
+     * Recalcula o agregado de todos os usuários com avaliações.
+     *
+     * @return quantidade de usuários processados.
+     */
+    long backfill() {
+        long lastUserId = 0L;
+        long processed = 0L;
+        while (true) {
+            List<Long> userIds = jdbcTemplate.queryForList(
+                    "SELECT user_id FROM (" +
+                    "SELECT user_id FROM ratings_movies UNION SELECT user_id FROM ratings_series " +
+                    "UNION SELECT user_id FROM ratings_episodes) u " +
+                    "WHERE user_id > ? ORDER BY user_id LIMIT ?",
+                    Long.class, lastUserId, batchSize);
+            if (userIds.isEmpty()) {
+                return processed;
+            }
+
+            long from = userIds.get(0);
+            long to = userIds.get(userIds.size() - 1);
+            transactionTemplate.executeWithoutResult(status -> recompute(userIds, from, to));
+
+            processed += userIds.size();
+            lastUserId = to;
+        }
+    }
+
+    private void recompute(List<Long> userIds, long from, long to) {
+        jdbcTemplate.batchUpdate("INSERT INTO user_media_stats (user_id) VALUES (?) ON CONFLICT (user_id) DO NOTHING",
+                userIds, userIds.size(), (ps, userId) -> ps.setLong(1, userId));
+        jdbcTemplate.query("SELECT user_id FROM user_media_stats WHERE user_id BETWEEN ? AND ? FOR UPDATE",
+                rs -> { }, from, to);
+
+        for (UserMediaStatsService.Media media : UserMediaStatsService.Media.values()) {
+            String prefix = media.column;
+            String minutes = media.runtimeColumn != null ? "COALESCE(sum(c." + media.runtimeColumn + "), 0)" : "0";
+            jdbcTemplate.update(
+                    "UPDATE user_media_stats s SET " +
+                    prefix + "_count = COALESCE(a.total, 0), " +
+                    prefix + "_rating_sum = COALESCE(a.rating_sum, 0), " +
+                    prefix + "_histogram = COALESCE(a.histogram, array_fill(0, ARRAY[" + UserMediaStats.HISTOGRAM_BUCKETS + "])), " +
+                    (media.runtimeColumn != null ? prefix + "_minutes = COALESCE(a.minutes, 0), " : "") +
+                    "last_activity_at = GREATEST(s.last_activity_at, a.last_at) " +
+                    "FROM user_media_stats k LEFT JOIN (" +
+                    "SELECT r.user_id, count(*) AS total, COALESCE(sum(r.rating), 0) AS rating_sum, " + minutes + " AS minutes, " +
+                    "max(COALESCE(r.modified_at, r.created_at)) AS last_at, " + histogramExpression() + " AS histogram " +
+                    "FROM " + media.table + " r LEFT JOIN " + media.catalogTable + " c ON c." + media.titleColumn + " = r." + media.titleColumn + " " +
+                    "WHERE r.user_id BETWEEN ? AND ? GROUP BY r.user_id" +
+                    ") a ON a.user_id = k.user_id " +
+                    "WHERE s.user_id = k.user_id AND s.user_id BETWEEN ? AND ?",
+                    from, to, from, to);
+        }
+
+        jdbcTemplate.update("DELETE FROM user_genre_stats WHERE user_id BETWEEN ? AND ?", from, to);
+        for (UserMediaStatsService.Media media : UserMediaStatsService.Media.values()) {
+            if (!media.tracksGenres) {
+                continue;
+            }
+            jdbcTemplate.update(
+                    "INSERT INTO user_genre_stats (user_id, media, genre, title_count, rating_sum) " +
+                    "SELECT r.user_id, ?, g.genre, count(*), COALESCE(sum(r.rating), 0) " +
+                    "FROM " + media.table + " r JOIN " + media.catalogTable + " c ON c." + media.titleColumn + " = r." + media.titleColumn + " " +
+                    "CROSS JOIN LATERAL unnest(c.genres) AS g(genre) " +
+                    "WHERE r.user_id BETWEEN ? AND ? GROUP BY r.user_id, g.genre",
+                    media.key(), from, to);
+        }
+
+        jdbcTemplate.update("DELETE FROM user_monthly_stats WHERE user_id BETWEEN ? AND ?", from, to);
+        jdbcTemplate.update(
+                "INSERT INTO user_monthly_stats (user_id, month, movie_count, serie_count, episode_count, minutes) " +
+                "SELECT user_id, month, sum(movie_count), sum(serie_count), sum(episode_count), sum(minutes) FROM (" +
+                "SELECT r.user_id, date_trunc('month', r.created_at)::date AS month, 1 AS movie_count, 0 AS serie_count, 0 AS episode_count, COALESCE(c.runtime, 0) AS minutes " +
+                "FROM ratings_movies r LEFT JOIN movies c ON c.movie_id = r.movie_id WHERE r.user_id BETWEEN ? AND ? " +
+                "UNION ALL SELECT r.user_id, date_trunc('month', r.created_at)::date, 0, 1, 0, 0 " +
+                "FROM ratings_series r WHERE r.user_id BETWEEN ? AND ? " +
+                "UNION ALL SELECT r.user_id, date_trunc('month', r.created_at)::date, 0, 0, 1, COALESCE(c.episode_runtime, 0) " +
+                "FROM ratings_episodes r LEFT JOIN series c ON c.serie_id = r.serie_id WHERE r.user_id BETWEEN ? AND ?" +
+                ") x GROUP BY user_id, month",
+                from, to, from, to, from, to);
+
+        jdbcTemplate.update("DELETE FROM user_season_stats WHERE user_id BETWEEN ? AND ?", from, to);
+        jdbcTemplate.update(
+                "INSERT INTO user_season_stats (user_id, serie_id, season_number, episode_count, rating_sum) " +
+                "SELECT r.user_id, r.serie_id, r.season_number, count(*), COALESCE(sum(r.rating), 0) " +
+                "FROM ratings_episodes r WHERE r.user_id BETWEEN ? AND ? GROUP BY r.user_id, r.serie_id, r.season_number",
+                from, to);
+    }
+
+    /**
+     * Monta o histograma com a mesma regra de faixa de {@link UserMediaStatsService#bucketOf(Double)}.
+     *
+     * @return expressão SQL de agregação do histograma.
+     */
+    static String histogramExpression() {
+        StringJoiner buckets = new StringJoiner(", ", "ARRAY[", "]::integer[]");
+        for (int bucket = 0; bucket < UserMediaStats.HISTOGRAM_BUCKETS; bucket++) {
+            buckets.add("count(*) FILTER (WHERE LEAST(" + (UserMediaStats.HISTOGRAM_BUCKETS - 1)
+                    + ", GREATEST(0, floor(r.rating * 2 + 0.5))) = " + bucket + ")");
+        }
+        return buckets.toString();
+    }
+}
@@ -0,0 +1,235 @@
+package com.lucasm.lmsrating.service;
+
+import java.sql.Array;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.lucasm.lmsrating.model.UserMediaStats;
+
+/**
+ * Mantém os agregados de estatísticas do usuário aplicando o delta de cada avaliação na mesma transação da escrita:
+ * `user_media_stats` (contagem, soma, histograma e minutos), `user_genre_stats` e `user_monthly_stats`.
+ * Uma nova avaliação soma contagem, nota e faixa do histograma; uma edição move a nota de faixa sem alterar a contagem.
+ * Avaliações do mesmo título em lote têm os deltas somados e aplicados em uma única escrita por tabela.
+ * A linha de `user_media_stats` é sempre atualizada primeiro, servindo de trava do usuário para o backfill.
+ */
+@Service
+public class UserMediaStatsService {
+
+    /**
+     * Tipo de mídia avaliada; define o prefixo das colunas no agregado, a tabela de origem e os dados de catálogo usados.
+     */
+    public enum Media {
+        MOVIE("movie", "ratings_movies", "movie_id", "movies", "runtime", true),
+        SERIE("serie", "ratings_series", "serie_id", "series", null, true),
+        EPISODE("episode", "ratings_episodes", "serie_id", "series", "episode_runtime", false);
+
+        final String column;
+        final String table;
+        final String titleColumn;
+        final String catalogTable;
+        final String runtimeColumn;
+        final boolean tracksGenres;
+
+        Media(String column, String table, String titleColumn, String catalogTable, String runtimeColumn, boolean tracksGenres) {
+            this.column = column;
+            this.table = table;
+            this.titleColumn = titleColumn;
+            this.catalogTable = catalogTable;
+            this.runtimeColumn = runtimeColumn;
+            this.tracksGenres = tracksGenres;
+        }
+
+        /**
+         * Nome usado na coluna `media` de `user_genre_stats` e nos parâmetros da API.
+         *
+         * @return identificador textual da mídia.
+         */
+        public String key() {
+            return column;
+        }
+    }
+
+    private record CatalogFacts(int runtime, String[] genres) {}
+
+    private static final CatalogFacts UNKNOWN_TITLE = new CatalogFacts(0, new String[0]);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public UserMediaStatsService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Criação ou edição de uma avaliação, aplicada aos agregados em lote por {@link #recordRatings}.
+     *
+     * @param created `true` quando a avaliação acabou de ser criada.
+     * @param previousRating nota anterior, em edições; `null` em criações.
+     * @param rating nota gravada.
+     */
+    public record RatingChange(boolean created, Double previousRating, Double rating) {}
+
+    /**
+     * Trava a linha de `user_media_stats` do usuário, criando-a quando necessário. Toda escrita de avaliações de
+     * filmes e séries (avaliação síncrona, flush do write-behind e importação) começa por aqui, antes de ler a nota
+     * anterior e de travar catálogo e avaliações: escritas do mesmo usuário ficam serializadas, os deltas partem
+     * sempre da nota atual e a ordem das travas é a mesma em todos os caminhos.
+     * Deve ser chamado dentro da transação que grava as avaliações.
+     *
+     * @param userId identificador do usuário.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void lockUser(Long userId) {
+        jdbcTemplate.update("INSERT INTO user_media_stats (user_id) VALUES (?) ON CONFLICT (user_id) DO NOTHING", userId);
+        jdbcTemplate.query("SELECT user_id FROM user_media_stats WHERE user_id = ? FOR UPDATE", rs -> { }, userId);
+    }
+
+    /**
+     * Aplica aos agregados do usuário a criação ou edição de uma avaliação.
+     * Deve ser chamado dentro da transação que grava a avaliação.
+     *
+     * @param media tipo de mídia avaliada.
+     * @param userId identificador do usuário.
+     * @param titleId id do filme ou da série no catálogo.
+     * @param created `true` quando a avaliação acabou de ser criada.
+     * @param previousRating nota anterior, em edições; `null` em criações.
+     * @param rating nota gravada.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordRating(Media media, Long userId, String titleId, boolean created, Double previousRating, Double rating) {
+        recordRatings(media, userId, titleId, List.of(new RatingChange(created, previousRating, rating)));
+    }
+
+    /**
+     * Aplica aos agregados do usuário várias avaliações do mesmo título (por exemplo, os episódios de uma temporada)
+     * somando os deltas antes de escrever: uma única atualização por tabela, independente da quantidade de avaliações.
+     * Deve ser chamado dentro da transação que grava as avaliações.
+     *
+     * @param media tipo de mídia avaliada.
+     * @param userId identificador do usuário.
+     * @param titleId id do filme ou da série no catálogo.
+     * @param changes avaliações criadas ou editadas.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordRatings(Media media, Long userId, String titleId, List<RatingChange> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update("INSERT INTO user_media_stats (user_id) VALUES (?) ON CONFLICT (user_id) DO NOTHING", userId);
+
+        int createdCount = 0;
+        double sumDelta = 0.0;
+        int[] bucketDeltas = new int[UserMediaStats.HISTOGRAM_BUCKETS];
+        for (RatingChange change : changes) {
+            if (change.created()) {
+                createdCount++;
+            }
+            sumDelta += valueOf(change.rating()) - (change.created() ? 0.0 : valueOf(change.previousRating()));
+            int newBucket = bucketOf(change.rating());
+            int oldBucket = change.created() ? -1 : bucketOf(change.previousRating());
+            if (newBucket != oldBucket) {
+                if (oldBucket >= 0) bucketDeltas[oldBucket]--;
+                if (newBucket >= 0) bucketDeltas[newBucket]++;
+            }
+        }
+
+        boolean needsMinutes = createdCount > 0 && media.runtimeColumn != null;
+        boolean needsGenres = media.tracksGenres && (createdCount > 0 || sumDelta != 0.0);
+        CatalogFacts facts = needsMinutes || needsGenres ? loadCatalogFacts(media, titleId) : UNKNOWN_TITLE;
+
+        String prefix = media.column;
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("UPDATE user_media_stats SET last_activity_at = now()");
+
+        if (createdCount > 0) {
+            sql.append(", ").append(prefix).append("_count = ").append(prefix).append("_count + ?");
+            args.add(createdCount);
+        }
+        if (sumDelta != 0.0) {
+            sql.append(", ").append(prefix).append("_rating_sum = ").append(prefix).append("_rating_sum + ?");
+            args.add(sumDelta);
+        }
+        if (needsMinutes && facts.runtime() > 0) {
+            sql.append(", ").append(prefix).append("_minutes = ").append(prefix).append("_minutes + ?");
+            args.add(facts.runtime() * createdCount);
+        }
+
+        // Uma atribuição por faixa: o Postgres aplica atribuições a índices distintos do mesmo array na ordem informada
+        for (int bucket = 0; bucket < bucketDeltas.length; bucket++) {
+            if (bucketDeltas[bucket] != 0) {
+                appendHistogramDelta(sql, args, prefix + "_histogram", bucket, bucketDeltas[bucket]);
+            }
+        }
+
+        sql.append(" WHERE user_id = ?");
+        args.add(userId);
+        jdbcTemplate.update(sql.toString(), args.toArray());
+
+        if (needsGenres && facts.genres().length > 0) {
+            List<Object[]> genreArgs = new ArrayList<>();
+            for (String genre : facts.genres()) {
+                genreArgs.add(new Object[]{userId, media.key(), genre, createdCount, sumDelta});
+            }
+            jdbcTemplate.batchUpdate(
+                "INSERT INTO user_genre_stats (user_id, media, genre, title_count, rating_sum) VALUES (?, ?, ?, ?, ?) " +
+                "ON CONFLICT (user_id, media, genre) DO UPDATE SET " +
+                "title_count = user_genre_stats.title_count + EXCLUDED.title_count, " +
+                "rating_sum = user_genre_stats.rating_sum + EXCLUDED.rating_sum",
+                genreArgs);
+        }
+
+        if (createdCount > 0) {
+            jdbcTemplate.update(
+                "INSERT INTO user_monthly_stats (user_id, month, " + prefix + "_count, minutes) VALUES (?, ?, ?, ?) " +
+                "ON CONFLICT (user_id, month) DO UPDATE SET " +
+                prefix + "_count = user_monthly_stats." + prefix + "_count + EXCLUDED." + prefix + "_count, " +
+                "minutes = user_monthly_stats.minutes + EXCLUDED.minutes",
+                userId, LocalDate.now().withDayOfMonth(1), createdCount, needsMinutes ? facts.runtime() * createdCount : 0);
+        }
+    }
+
+    /**
+     * Faixa de meio ponto da nota no histograma.
+     *
+     * @param rating nota avaliada.
+     * @return índice da faixa (0 a 20), ou -1 quando não houver nota.
+     */
+    static int bucketOf(Double rating) {
+        if (rating == null) {
+            return -1;
+        }
+        int bucket = (int) Math.round(rating * 2);
+        return Math.max(0, Math.min(UserMediaStats.HISTOGRAM_BUCKETS - 1, bucket));
+    }
+
+    private CatalogFacts loadCatalogFacts(Media media, String titleId) {
+        String runtime = media.runtimeColumn != null ? media.runtimeColumn : "NULL";
+        List<CatalogFacts> facts = jdbcTemplate.query(
+            "SELECT " + runtime + " AS runtime, genres FROM " + media.catalogTable + " WHERE " + media.titleColumn + " = ?",
+            (rs, rowNum) -> {
+                Array genres = rs.getArray("genres");
+                return new CatalogFacts(rs.getInt("runtime"), genres != null ? (String[]) genres.getArray() : new String[0]);
+            },
+            titleId);
+        return facts.isEmpty() ? UNKNOWN_TITLE : facts.get(0);
+    }
+
+    static void appendHistogramDelta(StringBuilder sql, List<Object> args, String histogramColumn, int bucket, int delta) {
+        if (bucket < 0) {
+            return;
+        }
+        String element = histogramColumn + "[" + (bucket + 1) + "]";
+        sql.append(", ").append(element).append(" = ").append(element).append(" + ?");
+        args.add(delta);
+    }
+
+    private static double valueOf(Double rating) {
+        return rating != null ? rating : 0.0;
+    }
+}
@@ -0,0 +1,86 @@
+package com.lucasm.lmsrating.service;
+
+import io.jsonwebtoken.Claims;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache limitado de claims já verificados, indexado pelo digest SHA-256 do token.
+ * Cada entrada expira junto com o claim `exp` do próprio token.
+ */
+class VerifiedClaimsCache {
+
+    private record Entry(Claims claims, long expiresAtMillis) {}
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final int maxEntries;
+
+    /**
+     * Cria o cache com o limite de entradas informado.
+     *
+     * @param maxEntries quantidade máxima de tokens mantidos em memória; `0` desabilita o cache.
+     */
+    VerifiedClaimsCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Retorna os claims verificados do token, caso estejam em cache e ainda não tenham expirado.
+     *
+     * @param key digest do token.
+     * @return claims em cache ou `null`.
+     */
+    Claims get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAtMillis() <= System.currentTimeMillis()) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.claims();
+    }
+
+    /**
+     * Armazena claims recém-verificados. Tokens sem `exp` não são cacheados.
+     * Ao atingir o limite, remove as entradas expiradas e, se ainda estiver cheio, reinicia o cache.
+     *
+     * @param key digest do token.
+     * @param claims claims verificados.
+     */
+    void put(String key, Claims claims) {
+        Date expiration = claims.getExpiration();
+        if (maxEntries <= 0 || expiration == null) {
+            return;
+        }
+        if (entries.size() >= maxEntries) {
+            long now = System.currentTimeMillis();
+            entries.values().removeIf(entry -> entry.expiresAtMillis() <= now);
+            if (entries.size() >= maxEntries) {
+                entries.clear();
+            }
+        }
+        entries.put(key, new Entry(claims, expiration.getTime()));
+    }
+
+    /**
+     * Calcula a chave do cache sem reter o token bruto em memória.
+     *
+     * @param token token JWT de origem.
+     * @return digest SHA-256 do token em Base64.
+     */
+    static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível na JVM", e);
+        }
+    }
+}
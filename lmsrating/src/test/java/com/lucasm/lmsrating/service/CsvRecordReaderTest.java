@@ -0,0 +1,63 @@
+package com.lucasm.lmsrating.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class CsvRecordReaderTest {
+
+    @Test
+    void readsPlainRecords() throws IOException {
+        assertEquals(List.of(List.of("a", "b", "c"), List.of("1", "2", "3")), readAll("a,b,c\n1,2,3\n"));
+    }
+
+    @Test
+    void keepsEmptyFields() throws IOException {
+        assertEquals(List.of(List.of("", "b", ""), List.of("")), readAll(",b,\n\n"));
+    }
+
+    @Test
+    void readsQuotedFieldsWithCommasAndEscapedQuotes() throws IOException {
+        List<List<String>> records = readAll("\"Crouching Tiger, Hidden Dragon\",\"He said \"\"hi\"\"\",2000\n");
+
+        assertEquals(List.of(List.of("Crouching Tiger, Hidden Dragon", "He said \"hi\"", "2000")), records);
+    }
+
+    @Test
+    void readsEmbeddedNewlinesInsideQuotes() throws IOException {
+        List<List<String>> records = readAll("\"linha 1\r\nlinha 2\",x\r\nnext,y\r\n");
+
+        assertEquals(List.of(List.of("linha 1\r\nlinha 2", "x"), List.of("next", "y")), records);
+    }
+
+    @Test
+    void acceptsCrLfLoneCrAndMissingFinalNewline() throws IOException {
+        assertEquals(List.of(List.of("a"), List.of("b"), List.of("c")), readAll("a\r\nb\rc"));
+    }
+
+    @Test
+    void closesUnterminatedQuoteAtEndOfFile() throws IOException {
+        assertEquals(List.of(List.of("a", "sem fim")), readAll("a,\"sem fim"));
+    }
+
+    @Test
+    void returnsNullForEmptyInput() throws IOException {
+        assertNull(new CsvRecordReader(new StringReader("")).next());
+    }
+
+    private static List<List<String>> readAll(String csv) throws IOException {
+        CsvRecordReader reader = new CsvRecordReader(new StringReader(csv));
+        List<List<String>> records = new ArrayList<>();
+        List<String> record;
+        while ((record = reader.next()) != null) {
+            records.add(record);
+        }
+        return records;
+    }
+}
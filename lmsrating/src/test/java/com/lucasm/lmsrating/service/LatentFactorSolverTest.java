@@ -0,0 +1,114 @@
+package com.lucasm.lmsrating.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class LatentFactorSolverTest {
+
+    private static final float TOLERANCE = 1e-5f;
+
+    // Linhas de Y: (1, 0), (0, 1), (1, 1)
+    private static final float[] FIXED = {1, 0, 0, 1, 1, 1};
+    private static final int[] INDICES = {0, 1, 2};
+
+    @Test
+    void solvesExactSystemWithoutRegularization() {
+        float[] target = new float[2];
+
+        new LatentFactorModel.Solver(2).solve(FIXED, INDICES, new float[] {1, 2, 3}, 0, 3, 0f, 0.0, target, 0);
+
+        assertArrayEquals(new float[] {1f, 2f}, target, TOLERANCE);
+    }
+
+    @Test
+    void appliesRegularizationWeightedByRatingCount() {
+        // (YᵀY + 0,5·3·I) = [[3,5 1] [1 3,5]], Yᵀr = (4, 5) → x = (0,8, 1,2)
+        float[] target = new float[2];
+
+        new LatentFactorModel.Solver(2).solve(FIXED, INDICES, new float[] {1, 2, 3}, 0, 3, 0f, 0.5, target, 0);
+
+        assertArrayEquals(new float[] {0.8f, 1.2f}, target, TOLERANCE);
+    }
+
+    @Test
+    void subtractsGlobalMean() {
+        float[] target = new float[2];
+
+        new LatentFactorModel.Solver(2).solve(FIXED, INDICES, new float[] {8, 9, 10}, 0, 3, 7f, 0.0, target, 0);
+
+        assertArrayEquals(new float[] {1f, 2f}, target, TOLERANCE);
+    }
+
+    @Test
+    void readsOnlyTheRangeAndWritesAtOffset() {
+        int[] indices = {9, 2, 0, 1, 9};
+        float[] values = {-50, 3, 1, 2, -50};
+        float[] target = {7, 7, 0, 0, 7};
+
+        new LatentFactorModel.Solver(2).solve(FIXED, indices, values, 1, 4, 0f, 0.0, target, 2);
+
+        assertArrayEquals(new float[] {7, 7, 1f, 2f, 7}, target, TOLERANCE);
+    }
+
+    @Test
+    void writesZerosWhenThereAreNoRatings() {
+        float[] target = {5, 5, 5, 5};
+
+        new LatentFactorModel.Solver(2).solve(FIXED, INDICES, new float[] {1, 2, 3}, 1, 1, 0f, 0.1, target, 1);
+
+        assertArrayEquals(new float[] {5, 0, 0, 5}, target, 0f);
+    }
+
+    @Test
+    void reusedSolverDoesNotLeakPreviousSystem() {
+        LatentFactorModel.Solver solver = new LatentFactorModel.Solver(2);
+        float[] first = new float[2];
+        float[] second = new float[2];
+
+        solver.solve(FIXED, INDICES, new float[] {4, -1, 0}, 0, 3, 0f, 0.2, first, 0);
+        solver.solve(FIXED, INDICES, new float[] {1, 2, 3}, 0, 3, 0f, 0.0, second, 0);
+
+        assertArrayEquals(new float[] {1f, 2f}, second, TOLERANCE);
+    }
+
+    @Test
+    void satisfiesNormalEquationsOnRandomSystem() {
+        int factors = 5;
+        int rows = 12;
+        double lambda = 0.1;
+        float mean = 6.5f;
+        Random random = new Random(11);
+        float[] fixed = new float[rows * factors];
+        int[] indices = new int[rows];
+        float[] values = new float[rows];
+        for (int k = 0; k < rows; k++) {
+            indices[k] = k;
+            values[k] = 1 + random.nextInt(10);
+            for (int i = 0; i < factors; i++) {
+                fixed[k * factors + i] = (float) random.nextGaussian() * 0.5f;
+            }
+        }
+        float[] x = new float[factors];
+
+        new LatentFactorModel.Solver(factors).solve(fixed, indices, values, 0, rows, mean, lambda, x, 0);
+
+        for (int i = 0; i < factors; i++) {
+            double lhs = lambda * rows * x[i];
+            double rhs = 0;
+            for (int k = 0; k < rows; k++) {
+                double yi = fixed[k * factors + i];
+                double dot = 0;
+                for (int j = 0; j < factors; j++) {
+                    dot += yi * fixed[k * factors + j] * x[j];
+                }
+                lhs += dot;
+                rhs += yi * (values[k] - mean);
+            }
+            assertEquals(rhs, lhs, 1e-4);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.lucasm.lmsrating.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class NeighborHeapTest {
+
+    @Test
+    void drainsInDescendingScoreOrder() {
+        NeighborHeap heap = new NeighborHeap(5);
+        float[] scores = {0.3f, 0.9f, 0.1f, 0.7f, 0.5f};
+        for (int i = 0; i < scores.length; i++) {
+            heap.offer(i, scores[i], i * 10);
+        }
+
+        Drained drained = drain(heap, 5);
+
+        assertEquals(5, drained.size);
+        assertArrayEquals(new int[] {1, 3, 4, 0, 2}, drained.items);
+        assertArrayEquals(new float[] {0.9f, 0.7f, 0.5f, 0.3f, 0.1f}, drained.scores);
+        assertArrayEquals(new int[] {10, 30, 40, 0, 20}, drained.common);
+    }
+
+    @Test
+    void keepsOnlyTheTopScoresWhenFull() {
+        NeighborHeap heap = new NeighborHeap(3);
+        for (int i = 0; i < 10; i++) {
+            heap.offer(i, i / 10f, i);
+        }
+
+        Drained drained = drain(heap, 3);
+
+        assertEquals(3, drained.size);
+        assertArrayEquals(new int[] {9, 8, 7}, drained.items);
+        assertArrayEquals(new float[] {0.9f, 0.8f, 0.7f}, drained.scores);
+    }
+
+    @Test
+    void keepsFirstCandidateOnTieAtTheThreshold() {
+        NeighborHeap heap = new NeighborHeap(2);
+        heap.offer(1, 0.5f, 1);
+        heap.offer(2, 0.8f, 1);
+        heap.offer(3, 0.5f, 1);
+
+        Drained drained = drain(heap, 2);
+
+        assertArrayEquals(new int[] {2, 1}, drained.items);
+        assertArrayEquals(new float[] {0.8f, 0.5f}, drained.scores);
+    }
+
+    @Test
+    void keepsAllTiedScoresThatFit() {
+        NeighborHeap heap = new NeighborHeap(4);
+        heap.offer(1, 0.5f, 1);
+        heap.offer(2, 0.5f, 2);
+        heap.offer(3, 0.9f, 3);
+        heap.offer(4, 0.5f, 4);
+
+        Drained drained = drain(heap, 4);
+
+        assertEquals(3, drained.items[0]);
+        int[] tied = Arrays.copyOfRange(drained.items, 1, 4);
+        Arrays.sort(tied);
+        assertArrayEquals(new int[] {1, 2, 4}, tied);
+        assertArrayEquals(new float[] {0.9f, 0.5f, 0.5f, 0.5f}, drained.scores);
+        for (int r = 0; r < 4; r++) {
+            assertEquals(drained.items[r], drained.common[r]);
+        }
+    }
+
+    @Test
+    void drainsPartiallyFilledHeapAtOffsetAndResets() {
+        NeighborHeap heap = new NeighborHeap(4);
+        heap.offer(7, 0.2f, 1);
+        heap.offer(8, 0.6f, 1);
+        int[] items = new int[8];
+        float[] scores = new float[8];
+        int[] common = new int[8];
+
+        int size = heap.drainDescending(items, scores, common, 4);
+
+        assertEquals(2, size);
+        assertArrayEquals(new int[] {0, 0, 0, 0, 8, 7, 0, 0}, items);
+        assertEquals(0, heap.drainDescending(items, scores, common, 0));
+        heap.offer(9, 0.1f, 1);
+        assertEquals(1, heap.drainDescending(items, scores, common, 0));
+        assertEquals(9, items[0]);
+    }
+
+    @Test
+    void matchesSortedTopKOnRandomInput() {
+        Random random = new Random(7);
+        int k = 16;
+        NeighborHeap heap = new NeighborHeap(k);
+        for (int round = 0; round < 50; round++) {
+            int n = random.nextInt(60);
+            float[] scores = new float[n];
+            for (int i = 0; i < n; i++) {
+                // Poucos valores distintos para forçar empates
+                scores[i] = random.nextInt(20) / 20f;
+                heap.offer(i, scores[i], 0);
+            }
+
+            Drained drained = drain(heap, k);
+
+            float[] expected = scores.clone();
+            Arrays.sort(expected);
+            int size = Math.min(k, n);
+            assertEquals(size, drained.size);
+            for (int r = 0; r < size; r++) {
+                assertEquals(expected[n - 1 - r], drained.scores[r]);
+                assertEquals(scores[drained.items[r]], drained.scores[r]);
+            }
+            assertEquals(size, Arrays.stream(drained.items, 0, size).distinct().count());
+        }
+    }
+
+    private static Drained drain(NeighborHeap heap, int k) {
+        Drained drained = new Drained(k);
+        drained.size = heap.drainDescending(drained.items, drained.scores, drained.common, 0);
+        return drained;
+    }
+
+    private static final class Drained {
+        final int[] items;
+        final float[] scores;
+        final int[] common;
+        int size;
+
+        Drained(int k) {
+            this.items = new int[k];
+            this.scores = new float[k];
+            this.common = new int[k];
+        }
+    }
+}
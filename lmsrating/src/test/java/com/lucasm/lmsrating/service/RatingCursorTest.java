@@ -0,0 +1,84 @@
+package com.lucasm.lmsrating.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class RatingCursorTest {
+
+    @Test
+    void roundTripsCursorWithCreatedAt() {
+        RatingCursor cursor = new RatingCursor(LocalDateTime.of(2024, 5, 17, 21, 3, 9, 120_000_000), 42L);
+
+        assertEquals(cursor, RatingCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void roundTripsCursorWithNullCreatedAt() {
+        RatingCursor cursor = new RatingCursor(null, 7L);
+
+        RatingCursor decoded = RatingCursor.decode(cursor.encode());
+
+        assertNull(decoded.createdAt());
+        assertEquals(7L, decoded.id());
+    }
+
+    @Test
+    void decodesMissingTokenAsFirstPage() {
+        assertNull(RatingCursor.decode(null));
+        assertNull(RatingCursor.decode(" "));
+    }
+
+    @Test
+    void rejectsMalformedTokens() {
+        assertThrows(IllegalArgumentException.class, () -> RatingCursor.decode("%%%"));
+        assertThrows(IllegalArgumentException.class, () -> RatingCursor.decode(encode("sem-separador")));
+        assertThrows(IllegalArgumentException.class, () -> RatingCursor.decode(encode("2024-13-40T00:00|1")));
+        assertThrows(IllegalArgumentException.class, () -> RatingCursor.decode(encode("|abc")));
+    }
+
+    @Test
+    void nullCreatedAtContinuesWithLowerIdsThenDatedRatings() {
+        StringBuilder sql = new StringBuilder("SELECT * FROM ratings_movies r WHERE r.user_id = ?");
+        List<Object> args = new ArrayList<>(List.of(1L));
+
+        new RatingCursor(null, 15L).appendAfter(sql, args);
+
+        assertEquals("SELECT * FROM ratings_movies r WHERE r.user_id = ? AND (r.created_at IS NOT NULL OR r.id < ?)",
+                sql.toString());
+        assertEquals(List.of(1L, 15L), args);
+    }
+
+    @Test
+    void datedCursorBreaksTiesById() {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 12, 0);
+        StringBuilder sql = new StringBuilder("SELECT * FROM ratings_movies r WHERE r.user_id = ?");
+        List<Object> args = new ArrayList<>(List.of(1L));
+
+        new RatingCursor(createdAt, 15L).appendAfter(sql, args);
+
+        assertEquals("SELECT * FROM ratings_movies r WHERE r.user_id = ? AND (r.created_at, r.id) < (?, ?)",
+                sql.toString());
+        assertEquals(List.of(1L, createdAt, 15L), args);
+    }
+
+    @Test
+    void clampsPageSize() {
+        assertEquals(1, RatingCursor.clampSize(0));
+        assertEquals(1, RatingCursor.clampSize(-5));
+        assertEquals(20, RatingCursor.clampSize(20));
+        assertEquals(RatingCursor.MAX_PAGE_SIZE, RatingCursor.clampSize(10_000));
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
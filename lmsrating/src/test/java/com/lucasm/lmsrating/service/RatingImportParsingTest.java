@@ -0,0 +1,101 @@
+package com.lucasm.lmsrating.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class RatingImportParsingTest {
+
+    private static final Map<String, Integer> LETTERBOXD = RatingImportService.header(
+            List.of("\uFEFFDate", "Name", "Year", "Letterboxd URI", "Rating"));
+
+    private static final Map<String, Integer> IMDB = RatingImportService.header(
+            List.of("Const", "Your Rating", "Date Rated", "Title", "URL", "Title Type", "IMDb Rating", "Runtime (mins)", "Year"));
+
+    @Test
+    void headerIgnoresBomCaseAndWhitespace() {
+        Map<String, Integer> columns = RatingImportService.header(List.of("\uFEFF Date ", "NAME", "name"));
+
+        assertEquals(Map.of("date", 0, "name", 1), columns);
+    }
+
+    @Test
+    void headerIsRequired() {
+        assertThrows(IllegalArgumentException.class, () -> RatingImportService.header(null));
+    }
+
+    @Test
+    void parsesLetterboxdStarsOnTheTenPointScale() {
+        RatingImportService.ImportRow row = RatingImportService.parseLetterboxd(LETTERBOXD,
+                List.of("2023-04-01", "Parasite", "2019", "https://boxd.it/abc", "4.5"));
+
+        assertNull(row.imdbId());
+        assertEquals("Parasite", row.title());
+        assertEquals(2019, row.year());
+        assertEquals(9.0, row.rating(), 0.0);
+        assertEquals(LocalDateTime.of(2023, 4, 1, 0, 0), row.ratedAt());
+    }
+
+    @Test
+    void parsesLetterboxdDecimalComma() {
+        RatingImportService.ImportRow row = RatingImportService.parseLetterboxd(LETTERBOXD,
+                List.of("2023-04-01", "Amélie", "", "", "3,5"));
+
+        assertEquals(7.0, row.rating(), 0.0);
+        assertNull(row.year());
+    }
+
+    @Test
+    void skipsLetterboxdRowsWithoutRating() {
+        assertNull(RatingImportService.parseLetterboxd(LETTERBOXD, List.of("2023-04-01", "Watched only", "2020", "", "")));
+        assertNull(RatingImportService.parseLetterboxd(LETTERBOXD, List.of("2023-04-01", "Short row")));
+    }
+
+    @Test
+    void rejectsLetterboxdFileWithoutRequiredColumns() {
+        Map<String, Integer> columns = RatingImportService.header(List.of("Date", "Name", "Year"));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> RatingImportService.parseLetterboxd(columns, List.of("2023-04-01", "Parasite", "2019")));
+    }
+
+    @Test
+    void parsesImdbMovies() {
+        RatingImportService.ImportRow row = RatingImportService.parseImdb(IMDB,
+                List.of("tt6751668", "10", "2021-11-20", "Parasite", "", "Movie", "8.5", "132", "2019"));
+
+        assertEquals("tt6751668", row.imdbId());
+        assertEquals("Parasite", row.title());
+        assertEquals(2019, row.year());
+        assertEquals(10.0, row.rating(), 0.0);
+        assertEquals(LocalDateTime.of(2021, 11, 20, 0, 0), row.ratedAt());
+    }
+
+    @Test
+    void acceptsImdbTvMoviesAndVideos() {
+        assertEquals("tt1", RatingImportService.parseImdb(IMDB,
+                List.of("tt1", "7", "2021-11-20", "A", "", "TV Movie", "", "", "2001")).imdbId());
+        assertEquals("tt2", RatingImportService.parseImdb(IMDB,
+                List.of("tt2", "7", "2021-11-20", "B", "", "video", "", "", "2001")).imdbId());
+    }
+
+    @Test
+    void skipsImdbSeriesAndEpisodes() {
+        assertNull(RatingImportService.parseImdb(IMDB,
+                List.of("tt0903747", "10", "2021-11-20", "Breaking Bad", "", "TV Series", "", "", "2008")));
+        assertNull(RatingImportService.parseImdb(IMDB,
+                List.of("tt0959621", "9", "2021-11-20", "Pilot", "", "TV Episode", "", "", "2008")));
+    }
+
+    @Test
+    void skipsImdbRowsWithoutRating() {
+        assertNull(RatingImportService.parseImdb(IMDB,
+                List.of("tt1", "", "2021-11-20", "A", "", "Movie", "", "", "2001")));
+    }
+}
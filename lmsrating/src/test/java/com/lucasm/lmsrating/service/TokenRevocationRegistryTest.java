@@ -0,0 +1,75 @@
+package com.lucasm.lmsrating.service;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class TokenRevocationRegistryTest {
+
+    private static final long NOT_BEFORE = 1_700_000_000_500L;
+    private static final long EXPIRES_AT = Long.MAX_VALUE;
+
+    private static TokenRevocationRegistry registryWithCutoff(long userId, long notBefore) {
+        // O Redis só é usado na carga inicial
+        TokenRevocationRegistry registry = new TokenRevocationRegistry(null, 1024);
+        registry.apply("user|" + userId + "|" + notBefore + "|" + EXPIRES_AT);
+        return registry;
+    }
+
+    @Test
+    void rejectsTokenIssuedBeforeCutoff() {
+        TokenRevocationRegistry registry = registryWithCutoff(7L, NOT_BEFORE);
+
+        assertTrue(registry.isRevoked("jti-1", 7L, NOT_BEFORE - 60_000L));
+    }
+
+    @Test
+    void rejectsTokenIssuedExactlyAtCutoff() {
+        TokenRevocationRegistry registry = registryWithCutoff(7L, NOT_BEFORE);
+
+        assertTrue(registry.isRevoked("jti-1", 7L, NOT_BEFORE));
+    }
+
+    @Test
+    void rejectsTokenIssuedInTheSameSecondAsCutoff() {
+        // `iat` tem precisão de segundos: o token chega truncado para o início do segundo da revogação
+        TokenRevocationRegistry registry = registryWithCutoff(7L, NOT_BEFORE);
+
+        assertTrue(registry.isRevoked("jti-1", 7L, NOT_BEFORE / 1000 * 1000));
+    }
+
+    @Test
+    void acceptsTokenIssuedAfterCutoff() {
+        TokenRevocationRegistry registry = registryWithCutoff(7L, NOT_BEFORE);
+
+        assertFalse(registry.isRevoked("jti-1", 7L, NOT_BEFORE + 1));
+        assertFalse(registry.isRevoked("jti-1", 7L, (NOT_BEFORE / 1000 + 1) * 1000));
+    }
+
+    @Test
+    void ignoresCutoffOfOtherUsers() {
+        TokenRevocationRegistry registry = registryWithCutoff(7L, NOT_BEFORE);
+
+        assertFalse(registry.isRevoked("jti-1", 8L, NOT_BEFORE - 60_000L));
+        assertFalse(registry.isRevoked("jti-1", null, NOT_BEFORE - 60_000L));
+    }
+
+    @Test
+    void keepsTheLatestCutoffRegardlessOfArrivalOrder() {
+        TokenRevocationRegistry registry = registryWithCutoff(7L, NOT_BEFORE);
+        registry.apply("user|7|" + (NOT_BEFORE - 10_000L) + "|" + EXPIRES_AT);
+
+        assertTrue(registry.isRevoked("jti-1", 7L, NOT_BEFORE - 5_000L));
+    }
+
+    @Test
+    void rejectsIndividuallyRevokedToken() {
+        TokenRevocationRegistry registry = new TokenRevocationRegistry(null, 1024);
+        registry.apply("token|jti-1|" + EXPIRES_AT);
+
+        assertTrue(registry.isRevoked("jti-1", null, NOT_BEFORE));
+        assertFalse(registry.isRevoked("jti-2", null, NOT_BEFORE));
+        assertFalse(registry.isRevoked(null, null, NOT_BEFORE));
+    }
+}